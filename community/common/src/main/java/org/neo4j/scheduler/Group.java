@@ -34,12 +34,16 @@ public enum Group
     PAGE_CACHE_EVICTION( "PageCacheEviction" ),
     /* Page cache background eviction. */
     PAGE_CACHE_PRE_FETCHER( "PageCachePreFetcher", ExecutorServiceFactory.cachedWithDiscard() ),
+    /* Page cache warmup from profiles, and periodic profiling of the page cache contents. */
+    PAGE_CACHE_WARMER( "PageCacheWarmer" ),
     /** Watch out for, and report, external manipulation of store files. */
     FILE_WATCHER( "FileWatcher" ),
     /** Monitor and report system-wide pauses, in case they lead to service interruption. */
     VM_PAUSE_MONITOR( "VmPauseMonitor" ),
     /** Rotates diagnostic text logs. */
     LOG_ROTATION( "LogRotation" ),
+    /** Applies recovered transactions in parallel during recovery. */
+    RECOVERY_APPLY( "RecoveryApply" ),
     /** Checkpoint and store flush. */
     CHECKPOINT( "CheckPoint" ),
     /** Various little periodic tasks that need to be done on a regular basis to keep the store in good shape. */
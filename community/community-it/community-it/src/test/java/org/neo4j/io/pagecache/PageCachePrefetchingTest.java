@@ -27,6 +27,7 @@ import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -43,7 +44,11 @@ import org.neo4j.test.rule.TestDirectory;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.test.assertion.Assert.assertEventually;
 
 @PageCacheExtension
 class PageCachePrefetchingTest
@@ -111,6 +116,42 @@ class PageCachePrefetchingTest
         assertThat( faultsWithPreFetch ).as( "faults" ).isLessThan( faultsWithoutPreFetch );
     }
 
+    @Test
+    void prefetchHintsMustFaultInHintedPagesInTheBackground() throws Exception
+    {
+        scanner = cursor -> cursor.putLong( cursor.getCurrentPageId() );
+        runScan( file, tracer, "Writer", 0 );
+
+        long[] hints = {4000, 17, 3, 5_999, -1, 100_000};
+        try ( PagedFile pagedFile = pageCache.map( file, PageCache.PAGE_SIZE, immutable.of( StandardOpenOption.READ, StandardOpenOption.WRITE ) ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                cursor.prefetch( hints, 4 );
+            }
+            for ( int i = 0; i < 4; i++ )
+            {
+                long pageId = hints[i];
+                assertEventually( () -> isInMemory( pagedFile, pageId ), inMemory -> inMemory, 1, TimeUnit.MINUTES );
+            }
+            assertThat( isInMemory( pagedFile, 1 ) ).isFalse();
+
+            // Out of range hints are ignored.
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                cursor.prefetch( hints, hints.length );
+            }
+        }
+    }
+
+    private static boolean isInMemory( PagedFile pagedFile, long pageId ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+        {
+            return cursor.next() && cursor.getCurrentPageId() == pageId;
+        }
+    }
+
     private long runScan( Path file, DefaultPageCursorTracer tracer, String threadName, int additionalPfFlags ) throws InterruptedException
     {
         long faultsWith;
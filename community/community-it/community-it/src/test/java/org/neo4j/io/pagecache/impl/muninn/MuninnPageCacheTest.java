@@ -21,10 +21,12 @@ package org.neo4j.io.pagecache.impl.muninn;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -36,12 +38,15 @@ import java.util.concurrent.Future;
 import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 
+import org.neo4j.internal.nativeimpl.AbsentNativeAccess;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.IOUtils;
 import org.neo4j.io.fs.DelegatingFileSystemAbstraction;
 import org.neo4j.io.fs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.DelegatingPageSwapper;
 import org.neo4j.io.pagecache.IOLimiter;
@@ -59,23 +64,30 @@ import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContext;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
+import org.neo4j.time.Clocks;
 
 import static java.time.Duration.ofMillis;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_flush_buffer_size_in_pages;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.HIGH_PRIORITY;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.LOW_PRIORITY;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
@@ -352,17 +364,245 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void flushContiguousDirtyPagesAcrossChunkBoundaryWithSingleWrite() throws IOException
+    {
+        assumeTrue( DISABLED_BUFFER_FACTORY.equals( fixture.getBufferFactory() ) );
+        DefaultPageCacheTracer pageCacheTracer = new DefaultPageCacheTracer();
+        int chunkSize = 4096;
+        int filePageSize = (int) ByteUnit.kibiBytes( 8 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, chunkSize + 10, pageCacheTracer );
+                PagedFile pagedFile = map( pageCache, file( "a" ), filePageSize ) )
+        {
+            for ( int pageId = chunkSize - 5; pageId < chunkSize + 5; pageId++ )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 1 );
+                }
+            }
+            long initialWrites = pageCacheTracer.writes();
+            long initialFlushes = pageCacheTracer.flushes();
+            pagedFile.flushAndForce();
+
+            assertThat( pageCacheTracer.flushes() - initialFlushes ).isEqualTo( 10 );
+            assertThat( pageCacheTracer.writes() - initialWrites ).isEqualTo( 1 );
+            assertThat( pageCacheTracer.averageWriteSize() ).isEqualTo( 10d * filePageSize );
+        }
+    }
+
+    @Test
+    void optimisticReadRetriesMustBeCountedPerFileAndReportedToTracer() throws IOException
+    {
+        DefaultPageCacheTracer pageCacheTracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 10, pageCacheTracer );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor writer = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                assertTrue( writer.next() );
+                writer.putLong( 1 );
+            }
+            try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( "optimisticReadRetries" );
+                    PageCursor reader = pagedFile.io( 0, PF_SHARED_READ_LOCK, cursorTracer ) )
+            {
+                assertTrue( reader.next() );
+                reader.getLong();
+                // A write to the page invalidates the optimistic read lock of the reader.
+                try ( PageCursor writer = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    assertTrue( writer.next() );
+                    writer.putLong( 2 );
+                }
+                assertTrue( reader.shouldRetry() );
+                assertEquals( 2, reader.getLong() );
+                assertFalse( reader.shouldRetry() );
+            }
+
+            assertThat( pageCacheTracer.optimisticReadRetries() ).isEqualTo( 1 );
+            assertThat( pageCacheTracer.exclusiveLockWaits() ).isZero();
+            List<PagedFileStatistics> statistics = pageCache.pagedFileStatistics();
+            assertThat( statistics ).hasSize( 1 );
+            assertThat( statistics.get( 0 ).path() ).isEqualTo( pagedFile.path() );
+            assertThat( statistics.get( 0 ).optimisticReadRetries() ).isEqualTo( 1 );
+            assertThat( statistics.get( 0 ).exclusiveLockWaits() ).isZero();
+        }
+    }
+
+    @Test
+    void highPriorityPagesMustStayInMemoryWhileOtherFilesAreScanned() throws IOException
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, PageCacheTracer.NULL );
+                PagedFile hot = map( pageCache, existingFile( "hot" ), 8, immutable.of( HIGH_PRIORITY ) );
+                PagedFile cold = map( pageCache, existingFile( "cold" ), 8 ) )
+        {
+            try ( PageCursor cursor = hot.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < 5; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            try ( PageCursor cursor = cold.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < 200; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+
+            try ( PageCursor cursor = hot.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+            {
+                for ( int i = 0; i < 5; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong();
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( i, value, "page " + i + " of the high priority file was evicted" );
+                }
+            }
+        }
+    }
+
+    @Test
+    void mustNotMapFileWithBothHighAndLowPriority()
+    {
+        assertThrows( IllegalArgumentException.class, () ->
+        {
+            try ( MuninnPageCache pageCache = createPageCache( fs, 40, PageCacheTracer.NULL );
+                    PagedFile ignore = map( pageCache, file( "a" ), 8, immutable.of( HIGH_PRIORITY, LOW_PRIORITY ) ) )
+            {
+                fail( "Should not be able to map a file with conflicting priorities" );
+            }
+        } );
+    }
+
+    @Test
+    void numaAwarePageCacheMustPreferPagesOfTheLocalNode( @TempDir Path nodesDirectory ) throws IOException
+    {
+        Files.writeString( Files.createDirectory( nodesDirectory.resolve( "node0" ) ).resolve( "cpulist" ), "0" );
+        Files.writeString( Files.createDirectory( nodesDirectory.resolve( "node1" ) ).resolve( "cpulist" ), "1" );
+        NumaTopology topology = NumaTopology.readTopology( nodesDirectory, new AbsentNativeAccess()
+        {
+            @Override
+            public int getCurrentCpu()
+            {
+                return 1;
+            }
+        } );
+        int maxPages = 4096;
+        var memoryAllocator = MemoryAllocator.createAllocator( MuninnPageCache.memoryRequiredForPages( maxPages ), INSTANCE );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), memoryAllocator, PageCacheTracer.NULL, EMPTY,
+                jobScheduler, Clocks.nanoClock(), INSTANCE, DISABLED_BUFFER_FACTORY, EvictionPolicyType.CLOCK, topology );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            for ( int pass = 0; pass < 2; pass++ )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    for ( int i = 0; i < 10; i++ )
+                    {
+                        assertTrue( cursor.next() );
+                        assertThat( pageCache.pages.toId( ((MuninnPageCursor) cursor).pinnedPageRef ) ).isGreaterThanOrEqualTo( maxPages / 2 );
+                    }
+                }
+            }
+
+            List<NumaNodeStatistics> statistics = pageCache.numaNodeStatistics();
+            assertThat( statistics ).hasSize( 2 );
+            assertThat( statistics.get( 0 ).pages() ).isEqualTo( maxPages / 2 );
+            assertThat( statistics.get( 0 ).hits() ).isZero();
+            assertThat( statistics.get( 0 ).localFaults() + statistics.get( 0 ).remoteFaults() ).isZero();
+            assertThat( statistics.get( 1 ).pages() ).isEqualTo( maxPages / 2 );
+            assertThat( statistics.get( 1 ).localFaults() ).isEqualTo( 10 );
+            assertThat( statistics.get( 1 ).remoteFaults() ).isZero();
+            assertThat( statistics.get( 1 ).hits() ).isEqualTo( 10 );
+        }
+    }
+
+    @Test
+    void numaAwarePageCacheMustAllocateBuffersFromTheNodeThatOwnsThePage( @TempDir Path nodesDirectory ) throws IOException
+    {
+        Files.writeString( Files.createDirectory( nodesDirectory.resolve( "node0" ) ).resolve( "cpulist" ), "0" );
+        Files.writeString( Files.createDirectory( nodesDirectory.resolve( "node1" ) ).resolve( "cpulist" ), "1" );
+        NumaTopology topology = NumaTopology.readTopology( nodesDirectory, new AbsentNativeAccess()
+        {
+            @Override
+            public int getCurrentCpu()
+            {
+                return 1;
+            }
+        } );
+        int maxPages = 4096;
+        var delegate = MemoryAllocator.createAllocator( MuninnPageCache.memoryRequiredForPages( maxPages ), INSTANCE );
+        var bufferNodes = new ArrayList<Integer>();
+        var memoryAllocator = new MemoryAllocator()
+        {
+            @Override
+            public long usedMemory()
+            {
+                return delegate.usedMemory();
+            }
+
+            @Override
+            public long availableMemory()
+            {
+                return delegate.availableMemory();
+            }
+
+            @Override
+            public long allocateAligned( long bytes, long alignment )
+            {
+                return delegate.allocateAligned( bytes, alignment );
+            }
+
+            @Override
+            public long allocateAligned( long bytes, long alignment, int numaNode )
+            {
+                bufferNodes.add( numaNode );
+                return delegate.allocateAligned( bytes, alignment );
+            }
+
+            @Override
+            public void close()
+            {
+                delegate.close();
+            }
+        };
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs ), memoryAllocator, PageCacheTracer.NULL, EMPTY,
+                jobScheduler, Clocks.nanoClock(), INSTANCE, DISABLED_BUFFER_FACTORY, EvictionPolicyType.CLOCK, topology );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 );
+                PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( int i = 0; i < 10; i++ )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+
+        // The faulting thread runs on node 1, so all the faulted pages belong to node 1, and their buffers are allocated from there.
+        assertThat( bufferNodes ).hasSize( 10 ).containsOnly( 1 );
+    }
+
     @Test
     void flushFilwWithSeveralChunks() throws IOException
     {
         assumeFalse( DISABLED_BUFFER_FACTORY.equals( fixture.getBufferFactory() ) );
         var pageCacheTracer = new FlushInfoTracer();
-        int maxPages = 4096 /* chunk size*/ + 10;
+        int filePages = 4096 /* chunk size*/ + 10;
         PageSwapperFactory swapperFactory = new MultiChunkSwapperFilePageSwapperFactory();
-        try ( MuninnPageCache pageCache = createPageCache( swapperFactory, maxPages, pageCacheTracer, EMPTY );
+        // Leave room for all the pages, since evicted pages would shift where the run of dirty pages is cut into writes.
+        try ( MuninnPageCache pageCache = createPageCache( swapperFactory, filePages * 2, pageCacheTracer, EMPTY );
                 PagedFile pagedFile = map( pageCache, file( "a" ), (int) ByteUnit.kibiBytes( 8 ) ) )
         {
-            for ( int pageId = 0; pageId < maxPages; pageId++ )
+            for ( int pageId = 0; pageId < filePages; pageId++ )
             {
                 try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK, NULL ) )
                 {
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.DummyPageSwapper;
+import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.ByteUnit.MebiByte;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+class ScanResistantEvictionPolicyTest
+{
+    private static final int PAGE_COUNT = 16;
+    private static final int ALIGNMENT = 8;
+
+    private final DummyPageSwapper swapper = new DummyPageSwapper( "file", UnsafeUtil.pageSize() );
+    private DefaultPageCacheTracer tracer;
+    private MemoryAllocator mman;
+    private SwapperSet swappers;
+    private PageList pageList;
+    private int swapperId;
+
+    @BeforeEach
+    void setUp()
+    {
+        tracer = new DefaultPageCacheTracer();
+        mman = MemoryAllocator.createAllocator( MebiByte.toBytes( 1 ), INSTANCE );
+        swappers = new SwapperSet();
+        swapperId = swappers.allocate( swapper );
+        int pageSize = UnsafeUtil.pageSize();
+        long victimPage = VictimPageReference.getVictimPage( pageSize, INSTANCE );
+        EvictionPolicy policy = EvictionPolicyType.SCAN_RESISTANT.createPolicy( PAGE_COUNT, tracer );
+        pageList = new PageList( PAGE_COUNT, pageSize, mman, swappers, victimPage, ALIGNMENT, policy );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        mman.close();
+    }
+
+    @Test
+    void pageThatWasOnlyFaultedInIsEvictionCandidate() throws IOException
+    {
+        long pageRef = faultAndPin( 0, 42 );
+
+        assertTrue( pageList.isEvictionCandidate( pageRef, 0 ) );
+    }
+
+    @Test
+    void pageThatWasPinnedAgainMustNotBeEvictionCandidate() throws IOException
+    {
+        long pageRef = faultAndPin( 0, 42 );
+        pageList.incrementUsage( pageRef );
+
+        assertFalse( pageList.isEvictionCandidate( pageRef, 0 ) );
+        assertFalse( pageList.isEvictionCandidate( pageRef, 0 ) );
+        assertFalse( pageList.isEvictionCandidate( pageRef, 0 ) );
+        assertThat( pageList.getUsageCounter( pageRef ) ).isEqualTo( (byte) 2 );
+    }
+
+    @Test
+    void hotPagesMustBeAgedWhenSweepOnlyFindsHotPages() throws IOException
+    {
+        long pageRef = faultAndPin( 0, 42 );
+        pageList.incrementUsage( pageRef );
+
+        assertFalse( pageList.isEvictionCandidate( pageRef, Integer.MAX_VALUE ) );
+        assertThat( pageList.getUsageCounter( pageRef ) ).isEqualTo( (byte) 1 );
+        assertTrue( pageList.isEvictionCandidate( pageRef, 0 ) );
+    }
+
+    @Test
+    void pageFaultedBackInAfterEvictionMustBeAdmittedAsHot() throws IOException
+    {
+        long pageRef = faultAndPin( 0, 42 );
+        assertTrue( pageList.isEvictionCandidate( pageRef, 0 ) );
+        assertTrue( pageList.tryEvict( pageRef, EvictionRunEvent.NULL ) );
+        assertThat( tracer.refaults() ).isZero();
+
+        long otherPageRef = faultAndPin( 1, 42 );
+
+        assertThat( tracer.refaults() ).isEqualTo( 1 );
+        assertFalse( pageList.isEvictionCandidate( otherPageRef, 0 ) );
+    }
+
+    @Test
+    void pagesThatWereNeverEvictedMustNotCountAsRefaults() throws IOException
+    {
+        for ( int i = 0; i < PAGE_COUNT; i++ )
+        {
+            long pageRef = faultAndPin( i, i );
+            assertTrue( pageList.isEvictionCandidate( pageRef, 0 ) );
+        }
+        assertThat( tracer.refaults() ).isZero();
+    }
+
+    private long faultAndPin( int pageId, long filePageId ) throws IOException
+    {
+        long pageRef = pageList.deref( pageId );
+        // Pages in a new page list, as well as evicted pages, are exclusively locked.
+        pageList.initBuffer( pageRef );
+        pageList.fault( pageRef, swapper, swapperId, filePageId, PageFaultEvent.NULL );
+        pageList.unlockExclusive( pageRef );
+        pageList.incrementUsage( pageRef );
+        return pageRef;
+    }
+}
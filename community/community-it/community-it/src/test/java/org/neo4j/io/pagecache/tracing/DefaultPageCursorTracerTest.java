@@ -263,6 +263,19 @@ class DefaultPageCursorTracerTest
         assertEquals( 3.0 / 7, cacheTracer.hitRatio(), 0.0001 );
     }
 
+    @Test
+    void reportFaultLatenciesOnlyWhenEnabled()
+    {
+        pinFaultAndHit();
+        assertEquals( 0, sum( cacheTracer.faultLatencyHistogram() ) );
+
+        cacheTracer.enableFaultLatencyTracing();
+        pageCursorTracer = createTracer();
+        pinFaultAndHit();
+        pinFaultAndHit();
+        assertEquals( 2, sum( cacheTracer.faultLatencyHistogram() ) );
+    }
+
     @Test
     void pageCursorTracerHasDefinedTag()
     {
@@ -293,6 +306,16 @@ class DefaultPageCursorTracerTest
         pinEvent.done();
     }
 
+    private static long sum( long[] histogram )
+    {
+        long sum = 0;
+        for ( long count : histogram )
+        {
+            sum += count;
+        }
+        return sum;
+    }
+
     private PageCursorTracer createTracer()
     {
         return new DefaultPageCursorTracer( cacheTracer, TEST_TRACER );
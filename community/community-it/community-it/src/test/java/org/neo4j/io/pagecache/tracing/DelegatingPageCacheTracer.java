@@ -116,6 +116,42 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public long refaults()
+    {
+        return delegate.refaults();
+    }
+
+    @Override
+    public long writes()
+    {
+        return delegate.writes();
+    }
+
+    @Override
+    public double averageWriteSize()
+    {
+        return delegate.averageWriteSize();
+    }
+
+    @Override
+    public long optimisticReadRetries()
+    {
+        return delegate.optimisticReadRetries();
+    }
+
+    @Override
+    public long exclusiveLockWaits()
+    {
+        return delegate.exclusiveLockWaits();
+    }
+
+    @Override
+    public long[] faultLatencyHistogram()
+    {
+        return delegate.faultLatencyHistogram();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -170,6 +206,48 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.evictionExceptions( evictionExceptions );
     }
 
+    @Override
+    public void refaults( long refaults )
+    {
+        delegate.refaults( refaults );
+    }
+
+    @Override
+    public void writes( long writes )
+    {
+        delegate.writes( writes );
+    }
+
+    @Override
+    public void optimisticReadRetries( long retries )
+    {
+        delegate.optimisticReadRetries( retries );
+    }
+
+    @Override
+    public void exclusiveLockWaits( long waits )
+    {
+        delegate.exclusiveLockWaits( waits );
+    }
+
+    @Override
+    public void faultLatency( long latencyNanos )
+    {
+        delegate.faultLatency( latencyNanos );
+    }
+
+    @Override
+    public void enableFaultLatencyTracing()
+    {
+        delegate.enableFaultLatencyTracing();
+    }
+
+    @Override
+    public boolean isFaultLatencyTracingEnabled()
+    {
+        return delegate.isFaultLatencyTracingEnabled();
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
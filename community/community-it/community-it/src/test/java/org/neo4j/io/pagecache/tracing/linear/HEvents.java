@@ -286,6 +286,16 @@ class HEvents
         {
         }
 
+        @Override
+        public void optimisticReadRetry()
+        {
+        }
+
+        @Override
+        public void exclusiveLockWait()
+        {
+        }
+
         @Override
         public void done()
         {
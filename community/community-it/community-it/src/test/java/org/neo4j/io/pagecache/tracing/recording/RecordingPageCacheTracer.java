@@ -162,6 +162,42 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long refaults()
+    {
+        return 0;
+    }
+
+    @Override
+    public long writes()
+    {
+        return 0;
+    }
+
+    @Override
+    public long optimisticReadRetries()
+    {
+        return 0;
+    }
+
+    @Override
+    public long exclusiveLockWaits()
+    {
+        return 0;
+    }
+
+    @Override
+    public double averageWriteSize()
+    {
+        return 0;
+    }
+
+    @Override
+    public long[] faultLatencyHistogram()
+    {
+        return new long[0];
+    }
+
     @Override
     public double hitRatio()
     {
@@ -212,6 +248,42 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void refaults( long refaults )
+    {
+    }
+
+    @Override
+    public void writes( long writes )
+    {
+    }
+
+    @Override
+    public void optimisticReadRetries( long retries )
+    {
+    }
+
+    @Override
+    public void exclusiveLockWaits( long waits )
+    {
+    }
+
+    @Override
+    public void faultLatency( long latencyNanos )
+    {
+    }
+
+    @Override
+    public void enableFaultLatencyTracing()
+    {
+    }
+
+    @Override
+    public boolean isFaultLatencyTracingEnabled()
+    {
+        return false;
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -174,6 +174,16 @@ public class RecordingPageCursorTracer extends RecordingTracer implements PageCu
             {
             }
 
+            @Override
+            public void optimisticReadRetry()
+            {
+            }
+
+            @Override
+            public void exclusiveLockWait()
+            {
+            }
+
             @Override
             public void done()
             {
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.helpers.collection.Iterators;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.monitoring.DatabaseHealth;
+import org.neo4j.test.Race;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.ImpermanentDbmsExtension;
+import org.neo4j.test.extension.Inject;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.test.Race.throwing;
+
+@ImpermanentDbmsExtension( configurationCallback = "configure" )
+class GroupStoreApplyIT
+{
+    private static final int THREADS = 8;
+    private static final int TRANSACTIONS_PER_THREAD = 200;
+    private static final Label LABEL = Label.label( "Label" );
+    private static final String KEY = "id";
+
+    @Inject
+    private GraphDatabaseAPI db;
+    @Inject
+    private DatabaseHealth databaseHealth;
+
+    @ExtensionCallback
+    static void configure( TestDatabaseManagementServiceBuilder builder )
+    {
+        builder.setConfig( GraphDatabaseInternalSettings.transaction_group_store_apply, true );
+    }
+
+    @Test
+    void shouldApplyAllTransactionsCommittedConcurrently() throws Throwable
+    {
+        // GIVEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().indexFor( LABEL ).on( KEY ).create();
+            tx.commit();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 10, MINUTES );
+            tx.commit();
+        }
+
+        // WHEN
+        Race race = new Race();
+        race.addContestants( THREADS, thread -> throwing( () ->
+        {
+            for ( int i = 0; i < TRANSACTIONS_PER_THREAD; i++ )
+            {
+                try ( Transaction tx = db.beginTx() )
+                {
+                    Node node = tx.createNode( LABEL );
+                    node.setProperty( KEY, thread * TRANSACTIONS_PER_THREAD + i );
+                    tx.commit();
+                }
+            }
+        } ), 1 );
+        race.go();
+
+        // THEN
+        assertTrue( databaseHealth.isHealthy() );
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( THREADS * TRANSACTIONS_PER_THREAD, Iterators.count( tx.findNodes( LABEL ) ) );
+            for ( int id = 0; id < THREADS * TRANSACTIONS_PER_THREAD; id++ )
+            {
+                assertNotNull( tx.findNode( LABEL, KEY, id ), "Node with id " + id + " not found through index" );
+            }
+            tx.commit();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.internal.schema.IndexOrder;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.constrained;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unorderedValues;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.kernel.impl.newapi.TestUtils.assertDistinct;
+import static org.neo4j.kernel.impl.newapi.TestUtils.concat;
+
+public abstract class ParallelNodeIndexScanTestBase<G extends KernelAPIReadTestSupport> extends KernelAPIReadTestBase<G>
+{
+    private static final int NUMBER_OF_NODES = 10_000;
+    private static final int NUMBER_OF_PARTITIONS = 8;
+    private static final String PROP_INDEX_NAME = "nodeProp";
+    private static LongSet NODES;
+
+    @Override
+    public void createTestGraph( GraphDatabaseService graphDb )
+    {
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().indexFor( label( "Node" ) ).on( "prop" ).withName( PROP_INDEX_NAME ).create();
+            tx.commit();
+        }
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 5, MINUTES );
+            tx.commit();
+        }
+        MutableLongSet nodes = LongSets.mutable.empty();
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( int i = 0; i < NUMBER_OF_NODES; i++ )
+            {
+                Node node = tx.createNode( label( "Node" ) );
+                node.setProperty( "prop", i );
+                nodes.add( node.getId() );
+            }
+            tx.commit();
+        }
+        NODES = nodes;
+    }
+
+    @Test
+    void shouldScanAllNodesInPartitions() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( NULL ) )
+        {
+            // when
+            PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, NUMBER_OF_PARTITIONS, unconstrained() );
+            List<LongList> partitions = new ArrayList<>();
+            while ( scan.reservePartition( nodes, NULL ) )
+            {
+                MutableLongList ids = LongLists.mutable.empty();
+                while ( nodes.next() )
+                {
+                    ids.add( nodes.nodeReference() );
+                }
+                partitions.add( ids );
+            }
+
+            // then
+            assertThat( scan.getNumberOfPartitions() ).isGreaterThan( 1 ).isLessThanOrEqualTo( NUMBER_OF_PARTITIONS );
+            assertEquals( scan.getNumberOfPartitions(), partitions.size() );
+            assertDistinct( partitions );
+            assertEquals( NODES, LongSets.immutable.withAll( concat( partitions ) ) );
+        }
+    }
+
+    @Test
+    void shouldScanValuesInPartitions() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( NULL ) )
+        {
+            // when
+            PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, NUMBER_OF_PARTITIONS, unorderedValues() );
+            long sum = 0;
+            int count = 0;
+            while ( scan.reservePartition( nodes, NULL ) )
+            {
+                while ( nodes.next() )
+                {
+                    assertTrue( nodes.hasValue() );
+                    sum += ((Number) nodes.propertyValue( 0 ).asObject()).longValue();
+                    count++;
+                }
+            }
+
+            // then
+            assertEquals( NUMBER_OF_NODES, count );
+            assertEquals( (long) NUMBER_OF_NODES * (NUMBER_OF_NODES - 1) / 2, sum );
+        }
+    }
+
+    @Test
+    void shouldNotReserveMorePartitionsThanThereAre() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, NUMBER_OF_PARTITIONS, unconstrained() );
+        try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( NULL ) )
+        {
+            // when
+            for ( int i = 0; i < scan.getNumberOfPartitions(); i++ )
+            {
+                assertTrue( scan.reservePartition( nodes, NULL ) );
+            }
+
+            // then
+            assertFalse( scan.reservePartition( nodes, NULL ) );
+        }
+    }
+
+    @Test
+    void shouldFailForZeroPartitions() throws Exception
+    {
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        assertThrows( IllegalArgumentException.class, () -> read.nodeIndexScan( index, 0, unconstrained() ) );
+    }
+
+    @Test
+    void shouldFailForOrderedScan() throws Exception
+    {
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        assertThrows( IllegalArgumentException.class,
+                () -> read.nodeIndexScan( index, NUMBER_OF_PARTITIONS, constrained( IndexOrder.ASCENDING, false ) ) );
+    }
+
+    @Test
+    void shouldFailWithChangesInTransaction() throws Exception
+    {
+        // given
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        tx.dataWrite().nodeCreate();
+
+        // when
+        assertThrows( IllegalStateException.class, () -> read.nodeIndexScan( index, NUMBER_OF_PARTITIONS, unconstrained() ) );
+    }
+
+    @Test
+    void shouldScanAllNodesFromMultipleThreads() throws Exception
+    {
+        // given
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, NUMBER_OF_PARTITIONS, unconstrained() );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        try
+        {
+            // when
+            List<Future<LongList>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                futures.add( service.submit( () ->
+                {
+                    MutableLongList ids = LongLists.mutable.empty();
+                    try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( NULL ) )
+                    {
+                        while ( scan.reservePartition( nodes, NULL ) )
+                        {
+                            while ( nodes.next() )
+                            {
+                                ids.add( nodes.nodeReference() );
+                            }
+                        }
+                    }
+                    return ids;
+                } ) );
+            }
+
+            // then
+            List<LongList> lists = futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+
+            assertDistinct( lists );
+            assertEquals( NODES, LongSets.immutable.withAll( concat( lists ) ) );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+
+    @Test
+    void shouldTracePartitionsWithCursorTracerOfReadingThread() throws Exception
+    {
+        // given
+        ExecutorService service = Executors.newFixedThreadPool( 4 );
+        IndexReadSession index = read.indexReadSession( schemaRead.indexGetForName( PROP_INDEX_NAME ) );
+        PartitionedScan<NodeValueIndexCursor> scan = read.nodeIndexScan( index, NUMBER_OF_PARTITIONS, unconstrained() );
+        CursorFactory cursors = testSupport.kernelToTest().cursors();
+
+        try
+        {
+            // when
+            List<Future<DefaultPageCursorTracer>> futures = new ArrayList<>();
+            for ( int i = 0; i < 4; i++ )
+            {
+                futures.add( service.submit( () ->
+                {
+                    DefaultPageCursorTracer cursorTracer = new DefaultPageCursorTracer( new DefaultPageCacheTracer(), "parallelScan" );
+                    try ( NodeValueIndexCursor nodes = cursors.allocateNodeValueIndexCursor( cursorTracer ) )
+                    {
+                        while ( scan.reservePartition( nodes, cursorTracer ) )
+                        {
+                            while ( nodes.next() )
+                            {
+                                // just consume
+                            }
+                        }
+                    }
+                    return cursorTracer;
+                } ) );
+            }
+
+            // then
+            List<DefaultPageCursorTracer> tracers = futures.stream().map( TestUtils::unsafeGet ).collect( Collectors.toList() );
+            long totalPins = 0;
+            for ( DefaultPageCursorTracer tracer : tracers )
+            {
+                assertEquals( tracer.pins(), tracer.unpins() );
+                totalPins += tracer.pins();
+            }
+            assertThat( totalPins ).isGreaterThanOrEqualTo( scan.getNumberOfPartitions() );
+        }
+        finally
+        {
+            service.shutdown();
+            service.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+}
@@ -339,6 +339,59 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> fail_on_corrupted_log_files =
             newBuilder("unsupported.dbms.tx_log.fail_on_corrupted_log_files", BOOL, true ).build();
 
+    @Internal
+    @Description( "Apply transactions that are committed concurrently to the store together, in one batch, instead of one by one on " +
+            "each committing thread. This amortizes the cost of store and index application over many transactions under concurrent writes." )
+    public static final Setting<Boolean> transaction_group_store_apply =
+            newBuilder( "unsupported.dbms.transaction.group_store_apply", BOOL, false ).build();
+
+    @Internal
+    @Description( "The number of threads applying recovered transactions in parallel during recovery. Transactions touching the same " +
+            "records are still applied in commit order, and schema and token changes are applied in isolation. A value of 1 applies " +
+            "recovered transactions one by one. A failure to apply a transaction in parallel fails recovery, regardless of " +
+            "`unsupported.dbms.tx_log.fail_on_corrupted_log_files`." )
+    public static final Setting<Integer> recovery_parallelism =
+            newBuilder( "unsupported.dbms.recovery.parallelism", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    @Internal
+    @Description( "The number of zero-filled transaction log files to keep ready for log rotation. Log rotation takes a file from this " +
+            "pool, instead of allocating a new one. The pool is filled with new files after checkpoints, when old log files are pruned. " +
+            "A value of 0 disables the pool." )
+    public static final Setting<Integer> transaction_log_recycle_pool_size =
+            newBuilder( "unsupported.dbms.tx_log.recycle_pool_size", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Compress the commands of each transaction with zstd before appending them to the transaction log. Transactions with " +
+            "little command data, or commands that do not compress, are still written uncompressed. Transaction logs with compressed " +
+            "commands can not be read by versions that do not support them." )
+    public static final Setting<Boolean> transaction_log_compress_commands =
+            newBuilder( "unsupported.dbms.tx_log.compress_commands", BOOL, false ).build();
+
+    @Internal
+    @Description( "Write updates of node, relationship and property records in the transaction log as the full before state and only " +
+            "the fields that changed in the after state. Transaction logs with such commands can not be read by versions that do not support them." )
+    public static final Setting<Boolean> transaction_log_delta_encode_commands =
+            newBuilder( "unsupported.dbms.tx_log.delta_encode_commands", BOOL, false ).build();
+
+    @Internal
+    @Description( "Read transaction log files that are no longer appended to by mapping them into memory, instead of copying them " +
+            "through a read-ahead buffer. This makes recovery and other scans of the transaction logs cheaper in system calls." )
+    public static final Setting<Boolean> transaction_log_memory_mapped_reads =
+            newBuilder( "unsupported.dbms.tx_log.memory_mapped_reads", BOOL, false ).build();
+
+    @Internal
+    @Description( "The longest time a force of the transaction log may be delayed, so that transactions which are being appended to the log " +
+            "at the same time can be made durable by the same force. The delay is also bounded by the average duration of a force, and ends " +
+            "as soon as no more transactions are being appended. A value of 0 disables the delay." )
+    public static final Setting<Duration> transaction_log_commit_delay =
+            newBuilder( "unsupported.dbms.tx_log.commit_delay", DURATION, Duration.ZERO ).build();
+
+    @Internal
+    @Description( "The least number of other transactions that must be in the process of being appended to the transaction log, for a force " +
+            "of the log to be delayed by unsupported.dbms.tx_log.commit_delay." )
+    public static final Setting<Integer> transaction_log_commit_siblings =
+            newBuilder( "unsupported.dbms.tx_log.commit_siblings", INT, 1 ).addConstraint( min( 1 ) ).build();
+
     @Internal
     @Description( "Specifies if engine should run cypher query based on a snapshot of accessed data. " +
             "Query will be restarted in case if concurrent modification of data will be detected." )
@@ -474,10 +527,60 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> archive_failed_index =
             newBuilder( "unsupported.dbms.index.archive_failed", BOOL, false ).build();
 
+    @Internal
+    @Description( "Create new native indexes with prefix compression of the keys in their leaves. Indexes that already exist keep the format " +
+            "they were created with. Indexes with prefix compressed leaves can not be read by versions that do not support them." )
+    public static final Setting<Boolean> index_prefix_compression =
+            newBuilder( "unsupported.dbms.index.prefix_compression", BOOL, false ).build();
+
+    @Internal
+    @Description( "Let updaters of native indexes write to their trees through concurrent writers, so that several updaters of the same index " +
+            "can be open at the same time, and changes which fit in a leaf are made in parallel. Transactions still apply their index updates " +
+            "one batch at a time, so this does not yet make committing transactions any faster." )
+    public static final Setting<Boolean> index_concurrent_updaters =
+            newBuilder( "unsupported.dbms.index.concurrent_updaters", BOOL, false ).build();
+
     @Internal
     @Description( "Forces smaller ID cache, in order to preserve memory." )
     public static final Setting<Boolean> force_small_id_cache = newBuilder( "unsupported.dbms.force_small_id_cache", BOOL, Boolean.FALSE ).build();
 
+    @Internal
+    @Description( "Use io_uring for page cache reads and writes, if the operating system supports it. " +
+            "If io_uring is not available, the page cache silently falls back to regular file channel I/O." )
+    public static final Setting<Boolean> pagecache_io_uring_enabled =
+            newBuilder( "unsupported.dbms.memory.pagecache.io_uring.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "Partition the page cache memory over the NUMA nodes of the machine, and let page faults prefer memory that is local to " +
+            "the node of the faulting thread. This has no effect on machines with a single NUMA node, or where the NUMA topology cannot be determined." )
+    public static final Setting<Boolean> pagecache_numa_aware =
+            newBuilder( "unsupported.dbms.memory.pagecache.numa_aware", BOOL, false ).build();
+
+    public enum PageCacheHugePages
+    {
+        DISABLED, TRANSPARENT, EXPLICIT
+    }
+
+    @Internal
+    @Description( "Back the page cache memory with huge pages, to reduce the TLB misses when accessing a large page cache. " +
+            "TRANSPARENT advises the kernel to use transparent huge pages. EXPLICIT maps the memory from the pool of reserved huge pages, " +
+            "and falls back to transparent huge pages when the pool runs out. Only supported on Linux." )
+    public static final Setting<PageCacheHugePages> pagecache_huge_pages =
+            newBuilder( "unsupported.dbms.memory.pagecache.huge_pages", ofEnum( PageCacheHugePages.class ), PageCacheHugePages.DISABLED ).build();
+
+    @Internal
+    @Description( "Enable the page cache warmer that is built into the kernel. It periodically profiles the page cache, and warms it up " +
+            "from those profiles when the database starts, as configured by the 'dbms.memory.pagecache.warmup' settings. " +
+            "Editions that have a page cache warmer of their own should leave this disabled." )
+    public static final Setting<Boolean> pagecache_warmup_builtin_enabled =
+            newBuilder( "unsupported.dbms.memory.pagecache.warmup.builtin.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "Warm up the page cache from the persisted profile before the database is made available, instead of in the background " +
+            "while the database already accepts traffic." )
+    public static final Setting<Boolean> pagecache_warmup_blocking =
+            newBuilder( "unsupported.dbms.memory.pagecache.warmup.blocking", BOOL, false ).build();
+
     @Internal
     public static final Setting<Boolean> consistency_check_on_apply =
             newBuilder( "unsupported.dbms.storage.consistency_check_on_apply", BOOL, Boolean.FALSE ).build();
@@ -424,6 +424,32 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> check_point_iops_limit =
             newBuilder( "dbms.checkpoint.iops.limit", INT, 600 ).dynamic().build();
 
+    @Description( "Let the background checkpoint process adapt its IO rate to how the IO subsystem is coping, instead of " +
+            "using a fixed IO rate. The checkpoint process will back off whenever the 99th percentile latency of page " +
+            "faults, or the latency of its own writes, exceeds this target, and speed up again when there is room. " +
+            "A checkpoint that has been flushing for longer than the checkpoint interval is no longer limited, so it " +
+            "can complete before the next checkpoint is due. Every database adapts the IO rate of its own checkpoints. " +
+            "This setting is only used by Community Edition; other editions provide their own checkpoint IO limiter. " +
+            "Leave this setting unset to let the checkpoint process flush as fast as the hardware will go." )
+    public static final Setting<Duration> check_point_io_target_fault_latency =
+            newBuilder( "dbms.checkpoint.io.target_fault_latency", DURATION, null ).build();
+
+    @Description( "Flush dirty pages in the background between check-points, instead of only when a check-point is triggered. " +
+            "Once every check-point check interval, the pages dirtied since the previous flush are flushed at a rate " +
+            "derived from how fast the transaction log grew in the meantime, so that only a small amount of data is left to " +
+            "flush once the check-point is triggered. This spreads the check-point IO out over the check-point interval, " +
+            "instead of having it all happen in one burst." )
+    public static final Setting<Boolean> check_point_incremental =
+            newBuilder( "dbms.checkpoint.incremental", BOOL, false ).build();
+
+    @Description( "Configures a target for how long recovery may take after a crash. A check-point is triggered when the " +
+            "estimated recovery time reaches this target, in addition to the triggers of the 'dbms.checkpoint' policy. " +
+            "The recovery time is estimated from the amount of transaction log written since the last check-point, and the " +
+            "rate at which committed transactions have been applied to the store. " +
+            "Leave this setting unset to not check-point based on the estimated recovery time." )
+    public static final Setting<Duration> check_point_recovery_time_target =
+            newBuilder( "dbms.checkpoint.recovery_time_target", DURATION, null ).build();
+
     // Index sampling
     @Description( "Enable or disable background index sampling" )
     public static final Setting<Boolean> index_background_sampling_enabled =
@@ -554,6 +580,18 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Integer> pagecache_scan_prefetch = newBuilder( "dbms.memory.pagecache.scan.prefetchers", INT, 4 )
             .addConstraint( range( 0, 255 ) ).build();
 
+    public enum PageCacheEvictionPolicy
+    {
+        CLOCK, SCAN_RESISTANT
+    }
+
+    @Description( "The policy the page cache uses to decide which pages to evict when it runs out of free pages. " +
+            "'CLOCK' ages every page the eviction sweep passes over. 'SCAN_RESISTANT' keeps pages that are accessed repeatedly in memory, " +
+            "even while large scans, like full store scans or consistency checks, churn through the rest of the page cache. " +
+            "The page cache is shared by all databases, so the policy applies to all of them." )
+    public static final Setting<PageCacheEvictionPolicy> pagecache_eviction_policy =
+            newBuilder( "dbms.memory.pagecache.eviction_policy", ofEnum( PageCacheEvictionPolicy.class ), PageCacheEvictionPolicy.CLOCK ).build();
+
     @Description( "Page cache can be configured to use a temporal buffer for flushing purposes. It is used to combine, if possible, sequence of several " +
             "cache pages into one bigger buffer to minimize the number of individual IOPS performed and better utilization of available " +
             "I/O resources, especially when those are restricted." )
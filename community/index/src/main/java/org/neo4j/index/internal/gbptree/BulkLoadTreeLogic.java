@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.NO;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * Builds a tree bottom-up from entries added in sorted order, instead of inserting them one by one from the root.
+ * <p>
+ * Entries are appended to the current leaf until it would be filled above the fill factor, at which point a new leaf
+ * is started as its right sibling. A splitter between the two leaves is added to the level above, which is built the same way,
+ * starting a new internal node, and adding a key to the level above that, when its current node would be filled above the fill factor.
+ * Levels are added on top as they are needed and the single node of the top level becomes the root when {@link #finish()} is called.
+ * <p>
+ * Each level holds back the last key and child added to it, so that a new internal node is only started when there are
+ * two children for it. The held back key and child is written when {@link #finish()} is called.
+ * <p>
+ * All nodes are created in the unstable generation, leaving whatever the tree looked like before untouched until the new root is set.
+ *
+ * @param <KEY> type of internal/leaf keys
+ * @param <VALUE> type of leaf values
+ */
+class BulkLoadTreeLogic<KEY,VALUE>
+{
+    private final IdProvider idProvider;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final PageCursor leafCursor;
+    private final PageCursor internalCursor;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final double fillFactor;
+    private final PageCursorTracer cursorTracer;
+    private final KEY readKey;
+    private final VALUE readValue;
+    private final KEY leafSplitter;
+    private final List<Level<KEY>> levels = new ArrayList<>();
+
+    private long leafId = TreeNode.NO_NODE_FLAG;
+    private int leafKeyCount;
+    private boolean leafCompacted;
+
+    /**
+     * One internal level of the tree, of which only the rightmost node is ever changed.
+     */
+    private static class Level<KEY>
+    {
+        private long nodeId;
+        private int keyCount;
+        private final KEY pendingKey;
+        private long pendingChild;
+
+        Level( long nodeId, KEY pendingKey )
+        {
+            this.nodeId = nodeId;
+            this.pendingKey = pendingKey;
+        }
+    }
+
+    BulkLoadTreeLogic( IdProvider idProvider, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, PageCursor leafCursor,
+            PageCursor internalCursor, long stableGeneration, long unstableGeneration, double fillFactor, PageCursorTracer cursorTracer )
+    {
+        this.idProvider = idProvider;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.leafCursor = leafCursor;
+        this.internalCursor = internalCursor;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.fillFactor = fillFactor;
+        this.cursorTracer = cursorTracer;
+        this.readKey = layout.newKey();
+        this.readValue = layout.newValue();
+        this.leafSplitter = layout.newKey();
+    }
+
+    /**
+     * Adds {@code key} and {@code value} after all previously added entries. If {@code key} is equal to the last added key
+     * the values are merged using {@code valueMerger}, just like {@link InternalTreeLogic} would.
+     *
+     * @param key key to add, must not be less than the previously added key.
+     * @param value value to add.
+     * @param valueMerger {@link ValueMerger} to consult if key is equal to the last added key.
+     * @param createIfNotExists whether or not to add the entry if key isn't equal to the last added key.
+     * @throws IllegalArgumentException if {@code key} is less than the previously added key.
+     * @throws IOException on cursor access error.
+     */
+    void add( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists ) throws IOException
+    {
+        if ( leafKeyCount > 0 )
+        {
+            bTreeNode.keyAt( leafCursor, readKey, leafKeyCount - 1, LEAF, cursorTracer );
+            int comparison = layout.compare( key, readKey );
+            if ( comparison == 0 )
+            {
+                mergeValue( key, value, valueMerger );
+                return;
+            }
+            assertSorted( comparison, key, readKey );
+        }
+        else if ( TreeNode.isNode( leafId ) && !levels.isEmpty() )
+        {
+            // Leaf emptied by a merge, key must still belong to it
+            assertSorted( layout.compare( key, leafSplitter ), key, leafSplitter );
+        }
+
+        if ( createIfNotExists )
+        {
+            append( key, value );
+        }
+    }
+
+    private void mergeValue( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger ) throws IOException
+    {
+        int pos = leafKeyCount - 1;
+        bTreeNode.valueAt( leafCursor, readValue, pos, cursorTracer );
+        ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, readValue, value );
+        if ( mergeResult == ValueMerger.MergeResult.UNCHANGED )
+        {
+            return;
+        }
+
+        if ( mergeResult == ValueMerger.MergeResult.REPLACED || mergeResult == ValueMerger.MergeResult.MERGED )
+        {
+            VALUE mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue;
+            if ( !bTreeNode.setValueAt( leafCursor, mergedValue, pos ) )
+            {
+                // Value differs in size, remove it and append it again, which may start a new leaf
+                removeLast();
+                append( key, mergedValue );
+            }
+        }
+        else if ( mergeResult == ValueMerger.MergeResult.REMOVED )
+        {
+            removeLast();
+        }
+        else
+        {
+            throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+        }
+    }
+
+    private void removeLast() throws IOException
+    {
+        bTreeNode.removeKeyValueAt( leafCursor, leafKeyCount - 1, leafKeyCount, stableGeneration, unstableGeneration, cursorTracer );
+        leafKeyCount--;
+        TreeNode.setKeyCount( leafCursor, leafKeyCount );
+        // Appending relies on all free space being in one piece
+        bTreeNode.defragmentLeaf( leafCursor );
+    }
+
+    private void append( KEY key, VALUE value ) throws IOException
+    {
+        if ( !TreeNode.isNode( leafId ) )
+        {
+            leafId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
+            PageCursorUtil.goTo( leafCursor, "first leaf", leafId );
+            bTreeNode.initializeLeaf( leafCursor, stableGeneration, unstableGeneration );
+        }
+        else if ( leafKeyCount > 0 && bTreeNode.leafExceedsFill( leafCursor, leafKeyCount, key, value, fillFactor ) )
+        {
+            if ( !leafCompacted )
+            {
+                bTreeNode.compactLeaf( leafCursor, leafKeyCount );
+                leafCompacted = true;
+            }
+            if ( bTreeNode.leafExceedsFill( leafCursor, leafKeyCount, key, value, fillFactor ) )
+            {
+                newLeaf( key );
+            }
+        }
+
+        bTreeNode.insertKeyValueAt( leafCursor, key, value, leafKeyCount, leafKeyCount, stableGeneration, unstableGeneration, cursorTracer );
+        leafKeyCount++;
+        TreeNode.setKeyCount( leafCursor, leafKeyCount );
+    }
+
+    private void newLeaf( KEY firstKey ) throws IOException
+    {
+        long previousLeafId = leafId;
+        bTreeNode.keyAt( leafCursor, readKey, leafKeyCount - 1, LEAF, cursorTracer );
+        layout.minimalSplitter( readKey, firstKey, leafSplitter );
+
+        leafId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
+        TreeNode.setRightSibling( leafCursor, leafId, stableGeneration, unstableGeneration );
+        PageCursorUtil.goTo( leafCursor, "new leaf", leafId );
+        bTreeNode.initializeLeaf( leafCursor, stableGeneration, unstableGeneration );
+        TreeNode.setLeftSibling( leafCursor, previousLeafId, stableGeneration, unstableGeneration );
+        leafKeyCount = 0;
+        leafCompacted = false;
+
+        addToLevel( 0, leafSplitter, previousLeafId, leafId );
+    }
+
+    /**
+     * Adds {@code key} and {@code rightChild} to the internal level at {@code depth}, counted from the level right above the leaves.
+     * The level is created, with {@code leftChild} as the first child of its first node, if it doesn't exist yet.
+     */
+    private void addToLevel( int depth, KEY key, long leftChild, long rightChild ) throws IOException
+    {
+        Level<KEY> level;
+        if ( depth == levels.size() )
+        {
+            long nodeId = newInternal( TreeNode.NO_NODE_FLAG, leftChild );
+            level = new Level<>( nodeId, layout.newKey() );
+            levels.add( level );
+        }
+        else
+        {
+            level = levels.get( depth );
+            writePending( depth, level );
+        }
+        layout.copyKey( key, level.pendingKey );
+        level.pendingChild = rightChild;
+    }
+
+    /**
+     * Writes the held back key and child of level to its current node, or starts a new node with the held back child as its
+     * first child if the current node would be filled above the fill factor.
+     */
+    private void writePending( int depth, Level<KEY> level ) throws IOException
+    {
+        PageCursorUtil.goTo( internalCursor, "internal node", level.nodeId );
+        if ( level.keyCount > 0 && bTreeNode.internalExceedsFill( internalCursor, level.keyCount, level.pendingKey, fillFactor ) )
+        {
+            long previousNodeId = level.nodeId;
+            level.nodeId = newInternal( previousNodeId, level.pendingChild );
+            level.keyCount = 0;
+            addToLevel( depth + 1, level.pendingKey, previousNodeId, level.nodeId );
+        }
+        else
+        {
+            insertKeyAndRightChild( level, level.pendingKey, level.pendingChild );
+        }
+    }
+
+    private long newInternal( long leftSibling, long firstChild ) throws IOException
+    {
+        long nodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
+        if ( TreeNode.isNode( leftSibling ) )
+        {
+            PageCursorUtil.goTo( internalCursor, "left sibling", leftSibling );
+            TreeNode.setRightSibling( internalCursor, nodeId, stableGeneration, unstableGeneration );
+        }
+        PageCursorUtil.goTo( internalCursor, "new internal node", nodeId );
+        bTreeNode.initializeInternal( internalCursor, stableGeneration, unstableGeneration );
+        if ( TreeNode.isNode( leftSibling ) )
+        {
+            TreeNode.setLeftSibling( internalCursor, leftSibling, stableGeneration, unstableGeneration );
+        }
+        bTreeNode.setChildAt( internalCursor, firstChild, 0, stableGeneration, unstableGeneration );
+        return nodeId;
+    }
+
+    /**
+     * Expects {@link #internalCursor} to be placed at the current node of level.
+     */
+    private void insertKeyAndRightChild( Level<KEY> level, KEY key, long rightChild ) throws IOException
+    {
+        bTreeNode.insertKeyAndRightChildAt( internalCursor, key, rightChild, level.keyCount, level.keyCount,
+                stableGeneration, unstableGeneration, cursorTracer );
+        level.keyCount++;
+        TreeNode.setKeyCount( internalCursor, level.keyCount );
+    }
+
+    /**
+     * Writes what the levels hold back and returns the root of the built tree. The fill factor no longer applies here,
+     * a held back key and child which doesn't fit in the current node of its level is instead written to a new node together
+     * with the last child of the current node.
+     *
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if no entries were added.
+     * @throws IOException on cursor access error.
+     */
+    long finish() throws IOException
+    {
+        // Levels may be added while finishing the ones below
+        for ( int depth = 0; depth < levels.size(); depth++ )
+        {
+            Level<KEY> level = levels.get( depth );
+            PageCursorUtil.goTo( internalCursor, "internal node", level.nodeId );
+            if ( level.keyCount == 0 || bTreeNode.internalOverflow( internalCursor, level.keyCount, level.pendingKey ) == NO )
+            {
+                insertKeyAndRightChild( level, level.pendingKey, level.pendingChild );
+                continue;
+            }
+
+            // Move last key and child of current node over to a new node, a node can always hold at least two keys
+            int lastPos = level.keyCount - 1;
+            KEY lastKey = bTreeNode.keyAt( internalCursor, layout.newKey(), lastPos, INTERNAL, cursorTracer );
+            long lastChild = GenerationSafePointerPair.pointer(
+                    bTreeNode.childAt( internalCursor, level.keyCount, stableGeneration, unstableGeneration ) );
+            bTreeNode.removeKeyAndRightChildAt( internalCursor, lastPos, level.keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( internalCursor, lastPos );
+
+            long previousNodeId = level.nodeId;
+            level.nodeId = newInternal( previousNodeId, lastChild );
+            level.keyCount = 0;
+            insertKeyAndRightChild( level, level.pendingKey, level.pendingChild );
+            addToLevel( depth + 1, lastKey, previousNodeId, level.nodeId );
+        }
+        return levels.isEmpty() ? leafId : levels.get( levels.size() - 1 ).nodeId;
+    }
+
+    private void assertSorted( int comparison, KEY key, KEY previousKey )
+    {
+        if ( comparison < 0 )
+        {
+            throw new IllegalArgumentException( format( "Bulk loaded entries must be added in sorted order, but key %s came after %s",
+                    key, previousKey ) );
+        }
+    }
+}
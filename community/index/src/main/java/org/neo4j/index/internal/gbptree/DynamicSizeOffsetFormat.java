@@ -90,6 +90,8 @@ enum DynamicSizeOffsetFormat
     private final int bytePosAllocOffset;
     private final int bytePosDeadSpace;
     private final int headerLengthDynamic;
+    private final int bytePosPrefixOffset;
+    private final int headerLengthPrefixCompressed;
 
     DynamicSizeOffsetFormat( int offsetSize )
     {
@@ -97,6 +99,8 @@ enum DynamicSizeOffsetFormat
         this.bytePosAllocOffset = TreeNode.BASE_HEADER_LENGTH;
         this.bytePosDeadSpace = bytePosAllocOffset + offsetSize;
         this.headerLengthDynamic = bytePosDeadSpace + offsetSize;
+        this.bytePosPrefixOffset = headerLengthDynamic;
+        this.headerLengthPrefixCompressed = bytePosPrefixOffset + offsetSize;
     }
 
     /**
@@ -143,6 +147,14 @@ enum DynamicSizeOffsetFormat
         return bytePosDeadSpace;
     }
 
+    /**
+     * Byte position for the prefixOffset header field, only present in the prefix compressed format.
+     */
+    int getBytePosPrefixOffset()
+    {
+        return bytePosPrefixOffset;
+    }
+
     /**
      * Total length of header and also starting offset for data-section.
      */
@@ -150,4 +162,13 @@ enum DynamicSizeOffsetFormat
     {
         return headerLengthDynamic;
     }
+
+    /**
+     * Total length of header, including the prefixOffset header field, and also starting offset for data-section
+     * in the prefix compressed format.
+     */
+    int getHeaderLengthPrefixCompressed()
+    {
+        return headerLengthPrefixCompressed;
+    }
 }
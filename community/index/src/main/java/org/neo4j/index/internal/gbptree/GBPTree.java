@@ -38,6 +38,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -94,6 +96,8 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * <p>
  * A single writer w/ multiple concurrent readers is supported. Assuming usage adheres to this
  * constraint neither writer nor readers are blocking. Readers are virtually garbage-free.
+ * Alternatively multiple {@link #concurrentWriter(PageCursorTracer) concurrent writers} can modify the tree
+ * at the same time, which pays off when they write to different leaves.
  * <p>
  * An reader of GB+Tree is a {@link SeekCursor} that returns result as it finds them.
  * As the cursor move over keys/values, returned results are considered "behind" it
@@ -385,6 +389,25 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final SingleWriter writer;
 
+    /**
+     * Guards the structure of the tree between {@link #concurrentWriter(PageCursorTracer) concurrent writers}.
+     * Changes that only affect a single leaf are made under the read lock, with that leaf latched in {@link #leafLatches},
+     * while changes that affect the structure of the tree, e.g. splits and merges, are made under the write lock.
+     */
+    private final ReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Latches of the leaves which {@link #concurrentWriter(PageCursorTracer) concurrent writers} change under the read lock
+     * of {@link #structureLock}.
+     */
+    private final TreeNodeLatches leafLatches = new TreeNodeLatches();
+
+    /**
+     * Number of open {@link #concurrentWriter(PageCursorTracer) concurrent writers}, which together hold the writer lock of
+     * {@link #lock} as long as at least one of them is open. Guarded by this tree's monitor.
+     */
+    private int openConcurrentWriters;
+
     /**
      * Tells whether or not there have been made changes (using {@link #writer(PageCursorTracer)}) to this tree
      * since last call to {@link #checkpoint(IOLimiter, PageCursorTracer)}. This variable is set when calling {@link #writer(PageCursorTracer)}
@@ -578,7 +601,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         this.monitor = monitor;
         this.readOnly = readOnly;
         this.pageCacheTracer = pageCacheTracer;
-        this.openOptions = openOptions;
+        this.openOptions = GBPTreeOpenOptions.withoutTreeOptions( openOptions );
         this.generation = Generation.generation( MIN_GENERATION, MIN_GENERATION + 1 );
         long rootId = IdSpace.MIN_TREE_NODE_ID;
         setRoot( rootId, Generation.unstableGeneration( generation ) );
@@ -588,13 +611,13 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         {
             try
             {
-                this.pagedFile = openOrCreate( pageCache, indexFile, cursorTracer, openOptions );
+                this.pagedFile = openOrCreate( pageCache, indexFile, cursorTracer, this.openOptions );
                 this.pageSize = pagedFile.pageSize();
                 closed = false;
                 TreeNodeSelector.Factory format;
                 if ( created )
                 {
-                    format = TreeNodeSelector.selectByLayout( layout );
+                    format = TreeNodeSelector.selectByLayout( layout, openOptions.contains( GBPTreeOpenOptions.PREFIX_COMPRESSION ) );
                     writeMeta( layout, format, pagedFile, cursorTracer );
                 }
                 else
@@ -1044,6 +1067,31 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return partitionedSeekInternal( fromInclusive, toExclusive, numberOfPartitions, this, cursorTracer );
     }
 
+    /**
+     * Partitions the provided key range into {@code numberOfPartitions} partitions, the same way as
+     * {@link #partitionedSeek(Object, Object, int, PageCursorTracer)}, but without seeking them. Each partition can instead be seeked
+     * later with {@link #seek(Object, Object, PageCursorTracer)}, from the thread and with the cursor tracer that will consume it.
+     *
+     * @param fromInclusive lower bound of the target range to partition (inclusive).
+     * @param toExclusive higher bound of the target range to partition (exclusive).
+     * @param numberOfPartitions number of partitions desired by the caller. If the tree is small a lower number of partitions may be returned.
+     * The number of partitions will never be higher than the provided {@code numberOfPartitions}.
+     * @param cursorTracer underlying page cursor tracer, for reading the splitter keys of the partitions.
+     * @return a {@link List} of distinct key ranges, as pairs of lower bound (inclusive) and higher bound (exclusive), which collectively
+     * cover the whole provided range. No two ranges share key instances.
+     * @throws IOException on error reading from index.
+     */
+    public List<Pair<KEY,KEY>> partitionedRanges( KEY fromInclusive, KEY toExclusive, int numberOfPartitions, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        List<Pair<KEY,KEY>> ranges = new ArrayList<>();
+        for ( Pair<KEY,KEY> partition : partitions( fromInclusive, toExclusive, numberOfPartitions, cursorTracer ) )
+        {
+            ranges.add( Pair.of( layout.copyKey( partition.getLeft(), layout.newKey() ), layout.copyKey( partition.getRight(), layout.newKey() ) ) );
+        }
+        return ranges;
+    }
+
     /**
      * We want to create a given number of partitions of the range given by <code>fromInclusive</code> and <code>toExclusive</code>.
      * We want the number of entries in each partition to be as equal as possible. We let the number of subtrees in each partition
@@ -1089,6 +1137,29 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
     private Collection<Seeker<KEY,VALUE>> partitionedSeekInternal( KEY fromInclusive, KEY toExclusive, int numberOfPartitions,
             Seeker.Factory<KEY,VALUE> seekerFactory, PageCursorTracer cursorTracer )
             throws IOException
+    {
+        List<Seeker<KEY,VALUE>> seekers = new ArrayList<>();
+        boolean success = false;
+        try
+        {
+            for ( Pair<KEY,KEY> partition : partitions( fromInclusive, toExclusive, numberOfPartitions, cursorTracer ) )
+            {
+                seekers.add( seekerFactory.seek( partition.getLeft(), partition.getRight(), cursorTracer ) );
+            }
+            success = true;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                IOUtils.closeAll( seekers );
+            }
+        }
+
+        return seekers;
+    }
+
+    private List<Pair<KEY,KEY>> partitions( KEY fromInclusive, KEY toExclusive, int numberOfPartitions, PageCursorTracer cursorTracer ) throws IOException
     {
         Preconditions.checkArgument( layout.compare( fromInclusive, toExclusive ) <= 0, "Partitioned seek only supports forward seeking for the time being" );
 
@@ -1123,26 +1194,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         while ( numberOfSubtrees < numberOfPartitions );
 
         // From the set of splitter keys, create partitions
-        KeyPartitioning<KEY> partitioning = new KeyPartitioning<>( layout );
-        List<Seeker<KEY,VALUE>> seekers = new ArrayList<>();
-        boolean success = false;
-        try
-        {
-            for ( Pair<KEY,KEY> partition : partitioning.partition( splitterKeysInRange, fromInclusive, toExclusive, numberOfPartitions ) )
-            {
-                seekers.add( seekerFactory.seek( partition.getLeft(), partition.getRight(), cursorTracer ) );
-            }
-            success = true;
-        }
-        finally
-        {
-            if ( !success )
-            {
-                IOUtils.closeAll( seekers );
-            }
-        }
-
-        return seekers;
+        return new KeyPartitioning<>( layout ).partition( splitterKeysInRange, fromInclusive, toExclusive, numberOfPartitions );
     }
 
     /**
@@ -1399,6 +1451,62 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return writer;
     }
 
+    /**
+     * Returns a {@link Writer} able to modify the index, like {@link #writer(PageCursorTracer)}, but which can be used at the same time
+     * as other writers returned from this method, by different threads. Each returned writer must be used by one thread at a time.
+     * <p>
+     * Inserts and removals that fit in a leaf are made by latching only that leaf, so writers changing different leaves make them in parallel.
+     * Changes that require structural changes of the tree, like splits, merges, rebalancing after a removal and offloaded entries, fall back
+     * to being made by one writer at a time. The writer returned from {@link #writer(PageCursorTracer)}, as well as checkpoints, wait for
+     * all concurrent writers to be closed.
+     * <p>
+     * When a change falls back like that after its {@link ValueMerger} has been called, the merge is made again with the value the key has
+     * by then, so that changes made by other writers in between aren't lost. The {@link ValueMerger} must therefore be able to be called
+     * more than once for the same change, with only the last call taking effect.
+     * <p>
+     * After usage the returned writer must be closed, typically by using try-with-resource clause. Neither this method nor
+     * {@link #writer(PageCursorTracer)} must be called by a thread which already has a concurrent writer open, since that would dead lock
+     * with a checkpoint waiting for it to be closed.
+     *
+     * @param cursorTracer underlying page cursor tracer
+     * @return a new {@link Writer} for this index, which must be {@link Writer#close() closed} after usage.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> concurrentWriter( PageCursorTracer cursorTracer ) throws IOException
+    {
+        assertNotReadOnly( "Open concurrent tree writer." );
+        ConcurrentWriter concurrentWriter = new ConcurrentWriter( cursorTracer );
+        changesSinceLastCheckpoint = true;
+        return concurrentWriter;
+    }
+
+    /**
+     * Returns a {@link Writer} which builds the tree bottom-up from entries added in sorted order, which is a lot cheaper than inserting
+     * them one by one, like {@link #writer(PageCursorTracer)} does. Leaves and internal nodes are filled up to {@code fillFactor} of their
+     * space, leaving room for future inserts. This tree must be empty when calling this method.
+     * <p>
+     * Keys must be added in sorted order. A key equal to the previously added key is merged with it just like the other writers would.
+     * {@link Writer#remove(Object)} is not supported. The built tree replaces the empty tree when the returned writer is
+     * {@link Writer#close() closed}, until then readers see the empty tree.
+     * <p>
+     * The returned writer is exclusive, just like the one returned from {@link #writer(PageCursorTracer)}, and neither of them must be
+     * opened by a thread which already has one of them open.
+     *
+     * @param fillFactor how much of the space of each node to fill, larger than 0 and at most 1.
+     * @param cursorTracer underlying page cursor tracer
+     * @return a {@link Writer} loading this tree, which must be {@link Writer#close() closed} after usage.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if this tree isn't empty.
+     */
+    public Writer<KEY,VALUE> bulkWriter( double fillFactor, PageCursorTracer cursorTracer ) throws IOException
+    {
+        Preconditions.checkArgument( fillFactor > 0 && fillFactor <= 1, "Fill factor must be larger than 0 and at most 1, was %f", fillFactor );
+        assertNotReadOnly( "Open bulk tree writer." );
+        BulkWriter bulkWriter = new BulkWriter( fillFactor, cursorTracer );
+        changesSinceLastCheckpoint = true;
+        return bulkWriter;
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1720,23 +1828,56 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
-        }
-
         @Override
         public VALUE remove( KEY key )
         {
-            VALUE result;
+            VALUE result = layout.newValue();
             try
             {
-                result = treeLogic.remove( cursor, structurePropagation, key, layout.newValue(),
-                        stableGeneration, unstableGeneration, cursorTracer );
+                InternalTreeLogic.OptimisticRemove remaining;
+                structureLock.readLock().lock();
+                try
+                {
+                    goToRoot();
+                    remaining = treeLogic.removeFromLeafOptimistically( cursor, key, result, stableGeneration, unstableGeneration,
+                            leafLatches, cursorTracer );
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
 
-                handleStructureChanges( cursorTracer );
+                switch ( remaining )
+                {
+                case NOT_FOUND:
+                    result = null;
+                    break;
+                case REMOVED:
+                    break;
+                case REMOVED_WITH_UNDERFLOW:
+                case REMOVE:
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        goToRoot();
+                        if ( remaining == InternalTreeLogic.OptimisticRemove.REMOVE )
+                        {
+                            result = treeLogic.remove( cursor, structurePropagation, key, result, stableGeneration, unstableGeneration, cursorTracer );
+                        }
+                        else
+                        {
+                            treeLogic.handleUnderflowAfterRemove( cursor, structurePropagation, key, stableGeneration, unstableGeneration, cursorTracer );
+                        }
+                        handleRootChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                    break;
+                default:
+                    throw new UnsupportedOperationException( "Unexpected optimistic remove outcome " + remaining );
+                }
             }
             catch ( IOException e )
             {
@@ -1755,26 +1896,10 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 
         private void handleStructureChanges( PageCursorTracer cursorTracer ) throws IOException
         {
-            if ( structurePropagation.hasRightKeyInsert )
-            {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration, cursorTracer );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-                monitor.treeGrowth();
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
+            if ( handleRootChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer ) )
             {
-                setRoot( structurePropagation.midChild );
+                treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
             }
-            structurePropagation.clear();
         }
 
         @Override
@@ -1799,6 +1924,365 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    /**
+     * Handles structure changes which propagated all the way up to the root, after an insert or remove.
+     *
+     * @return {@code true} if the root changed, in which case {@code cursor} is left at the new root.
+     */
+    private boolean handleRootChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation, long stableGeneration,
+            long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        boolean rootChanged = false;
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorTracer );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( newRootId, unstableGeneration );
+            monitor.treeGrowth();
+            rootChanged = true;
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( GenerationSafePointerPair.pointer( structurePropagation.midChild ), unstableGeneration );
+            rootChanged = true;
+        }
+        structurePropagation.clear();
+        return rootChanged;
+    }
+
+    /**
+     * One of possibly several {@link Writer writers} modifying the tree at the same time, see {@link #concurrentWriter(PageCursorTracer)}.
+     * Every change starts from the root, since other writers may have changed the structure of the tree since the previous change.
+     */
+    private class ConcurrentWriter implements Writer<KEY,VALUE>
+    {
+        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final StructurePropagation<KEY> structurePropagation;
+        private final VALUE mergedValue;
+        private final PageCursorTracer cursorTracer;
+        // Concurrent writers can't live past a checkpoint either, so these are safe to cache too
+        private final long stableGeneration;
+        private final long unstableGeneration;
+        private PageCursor cursor;
+
+        ConcurrentWriter( PageCursorTracer cursorTracer ) throws IOException
+        {
+            this.treeLogic = new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor );
+            this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+            this.mergedValue = layout.newValue();
+            this.cursorTracer = cursorTracer;
+            concurrentWriterOpened();
+            boolean success = false;
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                long generation = GBPTree.this.generation;
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                cursor = pagedFile.io( 0L /*Ignored*/, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    concurrentWriterClosed();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, false );
+        }
+
+        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                boolean done;
+                structureLock.readLock().lock();
+                try
+                {
+                    goToRoot();
+                    done = treeLogic.insertInLeafOptimistically( cursor, key, value, valueMerger, createIfNotExists,
+                            stableGeneration, unstableGeneration, leafLatches, mergedValue, cursorTracer );
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( !done )
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        // Merge again, since other writers may have changed the value since it was merged optimistically
+                        goToRoot();
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger, createIfNotExists,
+                                stableGeneration, unstableGeneration, cursorTracer );
+                        handleRootChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            VALUE result;
+            try
+            {
+                structureLock.writeLock().lock();
+                try
+                {
+                    goToRoot();
+                    result = treeLogic.remove( cursor, structurePropagation, key, layout.newValue(),
+                            stableGeneration, unstableGeneration, cursorTracer );
+                    handleRootChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+                }
+                finally
+                {
+                    structureLock.writeLock().unlock();
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+            return result;
+        }
+
+        private void goToRoot() throws IOException
+        {
+            root.goTo( cursor );
+            assert assertNoSuccessor( cursor, stableGeneration, unstableGeneration );
+            treeLogic.initialize( cursor );
+        }
+
+        @Override
+        public void close()
+        {
+            if ( cursor == null )
+            {
+                throw new IllegalStateException( "Tried to close concurrent writer of " + GBPTree.this + ", but writer is already closed." );
+            }
+            cursor.close();
+            cursor = null;
+            concurrentWriterClosed();
+        }
+    }
+
+    /**
+     * {@link Writer} loading an empty tree from sorted entries, see {@link #bulkWriter(double, PageCursorTracer)}.
+     * The built tree becomes the tree when this writer is closed, unless adding an entry failed.
+     */
+    private class BulkWriter implements Writer<KEY,VALUE>
+    {
+        private final PageCursorTracer cursorTracer;
+        // Bulk writer can't live past a checkpoint because of the mutex with checkpoint, so these are safe to cache
+        private final long stableGeneration;
+        private final long unstableGeneration;
+        private final long emptyRootId;
+        private PageCursor leafCursor;
+        private PageCursor internalCursor;
+        private BulkLoadTreeLogic<KEY,VALUE> treeLogic;
+        private boolean failed;
+
+        BulkWriter( double fillFactor, PageCursorTracer cursorTracer ) throws IOException
+        {
+            this.cursorTracer = cursorTracer;
+            // Block here until cleaning has completed, if cleaning was required
+            lock.writerAndCleanerLock();
+            boolean success = false;
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                long generation = GBPTree.this.generation;
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                leafCursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer );
+                emptyRootId = leafCursor.getCurrentPageId();
+                if ( !TreeNode.isLeaf( leafCursor ) || TreeNode.keyCount( leafCursor ) != 0 )
+                {
+                    throw new IllegalStateException( "Can only bulk load an empty tree, but " + GBPTree.this + " isn't empty" );
+                }
+                internalCursor = pagedFile.io( 0L /*Ignored*/, PagedFile.PF_SHARED_WRITE_LOCK, cursorTracer );
+                treeLogic = new BulkLoadTreeLogic<>( freeList, bTreeNode, layout, leafCursor, internalCursor,
+                        stableGeneration, unstableGeneration, fillFactor, cursorTracer );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    closeCursors();
+                    lock.writerAndCleanerUnlock();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, false );
+        }
+
+        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                treeLogic.add( key, value, valueMerger, createIfNotExists );
+            }
+            catch ( IOException e )
+            {
+                failed = true;
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                failed = true;
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( leafCursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            throw new UnsupportedOperationException( "Bulk loading can only add entries" );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( leafCursor == null )
+            {
+                throw new IllegalStateException( "Tried to close bulk writer of " + GBPTree.this + ", but writer is already closed." );
+            }
+            try
+            {
+                if ( !failed )
+                {
+                    long rootId = treeLogic.finish();
+                    checkOutOfBounds( internalCursor );
+                    if ( TreeNode.isNode( rootId ) )
+                    {
+                        setRoot( rootId, unstableGeneration );
+                        freeList.releaseId( stableGeneration, unstableGeneration, emptyRootId, cursorTracer );
+                    }
+                }
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                closeCursors();
+                lock.writerAndCleanerUnlock();
+            }
+        }
+
+        private void closeCursors()
+        {
+            IOUtils.closeAllSilently( leafCursor, internalCursor );
+            leafCursor = null;
+            internalCursor = null;
+        }
+    }
+
+    private synchronized void concurrentWriterOpened()
+    {
+        if ( openConcurrentWriters == 0 )
+        {
+            // Block here until cleaning has completed, if cleaning was required
+            lock.writerAndCleanerLock();
+        }
+        openConcurrentWriters++;
+    }
+
+    private synchronized void concurrentWriterClosed()
+    {
+        openConcurrentWriters--;
+        if ( openConcurrentWriters == 0 )
+        {
+            lock.writerAndCleanerUnlock();
+        }
+    }
+
     /**
      * Total size limit for key and value.
      * This limit includes storage overhead that is specific to key implementation for example entity id or meta data about type.
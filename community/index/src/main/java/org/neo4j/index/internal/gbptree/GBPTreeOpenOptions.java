@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.eclipse.collections.api.set.ImmutableSet;
+
+import java.nio.file.OpenOption;
+
+import static java.util.Arrays.asList;
+
+/**
+ * {@link OpenOption}s that are specific to {@link GBPTree} and are not passed on to the page cache when mapping the tree file.
+ */
+public enum GBPTreeOpenOptions implements OpenOption
+{
+    /**
+     * Create dynamic size trees with prefix compression of the keys in their leaves. Trees in this format can not be read by versions
+     * which predate prefix compression, so it has to be asked for explicitly. Has no effect on trees with a fixed size layout,
+     * or on trees that already exist, which are always opened in the format they were created with.
+     */
+    PREFIX_COMPRESSION;
+
+    /**
+     * @param openOptions options given when opening a {@link GBPTree}.
+     * @return the given options without any {@link GBPTreeOpenOptions}, i.e. the options to use when mapping the tree file.
+     */
+    static ImmutableSet<OpenOption> withoutTreeOptions( ImmutableSet<OpenOption> openOptions )
+    {
+        return openOptions.newWithoutAll( asList( values() ) );
+    }
+}
@@ -22,6 +22,7 @@ package org.neo4j.index.internal.gbptree;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.locks.Lock;
 
 import org.neo4j.index.internal.gbptree.TreeNode.Overflow;
 import org.neo4j.io.pagecache.PageCursor;
@@ -36,6 +37,7 @@ import static org.neo4j.index.internal.gbptree.StructurePropagation.KeyReplaceSt
 import static org.neo4j.index.internal.gbptree.StructurePropagation.UPDATE_LEFT_CHILD;
 import static org.neo4j.index.internal.gbptree.StructurePropagation.UPDATE_MID_CHILD;
 import static org.neo4j.index.internal.gbptree.StructurePropagation.UPDATE_RIGHT_CHILD;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.NO;
 import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.NO_NEED_DEFRAG;
 import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.YES;
 import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
@@ -375,6 +377,211 @@ class InternalTreeLogic<KEY,VALUE>
         handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
     }
 
+    /**
+     * Optimistic variant of {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, PageCursorTracer)},
+     * used by concurrent writers. Moves the cursor to the correct leaf, latches it and inserts or merges {@code key} and {@code value}
+     * in that leaf, but only if that can be done without changing the structure of the tree. This means that the leaf must not need
+     * to be split, defragmented or have a successor created, and that the entry must not need to be offloaded or removed.
+     * <p>
+     * If this returns {@code false} nothing has been changed, but the {@code valueMerger} may have been called. The caller must then
+     * do the insert pessimistically, which merges again with whatever value the key has by then, discarding the result of the merge
+     * made here.
+     * <p>
+     * The caller must make sure that no other writer changes the structure of the tree during this call. Other writers
+     * may insert into leaves concurrently, as long as they also latch the leaves using the same {@code latches}.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree, this logic must have been {@link #initialize(PageCursor) initialized} at it.
+     * @param key key to be inserted
+     * @param value value to be associated with key
+     * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
+     * @param createIfNotExists create this key if it doesn't exist
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param latches latches for the leaves, shared by all concurrent writers.
+     * @param mergedValue value which the existing value is read into and merged in, owned by the caller.
+     * @param cursorTracer underlying page cursor tracer
+     * @return {@code true} if the insert is done, otherwise {@code false} if it must be done pessimistically, using
+     * {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, PageCursorTracer)}.
+     * @throws IOException on cursor failure
+     */
+    boolean insertInLeafOptimistically( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger,
+            boolean createIfNotExists, long stableGeneration, long unstableGeneration, TreeNodeLatches latches, VALUE mergedValue,
+            PageCursorTracer cursorTracer ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        bTreeNode.validateKeyValueSize( key, value );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorTracer );
+
+        Lock latch = latches.latch( cursor.getCurrentPageId() );
+        latch.lock();
+        try
+        {
+            if ( TreeNode.generation( cursor ) != unstableGeneration )
+            {
+                // Would need a successor
+                return false;
+            }
+
+            int keyCount = TreeNode.keyCount( cursor );
+            int search = search( cursor, LEAF, key, readKey, keyCount, cursorTracer );
+            int pos = positionOf( search );
+            if ( isHit( search ) )
+            {
+                bTreeNode.valueAt( cursor, mergedValue, pos, cursorTracer );
+                ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, mergedValue, value );
+                switch ( mergeResult )
+                {
+                case UNCHANGED:
+                    return true;
+                case REPLACED:
+                    return bTreeNode.setValueAt( cursor, value, pos );
+                case MERGED:
+                    return bTreeNode.setValueAt( cursor, mergedValue, pos );
+                case REMOVED:
+                    // Removing may cause underflow
+                    return false;
+                default:
+                    throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+                }
+            }
+
+            if ( !createIfNotExists )
+            {
+                return true;
+            }
+            int inlineCap = bTreeNode.inlineKeyValueSizeCap();
+            if ( inlineCap != TreeNode.NO_KEY_VALUE_SIZE_CAP && layout.keySize( key ) + layout.valueSize( value ) > inlineCap )
+            {
+                // Would need to allocate offload space
+                return false;
+            }
+            if ( bTreeNode.leafOverflow( cursor, keyCount, key, value ) != NO )
+            {
+                // Would need a split or defragmentation
+                return false;
+            }
+            bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+            TreeNode.setKeyCount( cursor, keyCount + 1 );
+            return true;
+        }
+        finally
+        {
+            latch.unlock();
+        }
+    }
+
+    /**
+     * Outcome of {@link #removeFromLeafOptimistically(PageCursor, Object, Object, long, long, TreeNodeLatches, PageCursorTracer)
+     * an optimistic remove}, which tells what is left to do pessimistically, if anything.
+     */
+    enum OptimisticRemove
+    {
+        /**
+         * The key doesn't exist, nothing was changed.
+         */
+        NOT_FOUND,
+        /**
+         * The key was removed from the leaf, nothing is left to do.
+         */
+        REMOVED,
+        /**
+         * The key was removed from the leaf, which now underflows. The underflow is left for
+         * {@link #handleUnderflowAfterRemove(PageCursor, StructurePropagation, Object, long, long, PageCursorTracer)} to handle.
+         */
+        REMOVED_WITH_UNDERFLOW,
+        /**
+         * Nothing was changed, the key must be removed using
+         * {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, PageCursorTracer)}.
+         */
+        REMOVE
+    }
+
+    /**
+     * Optimistic variant of {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, PageCursorTracer)},
+     * used by concurrent writers. Moves the cursor to the correct leaf, latches it and removes {@code key} from that leaf, but only if
+     * that can be done without a successor of the leaf, and without freeing an offloaded entry. Should the leaf underflow because
+     * of the removal, it is still left as is, since rebalancing or merging it changes the structure of the tree.
+     * <p>
+     * The caller must make sure that no other writer changes the structure of the tree during this call. Other writers
+     * may change leaves concurrently, as long as they also latch the leaves using the same {@code latches}.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree, this logic must have been {@link #initialize(PageCursor) initialized} at it.
+     * @param key key to be removed
+     * @param into {@code VALUE} instance to write removed value to
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param latches latches for the leaves, shared by all concurrent writers.
+     * @param cursorTracer underlying page cursor tracer
+     * @return what is left to do pessimistically, if anything.
+     * @throws IOException on cursor failure
+     */
+    OptimisticRemove removeFromLeafOptimistically( PageCursor cursor, KEY key, VALUE into, long stableGeneration, long unstableGeneration,
+            TreeNodeLatches latches, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorTracer );
+
+        Lock latch = latches.latch( cursor.getCurrentPageId() );
+        latch.lock();
+        try
+        {
+            int keyCount = TreeNode.keyCount( cursor );
+            int search = search( cursor, LEAF, key, readKey, keyCount, cursorTracer );
+            if ( !isHit( search ) )
+            {
+                return OptimisticRemove.NOT_FOUND;
+            }
+            int pos = positionOf( search );
+            if ( TreeNode.generation( cursor ) != unstableGeneration || bTreeNode.offloadIdAt( cursor, pos, LEAF ) != TreeNode.NO_OFFLOAD_ID )
+            {
+                // Would need a successor, or to free the offloaded entry
+                return OptimisticRemove.REMOVE;
+            }
+            keyCount = simplyRemoveFromLeaf( cursor, into, keyCount, pos, stableGeneration, unstableGeneration, cursorTracer );
+            return bTreeNode.leafUnderflow( cursor, keyCount ) ? OptimisticRemove.REMOVED_WITH_UNDERFLOW : OptimisticRemove.REMOVED;
+        }
+        finally
+        {
+            latch.unlock();
+        }
+    }
+
+    /**
+     * Handles underflow of the leaf which {@code key} belongs in, after the key has been
+     * {@link OptimisticRemove#REMOVED_WITH_UNDERFLOW removed optimistically}, the same way as
+     * {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, PageCursorTracer)} would have.
+     * The leaf may have been changed by other writers in between, so it is only rebalanced if it still underflows.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree, this logic must have been {@link #initialize(PageCursor) initialized} at it.
+     * @param structurePropagation {@link StructurePropagation} used to report structure changes between tree levels.
+     * @param key key which was removed
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorTracer underlying page cursor tracer
+     * @throws IOException on cursor failure
+     */
+    void handleUnderflowAfterRemove( PageCursor cursor, StructurePropagation<KEY> structurePropagation, KEY key,
+            long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorTracer );
+
+        int keyCount = TreeNode.keyCount( cursor );
+        if ( bTreeNode.leafUnderflow( cursor, keyCount ) )
+        {
+            createSuccessorIfNeeded( cursor, structurePropagation, UPDATE_MID_CHILD,
+                    stableGeneration, unstableGeneration, cursorTracer );
+            underflowInLeaf( cursor, structurePropagation, keyCount, stableGeneration, unstableGeneration, cursorTracer );
+        }
+
+        handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+
+        if ( currentLevel <= 0 )
+        {
+            tryShrinkTree( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorTracer );
+        }
+    }
+
     private int search( PageCursor cursor, TreeNode.Type type, KEY key, KEY readKey, int keyCount, PageCursorTracer cursorTracer )
     {
         int searchResult = KeySearch.search( cursor, bTreeNode, type, key, readKey, keyCount, cursorTracer );
@@ -104,6 +104,34 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
      */
     void readValue( PageCursor cursor, VALUE into, int valueSize );
 
+    /**
+     * Writes contents of {@code key} into {@code cursor} at its current offset, for leaves which store the prefix that their keys
+     * have in common only once. Only the leading bytes that keys share are compressed, so a layout where keys that are next to each
+     * other in sort order differ in their first bytes, e.g. because of an entity id written before the value, can write those parts
+     * last here. The key must take up {@link #keySize(Object)} bytes, as with {@link #writeKey(PageCursor, Object)}.
+     * By default the key is written as by {@link #writeKey(PageCursor, Object)}.
+     *
+     * @param cursor {@link PageCursor} to write into, at current offset.
+     * @param key key containing data to write.
+     */
+    default void writeKeyForPrefixCompression( PageCursor cursor, KEY key )
+    {
+        writeKey( cursor, key );
+    }
+
+    /**
+     * Reads key contents written by {@link #writeKeyForPrefixCompression(PageCursor, Object)} at {@code cursor} at its current offset
+     * into {@code key}. By default the key is read as by {@link #readKey(PageCursor, Object, int)}.
+     *
+     * @param cursor {@link PageCursor} to read from, at current offset.
+     * @param into key instances to read into.
+     * @param keySize size of key to read.
+     */
+    default void readKeyForPrefixCompression( PageCursor cursor, KEY into, int keySize )
+    {
+        readKey( cursor, into, keySize );
+    }
+
     /**
      * Indicate if keys and values are fixed or dynamix size.
      * @return true if keys and values are fixed size, otherwise true.
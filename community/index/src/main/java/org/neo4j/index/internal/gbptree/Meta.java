@@ -164,9 +164,10 @@ public class Meta
                     layout.identifier(), layout.majorVersion(), layout.minorVersion() ) );
         }
 
-        Factory formatByLayout = TreeNodeSelector.selectByLayout( layout );
+        // Trees created with an older version of the newest format for the layout can still be opened
+        Factory formatByLayout = TreeNodeSelector.selectByLayout( layout, true );
         if ( formatByLayout.formatIdentifier() != formatIdentifier ||
-             formatByLayout.formatVersion() != formatVersion )
+             formatByLayout.formatVersion() < formatVersion )
         {
             throw new MetadataMismatchException( format( "Tried to open using layout not compatible with what index was created with. " +
                     "Created with formatIdentifier:%d,formatVersion:%d. Opened with formatIdentifier:%d,formatVersion%d",
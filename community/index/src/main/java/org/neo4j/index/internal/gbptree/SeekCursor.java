@@ -173,6 +173,10 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
 
     static final int DEFAULT_MAX_READ_AHEAD = 20;
     static final int LEAF_LEVEL = Integer.MAX_VALUE;
+    /**
+     * Maximum number of child pointers, beyond the child being traversed into, that are hinted to the page cache for pre-fetching.
+     */
+    static final int MAX_PREFETCH_HINTS = 32;
 
     /**
      * Cursor for reading from tree nodes and also will be moved around when following pointers.
@@ -439,6 +443,18 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
      */
     private final GenerationKeeper generationKeeper = new GenerationKeeper();
 
+    /**
+     * Ids of the child nodes after the one being traversed into, in seek direction, which still intersect the seek range.
+     * These are hinted to the page cache when traversing down, so that the nodes which the scan will visit later can be faulted in
+     * while the scan is busy with the preceding ones. {@code null} for exact match seeks, since they will only visit a single leaf.
+     */
+    private final long[] prefetchHints;
+
+    /**
+     * Number of valid entries in {@link #prefetchHints}, as read together with {@link #pointerId}.
+     */
+    private int prefetchHintCount;
+
     @SuppressWarnings( "unchecked" )
     SeekCursor( PageCursor cursor, TreeNode<KEY,VALUE> bTreeNode, KEY fromInclusive, KEY toExclusive,
             Layout<KEY,VALUE> layout, long stableGeneration, long unstableGeneration, LongSupplier generationSupplier,
@@ -470,6 +486,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         this.expectedFirstAfterGoToNext = layout.newKey();
         this.firstKeyInNode = layout.newKey();
         this.searchLevel = searchLevel;
+        this.prefetchHints = exactMatch ? null : new long[MAX_PREFETCH_HINTS];
 
         try
         {
@@ -524,6 +541,7 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
                 {
                     pointerId = bTreeNode.childAt( cursor, pos, stableGeneration, unstableGeneration, generationKeeper );
                     pointerGeneration = generationKeeper.generation;
+                    prefetchHintCount = readPrefetchHints();
                 }
             }
             while ( cursor.shouldRetry() );
@@ -559,6 +577,10 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
             if ( lookingForChild )
             {
                 monitor.internalNode( completedReadLevel, keyCount );
+                if ( prefetchHintCount > 0 )
+                {
+                    cursor.prefetch( prefetchHints, prefetchHintCount );
+                }
                 goTo( pointerId, pointerGeneration, "child", false );
                 currentReadLevel++;
             }
@@ -933,6 +955,36 @@ class SeekCursor<KEY,VALUE> implements Seeker<KEY,VALUE>
         return KeySearch.search( cursor, bTreeNode, type, key, mutableKeys[0], keyCount, cursorTracer );
     }
 
+    /**
+     * Reads the child pointers following {@link #pos} in seek direction, up to and including the child that contains {@link #toExclusive},
+     * into {@link #prefetchHints}. Like all other reads this must be followed by a {@link PageCursor#shouldRetry()} before being used.
+     *
+     * @return number of child pointers read into {@link #prefetchHints}.
+     */
+    private int readPrefetchHints()
+    {
+        if ( prefetchHints == null )
+        {
+            return 0;
+        }
+        int toSearchResult = searchKey( toExclusive, INTERNAL );
+        if ( !KeySearch.isSuccess( toSearchResult ) )
+        {
+            return 0;
+        }
+        int toPos = KeySearch.childPositionOf( toSearchResult );
+        int count = 0;
+        for ( int childPos = pos + stride; count < prefetchHints.length && (seekForward ? childPos <= toPos : childPos >= toPos); childPos += stride )
+        {
+            long child = bTreeNode.childAt( cursor, childPos, stableGeneration, unstableGeneration );
+            if ( GenerationSafePointerPair.isSuccess( child ) && TreeNode.isNode( child ) )
+            {
+                prefetchHints[count++] = GenerationSafePointerPair.pointer( child );
+            }
+        }
+        return count;
+    }
+
     private int positionOf( int searchResult, boolean lookingForChildPosition )
     {
         if ( lookingForChildPosition )
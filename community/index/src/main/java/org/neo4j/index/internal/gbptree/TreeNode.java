@@ -355,6 +355,27 @@ abstract class TreeNode<KEY,VALUE>
      */
     abstract void defragmentInternal( PageCursor cursor );
 
+    /**
+     * Will leaf be filled to more than the given fraction of its space if inserting new key and value?
+     * Used when bulk loading, where nodes are filled up to a fill factor instead of being split.
+     * @return true if leaf will go above the fill factor, else false.
+     */
+    abstract boolean leafExceedsFill( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor );
+
+    /**
+     * Will internal node be filled to more than the given fraction of its space if inserting new key?
+     * @return true if internal node will go above the fill factor, else false.
+     */
+    abstract boolean internalExceedsFill( PageCursor cursor, int currentKeyCount, KEY newKey, double fillFactor );
+
+    /**
+     * Rewrite all entries of leaf in the most compact way the format allows, to make room for more entries.
+     * Used when bulk loading, where leaves are filled by appending entries instead of by being split.
+     */
+    void compactLeaf( PageCursor cursor, int keyCount )
+    {   // no-op
+    }
+
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
     /**
@@ -24,9 +24,12 @@ import org.eclipse.collections.api.stack.primitive.MutableIntStack;
 import org.eclipse.collections.impl.stack.mutable.primitive.IntArrayStack;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.util.Arrays;
 import java.util.StringJoiner;
 
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.util.VisibleForTesting;
@@ -81,12 +84,30 @@ import static org.neo4j.io.ByteUnit.kibiBytes;
  *
  * ---
  *
+ * Prefix compression
+ * In the prefix compressed format the header has an additional field, PREFIXOFFSET, after DEADSPACE. If it is set (non-zero)
+ * it points to a prefix entry in the data section of a leaf, written as a key entry of its own but not present in the offset array.
+ * Every inline key in such a leaf is then written as one byte saying how many bytes it shares with the prefix, followed by
+ * the rest of the key. Offloaded entries, internal nodes and leaves without a prefix otherwise look as in the uncompressed format.
+ * The prefix of a leaf is decided when its entries are rewritten, i.e. when it is split, merged or rebalanced. Keys inserted
+ * in between share as much of the prefix they can. Compression works on the serialized form of the keys. Inline keys in leaves
+ * are therefore serialized with {@link Layout#writeKeyForPrefixCompression(PageCursor, Object)} in this format, which lets the
+ * layout put the parts of the key that neighbouring keys have in common first.
+ *
+ * LEAF WITH PREFIX
+ * [HEADER ... ][DEADSPACE][PREFIXOFFSET]|[K0*,K1*,K2*]->      <-[KV0,KV2,P,KV1]
+ * KV = [keyValueSize|sharedLength 1B|keySuffix|value]
+ * P  = [keySize|prefix]
+ *
+ * ---
+ *
  * See {@link DynamicSizeUtil} for more detailed layout for individual offset array entries and key / key_value entries.
  */
 public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 {
     static final byte FORMAT_IDENTIFIER = 3;
     static final byte FORMAT_VERSION = 0;
+    static final byte FORMAT_VERSION_PREFIX_COMPRESSED = 1;
 
     /**
      * This is the fixed key value size cap in 4.0 and it is based on
@@ -100,8 +121,24 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     static final int USE_2B_OFFSET_PAGE_SIZE_LIMIT = (int) kibiBytes( 64 );
     private static final int LEAST_NUMBER_OF_ENTRIES_PER_PAGE = 2;
     private static final int MINIMUM_ENTRY_SIZE_CAP = Long.SIZE;
+    static final int NO_PREFIX = 0;
+    private static final int SIZE_SHARED_PREFIX_LENGTH = 1;
+    // Shared prefix length must fit in one byte, without using the tombstone bit
+    private static final int MAX_PREFIX_LENGTH = 0x7F;
+    // Keep the prefix small compared to the page, it is reserved space in every leaf
+    private static final int PREFIX_LENGTH_PAGE_SIZE_RATIO = 64;
+    // No prefix, prefixes of the two leaves involved and two prefixes picked from the keys themselves
+    private static final int MAX_PREFIX_CANDIDATES = 5;
+    private static final int OFFLOADED = -1;
+    // Keys of leaves with a prefix are put together here before handing them to the layout. Readers and concurrent writers
+    // share this instance, so the buffer is per thread, shared by all trees.
+    private static final ThreadLocal<KeyBuffer> KEY_BUFFER = ThreadLocal.withInitial( KeyBuffer::new );
 
     private final DynamicSizeOffsetFormat offsetFormat;
+    private final boolean prefixCompression;
+    private final int headerLength;
+    private final int maxPrefixLength;
+    private final int minimumEntrySpace;
     private final int inlineKeyValueSizeCap;
     private final int keyValueSizeCap;
     private final boolean msbIsOffload;
@@ -115,18 +152,51 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private final KEY tmpKeyRight;
     private final OffloadStore<KEY,VALUE> offloadStore;
 
+    // State used when rewriting leaves in the prefix compressed format, only used by the writer changing the structure of the tree.
+    // Entries are gathered with their complete keys and values, see #rewriteLeaf.
+    private byte[] entryBuffer;
+    private int entryBufferLength;
+    private int entryCount;
+    private int[] entryKeyOffset;
+    private int[] entryKeySize;
+    private int[] entryValueSize;
+    private long[] entryOffloadId;
+    private final byte[][] candidatePrefix;
+    private final int[] candidateLength;
+    private int candidateCount;
+    // Accumulated space of gathered entries for each candidate prefix, candidateSpace[c][i] is space of entries [0,i)
+    private int[][] candidateSpace;
+
     TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+    {
+        this( pageSize, layout, offloadStore, false );
+    }
+
+    TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore, boolean prefixCompression )
     {
         super( pageSize, layout );
 
         this.offsetFormat = selectOffsetFormat( pageSize );
-        int maxKeyCount = pageSize / (getTotalOverhead( offsetFormat ) + SIZE_KEY_VALUE_SIZE);
+        this.prefixCompression = prefixCompression;
+        this.headerLength = headerLength( offsetFormat, prefixCompression );
+        this.maxPrefixLength = maxPrefixLength( pageSize, prefixCompression );
+        // With prefix compression a key can be as small as its shared prefix length
+        this.minimumEntrySpace = prefixCompression ? offsetFormat.offsetSize() + 1 + SIZE_SHARED_PREFIX_LENGTH : getTotalOverhead( offsetFormat );
+        int maxKeyCount = prefixCompression ? pageSize / minimumEntrySpace + 1 : pageSize / (getTotalOverhead( offsetFormat ) + SIZE_KEY_VALUE_SIZE);
         this.oldOffset = new int[maxKeyCount];
         this.newOffset = new int[maxKeyCount];
 
         this.offloadStore = offloadStore;
-        totalSpace = pageSize - offsetFormat.getHeaderLength();
+        totalSpace = pageSize - headerLength;
         halfSpace = totalSpace >> 1;
+        this.entryBuffer = new byte[0];
+        this.entryKeyOffset = new int[0];
+        this.entryKeySize = new int[0];
+        this.entryValueSize = new int[0];
+        this.entryOffloadId = new long[0];
+        this.candidatePrefix = new byte[prefixCompression ? MAX_PREFIX_CANDIDATES : 0][maxPrefixLength];
+        this.candidateLength = new int[MAX_PREFIX_CANDIDATES];
+        this.candidateSpace = new int[prefixCompression ? MAX_PREFIX_CANDIDATES : 0][0];
 
         /*
         The page size will affect how large entries (key-value pairs) we can fit.
@@ -187,8 +257,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         inlineKeyValueSizeCap - How large entries can be inlined?
          */
         msbIsOffload = useOffloadStore( pageSize );
-        inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize );
-        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
+        inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize, prefixCompression );
+        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize, prefixCompression );
 
         if ( inlineKeyValueSizeCap < MINIMUM_ENTRY_SIZE_CAP )
         {
@@ -212,20 +282,59 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return pageSize <= USE_OFFLOAD_STORE_PAGE_SIZE_LIMIT;
     }
 
+    private static int headerLength( DynamicSizeOffsetFormat offsetFormat, boolean prefixCompression )
+    {
+        return prefixCompression ? offsetFormat.getHeaderLengthPrefixCompressed() : offsetFormat.getHeaderLength();
+    }
+
+    private static int maxPrefixLength( int pageSize, boolean prefixCompression )
+    {
+        if ( !prefixCompression )
+        {
+            return 0;
+        }
+        int totalSpace = pageSize - headerLength( selectOffsetFormat( pageSize ), true );
+        return Math.min( MAX_PREFIX_LENGTH, totalSpace / PREFIX_LENGTH_PAGE_SIZE_RATIO );
+    }
+
+    /**
+     * Entry size cap for trees created with the current format, i.e. with prefix compression.
+     */
     @VisibleForTesting
     public static int keyValueSizeCapFromPageSize( int pageSize )
+    {
+        return keyValueSizeCapFromPageSize( pageSize, true );
+    }
+
+    private static int keyValueSizeCapFromPageSize( int pageSize, boolean prefixCompression )
     {
         return useOffloadStore( pageSize ) ?
                Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, OffloadStoreImpl.keyValueSizeCapFromPageSize( pageSize ) ) :
-               Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, inlineKeyValueSizeCap( pageSize ) );
+               Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, inlineKeyValueSizeCap( pageSize, prefixCompression ) );
     }
 
+    /**
+     * Inline entry size cap for trees created with the current format, i.e. with prefix compression.
+     */
     @VisibleForTesting
     public static int inlineKeyValueSizeCap( int pageSize )
+    {
+        return inlineKeyValueSizeCap( pageSize, true );
+    }
+
+    private static int inlineKeyValueSizeCap( int pageSize, boolean prefixCompression )
     {
         DynamicSizeOffsetFormat offsetFormat = selectOffsetFormat( pageSize );
         int totalOverhead = getTotalOverhead( offsetFormat );
-        int capToFitNumberOfEntriesPerPage = (pageSize - offsetFormat.getHeaderLength()) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - totalOverhead;
+        int availableSpace = pageSize - headerLength( offsetFormat, prefixCompression );
+        if ( prefixCompression )
+        {
+            // Two entries must fit together with a prefix, and each of them may need a shared prefix length
+            int maxPrefixLength = maxPrefixLength( pageSize, true );
+            availableSpace -= getOverhead( maxPrefixLength, 0, false ) + maxPrefixLength;
+            totalOverhead += SIZE_SHARED_PREFIX_LENGTH;
+        }
+        int capToFitNumberOfEntriesPerPage = availableSpace / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - totalOverhead;
         return Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, capToFitNumberOfEntriesPerPage );
     }
 
@@ -239,6 +348,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         setAllocOffset( cursor, pageSize );
         setDeadSpace( cursor, 0 );
+        if ( prefixCompression )
+        {
+            setPrefixOffset( cursor, NO_PREFIX );
+        }
     }
 
     @Override
@@ -281,12 +394,20 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
             int keySize = extractKeySize( keyValueSize );
             int valueSize = extractValueSize( keyValueSize );
-            if ( keyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 )
+            if ( storedKeyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 )
             {
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return into;
             }
-            layout.readKey( cursor, into, keySize );
+            int prefixOffset = prefixOffset( cursor, type );
+            if ( prefixOffset == NO_PREFIX )
+            {
+                readKey( cursor, into, keySize, type );
+            }
+            else
+            {
+                readPrefixedKeyValue( cursor, prefixOffset, into, null, keySize, valueSize, pos );
+            }
         }
         return into;
     }
@@ -314,12 +435,72 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
         else
         {
-            if ( keyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
+            if ( storedKeyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
             {
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return;
             }
-            layout.readKey( cursor, intoKey, keySize );
+            int prefixOffset = prefixOffset( cursor, LEAF );
+            if ( prefixOffset == NO_PREFIX )
+            {
+                readKey( cursor, intoKey, keySize, LEAF );
+                layout.readValue( cursor, intoValue, valueSize );
+            }
+            else
+            {
+                readPrefixedKeyValue( cursor, prefixOffset, intoKey, intoValue, keySize, valueSize, pos );
+            }
+        }
+    }
+
+    /**
+     * Read key, and value if {@code intoValue} is not null, of an inline entry in a leaf with a prefix.
+     * Cursor is expected to be placed right after keyValueSize of the entry, at the shared prefix length.
+     * The key is put together from the shared part of the prefix and the rest of the key before handing it to the layout.
+     * This is done in a {@link KeyBuffer} of the reading thread, since readers and concurrent writers share this instance.
+     */
+    private void readPrefixedKeyValue( PageCursor cursor, int prefixOffset, KEY intoKey, VALUE intoValue, int storedKeySize, int valueSize, int pos )
+    {
+        int sharedLength = cursor.getByte() & 0xFF;
+        int suffixLength = storedKeySize - SIZE_SHARED_PREFIX_LENGTH;
+        int suffixOffset = cursor.getOffset();
+        int prefixLength = readPrefixLength( cursor, prefixOffset );
+        if ( suffixLength < 0 || sharedLength > prefixLength || sharedLength + suffixLength + valueSize > keyValueSizeCap() )
+        {
+            cursor.setCursorException( format( "Read unreliable prefixed key, id=%d, keySize=%d, sharedLength=%d, prefixLength=%d, pos=%d",
+                    cursor.getCurrentPageId(), storedKeySize, sharedLength, prefixLength, pos ) );
+            return;
+        }
+
+        int keySize = sharedLength + suffixLength;
+        KeyBuffer keyBuffer = KEY_BUFFER.get();
+        byte[] keyBytes = keyBuffer.bytes( keySize );
+        cursor.getBytes( keyBytes, 0, sharedLength );
+        cursor.setOffset( suffixOffset );
+        cursor.getBytes( keyBytes, sharedLength, suffixLength );
+
+        PageCursor keyCursor = keyBuffer.cursor();
+        try
+        {
+            layout.readKeyForPrefixCompression( keyCursor, intoKey, keySize );
+            keyCursor.checkAndClearCursorException();
+        }
+        catch ( CursorException e )
+        {
+            cursor.setCursorException( e.getMessage() );
+        }
+        catch ( BufferUnderflowException | IndexOutOfBoundsException e )
+        {
+            // The layout read beyond the key, as it may do when it reads an inconsistent key
+            cursor.raiseOutOfBounds();
+        }
+        if ( keyCursor.checkAndClearBoundsFlag() || keyCursor.getOffset() > keySize )
+        {
+            cursor.raiseOutOfBounds();
+        }
+
+        if ( intoValue != null )
+        {
             layout.readValue( cursor, intoValue, valueSize );
         }
     }
@@ -369,15 +550,30 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int currentKeyValueOffset = getAllocOffset( cursor );
         int keySize = layout.keySize( key );
         int valueSize = layout.valueSize( value );
+        int prefixOffset = prefixOffset( cursor, LEAF );
         int newKeyValueOffset;
-        if ( canInline( keySize + valueSize ) )
+        if ( prefixOffset != NO_PREFIX && canInline( keySize + valueSize ) )
+        {
+            byte[] keyBytes = serializeKey( key, keySize );
+            int sharedLength = sharedPrefixLength( cursor, prefixOffset, keyBytes, keySize );
+            int storedKeySize = SIZE_SHARED_PREFIX_LENGTH + keySize - sharedLength;
+            newKeyValueOffset = currentKeyValueOffset - storedKeySize - valueSize - getOverhead( storedKeySize, valueSize, false );
+
+            // Write shared prefix length, rest of key and value
+            cursor.setOffset( newKeyValueOffset );
+            putKeyValueSize( cursor, storedKeySize, valueSize, false );
+            cursor.putByte( (byte) sharedLength );
+            cursor.putBytes( keyBytes, sharedLength, keySize - sharedLength );
+            layout.writeValue( cursor, value );
+        }
+        else if ( canInline( keySize + valueSize ) )
         {
             newKeyValueOffset = currentKeyValueOffset - keySize - valueSize - getOverhead( keySize, valueSize, false );
 
             // Write key and value
             cursor.setOffset( newKeyValueOffset );
             putKeyValueSize( cursor, keySize, valueSize, false );
-            layout.writeKey( cursor, key );
+            writeLeafKey( cursor, key );
             layout.writeValue( cursor, value );
         }
         else
@@ -544,7 +740,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
         else
         {
-            if ( keyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
+            if ( storedKeyValueSizeTooLarge( keySize, valueSize ) || keySize < 0 || valueSize < 0 )
             {
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return into;
@@ -612,7 +808,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     boolean reasonableKeyCount( int keyCount )
     {
-        return keyCount >= 0 && keyCount <= totalSpace / getTotalOverhead( offsetFormat );
+        return keyCount >= 0 && keyCount <= totalSpace / minimumEntrySpace;
     }
 
     @Override
@@ -651,13 +847,40 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
         // How much space do we need?
-        int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
+        int neededSpace = totalSpaceOfKeyValue( cursor, newKey, newValue );
 
         // There is your answer!
         return neededSpace <= allocSpace ? Overflow.NO :
                neededSpace <= allocSpace + deadSpace ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
     }
 
+    @Override
+    boolean leafExceedsFill( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor )
+    {
+        int neededSpace = totalSpaceOfKeyValue( cursor, newKey, newValue );
+        return totalActiveSpace( cursor, currentKeyCount, LEAF ) + neededSpace > totalSpace * fillFactor;
+    }
+
+    @Override
+    boolean internalExceedsFill( PageCursor cursor, int currentKeyCount, KEY newKey, double fillFactor )
+    {
+        int neededSpace = totalSpaceOfKeyChild( newKey );
+        return totalActiveSpace( cursor, currentKeyCount, INTERNAL ) + neededSpace > totalSpace * fillFactor;
+    }
+
+    @Override
+    void compactLeaf( PageCursor cursor, int keyCount )
+    {
+        if ( prefixCompression )
+        {
+            // Appended entries don't share any prefix until the leaf is rewritten with one
+            clearEntries();
+            readLeafEntries( cursor, keyCount );
+            prepareCandidates();
+            rewriteLeaf( cursor, 0, keyCount );
+        }
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
     {
@@ -804,6 +1027,20 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             }
         }
 
+        // Prefix is not in offset array but may also have moved
+        int prefixOffset = prefixOffset( cursor, type );
+        if ( prefixOffset != NO_PREFIX )
+        {
+            for ( int index = 0; index < oldOffsetCursor; index++ )
+            {
+                if ( prefixOffset == oldOffset[index] )
+                {
+                    setPrefixOffset( cursor, newOffset[index] );
+                    break;
+                }
+            }
+        }
+
         // Update dead space
         setDeadSpace( cursor, 0 );
     }
@@ -832,6 +1069,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
+        if ( prefixCompression )
+        {
+            return canRebalancePrefixCompressedLeaves( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+        }
+
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount, LEAF );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount, LEAF );
 
@@ -870,9 +1112,56 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return canRebalance ? keysToMove : 0;
     }
 
+    /**
+     * Same as {@link #canRebalanceLeaves(PageCursor, int, PageCursor, int)} but space is calculated as if the entries
+     * were written to the leaves with the best possible prefix, which is how they will be written.
+     */
+    private int canRebalancePrefixCompressedLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        gatherEntries( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+        int keyCount = leftKeyCount + rightKeyCount;
+        if ( spaceOfEntries( 0, keyCount ) < totalSpace )
+        {
+            // We can merge
+            return -1;
+        }
+        int leftActiveSpace = spaceOfEntries( 0, leftKeyCount );
+        int rightActiveSpace = spaceOfEntries( leftKeyCount, keyCount );
+        if ( leftActiveSpace < rightActiveSpace )
+        {
+            // Moving keys to the right will only create more imbalance
+            return 0;
+        }
+
+        int prevDelta;
+        int currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
+        int keysToMove = 0;
+        do
+        {
+            keysToMove++;
+            int splitPos = leftKeyCount - keysToMove;
+            prevDelta = currentDelta;
+            currentDelta = Math.abs( spaceOfEntries( 0, splitPos ) - spaceOfEntries( splitPos, keyCount ) );
+        }
+        while ( currentDelta < prevDelta && keysToMove < leftKeyCount );
+        keysToMove--; // Move back to optimal split
+        leftActiveSpace = spaceOfEntries( 0, leftKeyCount - keysToMove );
+        rightActiveSpace = spaceOfEntries( leftKeyCount - keysToMove, keyCount );
+
+        int halfSpace = this.halfSpace;
+        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace && rightActiveSpace <= totalSpace;
+        return canRebalance ? keysToMove : 0;
+    }
+
     @Override
     boolean canMergeLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
+        if ( prefixCompression )
+        {
+            gatherEntries( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+            return spaceOfEntries( 0, leftKeyCount + rightKeyCount ) <= totalSpace;
+        }
+
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount, LEAF );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount, LEAF );
         int totalSpace = this.totalSpace;
@@ -886,7 +1175,19 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     {
         // Find split position
         int keyCountAfterInsert = leftKeyCount + 1;
-        int splitPos = splitPosInLeaf( leftCursor, insertPos, newKey, newValue, keyCountAfterInsert, ratioToKeepInLeftOnSplit );
+        int splitPos;
+        if ( prefixCompression )
+        {
+            clearEntries();
+            readLeafEntries( leftCursor, leftKeyCount );
+            insertEntry( insertPos, newKey, newValue, stableGeneration, unstableGeneration, cursorTracer );
+            prepareCandidates();
+            splitPos = splitPosInPrefixCompressedLeaf( keyCountAfterInsert, ratioToKeepInLeftOnSplit );
+        }
+        else
+        {
+            splitPos = splitPosInLeaf( leftCursor, insertPos, newKey, newValue, keyCountAfterInsert, ratioToKeepInLeftOnSplit );
+        }
 
         KEY leftInSplit;
         KEY rightInSplit;
@@ -915,7 +1216,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         int rightKeyCount = keyCountAfterInsert - splitPos;
 
-        if ( insertPos < splitPos )
+        if ( prefixCompression )
+        {
+            // Both halves get the prefix that suits them best
+            rewriteLeaf( leftCursor, 0, splitPos );
+            rewriteLeaf( rightCursor, splitPos, keyCountAfterInsert );
+        }
+        else if ( insertPos < splitPos )
         {
             //                v---------v       copy
             // before _,_,_,_,_,_,_,_,_,_
@@ -1026,6 +1333,16 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     void moveKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount,
             int fromPosInLeftNode )
     {
+        if ( prefixCompression )
+        {
+            gatherEntries( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+            rewriteLeaf( leftCursor, 0, fromPosInLeftNode );
+            rewriteLeaf( rightCursor, fromPosInLeftNode, leftKeyCount + rightKeyCount );
+            setKeyCount( leftCursor, fromPosInLeftNode );
+            setKeyCount( rightCursor, rightKeyCount + leftKeyCount - fromPosInLeftNode );
+            return;
+        }
+
         defragmentLeaf( rightCursor );
         int numberOfKeysToMove = leftKeyCount - fromPosInLeftNode;
 
@@ -1090,6 +1407,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     void copyKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
+        if ( prefixCompression )
+        {
+            // Left is left untouched
+            gatherEntries( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+            rewriteLeaf( rightCursor, 0, leftKeyCount + rightKeyCount );
+            setKeyCount( rightCursor, rightKeyCount + leftKeyCount );
+            return;
+        }
+
         defragmentLeaf( rightCursor );
 
         // Push keys and values in right sibling to the right
@@ -1136,6 +1462,326 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return newRightAllocSpace;
     }
 
+    /*
+    Rewriting leaves in the prefix compressed format
+
+    When entries are moved between leaves, i.e. on split, merge and rebalance, the prefix of the leaves involved is reconsidered.
+    All entries of the leaves, together with a new entry on split, are gathered with their complete keys. A small number of
+    candidate prefixes are then evaluated: no prefix at all, the current prefixes of the leaves and prefixes picked from keys
+    in the first and second half of the entries. Space needed by the gathered entries under each candidate is accumulated so
+    that the space of any range of entries, written with its best candidate, is cheap to calculate. Since the
+    current prefix of a leaf is one of the candidates, entries from one leaf never need more space than they had in that leaf.
+     */
+
+    private void gatherEntries( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        clearEntries();
+        readLeafEntries( leftCursor, leftKeyCount );
+        readLeafEntries( rightCursor, rightKeyCount );
+        prepareCandidates();
+    }
+
+    private void clearEntries()
+    {
+        entryCount = 0;
+        entryBufferLength = 0;
+        // First candidate is always no prefix at all
+        candidateLength[0] = 0;
+        candidateCount = 1;
+    }
+
+    /**
+     * Append all entries in leaf to the gathered entries. Prefix of leaf is added as a candidate prefix.
+     */
+    private void readLeafEntries( PageCursor cursor, int keyCount )
+    {
+        ensureEntryCapacity( entryCount + keyCount );
+        int prefixOffset = prefixOffset( cursor, LEAF );
+        byte[] prefix = null;
+        if ( prefixOffset != NO_PREFIX )
+        {
+            int prefixLength = readPrefixLength( cursor, prefixOffset );
+            prefix = candidatePrefix[candidateCount];
+            cursor.getBytes( prefix, 0, prefixLength );
+            candidateLength[candidateCount++] = prefixLength;
+        }
+
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            int entry = entryCount++;
+            placeCursorAtActualKey( cursor, pos, LEAF );
+            long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
+            if ( extractOffload( keyValueSize ) )
+            {
+                entryKeyOffset[entry] = OFFLOADED;
+                entryOffloadId[entry] = readOffloadId( cursor );
+                continue;
+            }
+
+            int keySize = extractKeySize( keyValueSize );
+            int valueSize = extractValueSize( keyValueSize );
+            int sharedLength = 0;
+            if ( prefixOffset != NO_PREFIX )
+            {
+                sharedLength = cursor.getByte() & 0xFF;
+                keySize += sharedLength - SIZE_SHARED_PREFIX_LENGTH;
+            }
+            int entryOffset = allocateEntry( entry, keySize, valueSize );
+            if ( sharedLength > 0 )
+            {
+                System.arraycopy( prefix, 0, entryBuffer, entryOffset, sharedLength );
+            }
+            cursor.getBytes( entryBuffer, entryOffset + sharedLength, keySize - sharedLength + valueSize );
+        }
+    }
+
+    /**
+     * Insert new entry among the gathered entries. Entry is offloaded if it can not be inlined.
+     */
+    private void insertEntry( int pos, KEY key, VALUE value, long stableGeneration, long unstableGeneration, PageCursorTracer cursorTracer )
+            throws IOException
+    {
+        ensureEntryCapacity( entryCount + 1 );
+        int entriesToMove = entryCount - pos;
+        System.arraycopy( entryKeyOffset, pos, entryKeyOffset, pos + 1, entriesToMove );
+        System.arraycopy( entryKeySize, pos, entryKeySize, pos + 1, entriesToMove );
+        System.arraycopy( entryValueSize, pos, entryValueSize, pos + 1, entriesToMove );
+        System.arraycopy( entryOffloadId, pos, entryOffloadId, pos + 1, entriesToMove );
+        entryCount++;
+
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        if ( canInline( keySize + valueSize ) )
+        {
+            byte[] valueBytes = new byte[valueSize];
+            layout.writeValue( ByteArrayPageCursor.wrap( valueBytes ), value );
+            int entryOffset = allocateEntry( pos, keySize, valueSize );
+            System.arraycopy( serializeKey( key, keySize ), 0, entryBuffer, entryOffset, keySize );
+            System.arraycopy( valueBytes, 0, entryBuffer, entryOffset + keySize, valueSize );
+        }
+        else
+        {
+            entryKeyOffset[pos] = OFFLOADED;
+            entryOffloadId[pos] = offloadStore.writeKeyValue( key, value, stableGeneration, unstableGeneration, cursorTracer );
+        }
+    }
+
+    /**
+     * @return offset in entry buffer where key and value of entry should be put.
+     */
+    private int allocateEntry( int entry, int keySize, int valueSize )
+    {
+        int entryOffset = entryBufferLength;
+        entryBufferLength += keySize + valueSize;
+        if ( entryBufferLength > entryBuffer.length )
+        {
+            entryBuffer = Arrays.copyOf( entryBuffer, Math.max( entryBufferLength, entryBuffer.length * 2 ) );
+        }
+        entryKeyOffset[entry] = entryOffset;
+        entryKeySize[entry] = keySize;
+        entryValueSize[entry] = valueSize;
+        return entryOffset;
+    }
+
+    private void ensureEntryCapacity( int capacity )
+    {
+        if ( entryKeyOffset.length < capacity )
+        {
+            int newCapacity = Math.max( capacity, entryKeyOffset.length * 2 );
+            entryKeyOffset = Arrays.copyOf( entryKeyOffset, newCapacity );
+            entryKeySize = Arrays.copyOf( entryKeySize, newCapacity );
+            entryValueSize = Arrays.copyOf( entryValueSize, newCapacity );
+            entryOffloadId = Arrays.copyOf( entryOffloadId, newCapacity );
+        }
+    }
+
+    /**
+     * Add candidate prefixes picked from the gathered keys and accumulate space of entries for all candidates.
+     */
+    private void prepareCandidates()
+    {
+        addKeyCandidate( entryCount / 4 );
+        addKeyCandidate( entryCount * 3 / 4 );
+
+        if ( candidateSpace[0].length < entryCount + 1 )
+        {
+            int newCapacity = Math.max( entryCount + 1, candidateSpace[0].length * 2 );
+            for ( int candidate = 0; candidate < MAX_PREFIX_CANDIDATES; candidate++ )
+            {
+                candidateSpace[candidate] = new int[newCapacity];
+            }
+        }
+        for ( int candidate = 0; candidate < candidateCount; candidate++ )
+        {
+            int[] space = candidateSpace[candidate];
+            space[0] = 0;
+            for ( int entry = 0; entry < entryCount; entry++ )
+            {
+                space[entry + 1] = space[entry] + spaceOfEntry( entry, candidate );
+            }
+        }
+    }
+
+    private void addKeyCandidate( int entry )
+    {
+        if ( entry >= entryCount || entryKeyOffset[entry] == OFFLOADED )
+        {
+            return;
+        }
+        int candidate = candidateCount;
+        int length = Math.min( maxPrefixLength, entryKeySize[entry] );
+        System.arraycopy( entryBuffer, entryKeyOffset[entry], candidatePrefix[candidate], 0, length );
+        candidateLength[candidate] = length;
+
+        // No need for the prefix to be longer than what it has in common with any other key
+        int usefulLength = 0;
+        for ( int other = 0; other < entryCount; other++ )
+        {
+            if ( other != entry )
+            {
+                usefulLength = Math.max( usefulLength, sharedPrefixLength( other, candidate ) );
+            }
+        }
+        if ( usefulLength > 0 )
+        {
+            candidateLength[candidate] = usefulLength;
+            candidateCount++;
+        }
+    }
+
+    /**
+     * @return length of candidate prefix shared with key of gathered entry.
+     */
+    private int sharedPrefixLength( int entry, int candidate )
+    {
+        if ( entryKeyOffset[entry] == OFFLOADED )
+        {
+            return 0;
+        }
+        byte[] prefix = candidatePrefix[candidate];
+        int keyOffset = entryKeyOffset[entry];
+        int maxSharedLength = Math.min( candidateLength[candidate], entryKeySize[entry] );
+        int sharedLength = 0;
+        while ( sharedLength < maxSharedLength && entryBuffer[keyOffset + sharedLength] == prefix[sharedLength] )
+        {
+            sharedLength++;
+        }
+        return sharedLength;
+    }
+
+    /**
+     * @return space of gathered entry, including offset, if written with candidate prefix.
+     */
+    private int spaceOfEntry( int entry, int candidate )
+    {
+        if ( entryKeyOffset[entry] == OFFLOADED )
+        {
+            return bytesKeyOffset() + getOverhead( 0, 0, true );
+        }
+        int keySize = entryKeySize[entry];
+        int valueSize = entryValueSize[entry];
+        if ( candidateLength[candidate] > 0 )
+        {
+            keySize = SIZE_SHARED_PREFIX_LENGTH + keySize - sharedPrefixLength( entry, candidate );
+        }
+        return bytesKeyOffset() + getOverhead( keySize, valueSize, false ) + keySize + valueSize;
+    }
+
+    private static int spaceOfPrefix( int prefixLength )
+    {
+        return prefixLength == 0 ? 0 : getOverhead( prefixLength, 0, false ) + prefixLength;
+    }
+
+    /**
+     * @return total space of gathered entries [from,to) when written to a leaf with the best candidate prefix.
+     */
+    private int spaceOfEntries( int from, int to )
+    {
+        return spaceOfEntries( from, to, bestCandidate( from, to ) );
+    }
+
+    private int spaceOfEntries( int from, int to, int candidate )
+    {
+        return spaceOfPrefix( candidateLength[candidate] ) + candidateSpace[candidate][to] - candidateSpace[candidate][from];
+    }
+
+    private int bestCandidate( int from, int to )
+    {
+        int best = 0;
+        for ( int candidate = 1; candidate < candidateCount; candidate++ )
+        {
+            if ( spaceOfEntries( from, to, candidate ) < spaceOfEntries( from, to, best ) )
+            {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Replace all content of leaf with gathered entries [from,to), written with the candidate prefix that makes them take the least space.
+     * NOTE: Does NOT update keyCount
+     */
+    private void rewriteLeaf( PageCursor cursor, int from, int to )
+    {
+        // Prefix need not be longer than what is shared by the entries in this leaf
+        int candidate = bestCandidate( from, to );
+        int prefixLength = 0;
+        if ( candidateLength[candidate] > 0 )
+        {
+            for ( int entry = from; entry < to; entry++ )
+            {
+                prefixLength = Math.max( prefixLength, sharedPrefixLength( entry, candidate ) );
+            }
+        }
+
+        int allocOffset = pageSize;
+        int prefixOffset = NO_PREFIX;
+        if ( prefixLength > 0 )
+        {
+            allocOffset -= spaceOfPrefix( prefixLength );
+            prefixOffset = allocOffset;
+            cursor.setOffset( allocOffset );
+            putKeySize( cursor, prefixLength, false );
+            cursor.putBytes( candidatePrefix[candidate], 0, prefixLength );
+        }
+
+        for ( int entry = from, pos = 0; entry < to; entry++, pos++ )
+        {
+            if ( entryKeyOffset[entry] == OFFLOADED )
+            {
+                allocOffset -= getOverhead( 0, 0, true );
+                cursor.setOffset( allocOffset );
+                putKeyValueSize( cursor, 0, 0, true );
+                DynamicSizeUtil.putOffloadId( cursor, entryOffloadId[entry] );
+            }
+            else
+            {
+                int keySize = entryKeySize[entry];
+                int valueSize = entryValueSize[entry];
+                int sharedLength = prefixLength > 0 ? sharedPrefixLength( entry, candidate ) : 0;
+                int storedKeySize = prefixLength > 0 ? SIZE_SHARED_PREFIX_LENGTH + keySize - sharedLength : keySize;
+                allocOffset -= getOverhead( storedKeySize, valueSize, false ) + storedKeySize + valueSize;
+                cursor.setOffset( allocOffset );
+                putKeyValueSize( cursor, storedKeySize, valueSize, false );
+                if ( prefixLength > 0 )
+                {
+                    cursor.putByte( (byte) sharedLength );
+                }
+                cursor.putBytes( entryBuffer, entryKeyOffset[entry] + sharedLength, keySize - sharedLength + valueSize );
+            }
+            cursor.setOffset( keyPosOffsetLeaf( pos ) );
+            offsetFormat.putOffset( cursor, allocOffset );
+        }
+
+        // Zero pad what is left of the old content
+        int endOfOffsetArray = keyPosOffsetLeaf( to - from );
+        zeroPad( cursor, endOfOffsetArray, allocOffset - endOfOffsetArray );
+        setAllocOffset( cursor, allocOffset );
+        setDeadSpace( cursor, 0 );
+        setPrefixOffset( cursor, prefixOffset );
+    }
+
     private int getAllocSpace( PageCursor cursor, int keyCount, Type type )
     {
         int allocOffset = getAllocOffset( cursor );
@@ -1384,6 +2030,48 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return splitPos;
     }
 
+    /**
+     * Same as {@link #splitPosInLeaf(PageCursor, int, Object, Object, int, double)} but for gathered entries, where new key is already
+     * included, and space is calculated as if the entries of each leaf are written with the best possible prefix.
+     */
+    private int splitPosInPrefixCompressedLeaf( int keyCountAfterInsert, double ratioToKeepInLeftOnSplit )
+    {
+        int targetLeftSpace = (int) (this.totalSpace * ratioToKeepInLeftOnSplit);
+        int splitPos = 0;
+        int accumulatedLeftSpace;
+        int currentDelta = targetLeftSpace;
+        int prevDelta;
+        boolean prevPosPossible;
+        boolean thisPosPossible = false;
+
+        do
+        {
+            prevPosPossible = thisPosPossible;
+
+            // We may come closer to split by keeping one more in left
+            splitPos++;
+            accumulatedLeftSpace = spaceOfEntries( 0, splitPos );
+            prevDelta = currentDelta;
+            currentDelta = Math.abs( accumulatedLeftSpace - targetLeftSpace );
+            thisPosPossible = spaceOfEntries( splitPos, keyCountAfterInsert ) <= totalSpace;
+        }
+        while ( (currentDelta < prevDelta && splitPos < keyCountAfterInsert && accumulatedLeftSpace <= totalSpace) || !thisPosPossible );
+        // If previous position is possible then step back one pos since it divides the space most equally
+        if ( prevPosPossible )
+        {
+            splitPos--;
+        }
+
+        int leftSpace = spaceOfEntries( 0, splitPos );
+        if ( leftSpace > totalSpace )
+        {
+            throw new IllegalStateException(
+                    format( "There's not enough space to insert new key, even when splitting the leaf. Space needed in left leaf:%d, max space allowed:%d",
+                            leftSpace, totalSpace ) );
+        }
+        return splitPos;
+    }
+
     private int totalActiveSpace( PageCursor cursor, int keyCount, Type type )
     {
         int deadSpace = getDeadSpace( cursor );
@@ -1406,6 +2094,23 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
     }
 
+    /**
+     * Like {@link #totalSpaceOfKeyValue(Object, Object)} but takes the prefix of the leaf into account.
+     */
+    private int totalSpaceOfKeyValue( PageCursor cursor, KEY key, VALUE value )
+    {
+        int prefixOffset = prefixOffset( cursor, LEAF );
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        if ( prefixOffset == NO_PREFIX || !canInline( keySize + valueSize ) )
+        {
+            return totalSpaceOfKeyValue( key, value );
+        }
+        int sharedLength = sharedPrefixLength( cursor, prefixOffset, serializeKey( key, keySize ), keySize );
+        int storedKeySize = SIZE_SHARED_PREFIX_LENGTH + keySize - sharedLength;
+        return bytesKeyOffset() + getOverhead( storedKeySize, valueSize, false ) + storedKeySize + valueSize;
+    }
+
     private int totalSpaceOfKeyChild( KEY key )
     {
         int keySize = layout.keySize( key );
@@ -1462,6 +2167,106 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return offsetFormat.getOffset( cursor, offsetFormat.getBytePosDeadSpace() );
     }
 
+    @VisibleForTesting
+    void setPrefixOffset( PageCursor cursor, int prefixOffset )
+    {
+        offsetFormat.putOffset( cursor, offsetFormat.getBytePosPrefixOffset(), prefixOffset );
+    }
+
+    @VisibleForTesting
+    int getPrefixOffset( PageCursor cursor )
+    {
+        return offsetFormat.getOffset( cursor, offsetFormat.getBytePosPrefixOffset() );
+    }
+
+    /**
+     * @return offset of prefix entry in node, or {@link #NO_PREFIX} if node doesn't have a prefix.
+     */
+    private int prefixOffset( PageCursor cursor, Type type )
+    {
+        if ( !prefixCompression || type != LEAF )
+        {
+            return NO_PREFIX;
+        }
+        int prefixOffset = getPrefixOffset( cursor );
+        if ( prefixOffset != NO_PREFIX && (prefixOffset < headerLength || prefixOffset >= pageSize) )
+        {
+            cursor.setCursorException( format( "Tried to read prefix on offset=%d, headerLength=%d, pageSize=%d",
+                    prefixOffset, headerLength, pageSize ) );
+            return NO_PREFIX;
+        }
+        return prefixOffset;
+    }
+
+    /**
+     * Place cursor at first byte of prefix.
+     * @return length of prefix.
+     */
+    private int readPrefixLength( PageCursor cursor, int prefixOffset )
+    {
+        cursor.setOffset( prefixOffset );
+        long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
+        int prefixLength = extractKeySize( keyValueSize );
+        if ( prefixLength > maxPrefixLength || extractValueSize( keyValueSize ) != 0 || extractOffload( keyValueSize ) || extractTombstone( keyValueSize ) )
+        {
+            cursor.setCursorException( format( "Read unreliable prefix, id=%d, prefixOffset=%d, prefixLength=%d, maxPrefixLength=%d",
+                    cursor.getCurrentPageId(), prefixOffset, prefixLength, maxPrefixLength ) );
+            return 0;
+        }
+        return prefixLength;
+    }
+
+    /**
+     * @return length of prefix in leaf that is shared with the given serialized key.
+     */
+    private int sharedPrefixLength( PageCursor cursor, int prefixOffset, byte[] keyBytes, int keySize )
+    {
+        int prefixLength = readPrefixLength( cursor, prefixOffset );
+        int maxSharedLength = Math.min( prefixLength, keySize );
+        int sharedLength = 0;
+        while ( sharedLength < maxSharedLength && cursor.getByte() == keyBytes[sharedLength] )
+        {
+            sharedLength++;
+        }
+        return sharedLength;
+    }
+
+    /**
+     * @return buffer of the calling thread, with the key serialized as it is written in leaves in its first {@code keySize} bytes.
+     * The buffer is only valid until the next key is serialized or read by this thread.
+     */
+    private byte[] serializeKey( KEY key, int keySize )
+    {
+        KeyBuffer keyBuffer = KEY_BUFFER.get();
+        byte[] keyBytes = keyBuffer.bytes( keySize );
+        layout.writeKeyForPrefixCompression( keyBuffer.cursor(), key );
+        return keyBytes;
+    }
+
+    private void readKey( PageCursor cursor, KEY into, int keySize, Type type )
+    {
+        if ( prefixCompression && type == LEAF )
+        {
+            layout.readKeyForPrefixCompression( cursor, into, keySize );
+        }
+        else
+        {
+            layout.readKey( cursor, into, keySize );
+        }
+    }
+
+    private void writeLeafKey( PageCursor cursor, KEY key )
+    {
+        if ( prefixCompression )
+        {
+            layout.writeKeyForPrefixCompression( cursor, key );
+        }
+        else
+        {
+            layout.writeKey( cursor, key );
+        }
+    }
+
     private void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
     {
         // Set cursor to correct place in offset array
@@ -1472,10 +2277,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int keyOffset = offsetFormat.getOffset( cursor );
 
         // Verify offset is reasonable
-        if ( keyOffset >= pageSize || keyOffset < offsetFormat.getHeaderLength() )
+        if ( keyOffset >= pageSize || keyOffset < headerLength )
         {
             cursor.setCursorException( format( "Tried to read key on offset=%d, headerLength=%d, pageSize=%d, pos=%d",
-                    keyOffset, offsetFormat.getHeaderLength(), pageSize, pos ) );
+                    keyOffset, headerLength, pageSize, pos ) );
             return;
         }
 
@@ -1494,6 +2299,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return keySize + valueSize > keyValueSizeCap();
     }
 
+    /**
+     * Like {@link #keyValueSizeTooLarge(int, int)} but for sizes as stored in a node, where a key in a leaf with a prefix
+     * has a shared prefix length on top of the rest of the key.
+     */
+    private boolean storedKeyValueSizeTooLarge( int keySize, int valueSize )
+    {
+        return keySize + valueSize > keyValueSizeCap() + (prefixCompression ? SIZE_SHARED_PREFIX_LENGTH : 0);
+    }
+
     private int keyPosOffset( int pos, Type type )
     {
         if ( type == LEAF )
@@ -1508,13 +2322,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private int keyPosOffsetLeaf( int pos )
     {
-        return offsetFormat.getHeaderLength() + pos * bytesKeyOffset();
+        return headerLength + pos * bytesKeyOffset();
     }
 
     private int keyPosOffsetInternal( int pos )
     {
         // header + childPointer + pos * (keyPosOffsetSize + childPointer)
-        return offsetFormat.getHeaderLength() + childSize() + pos * keyChildSize();
+        return headerLength + childSize() + pos * keyChildSize();
     }
 
     private int keyChildSize()
@@ -1551,7 +2365,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         // HEADER
         int allocOffset = getAllocOffset( cursor );
         int deadSpace = getDeadSpace( cursor );
-        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace + "] ";
+        int prefixOffset = prefixOffset( cursor, type );
+        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace +
+                (prefixCompression ? " prefixOffset=" + prefixOffset : "") + "] ";
 
         // OFFSET ARRAY
         String offsetArray = readOffsetArray( cursor, stableGeneration, unstableGeneration, type );
@@ -1570,8 +2386,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         cursor.setOffset( allocOffset );
         while ( cursor.getOffset() < cursor.getCurrentPageSize() )
         {
+            int entryOffset = cursor.getOffset();
             StringJoiner singleKey = new StringJoiner( "|" );
-            singleKey.add( Integer.toString( cursor.getOffset() ) );
+            singleKey.add( Integer.toString( entryOffset ) );
             long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
             int keySize = extractKeySize( keyValueSize );
             boolean offload = extractOffload( keyValueSize );
@@ -1592,6 +2409,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             {
                 singleKey.add( "O" );
             }
+            else if ( entryOffset == prefixOffset )
+            {
+                singleKey.add( "P" );
+            }
             else
             {
                 singleKey.add( "_" );
@@ -1601,12 +2422,28 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                 long offloadId = readOffloadId( cursor );
                 singleKey.add( Long.toString( offloadId ) );
             }
+            else if ( entryOffset == prefixOffset )
+            {
+                byte[] prefix = new byte[keySize];
+                cursor.getBytes( prefix );
+                singleKey.add( Integer.toString( keySize ) );
+                singleKey.add( Arrays.toString( prefix ) );
+            }
             else
             {
-                layout.readKey( cursor, readKey, keySize );
-                if ( type == LEAF )
+                if ( prefixOffset != NO_PREFIX )
                 {
-                    layout.readValue( cursor, readValue, valueSize );
+                    int keyOffset = cursor.getOffset();
+                    readPrefixedKeyValue( cursor, prefixOffset, readKey, readValue, keySize, valueSize, -1 );
+                    cursor.setOffset( keyOffset + keySize + valueSize );
+                }
+                else
+                {
+                    readKey( cursor, readKey, keySize, type );
+                    if ( type == LEAF )
+                    {
+                        layout.readValue( cursor, readValue, valueSize );
+                    }
                 }
                 singleKey.add( Integer.toString( keySize ) );
                 if ( type == LEAF && includeValue )
@@ -1715,6 +2552,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             int keyOffset = offsetFormat.getOffset( cursor );
             lowestOffsetSoFar = Math.min( lowestOffsetSoFar, keyOffset );
         }
+        int prefixOffset = prefixOffset( cursor, type );
+        if ( prefixOffset != NO_PREFIX )
+        {
+            lowestOffsetSoFar = Math.min( lowestOffsetSoFar, prefixOffset );
+        }
         return lowestOffsetSoFar;
     }
 
@@ -1722,7 +2564,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private int totalActiveSpaceRaw( PageCursor cursor, int keyCount, Type type )
     {
         // Offset array
-        int offsetArrayStart = offsetFormat.getHeaderLength();
+        int offsetArrayStart = headerLength;
         int offsetArrayEnd = keyPosOffset( keyCount, type );
         int offsetArraySize = offsetArrayEnd - offsetArrayStart;
 
@@ -1794,6 +2636,37 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @VisibleForTesting
     public int getHeaderLength()
     {
-        return offsetFormat.getHeaderLength();
+        return headerLength;
+    }
+
+    /**
+     * Scratch space for serialized keys, which grows to the largest key seen so far.
+     */
+    private static final class KeyBuffer
+    {
+        private byte[] bytes = new byte[256];
+        private PageCursor cursor = ByteArrayPageCursor.wrap( bytes );
+
+        /**
+         * @return the buffer, with room for at least {@code keySize} bytes.
+         */
+        byte[] bytes( int keySize )
+        {
+            if ( bytes.length < keySize )
+            {
+                bytes = new byte[Math.max( keySize, bytes.length * 2 )];
+                cursor = ByteArrayPageCursor.wrap( bytes );
+            }
+            return bytes;
+        }
+
+        /**
+         * @return cursor over the {@link #bytes(int) buffer}, placed at its start.
+         */
+        PageCursor cursor()
+        {
+            cursor.setOffset( 0 );
+            return cursor;
+        }
     }
 }
@@ -334,6 +334,18 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return currentKeyCount + 1 > leafMaxKeyCount() ? Overflow.YES : Overflow.NO;
     }
 
+    @Override
+    boolean leafExceedsFill( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor )
+    {
+        return currentKeyCount + 1 > leafMaxKeyCount() * fillFactor;
+    }
+
+    @Override
+    boolean internalExceedsFill( PageCursor cursor, int currentKeyCount, KEY newKey, double fillFactor )
+    {
+        return currentKeyCount + 1 > internalMaxKeyCount() * fillFactor;
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
     {   // no-op
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped exclusive latches for tree nodes, used by concurrent writers to serialize their changes to the same leaf.
+ * Several tree nodes share each latch, which is fine as long as no more than one latch is held at a time.
+ */
+class TreeNodeLatches
+{
+    private static final int STRIPES = 128;
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    private final Lock[] latches = new Lock[STRIPES];
+
+    TreeNodeLatches()
+    {
+        for ( int i = 0; i < latches.length; i++ )
+        {
+            latches[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @param treeNodeId id of the tree node to get the latch for.
+     * @return the latch guarding the given tree node.
+     */
+    Lock latch( long treeNodeId )
+    {
+        // Spread the ids a bit, since consecutive leaves often have consecutive ids
+        long hash = treeNodeId * 0x9E3779B97F4A7C15L;
+        return latches[(int) (hash >>> 32) & STRIPE_MASK];
+    }
+}
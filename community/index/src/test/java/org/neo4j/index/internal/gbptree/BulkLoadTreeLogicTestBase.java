@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+import static org.neo4j.index.internal.gbptree.GenerationSafePointerPair.pointer;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.index.internal.gbptree.ValueMergers.overwrite;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+@ExtendWith( RandomExtension.class )
+abstract class BulkLoadTreeLogicTestBase<KEY,VALUE>
+{
+    private static final int PAGE_SIZE = 256;
+    private static final long STABLE_GENERATION = GenerationSafePointer.MIN_GENERATION;
+    private static final long UNSTABLE_GENERATION = STABLE_GENERATION + 1;
+
+    @Inject
+    private RandomRule random;
+
+    private PageAwareByteArrayCursor cursor;
+    private PageAwareByteArrayCursor readCursor;
+    private SimpleIdProvider id;
+
+    protected TestLayout<KEY,VALUE> layout;
+    protected TreeNode<KEY,VALUE> node;
+
+    @BeforeEach
+    void setUp()
+    {
+        cursor = new PageAwareByteArrayCursor( PAGE_SIZE );
+        readCursor = cursor.duplicate();
+        id = new SimpleIdProvider( cursor::duplicate );
+        id.reset();
+
+        layout = getLayout();
+        OffloadPageCursorFactory pcFactory = ( id, flags, cursorTracer ) -> cursor.duplicate( id );
+        OffloadStoreImpl<KEY,VALUE> offloadStore = new OffloadStoreImpl<>( layout, id, pcFactory, OffloadIdValidator.ALWAYS_TRUE, PAGE_SIZE );
+        node = getTreeNode( PAGE_SIZE, layout, offloadStore );
+    }
+
+    protected abstract ValueMerger<KEY,VALUE> getAdder();
+
+    protected abstract TreeNode<KEY,VALUE> getTreeNode( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore );
+
+    protected abstract TestLayout<KEY,VALUE> getLayout();
+
+    @Test
+    void shouldBuildSingleLeafFromFewEntries() throws IOException
+    {
+        // given
+        BulkLoadTreeLogic<KEY,VALUE> loader = loader( 1 );
+        List<Long> seeds = List.of( 1L, 2L, 3L );
+
+        // when
+        add( loader, seeds );
+        long root = loader.finish();
+
+        // then
+        goTo( readCursor, root );
+        assertTrue( TreeNode.isLeaf( readCursor ) );
+        assertTree( root, seeds );
+    }
+
+    @Test
+    void shouldNotBuildAnythingFromNoEntries() throws IOException
+    {
+        assertFalse( TreeNode.isNode( loader( 1 ).finish() ) );
+    }
+
+    @Test
+    void shouldBuildTreeWithAllEntriesInOrder() throws IOException
+    {
+        for ( double fillFactor : new double[]{1, 0.8, 0.5, 0.1} )
+        {
+            // given
+            setUp();
+            BulkLoadTreeLogic<KEY,VALUE> loader = loader( fillFactor );
+            List<Long> seeds = randomSortedSeeds( random.nextInt( 1_000, 5_000 ) );
+
+            // when
+            add( loader, seeds );
+            long root = loader.finish();
+
+            // then
+            assertTree( root, seeds );
+        }
+    }
+
+    @Test
+    void shouldBuildTreeOfAnyNumberOfLeaves() throws IOException
+    {
+        // Covers all the ways the last node of a level can end up, including it having to give one of its children to a new node
+        for ( int count = 1; count < 500; count++ )
+        {
+            // given
+            setUp();
+            BulkLoadTreeLogic<KEY,VALUE> loader = loader( 1 );
+            List<Long> seeds = new ArrayList<>();
+            for ( long seed = 0; seed < count; seed++ )
+            {
+                seeds.add( seed );
+            }
+
+            // when
+            add( loader, seeds );
+            long root = loader.finish();
+
+            // then
+            assertTree( root, seeds );
+        }
+    }
+
+    @Test
+    void shouldLeaveRoomInNodesAccordingToFillFactor() throws IOException
+    {
+        // given
+        List<Long> seeds = randomSortedSeeds( 2_000 );
+
+        // when
+        BulkLoadTreeLogic<KEY,VALUE> fullLoader = loader( 1 );
+        add( fullLoader, seeds );
+        int fullLeaves = assertTree( fullLoader.finish(), seeds );
+        setUp();
+        BulkLoadTreeLogic<KEY,VALUE> halfLoader = loader( 0.5 );
+        add( halfLoader, seeds );
+        int halfFullLeaves = assertTree( halfLoader.finish(), seeds );
+
+        // then
+        assertTrue( halfFullLeaves > fullLeaves * 3 / 2, "Expected more than " + fullLeaves * 3 / 2 + " leaves, but was " + halfFullLeaves );
+    }
+
+    @Test
+    void shouldMergeEntryWithSameKeyAsLastAddedEntry() throws IOException
+    {
+        // given
+        BulkLoadTreeLogic<KEY,VALUE> loader = loader( 1 );
+        loader.add( layout.key( 1 ), layout.value( 1 ), overwrite(), true );
+        loader.add( layout.key( 2 ), layout.value( 2 ), overwrite(), true );
+
+        // when
+        loader.add( layout.key( 2 ), layout.value( 3 ), getAdder(), true );
+        long root = loader.finish();
+
+        // then
+        goTo( readCursor, root );
+        assertEquals( 2, TreeNode.keyCount( readCursor ) );
+        assertEquals( 5, layout.valueSeed( node.valueAt( readCursor, layout.newValue(), 1, NULL ) ) );
+    }
+
+    @Test
+    void shouldRemoveLastAddedEntryIfMergeSaysSo() throws IOException
+    {
+        // given
+        BulkLoadTreeLogic<KEY,VALUE> loader = loader( 1 );
+        add( loader, List.of( 1L, 2L ) );
+
+        // when
+        loader.add( layout.key( 2 ), layout.value( 2 ), ( existingKey, newKey, existingValue, newValue ) -> ValueMerger.MergeResult.REMOVED, true );
+        loader.add( layout.key( 3 ), layout.value( 3 ), overwrite(), true );
+        long root = loader.finish();
+
+        // then
+        assertTree( root, List.of( 1L, 3L ) );
+    }
+
+    @Test
+    void shouldOnlyMergeWithLastAddedEntryIfNotCreating() throws IOException
+    {
+        // given
+        BulkLoadTreeLogic<KEY,VALUE> loader = loader( 1 );
+        add( loader, List.of( 1L, 2L ) );
+
+        // when
+        loader.add( layout.key( 2 ), layout.value( 3 ), overwrite(), false );
+        loader.add( layout.key( 4 ), layout.value( 4 ), overwrite(), false );
+        long root = loader.finish();
+
+        // then
+        goTo( readCursor, root );
+        assertEquals( 2, TreeNode.keyCount( readCursor ) );
+        assertEquals( 3, layout.valueSeed( node.valueAt( readCursor, layout.newValue(), 1, NULL ) ) );
+    }
+
+    @Test
+    void shouldFailOnKeyLessThanLastAddedKey() throws IOException
+    {
+        // given
+        BulkLoadTreeLogic<KEY,VALUE> loader = loader( 1 );
+        add( loader, List.of( 1L, 5L ) );
+
+        // when/then
+        assertThrows( IllegalArgumentException.class, () -> loader.add( layout.key( 3 ), layout.value( 3 ), overwrite(), true ) );
+    }
+
+    @Test
+    void shouldBuildTreeWhichCanBeChangedAfterwards() throws IOException
+    {
+        // given
+        List<Long> seeds = new ArrayList<>();
+        for ( long seed = 0; seed < 2_000; seed += 2 )
+        {
+            seeds.add( seed );
+        }
+        BulkLoadTreeLogic<KEY,VALUE> loader = loader( 0.7 );
+        add( loader, seeds );
+        long root = loader.finish();
+
+        // when
+        InternalTreeLogic<KEY,VALUE> treeLogic = new InternalTreeLogic<>( id, node, layout, NO_MONITOR );
+        StructurePropagation<KEY> structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+        TreeSet<Long> expected = new TreeSet<>( seeds );
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            long seed = random.nextLong( 2_000 );
+            goTo( cursor, root );
+            treeLogic.initialize( cursor );
+            if ( random.nextBoolean() )
+            {
+                treeLogic.insert( cursor, structurePropagation, layout.key( seed ), layout.value( seed ), overwrite(), true,
+                        STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+                expected.add( seed );
+            }
+            else
+            {
+                treeLogic.remove( cursor, structurePropagation, layout.key( seed ), layout.newValue(), STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+                expected.remove( seed );
+            }
+            root = handleRootChanges( structurePropagation, root );
+        }
+
+        // then
+        assertTree( root, new ArrayList<>( expected ) );
+    }
+
+    private BulkLoadTreeLogic<KEY,VALUE> loader( double fillFactor )
+    {
+        return new BulkLoadTreeLogic<>( id, node, layout, cursor, cursor.duplicate(), STABLE_GENERATION, UNSTABLE_GENERATION, fillFactor, NULL );
+    }
+
+    private void add( BulkLoadTreeLogic<KEY,VALUE> loader, List<Long> seeds ) throws IOException
+    {
+        for ( long seed : seeds )
+        {
+            loader.add( layout.key( seed ), layout.value( seed ), overwrite(), true );
+        }
+    }
+
+    private List<Long> randomSortedSeeds( int count )
+    {
+        TreeSet<Long> seeds = new TreeSet<>();
+        while ( seeds.size() < count )
+        {
+            seeds.add( random.nextLong( count * 10L ) );
+        }
+        return new ArrayList<>( seeds );
+    }
+
+    private long handleRootChanges( StructurePropagation<KEY> structurePropagation, long root ) throws IOException
+    {
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            long newRoot = id.acquireNewId( STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            goTo( cursor, newRoot );
+            node.initializeInternal( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+            node.setChildAt( cursor, structurePropagation.midChild, 0, STABLE_GENERATION, UNSTABLE_GENERATION );
+            node.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            TreeNode.setKeyCount( cursor, 1 );
+            root = newRoot;
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            root = structurePropagation.midChild;
+        }
+        structurePropagation.clear();
+        return root;
+    }
+
+    /**
+     * Asserts that the tree has the expected entries, that all keys are within the range given by the parent and that
+     * all leaves are on the same level and all nodes on a level are linked together.
+     *
+     * @return number of leaves in the tree.
+     */
+    private int assertTree( long root, List<Long> expectedSeeds ) throws IOException
+    {
+        List<List<Long>> levels = new ArrayList<>();
+        List<Long> seeds = new ArrayList<>();
+        assertSubtree( root, null, null, 0, levels, seeds );
+
+        assertEquals( expectedSeeds, seeds );
+        for ( List<Long> level : levels )
+        {
+            for ( int i = 0; i < level.size(); i++ )
+            {
+                goTo( readCursor, level.get( i ) );
+                long expectedLeft = i == 0 ? TreeNode.NO_NODE_FLAG : level.get( i - 1 );
+                long expectedRight = i == level.size() - 1 ? TreeNode.NO_NODE_FLAG : level.get( i + 1 );
+                assertEquals( expectedLeft, pointer( TreeNode.leftSibling( readCursor, STABLE_GENERATION, UNSTABLE_GENERATION ) ) );
+                assertEquals( expectedRight, pointer( TreeNode.rightSibling( readCursor, STABLE_GENERATION, UNSTABLE_GENERATION ) ) );
+            }
+        }
+        return levels.get( levels.size() - 1 ).size();
+    }
+
+    private void assertSubtree( long nodeId, KEY low, KEY high, int depth, List<List<Long>> levels, List<Long> seeds ) throws IOException
+    {
+        if ( levels.size() == depth )
+        {
+            levels.add( new ArrayList<>() );
+        }
+        levels.get( depth ).add( nodeId );
+
+        goTo( readCursor, nodeId );
+        int keyCount = TreeNode.keyCount( readCursor );
+        if ( TreeNode.isLeaf( readCursor ) )
+        {
+            assertEquals( levels.size() - 1, depth, "All leaves should be on the same level" );
+            for ( int pos = 0; pos < keyCount; pos++ )
+            {
+                KEY key = node.keyAt( readCursor, layout.newKey(), pos, LEAF, NULL );
+                VALUE value = node.valueAt( readCursor, layout.newValue(), pos, NULL );
+                assertWithinRange( key, low, high );
+                assertEquals( layout.keySeed( key ), layout.valueSeed( value ) );
+                seeds.add( layout.keySeed( key ) );
+            }
+            return;
+        }
+
+        assertTrue( keyCount > 0, "Internal node without keys" );
+        List<KEY> keys = new ArrayList<>();
+        List<Long> children = new ArrayList<>();
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            keys.add( node.keyAt( readCursor, layout.newKey(), pos, INTERNAL, NULL ) );
+            children.add( pointer( node.childAt( readCursor, pos, STABLE_GENERATION, UNSTABLE_GENERATION ) ) );
+        }
+        children.add( pointer( node.childAt( readCursor, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION ) ) );
+        for ( int pos = 0; pos <= keyCount; pos++ )
+        {
+            KEY childLow = pos == 0 ? low : keys.get( pos - 1 );
+            KEY childHigh = pos == keyCount ? high : keys.get( pos );
+            assertSubtree( children.get( pos ), childLow, childHigh, depth + 1, levels, seeds );
+        }
+    }
+
+    private void assertWithinRange( KEY key, KEY low, KEY high )
+    {
+        assertTrue( low == null || layout.compare( low, key ) <= 0, () -> key + " should not be less than " + low );
+        assertTrue( high == null || layout.compare( key, high ) < 0, () -> key + " should be less than " + high );
+    }
+
+    private static void goTo( PageCursor cursor, long pageId ) throws IOException
+    {
+        PageCursorUtil.goTo( cursor, "test", pointer( pageId ) );
+    }
+}
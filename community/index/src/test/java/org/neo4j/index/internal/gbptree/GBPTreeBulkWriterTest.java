@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeBulkWriterTest
+{
+    private static final int KEYS = 20_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    @Test
+    void shouldBuildTreeFromSortedEntries() throws IOException
+    {
+        for ( boolean fixedSize : new boolean[]{true, false} )
+        {
+            SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( fixedSize ).build();
+            File file = directory.file( "index-" + fixedSize );
+            try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+            {
+                try ( Writer<MutableLong,MutableLong> writer = tree.bulkWriter( 0.8, NULL ) )
+                {
+                    for ( long key = 0; key < KEYS; key++ )
+                    {
+                        writer.put( layout.key( key ), layout.value( key ) );
+                    }
+                }
+
+                assertEntries( tree, layout, KEYS );
+                assertTrue( tree.consistencyCheck( NULL ) );
+                tree.checkpoint( IOLimiter.UNLIMITED, NULL );
+            }
+
+            // and after reopening it
+            try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, file, layout ).build() )
+            {
+                assertEntries( tree, layout, KEYS );
+                assertTrue( tree.consistencyCheck( NULL ) );
+            }
+        }
+    }
+
+    @Test
+    void shouldBuildTreeWhichCanBeChangedAfterwards() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.bulkWriter( 0.5, NULL ) )
+            {
+                for ( long key = 0; key < KEYS; key += 2 )
+                {
+                    writer.put( layout.key( key ), layout.value( key ) );
+                }
+            }
+
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                for ( long key = 1; key < KEYS; key += 2 )
+                {
+                    writer.put( layout.key( key ), layout.value( key ) );
+                }
+            }
+
+            assertEntries( tree, layout, KEYS );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldShowEmptyTreeUntilBulkWriterIsClosed() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.bulkWriter( 1, NULL ) )
+            {
+                for ( long key = 0; key < KEYS; key++ )
+                {
+                    writer.put( layout.key( key ), layout.value( key ) );
+                }
+                assertEntries( tree, layout, 0 );
+            }
+            assertEntries( tree, layout, KEYS );
+        }
+    }
+
+    @Test
+    void shouldMergeEqualKeys() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        ValueMerger<MutableLong,MutableLong> adder = ( existingKey, newKey, existingValue, newValue ) ->
+        {
+            existingValue.add( newValue );
+            return ValueMerger.MergeResult.MERGED;
+        };
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.bulkWriter( 1, NULL ) )
+            {
+                for ( long key = 0; key < KEYS; key++ )
+                {
+                    writer.merge( layout.key( key ), layout.value( key / 2 ), adder );
+                    writer.merge( layout.key( key ), layout.value( key - key / 2 ), adder );
+                }
+            }
+
+            assertEntries( tree, layout, KEYS );
+        }
+    }
+
+    @Test
+    void shouldFailOnUnsortedKeys() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.bulkWriter( 1, NULL ) )
+            {
+                writer.put( layout.key( 10 ), layout.value( 10 ) );
+                assertThrows( IllegalArgumentException.class, () -> writer.put( layout.key( 5 ), layout.value( 5 ) ) );
+            }
+
+            // The failed load leaves the tree as it was
+            assertEntries( tree, layout, 0 );
+        }
+    }
+
+    @Test
+    void shouldFailToBulkLoadTreeWhichIsNotEmpty() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 0 ), layout.value( 0 ) );
+            }
+
+            assertThrows( IllegalStateException.class, () -> tree.bulkWriter( 1, NULL ) );
+
+            // and the writer must still be possible to get after the failure
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 1 ), layout.value( 1 ) );
+            }
+            assertEntries( tree, layout, 2 );
+        }
+    }
+
+    private static void assertEntries( GBPTree<MutableLong,MutableLong> tree, SimpleLongLayout layout, long keys ) throws IOException
+    {
+        try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( long expected = 0; expected < keys; expected++ )
+            {
+                assertTrue( seeker.next() );
+                assertEquals( expected, seeker.key().longValue() );
+                assertEquals( expected, seeker.value().longValue() );
+            }
+            assertFalse( seeker.next() );
+        }
+    }
+}
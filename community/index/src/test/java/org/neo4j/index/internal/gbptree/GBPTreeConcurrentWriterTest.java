@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.rule.PageCacheConfig;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.test.Race.throwing;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeConcurrentWriterTest
+{
+    private static final int WRITERS = 4;
+    private static final int KEYS_PER_WRITER = 5_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    @Test
+    void shouldInsertFromConcurrentWritersIntoDisjointRanges() throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( true ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            Race race = new Race();
+            race.addContestants( WRITERS, writer -> throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> treeWriter = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long i = 0; i < KEYS_PER_WRITER; i++ )
+                    {
+                        long key = writer * KEYS_PER_WRITER + i;
+                        treeWriter.put( layout.key( key ), layout.value( key ) );
+                    }
+                }
+            } ) );
+            race.go();
+
+            assertEntries( tree, layout, WRITERS * KEYS_PER_WRITER, 1 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldInsertAndRemoveFromConcurrentWritersIntoSharedLeaves() throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( false ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // Every writer inserts every WRITERS:th key and then removes every other of its keys, so they all write to the same leaves
+            Race race = new Race();
+            race.addContestants( WRITERS, writer -> throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> treeWriter = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long i = 0; i < KEYS_PER_WRITER; i++ )
+                    {
+                        long key = i * WRITERS + writer;
+                        treeWriter.put( layout.key( key ), layout.value( key ) );
+                    }
+                    for ( long i = 0; i < KEYS_PER_WRITER; i++ )
+                    {
+                        long key = i * WRITERS + writer;
+                        if ( key % 2 == 1 )
+                        {
+                            assertEquals( layout.value( key ), treeWriter.remove( layout.key( key ) ) );
+                        }
+                    }
+                }
+            } ) );
+            race.go();
+
+            assertEntries( tree, layout, WRITERS * KEYS_PER_WRITER, 2 );
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldMergeIntoExistingKeysFromConcurrentWriters() throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( true ).build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                for ( long key = 0; key < KEYS_PER_WRITER; key++ )
+                {
+                    writer.put( layout.key( key ), layout.value( 0 ) );
+                }
+            }
+
+            // Every writer adds one to the value of every key
+            ValueMerger<MutableLong,MutableLong> adder = ( existingKey, newKey, existingValue, newValue ) ->
+            {
+                existingValue.add( newValue );
+                return ValueMerger.MergeResult.MERGED;
+            };
+            Race race = new Race();
+            race.addContestants( WRITERS, throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> treeWriter = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long key = 0; key < KEYS_PER_WRITER; key++ )
+                    {
+                        treeWriter.merge( layout.key( key ), layout.value( 1 ), adder );
+                    }
+                }
+            } ) );
+            race.go();
+
+            try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                int count = 0;
+                while ( seeker.next() )
+                {
+                    assertEquals( WRITERS, seeker.value().longValue() );
+                    count++;
+                }
+                assertEquals( KEYS_PER_WRITER, count );
+            }
+        }
+    }
+
+    @Test
+    void shouldNotLoseConcurrentMergesWhenMergeMustBeWrittenPessimistically() throws Throwable
+    {
+        SimpleByteArrayLayout layout = new SimpleByteArrayLayout();
+        try ( GBPTree<RawBytes,RawBytes> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<RawBytes,RawBytes> writer = tree.writer( NULL ) )
+            {
+                for ( long key = 0; key < KEYS_PER_WRITER; key++ )
+                {
+                    writer.put( layout.key( key ), new RawBytes() );
+                }
+            }
+
+            // Every writer appends its own id to the value of every key, which grows the value so that it can't be written in place
+            ValueMerger<RawBytes,RawBytes> appender = ( existingKey, newKey, existingValue, newValue ) ->
+            {
+                existingValue.bytes = ArrayUtils.addAll( existingValue.bytes, newValue.bytes );
+                return ValueMerger.MergeResult.MERGED;
+            };
+            Race race = new Race();
+            race.addContestants( WRITERS, writer -> throwing( () ->
+            {
+                try ( Writer<RawBytes,RawBytes> treeWriter = tree.concurrentWriter( NULL ) )
+                {
+                    for ( long key = 0; key < KEYS_PER_WRITER; key++ )
+                    {
+                        treeWriter.merge( layout.key( key ), new RawBytes( new byte[]{(byte) writer} ), appender );
+                    }
+                }
+            } ) );
+            race.go();
+
+            byte[] allWriters = new byte[WRITERS];
+            for ( int writer = 0; writer < WRITERS; writer++ )
+            {
+                allWriters[writer] = (byte) writer;
+            }
+            try ( Seeker<RawBytes,RawBytes> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                int count = 0;
+                while ( seeker.next() )
+                {
+                    byte[] appended = seeker.value().bytes.clone();
+                    Arrays.sort( appended );
+                    assertArrayEquals( allWriters, appended );
+                    count++;
+                }
+                assertEquals( KEYS_PER_WRITER, count );
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldNotCheckpointWhileConcurrentWriterIsOpen() throws Exception
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( true ).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            Future<Void> checkpoint;
+            Writer<MutableLong,MutableLong> first = tree.concurrentWriter( NULL );
+            try ( Writer<MutableLong,MutableLong> second = tree.concurrentWriter( NULL ) )
+            {
+                first.put( layout.key( 0 ), layout.value( 0 ) );
+                second.put( layout.key( 1 ), layout.value( 1 ) );
+                checkpoint = executor.submit( () ->
+                {
+                    tree.checkpoint( IOLimiter.UNLIMITED, NULL );
+                    return null;
+                } );
+                assertThrows( TimeoutException.class, () -> checkpoint.get( 100, MILLISECONDS ) );
+                first.close();
+                assertThrows( TimeoutException.class, () -> checkpoint.get( 100, MILLISECONDS ) );
+                assertFalse( checkpoint.isDone() );
+            }
+            assertNull( checkpoint.get() );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertEntries( GBPTree<MutableLong,MutableLong> tree, SimpleLongLayout layout, long keys, long stride ) throws IOException
+    {
+        try ( Seeker<MutableLong,MutableLong> seeker = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( long expected = 0; expected < keys; expected += stride )
+            {
+                assertTrue( seeker.next() );
+                assertEquals( expected, seeker.key().longValue() );
+                assertEquals( expected, seeker.value().longValue() );
+            }
+            assertFalse( seeker.next() );
+        }
+    }
+}
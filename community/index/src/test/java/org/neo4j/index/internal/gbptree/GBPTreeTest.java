@@ -104,6 +104,7 @@ import static org.neo4j.index.internal.gbptree.SimpleLongLayout.longLayout;
 import static org.neo4j.index.internal.gbptree.ThrowingRunnable.throwing;
 import static org.neo4j.io.fs.FileUtils.blockSize;
 import static org.neo4j.io.pagecache.IOLimiter.UNLIMITED;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
@@ -273,6 +274,29 @@ class GBPTreeTest
         assertThrows( MetadataMismatchException.class, () -> builder.with( longLayout().withFixedSize( false ).build() ).build() );
     }
 
+    @Test
+    void shouldOnlyCreatePrefixCompressedFormatWhenAskedFor() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = createPageCache( defaultPageSize );
+        SimpleLongLayout dynamicLayout = longLayout().withFixedSize( false ).build();
+        File compressedFile = testDirectory.file( "compressed" );
+
+        // WHEN
+        index( pageCache ).with( dynamicLayout ).build().close();
+        index( pageCache ).with( compressedFile ).with( dynamicLayout ).with( immutable.of( GBPTreeOpenOptions.PREFIX_COMPRESSION ) ).build().close();
+
+        // THEN
+        assertEquals( TreeNodeDynamicSize.FORMAT_VERSION, formatVersion( pageCache, indexFile.toFile(), dynamicLayout ) );
+        assertEquals( TreeNodeDynamicSize.FORMAT_VERSION_PREFIX_COMPRESSED, formatVersion( pageCache, compressedFile, dynamicLayout ) );
+
+        // and existing trees keep their format, regardless of the options they are opened with
+        index( pageCache ).with( dynamicLayout ).with( immutable.of( GBPTreeOpenOptions.PREFIX_COMPRESSION ) ).build().close();
+        index( pageCache ).with( compressedFile ).with( dynamicLayout ).build().close();
+        assertEquals( TreeNodeDynamicSize.FORMAT_VERSION, formatVersion( pageCache, indexFile.toFile(), dynamicLayout ) );
+        assertEquals( TreeNodeDynamicSize.FORMAT_VERSION_PREFIX_COMPRESSED, formatVersion( pageCache, compressedFile, dynamicLayout ) );
+    }
+
     @Test
     void shouldReturnNoResultsOnEmptyIndex() throws Exception
     {
@@ -1911,6 +1935,16 @@ class GBPTreeTest
     }
 
     // The most common tree builds in this test
+    private static byte formatVersion( PageCache pageCache, File file, Layout<?,?> layout ) throws IOException
+    {
+        try ( PagedFile pagedFile = pageCache.map( file.toPath(), pageCache.pageSize() );
+              PageCursor cursor = pagedFile.io( IdSpace.META_PAGE_ID, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            assertTrue( cursor.next() );
+            return Meta.read( cursor, layout ).getFormatVersion();
+        }
+    }
+
     private GBPTreeBuilder<MutableLong,MutableLong> index()
     {
         return index( defaultPageSize );
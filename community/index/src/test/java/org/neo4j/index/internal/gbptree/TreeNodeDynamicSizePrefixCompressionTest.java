@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.NO_NEED_DEFRAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.YES;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.index.internal.gbptree.TreeNodeDynamicSize.NO_PREFIX;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+/**
+ * Runs all {@link TreeNodeDynamicSizeTest tests for the dynamic size format} with prefix compression enabled
+ * and adds tests for leaves where the shared key prefix has been extracted.
+ */
+class TreeNodeDynamicSizePrefixCompressionTest extends TreeNodeDynamicSizeTest
+{
+    private static final long STABLE_GENERATION = 3;
+    private static final long UNSTABLE_GENERATION = 4;
+    // Large enough to allow long prefixes, see TreeNodeDynamicSize#maxPrefixLength
+    private static final int LARGE_PAGE_SIZE = 8192;
+    private static final int NUMBER_LENGTH = 10;
+
+    private final SimpleByteArrayLayout bytesLayout = new SimpleByteArrayLayout( false );
+
+    @Override
+    protected TreeNodeDynamicSize<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout,
+            OffloadStore<RawBytes,RawBytes> offloadStore )
+    {
+        return new TreeNodeDynamicSize<>( pageSize, layout, offloadStore, true );
+    }
+
+    @Test
+    void shouldExtractSharedPrefixWhenSplittingLeaf() throws IOException
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( LARGE_PAGE_SIZE, bytesLayout, createOffloadStore() );
+        PageCursor left = leafCursor( node, 0 );
+        PageCursor right = leafCursor( node, 1 );
+        List<RawBytes> expected = fillUntilOverflow( node, left, "user:account:", 0 );
+
+        // when
+        splitWithLast( node, left, right, expected, "user:account:" );
+
+        // then
+        assertNotEquals( NO_PREFIX, node.getPrefixOffset( left ) );
+        assertNotEquals( NO_PREFIX, node.getPrefixOffset( right ) );
+        assertLeaves( node, expected, left, right );
+    }
+
+    @Test
+    void shouldFitMoreEntriesInLeafWithSharedPrefix() throws IOException
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( LARGE_PAGE_SIZE, bytesLayout, createOffloadStore() );
+        PageCursor left = leafCursor( node, 0 );
+        PageCursor right = leafCursor( node, 1 );
+        List<RawBytes> expected = fillUntilOverflow( node, left, "user:account:", 0 );
+        int keyCountWithoutPrefix = expected.size();
+        splitWithLast( node, left, right, expected, "user:account:" );
+
+        // when
+        int rightKeyCount = TreeNode.keyCount( right );
+        List<RawBytes> rightKeys = new ArrayList<>( expected.subList( expected.size() - rightKeyCount, expected.size() ) );
+        rightKeys.addAll( fillUntilOverflow( node, right, "user:account:", expected.size() ) );
+
+        // then
+        assertTrue( rightKeys.size() > keyCountWithoutPrefix,
+                "Expected more than " + keyCountWithoutPrefix + " keys in leaf with prefix, but fit " + rightKeys.size() );
+        assertLeaves( node, rightKeys, right );
+    }
+
+    @Test
+    void shouldInsertAndRemoveKeysNotSharingPrefix() throws IOException
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( LARGE_PAGE_SIZE, bytesLayout, createOffloadStore() );
+        PageCursor left = leafCursor( node, 0 );
+        PageCursor right = leafCursor( node, 1 );
+        List<RawBytes> expected = fillUntilOverflow( node, left, "user:account:", 0 );
+        splitWithLast( node, left, right, expected, "user:account:" );
+        int leftKeyCount = TreeNode.keyCount( left );
+        List<RawBytes> leftKeys = new ArrayList<>( expected.subList( 0, leftKeyCount ) );
+
+        // when
+        RawBytes first = key( "a" );
+        insert( node, left, first, 0 );
+        leftKeys.add( 0, first );
+        RawBytes empty = key( "" );
+        insert( node, left, empty, 0 );
+        leftKeys.add( 0, empty );
+        node.removeKeyValueAt( left, 2, leftKeys.size(), STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        TreeNode.setKeyCount( left, leftKeys.size() - 1 );
+        leftKeys.remove( 2 );
+
+        // then
+        assertLeaves( node, leftKeys, left );
+    }
+
+    @Test
+    void shouldMergeLeavesWithDifferentPrefixes() throws IOException
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( LARGE_PAGE_SIZE, bytesLayout, createOffloadStore() );
+        PageCursor left = leafWithPrefix( node, 0, "user:account:", 0, 10 );
+        PageCursor right = leafWithPrefix( node, 2, "zone:area:", 0, 10 );
+        List<RawBytes> expected = new ArrayList<>();
+        expected.addAll( keysOf( node, left ) );
+        expected.addAll( keysOf( node, right ) );
+
+        // when
+        assertTrue( node.canMergeLeaves( left, TreeNode.keyCount( left ), right, TreeNode.keyCount( right ) ) );
+        node.copyKeyValuesFromLeftToRight( left, TreeNode.keyCount( left ), right, TreeNode.keyCount( right ) );
+
+        // then
+        assertLeaves( node, expected, right );
+    }
+
+    @Test
+    void shouldRebalanceLeavesWithDifferentPrefixes() throws IOException
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( LARGE_PAGE_SIZE, bytesLayout, createOffloadStore() );
+        PageCursor left = leafWithPrefix( node, 0, "user:account:", 0, Integer.MAX_VALUE );
+        fillUntilOverflow( node, left, "user:account:", keyNumber( keysOf( node, left ).get( TreeNode.keyCount( left ) - 1 ) ) + 1 );
+        PageCursor right = leafWithPrefix( node, 2, "user:account:", 1_000_000, 10 );
+        List<RawBytes> expected = new ArrayList<>();
+        expected.addAll( keysOf( node, left ) );
+        expected.addAll( keysOf( node, right ) );
+
+        // when
+        int leftKeyCount = TreeNode.keyCount( left );
+        int keysToMove = node.canRebalanceLeaves( left, leftKeyCount, right, TreeNode.keyCount( right ) );
+        assertTrue( keysToMove > 0 );
+        node.moveKeyValuesFromLeftToRight( left, leftKeyCount, right, TreeNode.keyCount( right ), leftKeyCount - keysToMove );
+
+        // then
+        assertEquals( leftKeyCount - keysToMove, TreeNode.keyCount( left ) );
+        assertLeaves( node, expected, left, right );
+    }
+
+    @Test
+    void shouldCompressKeysWhichLayoutWritesWithSharedPartFirst() throws IOException
+    {
+        // given keys which start with a number and end with a part they all share, like generic index keys start with the entity id
+        IntFunction<RawBytes> keys = i -> key( String.format( "%0" + NUMBER_LENGTH + "d", i ) + ":user:account" );
+        TreeNodeDynamicSize<RawBytes,RawBytes> plainNode = getNode( LARGE_PAGE_SIZE, bytesLayout, createOffloadStore() );
+        TreeNodeDynamicSize<RawBytes,RawBytes> sharedPartFirstNode = getNode( LARGE_PAGE_SIZE, new SharedPartFirstLayout(), createOffloadStore() );
+
+        // when
+        List<RawBytes> plainKeys = new ArrayList<>();
+        refillRightHalfAfterSplit( plainNode, keys, plainKeys );
+        List<RawBytes> sharedPartFirstKeys = new ArrayList<>();
+        PageCursor sharedPartFirstLeaf = refillRightHalfAfterSplit( sharedPartFirstNode, keys, sharedPartFirstKeys );
+
+        // then
+        assertTrue( sharedPartFirstKeys.size() > plainKeys.size(), "Expected more than " + plainKeys.size() +
+                " keys in leaf when the layout writes the shared part first, but fit " + sharedPartFirstKeys.size() );
+        assertLeaves( sharedPartFirstNode, sharedPartFirstKeys, sharedPartFirstLeaf );
+    }
+
+    /**
+     * Fill a leaf until it overflows and split it, then fill the right half until it overflows again.
+     * Returns cursor at the right half, whose keys are added to {@code rightKeys}.
+     */
+    private PageCursor refillRightHalfAfterSplit( TreeNodeDynamicSize<RawBytes,RawBytes> node, IntFunction<RawBytes> keys, List<RawBytes> rightKeys )
+            throws IOException
+    {
+        PageCursor left = leafCursor( node, 0 );
+        PageCursor right = leafCursor( node, 1 );
+        List<RawBytes> leftKeys = fillUntilOverflow( node, left, keys, 0 );
+        RawBytes newKey = keys.apply( leftKeys.size() );
+        node.doSplitLeaf( left, leftKeys.size(), right, leftKeys.size(), newKey, valueOf( newKey ), bytesLayout.newKey(), 0.5,
+                STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        leftKeys.add( newKey );
+
+        int rightKeyCount = TreeNode.keyCount( right );
+        rightKeys.addAll( leftKeys.subList( leftKeys.size() - rightKeyCount, leftKeys.size() ) );
+        rightKeys.addAll( fillUntilOverflow( node, right, keys, leftKeys.size() ) );
+        return right;
+    }
+
+    /**
+     * Fill a leaf until it overflows and split it, then remove keys from the right half until {@code keepKeys} are left
+     * in it. Returns cursor at the right half, which has a prefix.
+     */
+    private PageCursor leafWithPrefix( TreeNodeDynamicSize<RawBytes,RawBytes> node, long pageId, String keyPrefix, int firstKey, int keepKeys )
+            throws IOException
+    {
+        PageCursor left = leafCursor( node, pageId );
+        PageCursor right = leafCursor( node, pageId + 1 );
+        List<RawBytes> keys = fillUntilOverflow( node, left, keyPrefix, firstKey );
+        splitWithLast( node, left, right, keys, keyPrefix );
+        assertNotEquals( NO_PREFIX, node.getPrefixOffset( right ) );
+        int keyCount = TreeNode.keyCount( right );
+        while ( keyCount > keepKeys )
+        {
+            node.removeKeyValueAt( right, keyCount - 1, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            TreeNode.setKeyCount( right, --keyCount );
+        }
+        return right;
+    }
+
+    private PageCursor leafCursor( TreeNodeDynamicSize<RawBytes,RawBytes> node, long pageId ) throws IOException
+    {
+        PageAwareByteArrayCursor pages = new PageAwareByteArrayCursor( LARGE_PAGE_SIZE );
+        PageCursor leaf = pages.duplicate( pageId );
+        leaf.next();
+        node.initializeLeaf( leaf, STABLE_GENERATION, UNSTABLE_GENERATION );
+        return leaf;
+    }
+
+    private List<RawBytes> fillUntilOverflow( TreeNodeDynamicSize<RawBytes,RawBytes> node, PageCursor cursor, String keyPrefix, int firstKey )
+            throws IOException
+    {
+        return fillUntilOverflow( node, cursor, i -> key( keyPrefix, i ), firstKey );
+    }
+
+    private List<RawBytes> fillUntilOverflow( TreeNodeDynamicSize<RawBytes,RawBytes> node, PageCursor cursor, IntFunction<RawBytes> keyFactory,
+            int firstKey ) throws IOException
+    {
+        List<RawBytes> keys = new ArrayList<>();
+        int keyCount = TreeNode.keyCount( cursor );
+        for ( int i = firstKey; ; i++ )
+        {
+            RawBytes key = keyFactory.apply( i );
+            TreeNode.Overflow overflow = node.leafOverflow( cursor, keyCount, key, valueOf( key ) );
+            if ( overflow == YES )
+            {
+                return keys;
+            }
+            if ( overflow == NO_NEED_DEFRAG )
+            {
+                node.defragmentLeaf( cursor );
+            }
+            insert( node, cursor, key, keyCount );
+            keys.add( key );
+            keyCount++;
+        }
+    }
+
+    private void splitWithLast( TreeNodeDynamicSize<RawBytes,RawBytes> node, PageCursor left, PageCursor right, List<RawBytes> keys, String keyPrefix )
+            throws IOException
+    {
+        RawBytes newKey = key( keyPrefix, keyNumber( keys.get( keys.size() - 1 ) ) + 1 );
+        node.doSplitLeaf( left, keys.size(), right, keys.size(), newKey, valueOf( newKey ), bytesLayout.newKey(), 0.5,
+                STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        keys.add( newKey );
+    }
+
+    private void insert( TreeNodeDynamicSize<RawBytes,RawBytes> node, PageCursor cursor, RawBytes key, int pos ) throws IOException
+    {
+        int keyCount = TreeNode.keyCount( cursor );
+        node.insertKeyValueAt( cursor, key, valueOf( key ), pos, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+    }
+
+    private List<RawBytes> keysOf( TreeNodeDynamicSize<RawBytes,RawBytes> node, PageCursor cursor )
+    {
+        List<RawBytes> keys = new ArrayList<>();
+        int keyCount = TreeNode.keyCount( cursor );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            keys.add( node.keyAt( cursor, bytesLayout.newKey(), i, LEAF, NULL ) );
+        }
+        return keys;
+    }
+
+    private void assertLeaves( TreeNodeDynamicSize<RawBytes,RawBytes> node, List<RawBytes> expectedKeys, PageCursor... leaves )
+    {
+        int expectedIndex = 0;
+        RawBytes readKey = bytesLayout.newKey();
+        RawBytes readValue = bytesLayout.newValue();
+        for ( PageCursor leaf : leaves )
+        {
+            int keyCount = TreeNode.keyCount( leaf );
+            for ( int pos = 0; pos < keyCount; pos++ )
+            {
+                RawBytes expectedKey = expectedKeys.get( expectedIndex++ );
+                node.keyAt( leaf, readKey, pos, LEAF, NULL );
+                assertArrayEquals( expectedKey.bytes, readKey.bytes, "Key differ at pos " + pos + ", actualKey=" + readKey );
+                node.valueAt( leaf, readValue, pos, NULL );
+                assertArrayEquals( valueOf( expectedKey ).bytes, readValue.bytes, "Value differ at pos " + pos + ", actualValue=" + readValue );
+                node.keyValueAt( leaf, readKey, readValue, pos, NULL );
+                assertArrayEquals( expectedKey.bytes, readKey.bytes );
+                assertArrayEquals( valueOf( expectedKey ).bytes, readValue.bytes );
+            }
+            assertFalse( leaf.checkAndClearBoundsFlag(), "Out of bounds when reading leaf " + leaf.getCurrentPageId() );
+        }
+        assertEquals( expectedKeys.size(), expectedIndex );
+    }
+
+    private static RawBytes key( String keyPrefix, int i )
+    {
+        return key( keyPrefix + String.format( "%0" + NUMBER_LENGTH + "d", i ) );
+    }
+
+    private static int keyNumber( RawBytes key )
+    {
+        String string = new String( key.bytes, UTF_8 );
+        return Integer.parseInt( string.substring( string.length() - NUMBER_LENGTH ) );
+    }
+
+    private static RawBytes key( String key )
+    {
+        RawBytes rawBytes = new RawBytes();
+        rawBytes.bytes = key.getBytes( UTF_8 );
+        return rawBytes;
+    }
+
+    /**
+     * The value of an entry is the reversed key, which lets assertions find the expected value from the key alone.
+     */
+    private static RawBytes valueOf( RawBytes key )
+    {
+        RawBytes value = new RawBytes();
+        value.bytes = new byte[key.bytes.length];
+        for ( int i = 0; i < key.bytes.length; i++ )
+        {
+            value.bytes[i] = key.bytes[key.bytes.length - 1 - i];
+        }
+        return value;
+    }
+
+    /**
+     * Writes the number that keys start with last when prefix compressing them, like generic index keys write their entity id last.
+     */
+    private static class SharedPartFirstLayout extends SimpleByteArrayLayout
+    {
+        SharedPartFirstLayout()
+        {
+            super( false );
+        }
+
+        @Override
+        public void writeKeyForPrefixCompression( PageCursor cursor, RawBytes key )
+        {
+            cursor.putBytes( key.bytes, NUMBER_LENGTH, key.bytes.length - NUMBER_LENGTH );
+            cursor.putBytes( key.bytes, 0, NUMBER_LENGTH );
+        }
+
+        @Override
+        public void readKeyForPrefixCompression( PageCursor cursor, RawBytes into, int keySize )
+        {
+            into.bytes = new byte[keySize];
+            cursor.getBytes( into.bytes, NUMBER_LENGTH, keySize - NUMBER_LENGTH );
+            cursor.getBytes( into.bytes, 0, NUMBER_LENGTH );
+        }
+    }
+}
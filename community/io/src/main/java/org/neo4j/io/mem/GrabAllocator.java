@@ -19,17 +19,27 @@
  */
 package org.neo4j.io.mem;
 
+import org.neo4j.internal.nativeimpl.LinuxHugePages;
+import org.neo4j.internal.nativeimpl.LinuxMemoryPolicy;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.memory.MemoryTracker;
 
 import java.lang.ref.Cleaner;
 
+import static org.neo4j.internal.nativeimpl.LinuxHugePages.HUGE_PAGE_SIZE;
 import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
  * This memory allocator is allocating memory in large segments, called "grabs", and the memory returned by the memory
  * manager is page aligned, and plays well with transparent huge pages and other operating system optimisations.
+ * <p>
+ * The grabs can optionally be backed by huge pages, as described by the {@link HugePageMode}. In that case, the grabs are made larger, and are aligned
+ * to the huge page size, so that the operating system can back them with whole huge pages. The memory spent on aligning the grabs, or on rounding
+ * up their mappings, counts against the expected maximum memory.
+ * <p>
+ * The grabs can also be placed on a particular NUMA node, by giving them a memory policy that prefers that node before they are first touched.
  */
 public final class GrabAllocator implements MemoryAllocator
 {
@@ -48,10 +58,53 @@ public final class GrabAllocator implements MemoryAllocator
      */
     GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker )
     {
-        this.grabs = new Grabs( expectedMaxMemory, memoryTracker );
+        this( expectedMaxMemory, memoryTracker, HugePageMode.DISABLED );
+    }
+
+    /**
+     * Create a new GrabAllocator that will allocate the given amount of memory, and try to back it with huge pages.
+     *
+     * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate.
+     * @param memoryTracker memory usage tracker
+     * @param hugePageMode how to back the allocated memory with huge pages.
+     */
+    GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker, HugePageMode hugePageMode )
+    {
+        this( expectedMaxMemory, memoryTracker, hugePageMode, NO_NUMA_NODE );
+    }
+
+    /**
+     * Create a new GrabAllocator that will allocate the given amount of memory, and try to back it with huge pages from the given NUMA node.
+     *
+     * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate.
+     * @param memoryTracker memory usage tracker
+     * @param hugePageMode how to back the allocated memory with huge pages.
+     * @param numaNode the operating system id of the NUMA node that the memory should preferably be placed on, or {@link #NO_NUMA_NODE}.
+     */
+    GrabAllocator( long expectedMaxMemory, MemoryTracker memoryTracker, HugePageMode hugePageMode, int numaNode )
+    {
+        this.grabs = new Grabs( expectedMaxMemory, memoryTracker, hugePageMode, numaNode );
         this.cleanable = globalCleaner.register( this, new GrabsDeallocator( grabs ) );
     }
 
+    @Override
+    public synchronized long explicitHugePageMemory()
+    {
+        return grabs.explicitHugePageMemory();
+    }
+
+    @Override
+    public synchronized long transparentHugePageMemory()
+    {
+        return grabs.transparentHugePageMemory();
+    }
+
+    @Override
+    public synchronized long regularPageMemory()
+    {
+        return grabs.regularPageMemory();
+    }
+
     @Override
     public synchronized long usedMemory()
     {
@@ -82,6 +135,10 @@ public final class GrabAllocator implements MemoryAllocator
         private final long address;
         private final long limit;
         private final MemoryTracker memoryTracker;
+        private final long allocationAddress;
+        private final long allocationSize;
+        private final boolean hugePageMapping;
+        private final boolean hugePageAdvised;
         private long nextPointer;
 
         Grab( Grab next, long size, MemoryTracker memoryTracker )
@@ -90,16 +147,25 @@ public final class GrabAllocator implements MemoryAllocator
             this.address = UnsafeUtil.allocateMemory( size, memoryTracker );
             this.limit = address + size;
             this.memoryTracker = memoryTracker;
+            this.allocationAddress = address;
+            this.allocationSize = size;
+            this.hugePageMapping = false;
+            this.hugePageAdvised = false;
             nextPointer = address;
         }
 
-        Grab( Grab next, long address, long limit, long nextPointer, MemoryTracker memoryTracker )
+        Grab( Grab next, long address, long limit, long nextPointer, MemoryTracker memoryTracker, long allocationAddress, long allocationSize,
+                boolean hugePageMapping, boolean hugePageAdvised )
         {
             this.next = next;
             this.address = address;
             this.limit = limit;
             this.nextPointer = nextPointer;
             this.memoryTracker = memoryTracker;
+            this.allocationAddress = allocationAddress;
+            this.allocationSize = allocationSize;
+            this.hugePageMapping = hugePageMapping;
+            this.hugePageAdvised = hugePageAdvised;
         }
 
         private static long nextAligned( long pointer, long alignment )
@@ -125,7 +191,15 @@ public final class GrabAllocator implements MemoryAllocator
 
         void free()
         {
-            UnsafeUtil.free( address, limit - address, memoryTracker );
+            if ( hugePageMapping )
+            {
+                LinuxHugePages.unmapHugePages( allocationAddress, allocationSize );
+                memoryTracker.releaseNative( allocationSize );
+            }
+            else
+            {
+                UnsafeUtil.free( allocationAddress, allocationSize, memoryTracker );
+            }
         }
 
         boolean canAllocate( long bytes, long alignment )
@@ -135,7 +209,7 @@ public final class GrabAllocator implements MemoryAllocator
 
         Grab setNext( Grab grab )
         {
-            return new Grab( grab, address, limit, nextPointer, memoryTracker );
+            return new Grab( grab, address, limit, nextPointer, memoryTracker, allocationAddress, allocationSize, hugePageMapping, hugePageAdvised );
         }
 
         @Override
@@ -153,16 +227,87 @@ public final class GrabAllocator implements MemoryAllocator
         /**
          * The amount of memory, in bytes, to grab in each Grab.
          */
-        private static final long GRAB_SIZE = getInteger( GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes( 512 ) );
+        private static final long DEFAULT_GRAB_SIZE = getInteger( GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes( 512 ) );
+        /**
+         * The amount of memory, in bytes, to grab in each Grab, when the grabs are backed by huge pages. Always a multiple of the huge page size.
+         */
+        private static final long HUGE_PAGE_GRAB_SIZE =
+                Math.max( getInteger( GrabAllocator.class, "HUGE_PAGE_GRAB_SIZE", (int) mebiBytes( 32 ) ) / HUGE_PAGE_SIZE, 1 ) * HUGE_PAGE_SIZE;
 
         private final MemoryTracker memoryTracker;
+        private final HugePageMode hugePageMode;
+        private final int numaNode;
+        private final long maxGrabSize;
         private long expectedMaxMemory;
         private Grab head;
 
-        Grabs( long expectedMaxMemory, MemoryTracker memoryTracker )
+        Grabs( long expectedMaxMemory, MemoryTracker memoryTracker, HugePageMode hugePageMode, int numaNode )
         {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.hugePageMode = LinuxHugePages.isAvailable() ? hugePageMode : HugePageMode.DISABLED;
+            this.numaNode = numaNode;
+            this.maxGrabSize = this.hugePageMode == HugePageMode.DISABLED ? DEFAULT_GRAB_SIZE : HUGE_PAGE_GRAB_SIZE;
+        }
+
+        private Grab newGrab( Grab next, long size )
+        {
+            Grab grab = allocateGrab( next, size );
+            if ( numaNode != NO_NUMA_NODE )
+            {
+                // Only whole pages can be given a memory policy, and it only applies to the pages that are yet to be touched.
+                long pageSize = UnsafeUtil.pageSize();
+                long start = (grab.address + pageSize - 1) & -pageSize;
+                long end = grab.limit & -pageSize;
+                LinuxMemoryPolicy.preferNode( start, end - start, numaNode );
+            }
+            return grab;
+        }
+
+        private Grab allocateGrab( Grab next, long size )
+        {
+            if ( hugePageMode != HugePageMode.DISABLED && size >= HUGE_PAGE_SIZE )
+            {
+                if ( hugePageMode == HugePageMode.EXPLICIT )
+                {
+                    long mappingSize = roundUpToHugePage( size );
+                    long address = LinuxHugePages.mapHugePages( mappingSize );
+                    if ( address != 0 )
+                    {
+                        memoryTracker.allocateNative( mappingSize );
+                        return new Grab( next, address, address + mappingSize, address, memoryTracker, address, mappingSize, true, false );
+                    }
+                    // The pool of explicit huge pages has run out. Try transparent huge pages instead.
+                }
+
+                // Over-allocate, so the grab can be aligned to the huge page size. Only aligned huge page sized regions can be backed by huge pages.
+                long allocationSize = size + HUGE_PAGE_SIZE;
+                long allocation = UnsafeUtil.allocateMemory( allocationSize, memoryTracker );
+                long address = roundUpToHugePage( allocation );
+                boolean advised = LinuxHugePages.adviseHugePages( address, size );
+                return new Grab( next, address, address + size, address, memoryTracker, allocation, allocationSize, false, advised );
+            }
+            return new Grab( next, size, memoryTracker );
+        }
+
+        /**
+         * @return how much of the given amount of memory can be handed out, when every grab that may be backed by huge pages can cost up to a
+         * huge page more than its size, for aligning it or rounding up its mapping.
+         */
+        private long usableMemory( long memory )
+        {
+            if ( hugePageMode == HugePageMode.DISABLED || memory <= 0 )
+            {
+                return memory;
+            }
+            long grabCost = maxGrabSize + HUGE_PAGE_SIZE;
+            long grabCount = (memory + grabCost - 1) / grabCost;
+            return Math.max( memory - grabCount * HUGE_PAGE_SIZE, 0 );
+        }
+
+        private static long roundUpToHugePage( long value )
+        {
+            return (value + HUGE_PAGE_SIZE - 1) & ~(HUGE_PAGE_SIZE - 1);
         }
 
         long usedMemory()
@@ -185,7 +330,37 @@ public final class GrabAllocator implements MemoryAllocator
             {
                 availableInCurrentGrab = grab.limit - grab.nextPointer;
             }
-            return Math.max( expectedMaxMemory, 0L ) + availableInCurrentGrab;
+            return usableMemory( Math.max( expectedMaxMemory, 0L ) ) + availableInCurrentGrab;
+        }
+
+        long explicitHugePageMemory()
+        {
+            long sum = 0;
+            for ( Grab grab = head; grab != null; grab = grab.next )
+            {
+                sum += grab.hugePageMapping ? grab.limit - grab.address : 0;
+            }
+            return sum;
+        }
+
+        long transparentHugePageMemory()
+        {
+            long sum = 0;
+            for ( Grab grab = head; grab != null; grab = grab.next )
+            {
+                sum += grab.hugePageAdvised ? grab.limit - grab.address : 0;
+            }
+            return sum;
+        }
+
+        long regularPageMemory()
+        {
+            long sum = 0;
+            for ( Grab grab = head; grab != null; grab = grab.next )
+            {
+                sum += grab.hugePageMapping || grab.hugePageAdvised ? 0 : grab.limit - grab.address;
+            }
+            return sum;
         }
 
         public void close()
@@ -206,23 +381,23 @@ public final class GrabAllocator implements MemoryAllocator
             {
                 throw new IllegalArgumentException( "Invalid alignment: " + alignment + ". Alignment must be positive." );
             }
-            long grabSize = Math.min( GRAB_SIZE, expectedMaxMemory );
+            long grabSize = Math.min( maxGrabSize, usableMemory( expectedMaxMemory ) );
             long maxAllocationSize = bytes + alignment - 1;
-            if ( maxAllocationSize > GRAB_SIZE )
+            if ( maxAllocationSize > maxGrabSize )
             {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 grabSize = bytes;
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                Grab allocationGrab = newGrab( nextGrab, grabSize );
                 if ( !allocationGrab.canAllocate( bytes, alignment ) )
                 {
                     allocationGrab.free();
                     grabSize = maxAllocationSize;
-                    allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                    allocationGrab = newGrab( nextGrab, grabSize );
                 }
                 long allocation = allocationGrab.allocate( bytes, alignment );
                 head = head == null ? allocationGrab : head.setNext( allocationGrab );
-                expectedMaxMemory -= bytes;
+                expectedMaxMemory -= allocationGrab.allocationSize;
                 return allocation;
             }
 
@@ -231,18 +406,18 @@ public final class GrabAllocator implements MemoryAllocator
                 if ( grabSize < bytes )
                 {
                     grabSize = bytes;
-                    Grab grab = new Grab( head, grabSize, memoryTracker );
+                    Grab grab = newGrab( head, grabSize );
                     if ( grab.canAllocate( bytes, alignment ) )
                     {
-                        expectedMaxMemory -= grabSize;
+                        expectedMaxMemory -= grab.allocationSize;
                         head = grab;
                         return head.allocate( bytes, alignment );
                     }
                     grab.free();
                     grabSize = maxAllocationSize;
                 }
-                head = new Grab( head, grabSize, memoryTracker );
-                expectedMaxMemory -= grabSize;
+                head = newGrab( head, grabSize );
+                expectedMaxMemory -= head.allocationSize;
             }
             return head.allocate( bytes, alignment );
         }
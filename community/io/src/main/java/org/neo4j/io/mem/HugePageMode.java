@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.neo4j.internal.nativeimpl.LinuxHugePages;
+
+import static org.neo4j.io.ByteUnit.bytesToString;
+
+/**
+ * How a {@link MemoryAllocator} should try to back the memory it allocates with huge pages, to reduce the number of TLB misses
+ * when accessing large amounts of memory. Memory that cannot be backed by huge pages is backed by regular pages instead.
+ */
+public enum HugePageMode
+{
+    /**
+     * Only use regular pages.
+     */
+    DISABLED,
+    /**
+     * Advise the kernel to back the memory with transparent huge pages.
+     */
+    TRANSPARENT,
+    /**
+     * Map the memory from the pool of explicitly reserved huge pages, falling back to {@link #TRANSPARENT} huge pages when the pool runs out.
+     */
+    EXPLICIT;
+
+    private static final Path TRANSPARENT_HUGE_PAGES_ENABLED = Path.of( "/sys/kernel/mm/transparent_hugepage/enabled" );
+    private static final Path MEMINFO = Path.of( "/proc/meminfo" );
+    private static final Path PROCESS_MEMORY = Path.of( "/proc/self/smaps_rollup" );
+
+    /**
+     * Describe how much of the given amount of memory the operating system can back with huge pages in this mode.
+     *
+     * @param memory the amount of memory that is going to be allocated, in bytes.
+     * @return a human readable description of the huge page support.
+     */
+    public String describeSupport( long memory )
+    {
+        if ( this == DISABLED )
+        {
+            return "Huge pages are disabled.";
+        }
+        if ( !LinuxHugePages.isAvailable() )
+        {
+            return "Huge pages were requested, but are not available on this platform. Regular pages will be used.";
+        }
+        StringBuilder description = new StringBuilder( "Huge pages requested in " ).append( name() ).append( " mode." );
+        if ( this == EXPLICIT )
+        {
+            long freeHugePages = readMeminfo( MEMINFO, "HugePages_Free:" );
+            long hugePageSize = readMeminfo( MEMINFO, "Hugepagesize:" ) * 1024;
+            long hugePageMemory = freeHugePages * hugePageSize;
+            description.append( " There are " ).append( freeHugePages ).append( " free explicit huge pages of " ).append( bytesToString( hugePageSize ) )
+                    .append( ", which can back " ).append( bytesToString( Math.min( hugePageMemory, memory ) ) )
+                    .append( " of the requested " ).append( bytesToString( memory ) ).append( '.' );
+            if ( hugePageMemory < memory )
+            {
+                description.append( " The remainder will use transparent huge pages, if possible." );
+            }
+        }
+        description.append( " Transparent huge pages: " ).append( readTransparentHugePageMode() ).append( '.' );
+        return description.toString();
+    }
+
+    /**
+     * Describe how the memory that the given allocator has allocated so far is backed. Unlike {@link #describeSupport(long)}, this is what was
+     * actually obtained, except that the operating system is free to ignore the advice to use transparent huge pages. The amount of
+     * transparent huge pages that the whole process has been given is included for that reason.
+     *
+     * @param allocator the allocator that has allocated memory in this mode.
+     * @return a human readable description of the huge page usage.
+     */
+    public String describeUsage( MemoryAllocator allocator )
+    {
+        StringBuilder description = new StringBuilder( "Of the memory allocated so far, " )
+                .append( bytesToString( allocator.explicitHugePageMemory() ) ).append( " is on explicit huge pages, " )
+                .append( bytesToString( allocator.transparentHugePageMemory() ) ).append( " is advised to use transparent huge pages, and " )
+                .append( bytesToString( allocator.regularPageMemory() ) ).append( " is on regular pages." );
+        if ( allocator.transparentHugePageMemory() > 0 )
+        {
+            description.append( " The process is using " ).append( bytesToString( readMeminfo( PROCESS_MEMORY, "AnonHugePages:" ) * 1024 ) )
+                    .append( " of transparent huge pages." );
+        }
+        return description.toString();
+    }
+
+    private static String readTransparentHugePageMode()
+    {
+        try
+        {
+            // The file looks like "always [madvise] never", with the active mode in brackets.
+            String modes = Files.readString( TRANSPARENT_HUGE_PAGES_ENABLED );
+            int start = modes.indexOf( '[' );
+            int end = modes.indexOf( ']' );
+            return start >= 0 && end > start ? modes.substring( start + 1, end ) : modes.trim();
+        }
+        catch ( IOException e )
+        {
+            return "unknown";
+        }
+    }
+
+    private static long readMeminfo( Path file, String key )
+    {
+        try
+        {
+            List<String> lines = Files.readAllLines( file );
+            for ( String line : lines )
+            {
+                if ( line.startsWith( key ) )
+                {
+                    return Long.parseLong( line.substring( key.length() ).trim().split( "\\s+" )[0] );
+                }
+            }
+        }
+        catch ( IOException | NumberFormatException e )
+        {
+            // Fall through.
+        }
+        return 0;
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.io.mem;
 
+import org.neo4j.internal.nativeimpl.LinuxMemoryPolicy;
 import org.neo4j.memory.MemoryTracker;
 
 /**
@@ -26,11 +27,37 @@ import org.neo4j.memory.MemoryTracker;
  */
 public interface MemoryAllocator
 {
+    /**
+     * Passed as the NUMA node of an allocation, when the memory can come from any node.
+     */
+    int NO_NUMA_NODE = -1;
+
     static MemoryAllocator createAllocator( long expectedMemory, MemoryTracker memoryTracker )
     {
         return new GrabAllocator( expectedMemory, memoryTracker );
     }
 
+    static MemoryAllocator createAllocator( long expectedMemory, MemoryTracker memoryTracker, HugePageMode hugePageMode )
+    {
+        return new GrabAllocator( expectedMemory, memoryTracker, hugePageMode );
+    }
+
+    /**
+     * Create an allocator that splits the expected memory evenly over the nodes of the given NUMA topology, and places the memory of each share
+     * on its node. The given part of the expected memory is kept apart for allocations that don't ask for any node, like
+     * {@link #allocateAligned(long, long)}, and is not placed on a particular node. Falls back to a single allocator, whose memory is placed by
+     * the first touch, if there is only one node, or memory cannot be placed on a particular node on this platform.
+     */
+    static MemoryAllocator createAllocator( long expectedMemory, long sharedMemory, MemoryTracker memoryTracker, HugePageMode hugePageMode,
+            NumaTopology numaTopology )
+    {
+        if ( numaTopology.nodeCount() > 1 && LinuxMemoryPolicy.isAvailable() )
+        {
+            return new NumaMemoryAllocator( expectedMemory, sharedMemory, memoryTracker, hugePageMode, numaTopology );
+        }
+        return new GrabAllocator( expectedMemory, memoryTracker, hugePageMode );
+    }
+
     /**
      * @return The sum, in bytes, of all the memory currently allocating through this allocator.
      */
@@ -41,6 +68,31 @@ public interface MemoryAllocator
      */
     long availableMemory();
 
+    /**
+     * @return The amount of allocated memory, in bytes, that is mapped from the pool of explicitly reserved huge pages.
+     */
+    default long explicitHugePageMemory()
+    {
+        return 0;
+    }
+
+    /**
+     * @return The amount of allocated memory, in bytes, that the operating system has been advised to back with transparent huge pages.
+     * Whether it actually does so is up to the operating system.
+     */
+    default long transparentHugePageMemory()
+    {
+        return 0;
+    }
+
+    /**
+     * @return The amount of allocated memory, in bytes, that is backed by regular pages.
+     */
+    default long regularPageMemory()
+    {
+        return usedMemory();
+    }
+
     /**
      * Allocate a contiguous, aligned region of memory of the given size in bytes.
      * @param bytes the number of bytes to allocate.
@@ -50,6 +102,20 @@ public interface MemoryAllocator
      */
     long allocateAligned( long bytes, long alignment );
 
+    /**
+     * Allocate a contiguous, aligned region of memory of the given size in bytes, preferably from the memory of the given NUMA node.
+     * Allocators that are not NUMA aware ignore the node.
+     * @param bytes the number of bytes to allocate.
+     * @param alignment The byte multiple that the allocated pointers have to be aligned at.
+     * @param numaNode the dense id of the NUMA node, as defined by {@link NumaTopology}, or {@link #NO_NUMA_NODE}.
+     * @return A pointer to the allocated memory.
+     * @throws OutOfMemoryError if the requested memory could not be allocated.
+     */
+    default long allocateAligned( long bytes, long alignment, int numaNode )
+    {
+        return allocateAligned( bytes, alignment );
+    }
+
     /**
      * Close all allocated resources and free all allocated memory.
      * Closing can happen by calling close explicitly or by GC as soon as allocator will become phantom reachable.
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A {@link MemoryAllocator} with a {@link GrabAllocator} per NUMA node, that each get an even share of the expected memory, and bind their grabs
+ * to their own node. Allocations that ask for a particular node are served by the allocator of that node, and allocations that ask for no node
+ * in particular by the allocator of the node that the calling thread is running on. Allocations that don't say anything about nodes, like the
+ * meta-data of the page cache, are served by a shared allocator with its own part of the expected memory, which is not bound to any node.
+ */
+final class NumaMemoryAllocator implements MemoryAllocator
+{
+    private final NumaTopology numaTopology;
+    private final GrabAllocator sharedAllocator;
+    private final GrabAllocator[] nodeAllocators;
+
+    NumaMemoryAllocator( long expectedMaxMemory, long sharedMemory, MemoryTracker memoryTracker, HugePageMode hugePageMode, NumaTopology numaTopology )
+    {
+        this.numaTopology = numaTopology;
+        this.sharedAllocator = new GrabAllocator( sharedMemory, memoryTracker, hugePageMode );
+        int nodeCount = numaTopology.nodeCount();
+        this.nodeAllocators = new GrabAllocator[nodeCount];
+        expectedMaxMemory -= sharedMemory;
+        long share = expectedMaxMemory / nodeCount;
+        for ( int node = 0; node < nodeCount; node++ )
+        {
+            // The last node also gets the remainder of the memory.
+            long nodeMemory = node == nodeCount - 1 ? expectedMaxMemory - share * (nodeCount - 1) : share;
+            nodeAllocators[node] = new GrabAllocator( nodeMemory, memoryTracker, hugePageMode, numaTopology.operatingSystemNodeId( node ) );
+        }
+    }
+
+    @Override
+    public long usedMemory()
+    {
+        long sum = sharedAllocator.usedMemory();
+        for ( GrabAllocator allocator : nodeAllocators )
+        {
+            sum += allocator.usedMemory();
+        }
+        return sum;
+    }
+
+    @Override
+    public long availableMemory()
+    {
+        long sum = sharedAllocator.availableMemory();
+        for ( GrabAllocator allocator : nodeAllocators )
+        {
+            sum += allocator.availableMemory();
+        }
+        return sum;
+    }
+
+    @Override
+    public long explicitHugePageMemory()
+    {
+        long sum = sharedAllocator.explicitHugePageMemory();
+        for ( GrabAllocator allocator : nodeAllocators )
+        {
+            sum += allocator.explicitHugePageMemory();
+        }
+        return sum;
+    }
+
+    @Override
+    public long transparentHugePageMemory()
+    {
+        long sum = sharedAllocator.transparentHugePageMemory();
+        for ( GrabAllocator allocator : nodeAllocators )
+        {
+            sum += allocator.transparentHugePageMemory();
+        }
+        return sum;
+    }
+
+    @Override
+    public long regularPageMemory()
+    {
+        long sum = sharedAllocator.regularPageMemory();
+        for ( GrabAllocator allocator : nodeAllocators )
+        {
+            sum += allocator.regularPageMemory();
+        }
+        return sum;
+    }
+
+    @Override
+    public long allocateAligned( long bytes, long alignment )
+    {
+        return sharedAllocator.allocateAligned( bytes, alignment );
+    }
+
+    @Override
+    public long allocateAligned( long bytes, long alignment, int numaNode )
+    {
+        int node = numaNode >= 0 && numaNode < nodeAllocators.length ? numaNode : numaTopology.currentNode();
+        return nodeAllocators[node].allocateAligned( bytes, alignment );
+    }
+
+    @Override
+    public void close()
+    {
+        sharedAllocator.close();
+        for ( GrabAllocator allocator : nodeAllocators )
+        {
+            allocator.close();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.neo4j.internal.nativeimpl.NativeAccess;
+import org.neo4j.internal.nativeimpl.NativeAccessProvider;
+
+/**
+ * Describes the NUMA nodes of the machine, and which node the calling thread is currently running on.
+ * <p>
+ * The node ids reported by the operating system can be sparse. They are mapped to a dense range from zero to
+ * {@link #nodeCount()}, in the order of the operating system node ids, so that they can be used as array indexes.
+ * <p>
+ * If the topology cannot be determined, for instance because we are not running on Linux, or native access is not available, then the machine is
+ * treated as having a single node.
+ */
+public final class NumaTopology
+{
+    public static final NumaTopology SINGLE_NODE = new NumaTopology( new int[]{0}, new int[0], null );
+
+    private static final Path SYSFS_NODES_DIRECTORY = Path.of( "/sys/devices/system/node" );
+    private static final Pattern NODE_DIRECTORY_NAME = Pattern.compile( "node(\\d+)" );
+
+    private final int nodeCount;
+    private final int[] nodeIds;
+    private final int[] cpuToNode;
+    private final NativeAccess nativeAccess;
+
+    NumaTopology( int[] nodeIds, int[] cpuToNode, NativeAccess nativeAccess )
+    {
+        this.nodeCount = nodeIds.length;
+        this.nodeIds = nodeIds;
+        this.cpuToNode = cpuToNode;
+        this.nativeAccess = nativeAccess;
+    }
+
+    /**
+     * Detect the NUMA topology of the machine we are running on.
+     * @return the detected topology, or {@link #SINGLE_NODE} if it could not be determined.
+     */
+    public static NumaTopology detect()
+    {
+        NativeAccess nativeAccess = NativeAccessProvider.getNativeAccess();
+        if ( !nativeAccess.isAvailable() || !Files.isDirectory( SYSFS_NODES_DIRECTORY ) )
+        {
+            return SINGLE_NODE;
+        }
+        return readTopology( SYSFS_NODES_DIRECTORY, nativeAccess );
+    }
+
+    /**
+     * Read the NUMA topology from a directory that is laid out like {@code /sys/devices/system/node}.
+     * @param nodesDirectory the directory with a {@code nodeN} sub-directory for each node, that each contain a {@code cpulist} file.
+     * @param nativeAccess used for finding the CPU that a thread is running on.
+     * @return the topology, or {@link #SINGLE_NODE} if there is only one node, or the topology could not be read.
+     */
+    public static NumaTopology readTopology( Path nodesDirectory, NativeAccess nativeAccess )
+    {
+        Map<Integer,Path> nodeDirectories = new TreeMap<>();
+        try ( Stream<Path> entries = Files.list( nodesDirectory ) )
+        {
+            entries.forEach( entry ->
+            {
+                Matcher matcher = NODE_DIRECTORY_NAME.matcher( entry.getFileName().toString() );
+                if ( matcher.matches() )
+                {
+                    nodeDirectories.put( Integer.parseInt( matcher.group( 1 ) ), entry );
+                }
+            } );
+            if ( nodeDirectories.size() <= 1 )
+            {
+                return SINGLE_NODE;
+            }
+
+            int[] cpuToNode = new int[0];
+            int node = 0;
+            for ( Path nodeDirectory : nodeDirectories.values() )
+            {
+                for ( int cpu : parseCpuList( Files.readString( nodeDirectory.resolve( "cpulist" ) ) ) )
+                {
+                    if ( cpu >= cpuToNode.length )
+                    {
+                        cpuToNode = Arrays.copyOf( cpuToNode, cpu + 1 );
+                    }
+                    cpuToNode[cpu] = node;
+                }
+                node++;
+            }
+            int[] nodeIds = nodeDirectories.keySet().stream().mapToInt( Integer::intValue ).toArray();
+            return new NumaTopology( nodeIds, cpuToNode, nativeAccess );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return SINGLE_NODE;
+        }
+    }
+
+    /**
+     * Parse a Linux CPU list, like {@code 0-3,8-11,16}.
+     */
+    static int[] parseCpuList( String cpuList )
+    {
+        IntStream.Builder cpus = IntStream.builder();
+        for ( String range : cpuList.trim().split( "," ) )
+        {
+            if ( range.isEmpty() )
+            {
+                continue;
+            }
+            int dash = range.indexOf( '-' );
+            int first = Integer.parseInt( dash == -1 ? range : range.substring( 0, dash ) );
+            int last = dash == -1 ? first : Integer.parseInt( range.substring( dash + 1 ) );
+            for ( int cpu = first; cpu <= last; cpu++ )
+            {
+                cpus.add( cpu );
+            }
+        }
+        return cpus.build().toArray();
+    }
+
+    /**
+     * @return the number of NUMA nodes. Always at least one.
+     */
+    public int nodeCount()
+    {
+        return nodeCount;
+    }
+
+    /**
+     * @param node the dense id of a node, from zero to {@link #nodeCount()}.
+     * @return the id of the node as known by the operating system.
+     */
+    public int operatingSystemNodeId( int node )
+    {
+        return nodeIds[node];
+    }
+
+    /**
+     * Get the node that the calling thread is currently running on. The thread can be migrated to another node at any time,
+     * so this should only be used as a hint.
+     * @return the dense id of the node the calling thread is running on, or zero if it is not known.
+     */
+    public int currentNode()
+    {
+        if ( nodeCount == 1 )
+        {
+            return 0;
+        }
+        int cpu = nativeAccess.getCurrentCpu();
+        return cpu >= 0 && cpu < cpuToNode.length ? cpuToNode[cpu] : 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "NumaTopology[nodes:" + nodeCount + ", cpus:" + cpuToNode.length + "]";
+    }
+}
@@ -103,6 +103,21 @@ public interface IOLimiter
         // Same as for disableLimit().
     }
 
+    /**
+     * Get the limiter to use for the flushes of a single check point, which calls
+     * {@link #maybeLimitIO(long, int, Flushable)} for every file it flushes, each time starting over from the
+     * {@link #INITIAL_STAMP}. This allows implementations to relate the IO of each of those flushes to the check point
+     * as a whole, also when several check points, for instance of different databases, are flushing at the same time.
+     * The returned limiter is only used for the duration of that one check point.
+     *
+     * @return the limiter for one check point.
+     */
+    default IOLimiter checkPointLimiter()
+    {
+        // By default this returns the limiter itself, assuming the implementation only looks at one flush at a time.
+        return this;
+    }
+
     /**
      * An IOPSLimiter implementation that does not restrict the rate of IO. Use this implementation if you want the
      * flush to go as fast as possible.
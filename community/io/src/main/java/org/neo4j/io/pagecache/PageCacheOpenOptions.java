@@ -44,5 +44,20 @@ public enum PageCacheOpenOptions implements OpenOption
      * Please check that your platform is supported before providing this option.
      * @see ExtendedOpenOption for details.
      */
-    DIRECT
+    DIRECT,
+
+    /**
+     * Map the file with a high priority for staying in the page cache. The pages of the file are passed over when the page cache
+     * looks for pages to evict, unless there are almost no other pages left to evict. This is meant for small and frequently accessed
+     * files, that should stay in memory even while large scans churn through the pages of other files.
+     * The priority of a file is decided when it is first mapped, and cannot be combined with {@link #LOW_PRIORITY}.
+     */
+    HIGH_PRIORITY,
+
+    /**
+     * Map the file with a low priority for staying in the page cache. The pages of the file are the first to be evicted, regardless of how
+     * often they are used. This is meant for large files that are rarely read, and that should not push the pages of other files out of the
+     * page cache. The priority of a file is decided when it is first mapped, and cannot be combined with {@link #HIGH_PRIORITY}.
+     */
+    LOW_PRIORITY
 }
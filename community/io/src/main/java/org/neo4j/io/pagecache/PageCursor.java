@@ -270,6 +270,22 @@ public abstract class PageCursor implements AutoCloseable
      */
     public abstract boolean next( long pageId ) throws IOException;
 
+    /**
+     * Hint that the pages with the given ids, in the file of this cursor, are likely to be accessed soon.
+     * Page cache implementations may use this to fault those pages in asynchronously, ahead of the reader that
+     * is going to visit them, such that the reader does not have to wait for each of those page faults in turn.
+     * <p>
+     * This is only a hint. It does not move this cursor, and it may be ignored entirely. Page ids that are
+     * negative, or beyond the end of the file, are ignored. The given array is not retained after this call.
+     *
+     * @param pageIds the ids of the file pages that are likely to be accessed soon, in the order they will likely be accessed.
+     * @param length the number of page ids in the given array to consider.
+     */
+    public void prefetch( long[] pageIds, int length )
+    {
+        // Cursors that are not backed by a page cache have nothing to prefetch.
+    }
+
     /**
      * Relinquishes all resources associated with this cursor, including the
      * cursor itself, and any linked cursors opened through it. The cursor cannot be used after this call.
@@ -168,6 +168,19 @@ public interface PagedFile extends AutoCloseable
      */
     void flushAndForce( IOLimiter limiter ) throws IOException;
 
+    /**
+     * Flush all dirty pages into the file channel, like {@link #flushAndForce(IOLimiter)}, but leave it to the operating system when to write
+     * them to disk. The pages are only durable after the next {@link #flushAndForce(IOLimiter) flush and force} of this file, which forces all
+     * writes made to it so far. Implementations which cannot flush without forcing may force anyway.
+     *
+     * @param limiter The {@link IOLimiter} that determines if pauses or sleeps should be injected into the flushing
+     * process to keep the IO rate down.
+     */
+    default void flushWithoutForce( IOLimiter limiter ) throws IOException
+    {
+        flushAndForce( limiter );
+    }
+
     /**
      * Get the file-page-id of the last page in the file.
      * <p>
@@ -219,6 +219,12 @@ public class DelegatingPageCursor extends PageCursor
         return delegate.openLinkedCursor( pageId );
     }
 
+    @Override
+    public void prefetch( long[] pageIds, int length )
+    {
+        delegate.prefetch( pageIds, length );
+    }
+
     @Override
     public long getCurrentPageId()
     {
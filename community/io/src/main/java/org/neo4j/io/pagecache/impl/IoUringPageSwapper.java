@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.internal.nativeimpl.LinuxIoUring;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+
+/**
+ * A {@link SingleFilePageSwapper} that does its reads and writes through an {@link IoUringQueue}, instead of through the
+ * blocking positional read and write calls of the file channel.
+ * <p>
+ * Everything else, such as file locking, truncation, forcing, and reopening the channel after an interrupt, is handled by
+ * the {@link SingleFilePageSwapper}. If the channel does not expose a file descriptor, then the reads and writes fall
+ * back to the channel as well.
+ * <p>
+ * The operations are given a duplicate of the file descriptor of the channel. The kernel uses the descriptor after it has been
+ * submitted, up until the operation completes, and the channel can be closed at any time by an interrupt. The duplicate is
+ * reference counted by the operations that use it, and is only closed once the swapper is closed and no operation is in flight.
+ */
+class IoUringPageSwapper extends SingleFilePageSwapper
+{
+    private final IoUringQueue queue;
+    private final int fd;
+    // One reference is held by the swapper itself, until it is closed, and one by each reader or writer of the file descriptor.
+    private final AtomicInteger fdReferences = new AtomicInteger( 1 );
+    // Guarded by synchronized(this).
+    private boolean fdReleased;
+
+    IoUringPageSwapper( Path path, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction, boolean useDirectIO,
+            IoUringQueue queue ) throws IOException
+    {
+        super( path, fs, filePageSize, onEviction, useDirectIO );
+        this.queue = queue;
+        this.fd = duplicateFileDescriptor( fileDescriptor() );
+    }
+
+    private static int duplicateFileDescriptor( int channelFd )
+    {
+        if ( channelFd <= 0 )
+        {
+            return -1;
+        }
+        try
+        {
+            return LinuxIoUring.duplicate( channelFd );
+        }
+        catch ( IOException e )
+        {
+            // Do reads and writes through the channel instead.
+            return -1;
+        }
+    }
+
+    /**
+     * @return {@code true} if the file descriptor is pinned, and must be released with {@link #unpinFileDescriptor()}, or {@code false}
+     * if there is no file descriptor to use, because the channel has none or because the swapper has been closed.
+     */
+    private boolean pinFileDescriptor()
+    {
+        if ( fd <= 0 )
+        {
+            return false;
+        }
+        int references;
+        do
+        {
+            references = fdReferences.get();
+            if ( references <= 0 )
+            {
+                return false;
+            }
+        }
+        while ( !fdReferences.compareAndSet( references, references + 1 ) );
+        return true;
+    }
+
+    private void unpinFileDescriptor() throws IOException
+    {
+        if ( fdReferences.decrementAndGet() == 0 )
+        {
+            LinuxIoUring.closeDuplicate( fd );
+        }
+    }
+
+    @Override
+    int swapIn( long bufferAddress, long fileOffset, int bufferSize ) throws IOException
+    {
+        if ( !pinFileDescriptor() )
+        {
+            return super.swapIn( bufferAddress, fileOffset, bufferSize );
+        }
+        int readTotal;
+        try
+        {
+            readTotal = queue.read( fd, bufferAddress, bufferSize, fileOffset );
+        }
+        finally
+        {
+            unpinFileDescriptor();
+        }
+        // Zero-fill the rest.
+        int rest = bufferSize - readTotal;
+        if ( rest > 0 )
+        {
+            UnsafeUtil.setMemory( bufferAddress + readTotal, rest, MuninnPageCache.ZERO_BYTE );
+        }
+        return readTotal;
+    }
+
+    @Override
+    int swapOut( long bufferAddress, long fileOffset, int bufferLength ) throws IOException
+    {
+        if ( !pinFileDescriptor() )
+        {
+            return super.swapOut( bufferAddress, fileOffset, bufferLength );
+        }
+        try
+        {
+            queue.write( fd, bufferAddress, bufferLength, fileOffset );
+        }
+        finally
+        {
+            unpinFileDescriptor();
+        }
+        return bufferLength;
+    }
+
+    @Override
+    long readVectored( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+    {
+        if ( !pinFileDescriptor() )
+        {
+            return super.readVectored( startFilePageId, bufferAddresses, bufferLengths, length );
+        }
+        int[] bytesRead = new int[length];
+        try
+        {
+            queue.readVectored( fd, bufferAddresses, bufferLengths, length, pageIdToPosition( startFilePageId ), bytesRead );
+        }
+        finally
+        {
+            unpinFileDescriptor();
+        }
+        long readTotal = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            int rest = bufferLengths[i] - bytesRead[i];
+            if ( rest > 0 )
+            {
+                UnsafeUtil.setMemory( bufferAddresses[i] + bytesRead[i], rest, MuninnPageCache.ZERO_BYTE );
+            }
+            readTotal += bytesRead[i];
+        }
+        return readTotal;
+    }
+
+    @Override
+    long writeVectored( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+    {
+        if ( !pinFileDescriptor() )
+        {
+            return super.writeVectored( startFilePageId, bufferAddresses, bufferLengths, length );
+        }
+        try
+        {
+            long fileOffset = pageIdToPosition( startFilePageId );
+            long bytesToWrite = countBuffersLengths( bufferLengths, length );
+            increaseFileSizeTo( fileOffset + bytesToWrite );
+            queue.writeVectored( fd, bufferAddresses, bufferLengths, length, fileOffset );
+            return bytesToWrite;
+        }
+        finally
+        {
+            unpinFileDescriptor();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            if ( fd > 0 && !fdReleased )
+            {
+                // Operations that are still in flight keep the file descriptor open until they complete.
+                fdReleased = true;
+                unpinFileDescriptor();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IoUringPageSwapper{" +
+                "queue=" + queue +
+                ", swapper=" + super.toString() +
+                '}';
+    }
+}
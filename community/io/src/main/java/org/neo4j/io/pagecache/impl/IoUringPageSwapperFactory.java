@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * A factory for {@link IoUringPageSwapper} instances, which all share a single io_uring submission and completion queue.
+ * <p>
+ * If io_uring is not available, because we are not on Linux, the kernel is too old, or io_uring has been disabled, then
+ * this factory creates plain {@link SingleFilePageSwapper} instances instead.
+ *
+ * @see org.neo4j.io.pagecache.impl.IoUringPageSwapper
+ */
+public class IoUringPageSwapperFactory implements PageSwapperFactory
+{
+    private static final int QUEUE_ENTRIES = FeatureToggles.getInteger( IoUringPageSwapperFactory.class, "queueEntries", 256 );
+
+    private final FileSystemAbstraction fs;
+    private final IoUringQueue queue;
+
+    public IoUringPageSwapperFactory( FileSystemAbstraction fs )
+    {
+        this.fs = fs;
+        this.queue = IoUringQueue.tryCreate( QUEUE_ENTRIES );
+    }
+
+    /**
+     * @return {@code true} if the swappers created by this factory will do their I/O through io_uring, or {@code false}
+     * if the factory has fallen back to creating {@link SingleFilePageSwapper} instances.
+     */
+    public boolean isIoUringEnabled()
+    {
+        return queue != null;
+    }
+
+    @Override
+    public PageSwapper createPageSwapper(
+            Path file,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            boolean createIfNotExist,
+            boolean useDirectIO ) throws IOException
+    {
+        if ( !createIfNotExist && !fs.fileExists( file.toFile() ) )
+        {
+            throw new NoSuchFileException( file.toString(), null, "Cannot map non-existing file" );
+        }
+        if ( queue == null )
+        {
+            return new SingleFilePageSwapper( file, fs, filePageSize, onEviction, useDirectIO );
+        }
+        return new IoUringPageSwapper( file, fs, filePageSize, onEviction, useDirectIO, queue );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( queue != null )
+        {
+            try
+            {
+                queue.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+}
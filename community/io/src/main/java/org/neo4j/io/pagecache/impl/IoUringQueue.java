@@ -0,0 +1,569 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.internal.nativeimpl.LinuxIoUring;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_ENTER_GETEVENTS;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_OFF_CQ_RING;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_OFF_SQES;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_OFF_SQ_RING;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IO_URING_PARAMS_SIZE;
+
+/**
+ * A single io_uring instance, shared by all the page swappers of an {@link IoUringPageSwapperFactory}.
+ * <p>
+ * Any number of threads can submit reads and writes concurrently. Submission happens under a short lock, and every
+ * submitting thread hands all of its operations to the kernel with a single {@code io_uring_enter} call. A vectored
+ * read or write thus costs one system call to submit, no matter how many buffers it covers.
+ * <p>
+ * Completions are reaped by whichever waiting thread manages to become the reaper. The reaper waits in the kernel for
+ * completions on behalf of everyone, hands out the results, and unparks the threads whose operations completed. This
+ * way, hundreds of threads can have I/O outstanding in the same ring, without each of them sitting in its own blocking
+ * system call.
+ */
+final class IoUringQueue implements AutoCloseable
+{
+    private static final byte IORING_OP_READ = 22;
+    private static final byte IORING_OP_WRITE = 23;
+    // Added in the same kernel version (5.6) as the plain read and write operations, which we depend on.
+    private static final int IORING_FEAT_RW_CUR_POS = 1 << 3;
+    private static final int IORING_FEAT_SINGLE_MMAP = 1;
+
+    private static final int SQE_SIZE = 64;
+    private static final int CQE_SIZE = 16;
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 50 );
+    // Returned by await() for operations that the kernel did not carry out because of a transient error, and must be submitted again.
+    private static final int RETRY = -1;
+
+    private final int ringFd;
+    private final long sqRingAddress;
+    private final long sqRingSize;
+    private final long cqRingAddress;
+    private final long cqRingSize;
+    private final long sqesAddress;
+    private final long sqesSize;
+
+    private final long sqHeadAddress;
+    private final long sqTailAddress;
+    private final long sqArrayAddress;
+    private final int sqMask;
+    private final int sqEntries;
+    private final long cqHeadAddress;
+    private final long cqTailAddress;
+    private final long cqesAddress;
+    private final int cqMask;
+
+    // The operations that are in flight, indexed by the user data we give to the kernel.
+    private final Operation[] inFlight;
+    // Guarded by submitLock.
+    private final int[] freeSlots;
+    private int freeSlotCount;
+    private int unsubmitted;
+    private boolean closed;
+    // Guarded by reapLock. Set when the rings have been unmapped, after all operations in flight have completed.
+    private boolean unmapped;
+    private final Object submitLock = new Object();
+    private final ReentrantLock reapLock = new ReentrantLock();
+
+    private IoUringQueue( int entries ) throws IOException
+    {
+        long params = UnsafeUtil.allocateMemory( IO_URING_PARAMS_SIZE, EmptyMemoryTracker.INSTANCE );
+        try
+        {
+            UnsafeUtil.setMemory( params, IO_URING_PARAMS_SIZE, (byte) 0 );
+            ringFd = LinuxIoUring.setup( entries, params );
+
+            sqEntries = UnsafeUtil.getInt( params );
+            int cqEntries = UnsafeUtil.getInt( params + 4 );
+            int features = UnsafeUtil.getInt( params + 20 );
+            // struct io_sqring_offsets starts at byte 40, and struct io_cqring_offsets at byte 80.
+            long sqOff = params + 40;
+            long cqOff = params + 80;
+            if ( (features & IORING_FEAT_RW_CUR_POS) == 0 )
+            {
+                LinuxIoUring.closeRing( ringFd );
+                throw new IOException( "The kernel io_uring implementation is too old; plain read and write operations are not supported." );
+            }
+
+            long sqSize = UnsafeUtil.getInt( sqOff + 24 ) + (long) sqEntries * Integer.BYTES;
+            long cqSize = UnsafeUtil.getInt( cqOff + 20 ) + (long) cqEntries * CQE_SIZE;
+            if ( (features & IORING_FEAT_SINGLE_MMAP) != 0 )
+            {
+                sqSize = Math.max( sqSize, cqSize );
+                sqRingSize = sqSize;
+                sqRingAddress = LinuxIoUring.mmap( sqSize, ringFd, IORING_OFF_SQ_RING );
+                cqRingSize = 0; // Shares the submission queue mapping.
+                cqRingAddress = sqRingAddress;
+            }
+            else
+            {
+                sqRingSize = sqSize;
+                sqRingAddress = LinuxIoUring.mmap( sqSize, ringFd, IORING_OFF_SQ_RING );
+                cqRingSize = cqSize;
+                cqRingAddress = LinuxIoUring.mmap( cqSize, ringFd, IORING_OFF_CQ_RING );
+            }
+            sqesSize = (long) sqEntries * SQE_SIZE;
+            sqesAddress = LinuxIoUring.mmap( sqesSize, ringFd, IORING_OFF_SQES );
+
+            sqHeadAddress = sqRingAddress + UnsafeUtil.getInt( sqOff );
+            sqTailAddress = sqRingAddress + UnsafeUtil.getInt( sqOff + 4 );
+            sqMask = UnsafeUtil.getInt( sqRingAddress + UnsafeUtil.getInt( sqOff + 8 ) );
+            sqArrayAddress = sqRingAddress + UnsafeUtil.getInt( sqOff + 24 );
+            cqHeadAddress = cqRingAddress + UnsafeUtil.getInt( cqOff );
+            cqTailAddress = cqRingAddress + UnsafeUtil.getInt( cqOff + 4 );
+            cqMask = UnsafeUtil.getInt( cqRingAddress + UnsafeUtil.getInt( cqOff + 8 ) );
+            cqesAddress = cqRingAddress + UnsafeUtil.getInt( cqOff + 20 );
+        }
+        finally
+        {
+            UnsafeUtil.free( params, IO_URING_PARAMS_SIZE, EmptyMemoryTracker.INSTANCE );
+        }
+
+        // Never have more operations in flight than there are submission queue entries. The completion queue is at
+        // least twice as big, so it can never overflow.
+        inFlight = new Operation[sqEntries];
+        freeSlots = new int[sqEntries];
+        for ( int i = 0; i < sqEntries; i++ )
+        {
+            freeSlots[i] = i;
+        }
+        freeSlotCount = sqEntries;
+    }
+
+    /**
+     * Try to set up an io_uring instance with the given number of submission queue entries.
+     *
+     * @return the new queue, or {@code null} if io_uring is not available on this system.
+     */
+    static IoUringQueue tryCreate( int entries )
+    {
+        if ( !LinuxIoUring.isAvailable() )
+        {
+            return null;
+        }
+        try
+        {
+            return new IoUringQueue( entries );
+        }
+        catch ( Throwable e )
+        {
+            // Kernel too old, io_uring disabled by seccomp or sysctl, or the memory locking limit is too low.
+            return null;
+        }
+    }
+
+    /**
+     * Read up to {@code length} bytes from the given file offset into the given buffer.
+     *
+     * @return the number of bytes read, which is less than the requested length only at the end of the file.
+     */
+    int read( int fd, long bufferAddress, int length, long fileOffset ) throws IOException
+    {
+        return transfer( IORING_OP_READ, fd, bufferAddress, length, fileOffset );
+    }
+
+    /**
+     * Write all of the given buffer to the given file offset.
+     */
+    int write( int fd, long bufferAddress, int length, long fileOffset ) throws IOException
+    {
+        return transfer( IORING_OP_WRITE, fd, bufferAddress, length, fileOffset );
+    }
+
+    /**
+     * Read into all the given buffers, from consecutive file offsets starting at the given one, submitting all reads
+     * at once.
+     *
+     * @param bytesRead receives the number of bytes read into each of the buffers.
+     */
+    void readVectored( int fd, long[] bufferAddresses, int[] bufferLengths, int length, long fileOffset, int[] bytesRead ) throws IOException
+    {
+        transferVectored( IORING_OP_READ, fd, bufferAddresses, bufferLengths, length, fileOffset, bytesRead );
+    }
+
+    /**
+     * Write all the given buffers to consecutive file offsets starting at the given one, submitting all writes at once.
+     */
+    void writeVectored( int fd, long[] bufferAddresses, int[] bufferLengths, int length, long fileOffset ) throws IOException
+    {
+        int[] bytesWritten = new int[length];
+        transferVectored( IORING_OP_WRITE, fd, bufferAddresses, bufferLengths, length, fileOffset, bytesWritten );
+    }
+
+    private int transfer( byte opcode, int fd, long bufferAddress, int length, long fileOffset ) throws IOException
+    {
+        int total = 0;
+        while ( total < length )
+        {
+            Operation operation = new Operation( opcode, fd, bufferAddress + total, length - total, fileOffset + total );
+            submit( operation );
+            int result = await( operation );
+            if ( result == RETRY )
+            {
+                continue;
+            }
+            if ( result == 0 && opcode == IORING_OP_READ )
+            {
+                break; // End of file.
+            }
+            total += result;
+        }
+        return total;
+    }
+
+    private void transferVectored( byte opcode, int fd, long[] bufferAddresses, int[] bufferLengths, int length, long fileOffset,
+            int[] transferred ) throws IOException
+    {
+        Operation[] operations = new Operation[length];
+        long offset = fileOffset;
+        for ( int i = 0; i < length; i++ )
+        {
+            operations[i] = new Operation( opcode, fd, bufferAddresses[i], bufferLengths[i], offset );
+            offset += bufferLengths[i];
+        }
+        IOException failure = null;
+        try
+        {
+            submit( operations );
+        }
+        catch ( IOException e )
+        {
+            // Some of the operations may have been submitted before the failure, and must still be waited for below.
+            failure = e;
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            if ( !operations[i].submitted )
+            {
+                continue;
+            }
+            try
+            {
+                transferred[i] = await( operations[i] );
+            }
+            catch ( IOException e )
+            {
+                // Keep waiting for the rest, since the kernel may still be writing into, or reading from, the buffers.
+                failure = failure == null ? e : failure;
+            }
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+        // Finish any short or retried transfers one by one. Short transfers only happen at the end of the file, or if the
+        // kernel is interrupted, so this is rare.
+        offset = fileOffset;
+        for ( int i = 0; i < length; i++ )
+        {
+            int done = Math.max( transferred[i], 0 );
+            if ( done < bufferLengths[i] && !(opcode == IORING_OP_READ && transferred[i] == 0) )
+            {
+                transferred[i] = done + transfer( opcode, fd, bufferAddresses[i] + done, bufferLengths[i] - done, offset + done );
+            }
+            offset += bufferLengths[i];
+        }
+    }
+
+    private void submit( Operation... operations ) throws IOException
+    {
+        int submittedSoFar = 0;
+        while ( submittedSoFar < operations.length )
+        {
+            synchronized ( submitLock )
+            {
+                if ( closed )
+                {
+                    throw new ClosedChannelException();
+                }
+                int sqTail = UnsafeUtil.getInt( sqTailAddress );
+                int sqFree = sqEntries - (sqTail - UnsafeUtil.getIntVolatile( sqHeadAddress ));
+                int count = Math.min( operations.length - submittedSoFar, Math.min( freeSlotCount, sqFree ) );
+                for ( int i = 0; i < count; i++ )
+                {
+                    Operation operation = operations[submittedSoFar++];
+                    int slot = freeSlots[--freeSlotCount];
+                    inFlight[slot] = operation;
+                    operation.submitted = true;
+                    int index = sqTail & sqMask;
+                    writeSubmissionQueueEntry( sqesAddress + (long) index * SQE_SIZE, operation, slot );
+                    UnsafeUtil.putInt( sqArrayAddress + (long) index * Integer.BYTES, index );
+                    sqTail++;
+                }
+                // Publish the new entries to the kernel, then hand over everything that has not been submitted yet.
+                UnsafeUtil.putIntVolatile( sqTailAddress, sqTail );
+                unsubmitted += count;
+                enterUnsubmitted();
+            }
+            if ( submittedSoFar < operations.length )
+            {
+                // The ring is full. Help reap completions to make room.
+                reapOnce( null );
+            }
+        }
+    }
+
+    private static void writeSubmissionQueueEntry( long sqe, Operation operation, int slot )
+    {
+        UnsafeUtil.setMemory( sqe, SQE_SIZE, (byte) 0 );
+        UnsafeUtil.putByte( sqe, operation.opcode );
+        UnsafeUtil.putInt( sqe + 4, operation.fd );
+        UnsafeUtil.putLong( sqe + 8, operation.fileOffset );
+        UnsafeUtil.putLong( sqe + 16, operation.bufferAddress );
+        UnsafeUtil.putInt( sqe + 24, operation.length );
+        UnsafeUtil.putLong( sqe + 32, slot );
+    }
+
+    /**
+     * Must be called while holding the submit lock.
+     */
+    private void enterUnsubmitted() throws IOException
+    {
+        if ( unsubmitted > 0 )
+        {
+            int submitted = LinuxIoUring.enter( ringFd, unsubmitted, 0, 0 );
+            if ( submitted > 0 )
+            {
+                unsubmitted -= submitted;
+            }
+        }
+    }
+
+    private int await( Operation operation ) throws IOException
+    {
+        operation.waiter = Thread.currentThread();
+        while ( !operation.done )
+        {
+            if ( reapLock.tryLock() )
+            {
+                try
+                {
+                    while ( !operation.done )
+                    {
+                        reapOnce( operation );
+                    }
+                }
+                finally
+                {
+                    reapLock.unlock();
+                    handOverReaping();
+                }
+            }
+            else
+            {
+                LockSupport.parkNanos( this, PARK_NANOS );
+            }
+        }
+        int result = operation.result;
+        if ( result < 0 )
+        {
+            if ( -result == LinuxIoUring.Errno.EBADF )
+            {
+                // The channel was closed under us, presumably by an interrupt. Let the swapper reopen it and retry.
+                throw new ClosedChannelException();
+            }
+            if ( -result == LinuxIoUring.Errno.EINTR || -result == LinuxIoUring.Errno.EAGAIN )
+            {
+                // Nothing was transferred. This is not the end of the file, so the operation must be submitted again.
+                return RETRY;
+            }
+            throw new IOException( "io_uring " + (operation.opcode == IORING_OP_READ ? "read" : "write") + " of " + operation.length +
+                    " bytes at file offset " + operation.fileOffset + " failed with error code " + -result );
+        }
+        return result;
+    }
+
+    /**
+     * Reap whatever completions are available, and if there were none, wait in the kernel for at least one. If the
+     * caller is not the reaper, then it will only take a turn as reaper if no one else is already reaping.
+     */
+    private void reapOnce( Operation awaited ) throws IOException
+    {
+        boolean reaper = awaited != null || reapLock.tryLock();
+        if ( !reaper )
+        {
+            LockSupport.parkNanos( this, PARK_NANOS );
+            return;
+        }
+        try
+        {
+            if ( unmapped )
+            {
+                // Closed, and every operation has completed, including the awaited one.
+                return;
+            }
+            if ( drainCompletionQueue() == 0 && (awaited == null || !awaited.done) )
+            {
+                synchronized ( submitLock )
+                {
+                    enterUnsubmitted();
+                }
+                LinuxIoUring.enter( ringFd, 0, 1, IORING_ENTER_GETEVENTS );
+                drainCompletionQueue();
+            }
+        }
+        finally
+        {
+            if ( awaited == null )
+            {
+                reapLock.unlock();
+            }
+        }
+    }
+
+    private int drainCompletionQueue()
+    {
+        int head = UnsafeUtil.getInt( cqHeadAddress );
+        int tail = UnsafeUtil.getIntVolatile( cqTailAddress );
+        if ( head == tail )
+        {
+            return 0;
+        }
+        int reaped = tail - head;
+        int[] slots = new int[reaped];
+        for ( int i = 0; head != tail; head++, i++ )
+        {
+            long cqe = cqesAddress + (long) (head & cqMask) * CQE_SIZE;
+            int slot = (int) UnsafeUtil.getLong( cqe );
+            Operation operation = inFlight[slot];
+            inFlight[slot] = null;
+            operation.result = UnsafeUtil.getInt( cqe + 8 );
+            operation.done = true;
+            slots[i] = slot;
+            Thread waiter = operation.waiter;
+            if ( waiter != null )
+            {
+                LockSupport.unpark( waiter );
+            }
+        }
+        UnsafeUtil.putIntVolatile( cqHeadAddress, tail );
+        synchronized ( submitLock )
+        {
+            for ( int slot : slots )
+            {
+                freeSlots[freeSlotCount++] = slot;
+            }
+        }
+        return reaped;
+    }
+
+    private void handOverReaping()
+    {
+        // Wake up one of the threads that are still waiting, so it can take over as reaper without waiting for its park
+        // timeout to expire.
+        for ( Operation operation : inFlight )
+        {
+            if ( operation != null && !operation.done && operation.waiter != null )
+            {
+                LockSupport.unpark( operation.waiter );
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        synchronized ( submitLock )
+        {
+            if ( closed )
+            {
+                return;
+            }
+            closed = true;
+        }
+        // No more operations can be submitted, but the kernel may still complete the ones in flight into the rings.
+        // Reap them all before the rings are unmapped.
+        reapLock.lock();
+        try
+        {
+            while ( operationsInFlight() > 0 )
+            {
+                if ( drainCompletionQueue() == 0 )
+                {
+                    synchronized ( submitLock )
+                    {
+                        enterUnsubmitted();
+                    }
+                    LinuxIoUring.enter( ringFd, 0, 1, IORING_ENTER_GETEVENTS );
+                }
+            }
+            unmapped = true;
+            LinuxIoUring.munmapRegion( sqesAddress, sqesSize );
+            LinuxIoUring.munmapRegion( sqRingAddress, sqRingSize );
+            if ( cqRingSize != 0 )
+            {
+                LinuxIoUring.munmapRegion( cqRingAddress, cqRingSize );
+            }
+            LinuxIoUring.closeRing( ringFd );
+        }
+        finally
+        {
+            reapLock.unlock();
+        }
+    }
+
+    private int operationsInFlight()
+    {
+        synchronized ( submitLock )
+        {
+            return sqEntries - freeSlotCount;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IoUringQueue[entries = " + sqEntries + "]";
+    }
+
+    private static final class Operation
+    {
+        final byte opcode;
+        final int fd;
+        final long bufferAddress;
+        final int length;
+        final long fileOffset;
+        volatile Thread waiter;
+        volatile boolean done;
+        // Guarded by the submit lock of the queue. Only read after submission by the submitting thread.
+        boolean submitted;
+        int result;
+
+        Operation( byte opcode, int fd, long bufferAddress, int length, long fileOffset )
+        {
+            this.opcode = opcode;
+            this.fd = fd;
+            this.bufferAddress = bufferAddress;
+            this.length = length;
+            this.fileOffset = fileOffset;
+        }
+    }
+}
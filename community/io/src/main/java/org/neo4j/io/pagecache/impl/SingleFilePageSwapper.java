@@ -160,7 +160,7 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
-    private void increaseFileSizeTo( long newFileSize )
+    void increaseFileSizeTo( long newFileSize )
     {
         long currentFileSize;
         do
@@ -204,7 +204,16 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
-    private int swapIn( long bufferAddress, long fileOffset, int bufferSize ) throws IOException
+    /**
+     * @return the file descriptor of the channel currently open for this file, or a negative or zero value if the
+     * channel is not backed by a file descriptor that native calls can use.
+     */
+    int fileDescriptor()
+    {
+        return channel.getFileDescriptor();
+    }
+
+    int swapIn( long bufferAddress, long fileOffset, int bufferSize ) throws IOException
     {
         int readTotal = 0;
         try
@@ -235,12 +244,12 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
-    private static String formatSwapInErrorMessage( long fileOffset, int size, int readTotal )
+    static String formatSwapInErrorMessage( long fileOffset, int size, int readTotal )
     {
         return "Read failed after " + readTotal + " of " + size + " bytes from fileOffset " + fileOffset + ".";
     }
 
-    private int swapOut( long bufferAddress, long fileOffset, int bufferLength ) throws IOException
+    int swapOut( long bufferAddress, long fileOffset, int bufferLength ) throws IOException
     {
         try
         {
@@ -311,11 +320,7 @@ public class SingleFilePageSwapper implements PageSwapper
             {
                 try
                 {
-                    if ( hasPositionLock )
-                    {
-                        return readPositionedVectoredToFileChannel( startFilePageId, bufferAddresses, bufferLengths, length );
-                    }
-                    return readPositionedVectoredFallback( startFilePageId, bufferAddresses, bufferLengths, length );
+                    return readVectored( startFilePageId, bufferAddresses, bufferLengths, length );
                 }
                 catch ( ClosedChannelException e )
                 {
@@ -327,6 +332,15 @@ public class SingleFilePageSwapper implements PageSwapper
         return -1;
     }
 
+    long readVectored( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+    {
+        if ( hasPositionLock )
+        {
+            return readPositionedVectoredToFileChannel( startFilePageId, bufferAddresses, bufferLengths, length );
+        }
+        return readPositionedVectoredFallback( startFilePageId, bufferAddresses, bufferLengths, length );
+    }
+
     private long readPositionedVectoredToFileChannel( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
     {
         long fileOffset = pageIdToPosition( startFilePageId );
@@ -361,7 +375,7 @@ public class SingleFilePageSwapper implements PageSwapper
         return bytesRead;
     }
 
-    private long countBuffersLengths( int[] bufferLengths, int length )
+    static long countBuffersLengths( int[] bufferLengths, int length )
     {
         long bytesToRead = 0;
         for ( int i = 0; i < length; i++ )
@@ -446,11 +460,7 @@ public class SingleFilePageSwapper implements PageSwapper
             {
                 try
                 {
-                    if ( hasPositionLock )
-                    {
-                        return writePositionedVectoredToFileChannel( startFilePageId, bufferAddresses, bufferLengths, length );
-                    }
-                    return writePositionVectoredFallback( startFilePageId, bufferAddresses, bufferLengths, length );
+                    return writeVectored( startFilePageId, bufferAddresses, bufferLengths, length );
                 }
                 catch ( ClosedChannelException e )
                 {
@@ -462,6 +472,15 @@ public class SingleFilePageSwapper implements PageSwapper
         return -1;
     }
 
+    long writeVectored( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+    {
+        if ( hasPositionLock )
+        {
+            return writePositionedVectoredToFileChannel( startFilePageId, bufferAddresses, bufferLengths, length );
+        }
+        return writePositionVectoredFallback( startFilePageId, bufferAddresses, bufferLengths, length );
+    }
+
     private long writePositionedVectoredToFileChannel( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length )
             throws IOException
     {
@@ -557,7 +576,7 @@ public class SingleFilePageSwapper implements PageSwapper
         return path;
     }
 
-    private long pageIdToPosition( long pageId )
+    long pageIdToPosition( long pageId )
     {
         return filePageSize * pageId;
     }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The classic clock eviction policy. Every pin increments the usage counter of the pinned page, and every eviction
+ * sweep that passes a page decrements it. Pages become eviction candidates once their usage counter is at or below 1.
+ */
+final class ClockEvictionPolicy implements EvictionPolicy
+{
+    static final EvictionPolicy INSTANCE = new ClockEvictionPolicy();
+
+    private ClockEvictionPolicy()
+    {
+    }
+
+    @Override
+    public void pageFaulted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+    }
+
+    @Override
+    public void pageEvicted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+    }
+
+    @Override
+    public boolean isEvictionCandidate( PageList pages, long pageRef, int skippedPages )
+    {
+        return pages.decrementUsage( pageRef );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ClockEvictionPolicy";
+    }
+}
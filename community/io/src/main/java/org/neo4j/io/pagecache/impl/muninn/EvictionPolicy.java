@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * An eviction policy decides which of the loaded pages in the {@link PageList} the page cache should evict, when it
+ * runs out of free pages.
+ * <p>
+ * The policy does not own the eviction sweep itself. The background eviction thread and the cooperatively evicting
+ * page faulting threads still move their clock arms over the page list, and ask the policy at every loaded page they
+ * pass, whether that page should be evicted. The policy is also told about page faults and evictions, so it can keep
+ * track of the access history of pages that are no longer in memory.
+ * <p>
+ * Implementations must be thread-safe, and as cheap as possible, since they are called on every page fault and for
+ * every page visited by an eviction sweep. Racy updates of the usage counters are acceptable.
+ */
+interface EvictionPolicy
+{
+    /**
+     * Called when a page has been faulted into the given memory page, before the page fault lock is released and
+     * before the faulting cursor is pinned to the page.
+     *
+     * @param pages the page list the page belongs to.
+     * @param pageRef the memory page the file page was faulted into.
+     * @param swapperId the id of the swapper of the faulted file page.
+     * @param filePageId the id of the faulted file page.
+     */
+    void pageFaulted( PageList pages, long pageRef, int swapperId, long filePageId );
+
+    /**
+     * Called when a page has been evicted, while the memory page is still exclusively locked.
+     *
+     * @param pages the page list the page belongs to.
+     * @param pageRef the memory page that was evicted.
+     * @param swapperId the id of the swapper the evicted page was bound to, or {@code 0} if the page was not bound.
+     * @param filePageId the id of the evicted file page.
+     */
+    void pageEvicted( PageList pages, long pageRef, int swapperId, long filePageId );
+
+    /**
+     * Called by an eviction sweep for every loaded page it passes over. The policy may age the page as a side effect.
+     *
+     * @param pages the page list the page belongs to.
+     * @param pageRef the memory page under the clock arm.
+     * @param skippedPages the number of loaded pages this sweep has consecutively passed over without finding an
+     * eviction candidate.
+     * @return {@code true} if the sweep should try to evict the page.
+     */
+    boolean isEvictionCandidate( PageList pages, long pageRef, int skippedPages );
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * The eviction policies that the {@link MuninnPageCache} can be configured with.
+ */
+public enum EvictionPolicyType
+{
+    /**
+     * The classic clock algorithm, where every page that is passed by an eviction sweep is aged, and pages are evicted
+     * once they are no longer being used. This is the default.
+     */
+    CLOCK
+            {
+                @Override
+                EvictionPolicy createPolicy( int pageCount, PageCacheTracer pageCacheTracer )
+                {
+                    return ClockEvictionPolicy.INSTANCE;
+                }
+            },
+    /**
+     * A policy that separates pages that have only been accessed once, from pages that have been accessed repeatedly,
+     * so that large sequential scans do not push the frequently accessed pages out of the cache.
+     */
+    SCAN_RESISTANT
+            {
+                @Override
+                EvictionPolicy createPolicy( int pageCount, PageCacheTracer pageCacheTracer )
+                {
+                    return new ScanResistantEvictionPolicy( pageCount, pageCacheTracer );
+                }
+            };
+
+    abstract EvictionPolicy createPolicy( int pageCount, PageCacheTracer pageCacheTracer );
+}
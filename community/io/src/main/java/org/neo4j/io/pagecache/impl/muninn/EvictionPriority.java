@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
+
+/**
+ * How eagerly the pages of a mapped file are evicted, relative to the pages of other files. The priority of a file is decided by the
+ * {@link PageCacheOpenOptions#HIGH_PRIORITY} and {@link PageCacheOpenOptions#LOW_PRIORITY} options given when the file is first mapped.
+ */
+enum EvictionPriority
+{
+    /**
+     * The pages are eviction candidates whenever an eviction sweep passes them, regardless of how often they are used.
+     */
+    LOW,
+    /**
+     * The pages are evicted as decided by the {@link EvictionPolicy}.
+     */
+    NORMAL,
+    /**
+     * The pages are passed over by eviction sweeps, until a sweep has passed over so many pages without finding an eviction candidate,
+     * that the page cache is about to live-lock. Only then does the {@link EvictionPolicy} decide if they are evicted.
+     */
+    HIGH
+}
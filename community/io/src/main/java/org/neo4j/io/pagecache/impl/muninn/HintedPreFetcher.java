@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.scheduler.CancelListener;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+
+/**
+ * A page pre-fetcher for explicitly hinted pages.
+ *
+ * Where the {@link PreFetcher} observes a sequentially scanning cursor and guesses which pages it will visit next, this pre-fetcher is given the exact
+ * pages to fault in by a reader that knows its own access pattern, e.g. the child pointers of an index range scan, or the first records of the relationship
+ * chains that will be traversed. The pages are touched in the order given, from a background pre-fetcher thread, so that the page faults overlap with
+ * the work of the hinting reader instead of being paid for synchronously, one at a time.
+ *
+ * The pre-fetch jobs run on the bounded pre-fetcher thread pool, which discards new jobs when it is saturated. This is fine, since the hints are only
+ * an optimisation.
+ */
+class HintedPreFetcher implements Runnable, CancelListener
+{
+    private static final String TRACER_HINTED_PRE_FETCHER_TAG = "Hinted pre-fetcher";
+    private final CursorFactory cursorFactory;
+    private final long[] pageIds;
+    private final int length;
+    private final PageCacheTracer tracer;
+    private volatile boolean cancelled;
+
+    HintedPreFetcher( CursorFactory cursorFactory, long[] pageIds, int length, PageCacheTracer tracer )
+    {
+        this.cursorFactory = cursorFactory;
+        this.pageIds = pageIds;
+        this.length = length;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void run()
+    {
+        try ( PageCursorTracer cursorTracer = tracer.createPageCursorTracer( TRACER_HINTED_PRE_FETCHER_TAG );
+              PageCursor prefetchCursor = cursorFactory.takeReadCursor( 0, PF_SHARED_READ_LOCK, cursorTracer ) )
+        {
+            for ( int i = 0; i < length && !cancelled; i++ )
+            {
+                // Pages beyond the end of the file, e.g. if the file has been truncated since the hint was given, are simply not faulted in.
+                prefetchCursor.next( pageIds[i] );
+            }
+        }
+        catch ( FileIsNotMappedException e )
+        {
+            // The file was unmapped while we were pre-fetching. Nothing more to do.
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void cancelled()
+    {
+        cancelled = true;
+    }
+}
@@ -34,10 +34,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
@@ -135,15 +138,20 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The maximum number of pages that a single pre-fetching hint will fault in. Any pages beyond this are ignored,
+    // since the hinting reader will likely have caught up with the pre-fetcher by the time it gets that far.
+    private static final int maxHintedPreFetchPages = getInteger(
+            MuninnPageCache.class, "maxHintedPreFetchPages", 128 );
+
+    // The minimum number of pages that each NUMA node must get, for the pages to be partitioned over the nodes.
+    private static final int minPagesPerNumaNode = getInteger(
+            MuninnPageCache.class, "minPagesPerNumaNode", 1024 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
-
     // This is used as a poison-pill signal in the freelist, to inform any
     // page faulting thread that it is now no longer possible to queue up and
     // wait for more pages to be evicted, because the page cache has been shut
@@ -176,14 +184,23 @@ public class MuninnPageCache implements PageCache
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
+    // The freelists are thread-safe linked-lists of FreePage objects, or an AtomicInteger, or null. There is one
+    // freelist per NUMA node, and each freelist owns a contiguous stripe of the pages. Without NUMA awareness there
+    // is only a single freelist, that owns all the pages.
+    // Initially, a freelist is an AtomicInteger that counts from the start to the end of its stripe, at which point
+    // all of the pages in the stripe have been put in use. Once this happens, the freelist is set to null to allow the
+    // background eviction thread to start its work. From that point on, the freelist will operate as a concurrent
+    // stack of FreePage objects. The eviction thread pushes newly freed FreePage objects onto the stack of the node
+    // that owns the page, and page faulting threads pops FreePage objects from the stack of their own node, before
+    // looking at the stacks of other nodes. The FreePage objects are single-use, to avoid running into the ABA-problem.
+    // The buffers of a stripe are allocated from the memory of its node, which a NUMA aware allocator binds to that
+    // node. The meta-data in the page list is used by all nodes, and is allocated apart from the memory of the nodes.
+    private final AtomicReferenceArray<Object> freelists;
+    private final NumaTopology numaTopology;
+    private final int pagesPerNode;
+    private final LongAdder[] nodeHits;
+    private final LongAdder[] nodeLocalFaults;
+    private final LongAdder[] nodeRemoteFaults;
 
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
@@ -218,6 +235,16 @@ public class MuninnPageCache implements PageCache
         return pageCount * MEMORY_USE_PER_PAGE;
     }
 
+    /**
+     * Compute how much of the given amount of memory a page cache with 8 KiB pages spends on the meta-data of its pages, rather than on their buffers.
+     * @param memory The memory of the page cache
+     * @return The memory required for the meta-data of as many pages as fit in the given memory
+     */
+    public static long memoryRequiredForMetaData( long memory )
+    {
+        return memory / MEMORY_USE_PER_PAGE * PageList.META_DATA_BYTES_PER_PAGE;
+    }
+
     /**
      * Create page cache.
      * @param swapperFactory page cache swapper factory
@@ -251,7 +278,45 @@ public class MuninnPageCache implements PageCache
             VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, MemoryTracker memoryTracker,
             IOBufferFactory bufferFactory )
     {
-        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, versionContextSupplier, jobScheduler, clock, memoryTracker, bufferFactory );
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, versionContextSupplier, jobScheduler, clock, memoryTracker, bufferFactory,
+                EvictionPolicyType.CLOCK, NumaTopology.SINGLE_NODE );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide access to thread local version context
+     * @param memoryTracker underlying buffers allocation memory tracker
+     * @param bufferFactory temporal flush buffer factories
+     * @param evictionPolicyType the policy that decides which pages to evict when the page cache runs out of free pages
+     */
+    public MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, PageCacheTracer pageCacheTracer,
+            VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, MemoryTracker memoryTracker,
+            IOBufferFactory bufferFactory, EvictionPolicyType evictionPolicyType )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, versionContextSupplier, jobScheduler, clock, memoryTracker, bufferFactory,
+                evictionPolicyType, NumaTopology.SINGLE_NODE );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide access to thread local version context
+     * @param memoryTracker underlying buffers allocation memory tracker
+     * @param bufferFactory temporal flush buffer factories
+     * @param evictionPolicyType the policy that decides which pages to evict when the page cache runs out of free pages
+     * @param numaTopology the NUMA nodes to partition the pages over, such that page faults prefer pages that are local to the faulting thread
+     */
+    public MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, PageCacheTracer pageCacheTracer,
+            VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, MemoryTracker memoryTracker,
+            IOBufferFactory bufferFactory, EvictionPolicyType evictionPolicyType, NumaTopology numaTopology )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, versionContextSupplier, jobScheduler, clock, memoryTracker, bufferFactory,
+                evictionPolicyType, numaTopology );
     }
 
     /**
@@ -263,6 +328,14 @@ public class MuninnPageCache implements PageCache
     public MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, int cachePageSize, PageCacheTracer pageCacheTracer,
             VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, MemoryTracker memoryTracker,
             IOBufferFactory bufferFactory )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, versionContextSupplier, jobScheduler, clock, memoryTracker, bufferFactory,
+                EvictionPolicyType.CLOCK, NumaTopology.SINGLE_NODE );
+    }
+
+    private MuninnPageCache( PageSwapperFactory swapperFactory, MemoryAllocator memoryAllocator, int cachePageSize, PageCacheTracer pageCacheTracer,
+            VersionContextSupplier versionContextSupplier, JobScheduler jobScheduler, SystemNanoClock clock, MemoryTracker memoryTracker,
+            IOBufferFactory bufferFactory, EvictionPolicyType evictionPolicyType, NumaTopology numaTopology )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
@@ -280,11 +353,33 @@ public class MuninnPageCache implements PageCache
         this.printExceptionsOnClose = true;
         this.bufferFactory = bufferFactory;
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize, memoryTracker );
-        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, UnsafeUtil.pageSize() );
+        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, UnsafeUtil.pageSize(),
+                evictionPolicyType.createPolicy( maxPages, pageCacheTracer ) );
         this.scheduler = jobScheduler;
         this.clock = clock;
 
-        setFreelistHead( new AtomicInteger() );
+        // Only partition the pages if every node gets a reasonable share of them.
+        int nodeCount = maxPages / numaTopology.nodeCount() >= minPagesPerNumaNode ? numaTopology.nodeCount() : 1;
+        this.numaTopology = nodeCount > 1 ? numaTopology : NumaTopology.SINGLE_NODE;
+        this.pagesPerNode = maxPages / nodeCount;
+        this.freelists = new AtomicReferenceArray<>( nodeCount );
+        this.nodeHits = createNodeCounters( nodeCount );
+        this.nodeLocalFaults = createNodeCounters( nodeCount );
+        this.nodeRemoteFaults = createNodeCounters( nodeCount );
+        for ( int node = 0; node < nodeCount; node++ )
+        {
+            setFreelistHead( node, new AtomicInteger( stripeStart( node ) ) );
+        }
+    }
+
+    private static LongAdder[] createNodeCounters( int nodeCount )
+    {
+        LongAdder[] counters = new LongAdder[nodeCount];
+        for ( int i = 0; i < nodeCount; i++ )
+        {
+            counters[i] = new LongAdder();
+        }
+        return counters;
     }
 
     private static void verifyHacks()
@@ -335,6 +430,7 @@ public class MuninnPageCache implements PageCache
         boolean deleteOnClose = false;
         boolean anyPageSize = false;
         boolean useDirectIO = false;
+        EvictionPriority evictionPriority = EvictionPriority.NORMAL;
         for ( OpenOption option : openOptions )
         {
             if ( option.equals( StandardOpenOption.CREATE ) )
@@ -357,11 +453,23 @@ public class MuninnPageCache implements PageCache
             {
                 useDirectIO = true;
             }
+            else if ( option.equals( PageCacheOpenOptions.HIGH_PRIORITY ) )
+            {
+                evictionPriority = EvictionPriority.HIGH;
+            }
+            else if ( option.equals( PageCacheOpenOptions.LOW_PRIORITY ) )
+            {
+                evictionPriority = EvictionPriority.LOW;
+            }
             else if ( !ignoredOpenOptions.contains( option ) )
             {
                 throw new UnsupportedOperationException( "Unsupported OpenOption: " + option );
             }
         }
+        if ( openOptions.contains( PageCacheOpenOptions.HIGH_PRIORITY ) && openOptions.contains( PageCacheOpenOptions.LOW_PRIORITY ) )
+        {
+            throw new IllegalArgumentException( "Cannot map file " + path + " with both high and low priority." );
+        }
 
         FileMapping current = mappedFiles;
 
@@ -407,7 +515,7 @@ public class MuninnPageCache implements PageCache
                 pageCacheTracer, versionContextSupplier,
                 createIfNotExists,
                 truncateExisting, useDirectIO,
-                databaseName );
+                databaseName, evictionPriority );
         pagedFile.incrementRefCount();
         pagedFile.setDeleteOnClose( deleteOnClose );
         current = new FileMapping( path, pagedFile );
@@ -645,7 +753,7 @@ public class MuninnPageCache implements PageCache
               var buffer = bufferFactory.createBuffer() )
         {
             FlushEventOpportunity flushOpportunity = fileFlush.flushEventOpportunity();
-            muninnPagedFile.flushAndForceInternal( flushOpportunity, false, limiter, buffer );
+            muninnPagedFile.flushAndForceInternal( flushOpportunity, false, true, limiter, buffer );
         }
     }
 
@@ -760,32 +868,56 @@ public class MuninnPageCache implements PageCache
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
+        int nodeCount = freelists.length();
+        int localNode = numaTopology.currentNode();
         for (;;)
         {
             assertHealthy();
-            current = getFreelistHead();
-            if ( current == null )
+            for ( int i = 0; i < nodeCount; i++ )
             {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
+                int node = localNode + i < nodeCount ? localNode + i : localNode + i - nodeCount;
+                long pageRef = grabFreePage( node );
                 if ( pageRef != 0 )
                 {
+                    countFault( localNode, pageRef );
                     return pageRef;
                 }
             }
+            unparkEvictor();
+            long pageRef = cooperativelyEvict( faultEvent );
+            if ( pageRef != 0 )
+            {
+                countFault( localNode, pageRef );
+                return pageRef;
+            }
+        }
+    }
+
+    /**
+     * Grab a free page from the freelist of the given node.
+     * @return the page reference of the grabbed page, or zero if the freelist of the node is empty.
+     */
+    private long grabFreePage( int node )
+    {
+        for (;;)
+        {
+            Object current = getFreelistHead( node );
+            if ( current == null )
+            {
+                return 0;
+            }
             else if ( current instanceof AtomicInteger )
             {
-                int pageCount = pages.getPageCount();
+                int stripeEnd = stripeEnd( node );
                 AtomicInteger counter = (AtomicInteger) current;
                 int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+                if ( pageId < stripeEnd && counter.compareAndSet( pageId, pageId + 1 ) )
                 {
                     return pages.deref( pageId );
                 }
-                if ( pageId >= pageCount )
+                if ( pageId >= stripeEnd )
                 {
-                    compareAndSetFreelistHead( current, null );
+                    compareAndSetFreelistHead( node, current, null );
                 }
             }
             else if ( current instanceof FreePage )
@@ -796,7 +928,7 @@ public class MuninnPageCache implements PageCache
                     throw new IllegalStateException( "The PageCache has been shut down." );
                 }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                if ( compareAndSetFreelistHead( node, freePage, freePage.next ) )
                 {
                     return freePage.pageRef;
                 }
@@ -804,17 +936,90 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    private void countFault( int localNode, long pageRef )
+    {
+        if ( freelists.length() > 1 )
+        {
+            (nodeOf( pageRef ) == localNode ? nodeLocalFaults : nodeRemoteFaults)[localNode].increment();
+        }
+    }
+
+    void countHit( long pageRef )
+    {
+        if ( freelists.length() > 1 )
+        {
+            nodeHits[nodeOf( pageRef )].increment();
+        }
+    }
+
+    private int stripeStart( int node )
+    {
+        return node * pagesPerNode;
+    }
+
+    private int stripeEnd( int node )
+    {
+        // The last node also gets the remainder of the pages.
+        return node == freelists.length() - 1 ? pages.getPageCount() : stripeStart( node + 1 );
+    }
+
+    private int nodeOf( long pageRef )
+    {
+        return Math.min( pages.toId( pageRef ) / pagesPerNode, freelists.length() - 1 );
+    }
+
+    /**
+     * @return the NUMA node whose memory the buffer of the given page should be allocated from, or {@link MemoryAllocator#NO_NUMA_NODE} if the
+     * pages are not partitioned over the NUMA nodes.
+     */
+    int bufferNodeOf( long pageRef )
+    {
+        return freelists.length() > 1 ? nodeOf( pageRef ) : MemoryAllocator.NO_NUMA_NODE;
+    }
+
+    /**
+     * @return the statistics of each of the NUMA nodes that the pages of this page cache are partitioned over.
+     * Without NUMA awareness, there is a single node that owns all pages, and for which no hits or faults are counted.
+     */
+    public List<NumaNodeStatistics> numaNodeStatistics()
+    {
+        List<NumaNodeStatistics> statistics = new ArrayList<>( freelists.length() );
+        for ( int node = 0; node < freelists.length(); node++ )
+        {
+            statistics.add( new NumaNodeStatistics( node, stripeEnd( node ) - stripeStart( node ),
+                    nodeHits[node].sum(), nodeLocalFaults[node].sum(), nodeRemoteFaults[node].sum() ) );
+        }
+        return statistics;
+    }
+
+    /**
+     * @return the contention statistics of each of the files that are currently mapped by this page cache.
+     */
+    public synchronized List<PagedFileStatistics> pagedFileStatistics()
+    {
+        List<PagedFileStatistics> statistics = new ArrayList<>();
+        FileMapping current = mappedFiles;
+        while ( current != null )
+        {
+            MuninnPagedFile pagedFile = current.pagedFile;
+            statistics.add( new PagedFileStatistics( pagedFile.path(), pagedFile.optimisticReadRetries.sum(), pagedFile.exclusiveLockWaits.sum() ) );
+            current = current.next;
+        }
+        return statistics;
+    }
+
     private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
     {
         int iterations = 0;
         int pageCount = pages.getPageCount();
         int clockArm = ThreadLocalRandom.current().nextInt( pageCount );
+        int skippedPages = 0;
         boolean evicted = false;
         long pageRef;
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( hasFreelistHead() )
             {
                 return 0;
             }
@@ -830,9 +1035,14 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) )
             {
-                evicted = pages.tryEvict( pageRef, faultEvent );
+                boolean evictionCandidate = pages.isEvictionCandidate( pageRef, skippedPages );
+                skippedPages = evictionCandidate ? 0 : skippedPages + 1;
+                if ( evictionCandidate )
+                {
+                    evicted = pages.tryEvict( pageRef, faultEvent );
+                }
             }
             clockArm++;
         }
@@ -872,25 +1082,53 @@ public class MuninnPageCache implements PageCache
         evictorParked = false;
     }
 
-    private Object getFreelistHead()
+    private Object getFreelistHead( int node )
+    {
+        return freelists.get( node );
+    }
+
+    private boolean hasFreelistHead()
+    {
+        for ( int node = 0; node < freelists.length(); node++ )
+        {
+            if ( getFreelistHead( node ) != null )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if any of the freelists still have pages that have never been put in use.
+     */
+    private boolean hasUnusedPages()
     {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+        for ( int node = 0; node < freelists.length(); node++ )
+        {
+            Object freelistHead = getFreelistHead( node );
+            if ( freelistHead instanceof AtomicInteger && ((AtomicInteger) freelistHead).get() < stripeEnd( node ) )
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
+    private boolean compareAndSetFreelistHead( int node, Object expected, Object update )
     {
-        return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
+        return freelists.compareAndSet( node, expected, update );
     }
 
-    private void setFreelistHead( Object newFreelistHead )
+    private void setFreelistHead( int node, Object newFreelistHead )
     {
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+        freelists.set( node, newFreelistHead );
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
+     * Scan through all the pages, one by one, and ask the eviction policy if they should be evicted.
+     * The default clock policy decrements their usage stamps, and considers the page for eviction when its usage
+     * reaches zero. For such pages, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
@@ -910,8 +1148,11 @@ public class MuninnPageCache implements PageCache
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
-        // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+        // the freelists. This signal is looked out for in grabFreePage.
+        for ( int node = 0; node < freelists.length(); node++ )
+        {
+            setFreelistHead( node, shutdownSignal );
+        }
     }
 
     private int parkUntilEvictionRequired( int keepFree )
@@ -937,34 +1178,34 @@ public class MuninnPageCache implements PageCache
 
     private int tryGetNumberOfAvailablePages( int keepFree )
     {
-        Object freelistHead = getFreelistHead();
-
-        if ( freelistHead == null )
+        long availablePages = 0;
+        for ( int node = 0; node < freelists.length(); node++ )
         {
-            return keepFree;
-        }
-        else if ( freelistHead.getClass() == FreePage.class )
-        {
-            int availablePages = ((FreePage) freelistHead).count;
-            if ( availablePages < keepFree )
+            Object freelistHead = getFreelistHead( node );
+            if ( freelistHead == null )
             {
-                return keepFree - availablePages;
+                continue;
             }
-        }
-        else if ( freelistHead.getClass() == AtomicInteger.class )
-        {
-            AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
-            if ( count < keepFree )
+            else if ( freelistHead.getClass() == FreePage.class )
+            {
+                availablePages += ((FreePage) freelistHead).count;
+            }
+            else if ( freelistHead.getClass() == AtomicInteger.class )
             {
-                return count < 0 ? keepFree : (int) (keepFree - count);
+                AtomicInteger counter = (AtomicInteger) freelistHead;
+                availablePages += Math.max( stripeEnd( node ) - counter.get(), 0 );
             }
         }
+        if ( availablePages < keepFree )
+        {
+            return (int) (keepFree - availablePages);
+        }
         return UNKNOWN_AVAILABLE_PAGES;
     }
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        int skippedPages = 0;
         while ( pageCountToEvict > 0 && !closed )
         {
             if ( clockArm == pages.getPageCount() )
@@ -979,7 +1220,13 @@ public class MuninnPageCache implements PageCache
             }
 
             long pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            boolean evictionCandidate = false;
+            if ( pages.isLoaded( pageRef ) )
+            {
+                evictionCandidate = pages.isEvictionCandidate( pageRef, skippedPages );
+                skippedPages = evictionCandidate ? 0 : skippedPages + 1;
+            }
+            if ( evictionCandidate )
             {
                 try
                 {
@@ -1015,16 +1262,17 @@ public class MuninnPageCache implements PageCache
     {
         Object current;
         FreePage freePage = new FreePage( pageRef );
+        int node = nodeOf( pageRef );
         do
         {
-            current = getFreelistHead();
-            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pages.getPageCount() )
+            current = getFreelistHead( node );
+            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > stripeEnd( node ) )
             {
                 current = null;
             }
             freePage.setNext( current );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+        while ( !compareAndSetFreelistHead( node, current, freePage ) );
     }
 
     void clearEvictorException()
@@ -1045,7 +1293,7 @@ public class MuninnPageCache implements PageCache
 
     void vacuum( SwapperSet swappers )
     {
-        if ( getFreelistHead() instanceof AtomicInteger && swappers.countAvailableIds() > 200 )
+        if ( hasUnusedPages() && swappers.countAvailableIds() > 200 )
         {
             return; // We probably still have plenty of free pages left. Don't bother vacuuming just yet.
         }
@@ -1083,6 +1331,15 @@ public class MuninnPageCache implements PageCache
         cursor.preFetcher = scheduler.schedule( Group.PAGE_CACHE_PRE_FETCHER, monitoringParams, preFetcher );
     }
 
+    void startHintedPreFetching( MuninnPagedFile pagedFile, CursorFactory cursorFactory, long[] pageIds, int length )
+    {
+        int pages = Math.min( length, maxHintedPreFetchPages );
+        HintedPreFetcher preFetcher = new HintedPreFetcher( cursorFactory, pageIds, pages, pageCacheTracer );
+        var fileName = pagedFile.swapper.path().getFileName();
+        var monitoringParams = new JobMonitoringParams( SYSTEM, pagedFile.databaseName, "Hinted prefetching of file '" + fileName + "'" );
+        scheduler.schedule( Group.PAGE_CACHE_PRE_FETCHER, monitoringParams, preFetcher );
+    }
+
     void allocateFileAsync( PageSwapper swapper, long newFileSize )
     {
         scheduler.schedule( Group.FILE_IO_HELPER, new AllocateFileTask( swapper, newFileSize ) );
@@ -249,6 +249,16 @@ public abstract class MuninnPageCursor extends PageCursor
         return linkedCursor;
     }
 
+    @Override
+    public void prefetch( long[] pageIds, int length )
+    {
+        MuninnPagedFile pf = pagedFile;
+        if ( pf != null )
+        {
+            pf.prefetch( pageIds, length );
+        }
+    }
+
     /**
      * Must be called by {@link #unpinCurrentPage()}.
      */
@@ -310,6 +320,7 @@ public abstract class MuninnPageCursor extends PageCursor
         // our locking of the page). If the reference is null or it referred to a page that had wrong bindings, we CAS
         // in a latch. If that CAS succeeds, we page fault, set the slot to the faulted in page and open the latch.
         // If the CAS failed, we retry the look up and start over from the top.
+        boolean waitedForLock = false;
         for (;;)
         {
             int mappedPageId = UnsafeUtil.getIntVolatile( chunk, chunkOffset );
@@ -325,12 +336,20 @@ public abstract class MuninnPageCursor extends PageCursor
                 {
                     pinCursorToPage( pageRef, filePageId, swapper );
                     pinEvent.hit();
+                    pagedFile.pageCache.countHit( pageRef );
                     return;
                 }
                 if ( locked )
                 {
                     unlockPage( pageRef );
                 }
+                else if ( !waitedForLock )
+                {
+                    // Someone, like an eviction or a page fault, holds the exclusive lock on this page. Count it once per pin.
+                    waitedForLock = true;
+                    pinEvent.exclusiveLockWait();
+                    pagedFile.exclusiveLockWaits.increment();
+                }
             }
             else
             {
@@ -416,7 +435,7 @@ public abstract class MuninnPageCursor extends PageCursor
             // check before page.fault(), because that would otherwise reopen
             // the file channel.
             assertPagedFileStillMappedAndGetIdOfLastPage();
-            pagedFile.initBuffer( pageRef );
+            pagedFile.initBuffer( pageRef, pagedFile.pageCache.bufferNodeOf( pageRef ) );
             pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
         }
         catch ( Throwable throwable )
@@ -23,6 +23,7 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOLimiter;
@@ -78,6 +79,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     final int swapperId;
     private final CursorFactory cursorFactory;
     final String databaseName;
+    // Contention counters for this file. They are only incremented on the slow paths, where readers retry and writers wait.
+    final LongAdder optimisticReadRetries = new LongAdder();
+    final LongAdder exclusiveLockWaits = new LongAdder();
 
     private volatile boolean deleteOnClose;
 
@@ -119,10 +123,12 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
      * @param truncateExisting should truncate file if it exists
      * @param databaseName an optional name of the database this file belongs to. This option associates the mapped file with a database.
      * This information is currently used only for monitoring purposes.
+     * @param evictionPriority how eagerly the pages of this file are evicted, relative to the pages of other files.
      * @throws IOException If the {@link PageSwapper} could not be created.
      */
     MuninnPagedFile( Path path, MuninnPageCache pageCache, int filePageSize, PageSwapperFactory swapperFactory, PageCacheTracer pageCacheTracer,
-            VersionContextSupplier versionContextSupplier, boolean createIfNotExists, boolean truncateExisting, boolean useDirectIo, String databaseName )
+            VersionContextSupplier versionContextSupplier, boolean createIfNotExists, boolean truncateExisting, boolean useDirectIo, String databaseName,
+            EvictionPriority evictionPriority )
             throws IOException
     {
         super( pageCache.pages );
@@ -167,7 +173,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         translationTable = tt;
 
         initialiseLastPageId( lastPageId );
-        this.swapperId = getSwappers().allocate( swapper );
+        this.swapperId = getSwappers().allocate( swapper, evictionPriority );
     }
 
     @Override
@@ -202,6 +208,45 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return cursor;
     }
 
+    /**
+     * Schedule the given pages to be faulted in by a background pre-fetcher, skipping any pages that are already
+     * in memory, or are outside the bounds of the file.
+     */
+    void prefetch( long[] pageIds, int length )
+    {
+        long state = getHeaderState();
+        if ( refCountOf( state ) == 0 )
+        {
+            return; // The file has been unmapped, so there is nothing to prefetch.
+        }
+        long lastPageId = state & headerStateLastPageIdMask;
+        long[] pagesToFetch = null;
+        int count = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            long filePageId = pageIds[i];
+            if ( filePageId >= 0 && filePageId <= lastPageId && !isMapped( filePageId ) )
+            {
+                if ( pagesToFetch == null )
+                {
+                    pagesToFetch = new long[length - i];
+                }
+                pagesToFetch[count++] = filePageId;
+            }
+        }
+        if ( count > 0 )
+        {
+            pageCache.startHintedPreFetching( this, cursorFactory, pagesToFetch, count );
+        }
+    }
+
+    private boolean isMapped( long filePageId )
+    {
+        int[][] tt = translationTable;
+        int chunkId = computeChunkId( filePageId );
+        return chunkId < tt.length && UnsafeUtil.getIntVolatile( tt[chunkId], computeChunkOffset( filePageId ) ) != UNMAPPED_TTE;
+    }
+
     private IllegalArgumentException wrongLocksArgument( int lockFlags )
     {
         if ( lockFlags == 0 )
@@ -294,7 +339,22 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         try ( MajorFlushEvent flushEvent = pageCacheTracer.beginFileFlush( swapper );
               var buffer = bufferFactory.createBuffer() )
         {
-            flushAndForceInternal( flushEvent.flushEventOpportunity(), false, limiter, buffer );
+            flushAndForceInternal( flushEvent.flushEventOpportunity(), false, true, limiter, buffer );
+        }
+        pageCache.clearEvictorException();
+    }
+
+    @Override
+    public void flushWithoutForce( IOLimiter limiter ) throws IOException
+    {
+        if ( limiter == null )
+        {
+            throw new IllegalArgumentException( "IOPSLimiter cannot be null" );
+        }
+        try ( MajorFlushEvent flushEvent = pageCacheTracer.beginFileFlush( swapper );
+              var buffer = bufferFactory.createBuffer() )
+        {
+            flushAndForceInternal( flushEvent.flushEventOpportunity(), false, false, limiter, buffer );
         }
         pageCache.clearEvictorException();
     }
@@ -312,7 +372,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         try ( MajorFlushEvent flushEvent = pageCacheTracer.beginFileFlush( swapper );
               var buffer = bufferFactory.createBuffer() )
         {
-            flushAndForceInternal( flushEvent.flushEventOpportunity(), true, IOLimiter.UNLIMITED, buffer );
+            flushAndForceInternal( flushEvent.flushEventOpportunity(), true, true, IOLimiter.UNLIMITED, buffer );
         }
         pageCache.clearEvictorException();
     }
@@ -364,12 +424,12 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
     }
 
-    void flushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter, NativeIOBuffer ioBuffer )
+    void flushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, boolean force, IOLimiter limiter, NativeIOBuffer ioBuffer )
             throws IOException
     {
         try
         {
-            doFlushAndForceInternal( flushes, forClosing, limiter, ioBuffer );
+            doFlushAndForceInternal( flushes, forClosing, force, limiter, ioBuffer );
         }
         catch ( ClosedChannelException e )
         {
@@ -387,7 +447,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
     }
 
-    private void doFlushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter, NativeIOBuffer ioBuffer )
+    private void doFlushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, boolean force, IOLimiter limiter, NativeIOBuffer ioBuffer )
             throws IOException
     {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
@@ -399,33 +459,34 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         long limiterStamp = IOLimiter.INITIAL_STAMP;
         int[][] tt = this.translationTable;
         boolean useTemporaryBuffer = ioBuffer.isEnabled();
+        // TODO Look into if we can tolerate flushing a few clean pages if it means we can use larger vectors.
+        // TODO The clean pages in question must still be loaded, though. Otherwise we'll end up writing
+        // TODO garbage to the file.
+        // The vector of grabbed pages is carried over from one chunk to the next, so a run of contiguous dirty pages
+        // is written with a single write, even if it straddles a chunk boundary.
+        int pagesGrabbed = 0;
+        long nextSequentialAddress = -1;
+        int numberOfBuffers = 0;
+        int lastBufferIndex = -1;
+        int mergedPages = 0;
+        boolean fillingDirtyBuffer = false;
+        if ( useTemporaryBuffer )
+        {
+            // in case when we use temp intermediate buffer we have only buffer and its address and length are always stored in arrays with index 0
+            bufferAddresses[0] = ioBuffer.getAddress();
+            bufferLengths[0] = 0;
+        }
 
         flushes.startFlush( tt );
 
-        for ( int[] chunk : tt )
+        for ( int chunkIndex = 0; chunkIndex < tt.length; chunkIndex++ )
         {
+            int[] chunk = tt[chunkIndex];
             var chunkEvent = flushes.startChunk( chunk );
             long notModifiedPages = 0;
             long flushPerChunk = 0;
-            long buffersPerChunk = 0;
+            long buffersPerChunk = useTemporaryBuffer ? 1 : 0;
             long mergesPerChunk = 0;
-            // TODO Look into if we can tolerate flushing a few clean pages if it means we can use larger vectors.
-            // TODO The clean pages in question must still be loaded, though. Otherwise we'll end up writing
-            // TODO garbage to the file.
-            int pagesGrabbed = 0;
-            long nextSequentialAddress = -1;
-            int numberOfBuffers = 0;
-            int lastBufferIndex = -1;
-            int mergedPages = 0;
-
-            boolean fillingDirtyBuffer = false;
-            if ( useTemporaryBuffer )
-            {
-                // in case when we use temp intermediate buffer we have only buffer and its address and length are always stored in arrays with index 0
-                bufferAddresses[0] = ioBuffer.getAddress();
-                bufferLengths[0] = 0;
-                buffersPerChunk = 1;
-            }
 
             chunkLoop:
             for ( int i = 0; i < chunk.length; i++ )
@@ -475,7 +536,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                                 UnsafeUtil.copyMemory( address, bufferAddresses[0] + bufferLengths[0], filePageSize );
                                 bufferLengths[0] += filePageSize;
                                 numberOfBuffers = 1;
-                                if ( !ioBuffer.hasMoreCapacity( bufferLengths[0], filePageSize ) )
+                                if ( !ioBuffer.hasMoreCapacity( bufferLengths[0], filePageSize ) || pagesGrabbed == pages.length )
                                 {
                                     break; // continue to flush
                                 }
@@ -503,6 +564,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                                     buffersPerChunk++;
                                 }
                                 nextSequentialAddress = address + filePageSize;
+                                if ( pagesGrabbed == pages.length )
+                                {
+                                    break; // the vector is full, so flush it
+                                }
                                 continue chunkLoop; // go to next page
                             }
                         }
@@ -539,8 +604,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                     bufferLengths[0] = 0;
                 }
             }
-            if ( pagesGrabbed > 0 )
+            if ( pagesGrabbed > 0 && chunkIndex == tt.length - 1 )
             {
+                // This is the last chunk, so there are no more pages that the grabbed pages could be coalesced with.
                 vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages, flushes, forClosing );
                 limiterStamp = limiter.maybeLimitIO( limiterStamp, numberOfBuffers, this );
                 flushPerChunk++;
@@ -548,7 +614,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             chunkEvent.chunkFlushed( notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk );
         }
 
-        swapper.force();
+        if ( force )
+        {
+            swapper.force();
+        }
     }
 
     private void vectoredFlush(
@@ -99,6 +99,8 @@ final class MuninnReadPageCursor extends MuninnPageCursor
             long pageRef = cursor.pinnedPageRef;
             if ( pageRef != 0 && !pagedFile.validateReadLock( pageRef, cursor.lockStamp ) )
             {
+                cursor.pinEvent.optimisticReadRetry();
+                cursor.pagedFile.optimisticReadRetries.increment();
                 startRetryLinkedChain();
                 return true;
             }
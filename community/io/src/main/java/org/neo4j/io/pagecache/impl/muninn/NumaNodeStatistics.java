@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * Statistics for the pages of a {@link MuninnPageCache} that belong to a single NUMA node.
+ */
+public final class NumaNodeStatistics
+{
+    private final int node;
+    private final long pages;
+    private final long hits;
+    private final long localFaults;
+    private final long remoteFaults;
+
+    NumaNodeStatistics( int node, long pages, long hits, long localFaults, long remoteFaults )
+    {
+        this.node = node;
+        this.pages = pages;
+        this.hits = hits;
+        this.localFaults = localFaults;
+        this.remoteFaults = remoteFaults;
+    }
+
+    /**
+     * @return the id of the node these statistics are for.
+     */
+    public int node()
+    {
+        return node;
+    }
+
+    /**
+     * @return the number of pages in the page cache that belong to this node.
+     */
+    public long pages()
+    {
+        return pages;
+    }
+
+    /**
+     * @return the number of page pins that found their page already in memory, in a page that belongs to this node.
+     */
+    public long hits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return the number of page faults by threads running on this node, that were served by a page belonging to this node.
+     */
+    public long localFaults()
+    {
+        return localFaults;
+    }
+
+    /**
+     * @return the number of page faults by threads running on this node, that had to be served by a page belonging to another node.
+     */
+    public long remoteFaults()
+    {
+        return remoteFaults;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "NumaNodeStatistics[node:" + node + ", pages:" + pages + ", hits:" + hits + ", localFaults:" + localFaults +
+                ", remoteFaults:" + remoteFaults + "]";
+    }
+}
@@ -32,6 +32,7 @@ import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 
 import static java.lang.String.format;
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
  * The PageList maintains the off-heap meta-data for the individual memory pages.
@@ -51,6 +52,8 @@ import static org.neo4j.util.FeatureToggles.flag;
 class PageList
 {
     private static final boolean forceSlowMemoryClear = flag( PageList.class, "forceSlowMemoryClear", false );
+    // How many consecutive loaded pages an eviction sweep must pass over without finding a candidate, before it considers high priority pages.
+    private static final int highPrioritySkipThreshold = getInteger( PageList.class, "highPrioritySkipThreshold", 1024 );
 
     static final int META_DATA_BYTES_PER_PAGE = 32;
     static final long MAX_PAGES = Integer.MAX_VALUE;
@@ -84,9 +87,16 @@ class PageList
     private final long victimPageAddress;
     private final long baseAddress;
     private final long bufferAlignment;
+    private final EvictionPolicy evictionPolicy;
 
     PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
               long victimPageAddress, long bufferAlignment )
+    {
+        this( pageCount, cachePageSize, memoryAllocator, swappers, victimPageAddress, bufferAlignment, ClockEvictionPolicy.INSTANCE );
+    }
+
+    PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
+              long victimPageAddress, long bufferAlignment, EvictionPolicy evictionPolicy )
     {
         this.pageCount = pageCount;
         this.cachePageSize = cachePageSize;
@@ -96,6 +106,7 @@ class PageList
         long bytes = ((long) pageCount) * META_DATA_BYTES_PER_PAGE;
         this.baseAddress = memoryAllocator.allocateAligned( bytes, Long.BYTES );
         this.bufferAlignment = bufferAlignment;
+        this.evictionPolicy = evictionPolicy;
         clearMemory( baseAddress, pageCount );
     }
 
@@ -116,6 +127,7 @@ class PageList
         this.victimPageAddress = pageList.victimPageAddress;
         this.baseAddress = pageList.baseAddress;
         this.bufferAlignment = pageList.bufferAlignment;
+        this.evictionPolicy = pageList.evictionPolicy;
     }
 
     private void clearMemory( long baseAddress, long pageCount )
@@ -293,15 +305,20 @@ class PageList
     }
 
     void initBuffer( long pageRef )
+    {
+        initBuffer( pageRef, MemoryAllocator.NO_NUMA_NODE );
+    }
+
+    void initBuffer( long pageRef, int numaNode )
     {
         if ( getAddress( pageRef ) == 0L )
         {
-            long addr = memoryAllocator.allocateAligned( getCachePageSize(), bufferAlignment );
+            long addr = memoryAllocator.allocateAligned( getCachePageSize(), bufferAlignment, numaNode );
             UnsafeUtil.putLong( offAddress( pageRef ), addr );
         }
     }
 
-    private byte getUsageCounter( long pageRef )
+    byte getUsageCounter( long pageRef )
     {
         return (byte) (UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) & MASK_USAGE_COUNT);
     }
@@ -345,6 +362,41 @@ class PageList
         return usage <= 1;
     }
 
+    /**
+     * Overwrite the usage stamp with the given value, which must be at most 4.
+     **/
+    void setUsage( long pageRef, int usage )
+    {
+        // This is intentionally left benignly racy for performance.
+        long address = offPageBinding( pageRef );
+        long value = UnsafeUtil.getLongVolatile( address );
+        long update = (value & ~MASK_USAGE_COUNT) + Math.min( usage, MAX_USAGE_COUNT );
+        // See `incrementUsage` about why we use `compareAndSwapLong`.
+        UnsafeUtil.compareAndSwapLong( null, address, value, update );
+    }
+
+    /**
+     * Ask the eviction policy if the given loaded page should be evicted by the sweep that is currently passing it, taking the
+     * {@link EvictionPriority} of the file the page is bound to into account.
+     *
+     * @param pageRef the page under the clock arm of the sweep.
+     * @param skippedPages the number of loaded pages the sweep has passed over since it last found a candidate.
+     * @return {@code true} if the sweep should try to evict the page.
+     */
+    boolean isEvictionCandidate( long pageRef, int skippedPages )
+    {
+        switch ( swappers.getPriority( getSwapperId( pageRef ) ) )
+        {
+        case LOW:
+            return true;
+        case HIGH:
+            // Only let the policy consider high priority pages when the sweep is running out of other pages to evict.
+            return skippedPages >= highPrioritySkipThreshold && evictionPolicy.isEvictionCandidate( this, pageRef, skippedPages );
+        default:
+            return evictionPolicy.isEvictionCandidate( this, pageRef, skippedPages );
+        }
+    }
+
     long getFilePageId( long pageRef )
     {
         long filePageId = UnsafeUtil.getLong( offPageBinding( pageRef ) ) >>> SHIFT_FILE_PAGE_ID;
@@ -435,6 +487,7 @@ class PageList
         event.addBytesRead( bytesRead );
         event.setCachePageId( toId( pageRef ) );
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
+        evictionPolicy.pageFaulted( this, pageRef, swapperId, filePageId );
     }
 
     private static IllegalArgumentException swapperCannotBeNull()
@@ -495,6 +548,7 @@ class PageList
                 swapper.evicted( filePageId );
             }
         }
+        evictionPolicy.pageEvicted( this, pageRef, swapperId, filePageId );
         clearBinding( pageRef );
     }
 
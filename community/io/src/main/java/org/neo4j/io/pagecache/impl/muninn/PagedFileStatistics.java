@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.nio.file.Path;
+
+/**
+ * Contention statistics for a single file that is mapped by a {@link MuninnPageCache}.
+ */
+public final class PagedFileStatistics
+{
+    private final Path path;
+    private final long optimisticReadRetries;
+    private final long exclusiveLockWaits;
+
+    PagedFileStatistics( Path path, long optimisticReadRetries, long exclusiveLockWaits )
+    {
+        this.path = path;
+        this.optimisticReadRetries = optimisticReadRetries;
+        this.exclusiveLockWaits = exclusiveLockWaits;
+    }
+
+    /**
+     * @return the path of the file these statistics are for.
+     */
+    public Path path()
+    {
+        return path;
+    }
+
+    /**
+     * @return the number of optimistic reads of pages in this file that had to be retried, because of concurrent writes or exclusive locks.
+     */
+    public long optimisticReadRetries()
+    {
+        return optimisticReadRetries;
+    }
+
+    /**
+     * @return the number of pins of pages in this file that had to wait for an exclusive lock on the page to be released.
+     */
+    public long exclusiveLockWaits()
+    {
+        return exclusiveLockWaits;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PagedFileStatistics[path:" + path + ", optimisticReadRetries:" + optimisticReadRetries + ", exclusiveLockWaits:" + exclusiveLockWaits + "]";
+    }
+}
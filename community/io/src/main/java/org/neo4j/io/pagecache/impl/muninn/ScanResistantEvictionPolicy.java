@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * A scan resistant eviction policy, in the spirit of 2Q and CLOCK-Pro.
+ * <p>
+ * Pages are either <em>cold</em> or <em>hot</em>. A page that is faulted in, is admitted as cold, with a usage counter
+ * of 1 after the faulting cursor has pinned it. It only becomes hot, once it has been pinned again while still in
+ * memory. Large scans therefore only produce cold pages, and cold pages are always the preferred eviction candidates.
+ * <p>
+ * Hot pages are only aged by an eviction sweep, when the sweep has passed over a long run of pages without finding any
+ * cold page to evict. This means that a scan can churn through the cold pages as much as it likes, without aging the
+ * hot working set out of the cache. When the working set shifts, and most of the cache turns hot, then the runs of hot
+ * pages get long enough that the sweep starts aging them again.
+ * <p>
+ * In addition, the policy remembers a fingerprint of recently evicted pages in a ghost table. If a page is faulted back
+ * in while its ghost entry is still present, then the page was evicted too early, and it is admitted directly as hot.
+ * Such re-faults are reported to the {@link PageCacheTracer}, which makes it possible to compare policies. The ghost
+ * table is a lossy, direct-mapped array of fingerprints, which is sized relative to the number of pages in the cache,
+ * and costs 4 bytes of heap per entry.
+ */
+final class ScanResistantEvictionPolicy implements EvictionPolicy
+{
+    // How many consecutive hot pages an eviction sweep must pass over, before it starts aging the hot pages it sees.
+    private static final int hotPageAgingThreshold = getInteger(
+            ScanResistantEvictionPolicy.class, "hotPageAgingThreshold", 64 );
+
+    // The upper bound on the number of entries in the ghost table. The default of 2^24 entries is 64 MiB of heap.
+    private static final int maxGhostEntriesPower = getInteger(
+            ScanResistantEvictionPolicy.class, "maxGhostEntriesPower", 24 );
+
+    private static final int HOT_USAGE_COUNT = 2;
+    private static final int EMPTY_GHOST = 0;
+
+    private final PageCacheTracer pageCacheTracer;
+    private final int[] ghosts;
+    private final int ghostSlotShift;
+
+    ScanResistantEvictionPolicy( int pageCount, PageCacheTracer pageCacheTracer )
+    {
+        this.pageCacheTracer = pageCacheTracer;
+        int power = Math.min( maxGhostEntriesPower, Math.max( 1, Integer.SIZE - Integer.numberOfLeadingZeros( pageCount - 1 ) ) );
+        this.ghosts = new int[1 << power];
+        this.ghostSlotShift = Long.SIZE - power;
+    }
+
+    @Override
+    public void pageFaulted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+        long hash = hash( swapperId, filePageId );
+        int slot = slot( hash );
+        if ( ghosts[slot] == fingerprint( hash ) )
+        {
+            ghosts[slot] = EMPTY_GHOST;
+            // The pin that follows the page fault will increment the usage counter once more.
+            pages.setUsage( pageRef, HOT_USAGE_COUNT );
+            pageCacheTracer.refaults( 1 );
+        }
+    }
+
+    @Override
+    public void pageEvicted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+        if ( swapperId != 0 )
+        {
+            long hash = hash( swapperId, filePageId );
+            ghosts[slot( hash )] = fingerprint( hash );
+        }
+    }
+
+    @Override
+    public boolean isEvictionCandidate( PageList pages, long pageRef, int skippedPages )
+    {
+        if ( pages.getUsageCounter( pageRef ) < HOT_USAGE_COUNT )
+        {
+            // Cold page.
+            return pages.decrementUsage( pageRef );
+        }
+        if ( skippedPages >= hotPageAgingThreshold )
+        {
+            // We have seen nothing but hot pages for a while, so the hot set is too big. Start aging it.
+            pages.decrementUsage( pageRef );
+        }
+        return false;
+    }
+
+    private static long hash( int swapperId, long filePageId )
+    {
+        // Fibonacci hashing of the page binding.
+        return ((filePageId << 21) + swapperId) * 0x9E3779B97F4A7C15L;
+    }
+
+    private int slot( long hash )
+    {
+        return (int) (hash >>> ghostSlotShift);
+    }
+
+    private static int fingerprint( long hash )
+    {
+        // Never produce the EMPTY_GHOST value.
+        return ((int) hash) | 1;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ScanResistantEvictionPolicy[ghostEntries = " + ghosts.length + "]";
+    }
+}
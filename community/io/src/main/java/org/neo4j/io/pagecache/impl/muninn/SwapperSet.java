@@ -40,10 +40,10 @@ import org.neo4j.io.pagecache.PageSwapper;
 final class SwapperSet
 {
     // The sentinel is used to reserve swapper id 0 as a special value.
-    private static final SwapperMapping SENTINEL = new SwapperMapping( 0, null );
+    private static final SwapperMapping SENTINEL = new SwapperMapping( 0, null, EvictionPriority.NORMAL );
     // The tombstone is used as a marker to reserve allocation entries that have been freed, but not yet vacuumed.
     // An allocation cannot be reused until it has been vacuumed.
-    private static final SwapperMapping TOMBSTONE = new SwapperMapping( 0, null );
+    private static final SwapperMapping TOMBSTONE = new SwapperMapping( 0, null, EvictionPriority.NORMAL );
     private static final int MAX_SWAPPER_ID = (1 << 21) - 1;
     private volatile SwapperMapping[] swapperMappings = new SwapperMapping[] { SENTINEL };
     private final MutableIntSet free = new IntHashSet();
@@ -57,11 +57,13 @@ final class SwapperSet
     {
         public final int id;
         public final PageSwapper swapper;
+        public final EvictionPriority priority;
 
-        private SwapperMapping( int id, PageSwapper swapper )
+        private SwapperMapping( int id, PageSwapper swapper, EvictionPriority priority )
         {
             this.id = id;
             this.swapper = swapper;
+            this.priority = priority;
         }
     }
 
@@ -87,10 +89,28 @@ final class SwapperSet
         }
     }
 
+    /**
+     * Get the {@link EvictionPriority} of the pages bound to the given swapper id. Pages bound to a swapper id that has been freed, but
+     * not yet vacuumed, have {@link EvictionPriority#NORMAL} priority.
+     */
+    EvictionPriority getPriority( int id )
+    {
+        SwapperMapping[] swapperMappings = this.swapperMappings;
+        return id < swapperMappings.length && swapperMappings[id] != null ? swapperMappings[id].priority : EvictionPriority.NORMAL;
+    }
+
     /**
      * Allocate a new swapper id for the given {@link PageSwapper}.
      */
     synchronized int allocate( PageSwapper swapper )
+    {
+        return allocate( swapper, EvictionPriority.NORMAL );
+    }
+
+    /**
+     * Allocate a new swapper id for the given {@link PageSwapper}, whose pages are evicted with the given priority.
+     */
+    synchronized int allocate( PageSwapper swapper, EvictionPriority priority )
     {
         SwapperMapping[] swapperMappings = this.swapperMappings;
 
@@ -101,7 +121,7 @@ final class SwapperSet
             {
                 int id = free.intIterator().next();
                 free.remove( id );
-                swapperMappings[id] = new SwapperMapping( id, swapper );
+                swapperMappings[id] = new SwapperMapping( id, swapper, priority );
                 this.swapperMappings = swapperMappings; // Volatile store synchronizes-with loads in getters.
                 return id;
             }
@@ -114,7 +134,7 @@ final class SwapperSet
             throw new IllegalStateException( "All swapper ids are allocated: " + MAX_SWAPPER_ID );
         }
         swapperMappings = Arrays.copyOf( swapperMappings, id + 1 );
-        swapperMappings[id] = new SwapperMapping( id, swapper );
+        swapperMappings[id] = new SwapperMapping( id, swapper, priority );
         this.swapperMappings = swapperMappings; // Volatile store synchronizes-with loads in getters.
         return id;
     }
@@ -85,6 +85,42 @@ public interface PageCacheCounters
      */
     long evictionExceptions();
 
+    /**
+     * @return The number of page faults of pages that had only recently been evicted, as far as the eviction policy
+     * can tell, thus far. Only eviction policies that remember evicted pages report re-faults.
+     */
+    long refaults();
+
+    /**
+     * @return The number of write operations issued to flush pages thus far. Adjacent dirty pages are flushed
+     * together, so a single write can cover many pages.
+     */
+    long writes();
+
+    /**
+     * @return The average number of bytes written per write operation observed thus far, or {@code 0} if nothing has
+     * been written.
+     */
+    double averageWriteSize();
+
+    /**
+     * @return The number of times an optimistic read had to be retried thus far, because the page was written to, or
+     * exclusively locked, while it was being read.
+     */
+    long optimisticReadRetries();
+
+    /**
+     * @return The number of pins thus far that had to wait for an exclusive lock on the page, held by for instance an
+     * eviction or a page fault, to be released before the page could be write locked.
+     */
+    long exclusiveLockWaits();
+
+    /**
+     * @return A snapshot of the latency histogram of the page faults observed thus far. The value at index {@code i} is
+     * the number of page faults that took at least 2<sup>i</sup>, and less than 2<sup>i+1</sup>, nanoseconds.
+     */
+    long[] faultLatencyHistogram();
+
     /**
      * @return The cache hit ratio observed thus far.
      */
@@ -46,7 +46,13 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder refaults = new LongAdder();
+    protected final LongAdder writes = new LongAdder();
+    protected final LongAdder optimisticReadRetries = new LongAdder();
+    protected final LongAdder exclusiveLockWaits = new LongAdder();
+    protected final LongAdder[] faultLatencies = createFaultLatencyBuckets();
     protected final AtomicLong maxPages = new AtomicLong();
+    private volatile boolean faultLatencyTracing;
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -85,6 +91,7 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         @Override
         public FlushEvent beginFlush( long filePageId, long cachePageId, PageSwapper swapper, int pagesToFlush, int mergedPages )
         {
+            writes.increment();
             return flushEvent;
         }
 
@@ -273,6 +280,48 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long refaults()
+    {
+        return refaults.sum();
+    }
+
+    @Override
+    public long writes()
+    {
+        return writes.sum();
+    }
+
+    @Override
+    public double averageWriteSize()
+    {
+        long writeCount = writes();
+        return writeCount == 0 ? 0d : bytesWritten() / (double) writeCount;
+    }
+
+    @Override
+    public long optimisticReadRetries()
+    {
+        return optimisticReadRetries.sum();
+    }
+
+    @Override
+    public long exclusiveLockWaits()
+    {
+        return exclusiveLockWaits.sum();
+    }
+
+    @Override
+    public long[] faultLatencyHistogram()
+    {
+        long[] histogram = new long[faultLatencies.length];
+        for ( int i = 0; i < histogram.length; i++ )
+        {
+            histogram[i] = faultLatencies[i].sum();
+        }
+        return histogram;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -332,6 +381,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.evictionExceptions.add( evictionExceptions );
     }
 
+    @Override
+    public void refaults( long refaults )
+    {
+        this.refaults.add( refaults );
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -350,6 +405,53 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.merges.add( merges );
     }
 
+    @Override
+    public void writes( long writes )
+    {
+        this.writes.add( writes );
+    }
+
+    @Override
+    public void optimisticReadRetries( long retries )
+    {
+        this.optimisticReadRetries.add( retries );
+    }
+
+    @Override
+    public void exclusiveLockWaits( long waits )
+    {
+        this.exclusiveLockWaits.add( waits );
+    }
+
+    @Override
+    public void faultLatency( long latencyNanos )
+    {
+        // The latency histogram has power-of-two sized buckets, so the bucket is the index of the highest set bit.
+        faultLatencies[63 - Long.numberOfLeadingZeros( Math.max( latencyNanos, 1 ) )].increment();
+    }
+
+    @Override
+    public void enableFaultLatencyTracing()
+    {
+        faultLatencyTracing = true;
+    }
+
+    @Override
+    public boolean isFaultLatencyTracingEnabled()
+    {
+        return faultLatencyTracing;
+    }
+
+    private static LongAdder[] createFaultLatencyBuckets()
+    {
+        LongAdder[] buckets = new LongAdder[Long.SIZE];
+        for ( int i = 0; i < buckets.length; i++ )
+        {
+            buckets[i] = new LongAdder();
+        }
+        return buckets;
+    }
+
     @Override
     public void maxPages( long maxPages )
     {
@@ -143,6 +143,42 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long refaults()
+        {
+            return 0;
+        }
+
+        @Override
+        public long writes()
+        {
+            return 0;
+        }
+
+        @Override
+        public double averageWriteSize()
+        {
+            return 0d;
+        }
+
+        @Override
+        public long optimisticReadRetries()
+        {
+            return 0;
+        }
+
+        @Override
+        public long exclusiveLockWaits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long[] faultLatencyHistogram()
+        {
+            return new long[0];
+        }
+
         @Override
         public double hitRatio()
         {
@@ -190,6 +226,11 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void refaults( long refaults )
+        {
+        }
+
         @Override
         public void bytesWritten( long bytesWritten )
         {
@@ -205,6 +246,37 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void writes( long writes )
+        {
+        }
+
+        @Override
+        public void optimisticReadRetries( long retries )
+        {
+        }
+
+        @Override
+        public void exclusiveLockWaits( long waits )
+        {
+        }
+
+        @Override
+        public void faultLatency( long latencyNanos )
+        {
+        }
+
+        @Override
+        public void enableFaultLatencyTracing()
+        {
+        }
+
+        @Override
+        public boolean isFaultLatencyTracingEnabled()
+        {
+            return false;
+        }
+
         @Override
         public void maxPages( long maxPages )
         {
@@ -295,6 +367,12 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void evictionExceptions( long evictionExceptions );
 
+    /**
+     * Report number of faults of recently evicted pages
+     * @param refaults number of re-faults
+     */
+    void refaults( long refaults );
+
     /**
      * Report number of bytes written
      * @param bytesWritten number of written bytes
@@ -313,6 +391,42 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void merges( long merges );
 
+    /**
+     * Report number of write operations issued to flush pages
+     * @param writes number of writes
+     */
+    void writes( long writes );
+
+    /**
+     * Report number of optimistic reads that had to be retried
+     * @param retries number of retries
+     */
+    void optimisticReadRetries( long retries );
+
+    /**
+     * Report number of pins that had to wait for an exclusive page lock
+     * @param waits number of waits
+     */
+    void exclusiveLockWaits( long waits );
+
+    /**
+     * Report the latency of a single page fault
+     * @param latencyNanos the time the page fault took, in nanoseconds
+     */
+    void faultLatency( long latencyNanos );
+
+    /**
+     * Start measuring the latency of page faults, and reporting them through {@link #faultLatency(long)}.
+     * Fault latencies are not measured by default, because timing every page fault is not free.
+     */
+    void enableFaultLatencyTracing();
+
+    /**
+     * @return {@code true} if page cursor tracers should measure page fault latencies, and report them through
+     * {@link #faultLatency(long)}.
+     */
+    boolean isFaultLatencyTracingEnabled();
+
     /**
      * Sets the number of available pages.
      * @param maxPages the total number of available pages.
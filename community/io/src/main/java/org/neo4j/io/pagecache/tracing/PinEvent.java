@@ -45,6 +45,16 @@ public interface PinEvent
         {
         }
 
+        @Override
+        public void optimisticReadRetry()
+        {
+        }
+
+        @Override
+        public void exclusiveLockWait()
+        {
+        }
+
         @Override
         public void done()
         {
@@ -66,6 +76,16 @@ public interface PinEvent
      */
     void hit();
 
+    /**
+     * The optimistic read lock on the pinned page was invalidated by a concurrent writer, so the read must be retried.
+     */
+    void optimisticReadRetry();
+
+    /**
+     * The page could not be locked because another thread held an exclusive lock on it, so the pin had to wait.
+     */
+    void exclusiveLockWait();
+
     /**
      * The pinning has completed and the page is now unpinned.
      */
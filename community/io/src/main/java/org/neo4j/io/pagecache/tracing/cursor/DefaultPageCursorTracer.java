@@ -42,14 +42,20 @@ public class DefaultPageCursorTracer implements PageCursorTracer
     private long evictionExceptions;
     private long flushes;
     private long merges;
+    private long writes;
+    private long optimisticReadRetries;
+    private long exclusiveLockWaits;
+    private long faultStartNanos;
 
     private final DefaultPinEvent pinTracingEvent = new DefaultPinEvent();
     private final PageCacheTracer pageCacheTracer;
+    private final boolean traceFaultLatency;
     private final String tag;
 
     public DefaultPageCursorTracer( PageCacheTracer pageCacheTracer, String tag )
     {
         this.pageCacheTracer = pageCacheTracer;
+        this.traceFaultLatency = pageCacheTracer.isFaultLatencyTracingEnabled();
         this.tag = tag;
     }
 
@@ -102,6 +108,18 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         {
             pageCacheTracer.merges( merges );
         }
+        if ( writes > 0 )
+        {
+            pageCacheTracer.writes( writes );
+        }
+        if ( optimisticReadRetries > 0 )
+        {
+            pageCacheTracer.optimisticReadRetries( optimisticReadRetries );
+        }
+        if ( exclusiveLockWaits > 0 )
+        {
+            pageCacheTracer.exclusiveLockWaits( exclusiveLockWaits );
+        }
         reset();
     }
 
@@ -117,6 +135,9 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         evictionExceptions = 0;
         flushes = 0;
         merges = 0;
+        writes = 0;
+        optimisticReadRetries = 0;
+        exclusiveLockWaits = 0;
     }
 
     @Override
@@ -241,6 +262,12 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public void done()
         {
             faults++;
+            if ( traceFaultLatency )
+            {
+                // Fault latencies are reported as they happen, rather than batched up, so they can be observed while
+                // long running cursors are still open.
+                pageCacheTracer.faultLatency( System.nanoTime() - faultStartNanos );
+            }
         }
 
         @Override
@@ -266,6 +293,7 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         @Override
         public FlushEvent beginFlush( long filePageId, long cachePageId, PageSwapper swapper, int pagesToFlush, int mergedPages )
         {
+            writes++;
             return flushEvent;
         }
 
@@ -327,6 +355,10 @@ public class DefaultPageCursorTracer implements PageCursorTracer
         public PageFaultEvent beginPageFault()
         {
             eventHits = 0;
+            if ( traceFaultLatency )
+            {
+                faultStartNanos = System.nanoTime();
+            }
             return pageFaultEvent;
         }
 
@@ -336,6 +368,18 @@ public class DefaultPageCursorTracer implements PageCursorTracer
             hits += eventHits;
         }
 
+        @Override
+        public void optimisticReadRetry()
+        {
+            optimisticReadRetries++;
+        }
+
+        @Override
+        public void exclusiveLockWait()
+        {
+            exclusiveLockWaits++;
+        }
+
         @Override
         public void done()
         {
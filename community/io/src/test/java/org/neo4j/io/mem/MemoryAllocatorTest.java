@@ -21,7 +21,10 @@ package org.neo4j.io.mem;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import org.neo4j.internal.nativeimpl.AbsentNativeAccess;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageCache;
@@ -173,6 +176,100 @@ class MemoryAllocatorTest
         assertEquals( 0, memoryTracker.usedNativeMemory() );
     }
 
+    @ParameterizedTest
+    @EnumSource( HugePageMode.class )
+    void mustAllocateAndReleaseMemoryInAllHugePageModes( HugePageMode hugePageMode )
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        GrabAllocator allocator = (GrabAllocator) MemoryAllocator.createAllocator( MebiByte.toBytes( 8 ), memoryTracker, hugePageMode );
+
+        int pageSize = UnsafeUtil.pageSize();
+        for ( int i = 0; i < 1024; i++ )
+        {
+            long address = allocator.allocateAligned( PageCache.PAGE_SIZE, pageSize );
+            assertThat( address ).isNotEqualTo( 0L );
+            assertThat( address % pageSize ).isEqualTo( 0L );
+        }
+        assertThat( allocator.usedMemory() ).isGreaterThanOrEqualTo( 1024L * PageCache.PAGE_SIZE );
+        assertThat( allocator.explicitHugePageMemory() + allocator.transparentHugePageMemory() + allocator.regularPageMemory() )
+                .isGreaterThanOrEqualTo( 1024L * PageCache.PAGE_SIZE );
+        if ( hugePageMode != HugePageMode.EXPLICIT )
+        {
+            assertThat( allocator.explicitHugePageMemory() ).isZero();
+        }
+        if ( hugePageMode == HugePageMode.DISABLED )
+        {
+            assertThat( allocator.transparentHugePageMemory() ).isZero();
+        }
+
+        allocator.close();
+        assertEquals( 0, memoryTracker.usedNativeMemory() );
+    }
+
+    @ParameterizedTest
+    @EnumSource( HugePageMode.class )
+    void mustNotAllocateMoreThanExpectedMemoryInAnyHugePageMode( HugePageMode hugePageMode )
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        long expectedMemory = MebiByte.toBytes( 100 );
+        GrabAllocator allocator = (GrabAllocator) MemoryAllocator.createAllocator( expectedMemory, memoryTracker, hugePageMode );
+
+        // Allocate pages for as long as the allocator says there is memory for them, like the page cache does.
+        // They are not aligned, since memory wasted on aligning individual allocations is allowed to exceed the expected memory.
+        long pageCount = allocator.availableMemory() / PageCache.PAGE_SIZE;
+        for ( long i = 0; i < pageCount; i++ )
+        {
+            allocator.allocateAligned( PageCache.PAGE_SIZE, 1 );
+        }
+
+        // The memory spent on aligning grabs to huge pages must count against the expected memory.
+        assertThat( memoryTracker.usedNativeMemory() ).isLessThanOrEqualTo( expectedMemory );
+        allocator.close();
+    }
+
+    @Test
+    void numaAllocatorMustSplitMemoryOverNodesAndAllocateFromAnyNode()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        NumaTopology topology = new NumaTopology( new int[]{0, 1}, new int[]{0, 1}, new AbsentNativeAccess() );
+        NumaMemoryAllocator allocator = new NumaMemoryAllocator( MebiByte.toBytes( 2 ) + 1, 0, memoryTracker, HugePageMode.DISABLED, topology );
+
+        assertThat( allocator.availableMemory() ).isEqualTo( MebiByte.toBytes( 2 ) + 1 );
+        int pageSize = UnsafeUtil.pageSize();
+        for ( int node : new int[]{0, 1, MemoryAllocator.NO_NUMA_NODE, 7} )
+        {
+            long address = allocator.allocateAligned( PageCache.PAGE_SIZE, pageSize, node );
+            assertThat( address ).isNotEqualTo( 0L );
+            assertThat( address % pageSize ).isEqualTo( 0L );
+            UnsafeUtil.putLong( address, node );
+        }
+        assertThat( allocator.usedMemory() ).isGreaterThanOrEqualTo( 4L * PageCache.PAGE_SIZE );
+        assertThat( allocator.regularPageMemory() ).isGreaterThanOrEqualTo( 4L * PageCache.PAGE_SIZE );
+
+        allocator.close();
+        assertEquals( 0, memoryTracker.usedNativeMemory() );
+    }
+
+    @Test
+    void numaAllocatorMustServeAllocationsWithoutNodeFromSharedMemory()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        NumaTopology topology = new NumaTopology( new int[]{0, 1}, new int[]{0, 1}, new AbsentNativeAccess() );
+        long sharedMemory = ByteUnit.kibiBytes( 64 );
+        NumaMemoryAllocator allocator =
+                new NumaMemoryAllocator( MebiByte.toBytes( 2 ) + sharedMemory, sharedMemory, memoryTracker, HugePageMode.DISABLED, topology );
+
+        long address = allocator.allocateAligned( sharedMemory, Long.BYTES );
+
+        // The memory of the nodes is all left for allocations on the nodes.
+        assertThat( address ).isNotEqualTo( 0L );
+        assertThat( allocator.usedMemory() ).isEqualTo( sharedMemory );
+        assertThat( allocator.availableMemory() ).isEqualTo( MebiByte.toBytes( 2 ) );
+
+        allocator.close();
+        assertEquals( 0, memoryTracker.usedNativeMemory() );
+    }
+
     @Test
     void allAllocatedMemoryMustBeAccessibleForAllAlignments() throws Exception
     {
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.neo4j.internal.nativeimpl.AbsentNativeAccess;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NumaTopologyTest
+{
+    private static final int ERROR_CPU = -1;
+
+    @TempDir
+    Path nodesDirectory;
+
+    @Test
+    void parseCpuListWithRangesAndSingleCpus()
+    {
+        assertThat( NumaTopology.parseCpuList( "0-3,8-9,12\n" ) ).containsExactly( 0, 1, 2, 3, 8, 9, 12 );
+        assertThat( NumaTopology.parseCpuList( "5" ) ).containsExactly( 5 );
+        assertThat( NumaTopology.parseCpuList( "\n" ) ).isEmpty();
+    }
+
+    @Test
+    void singleNodeMachineHasSingleNodeTopology() throws IOException
+    {
+        createNode( "node0", "0-7" );
+
+        assertThat( NumaTopology.readTopology( nodesDirectory, new AbsentNativeAccess() ) ).isSameAs( NumaTopology.SINGLE_NODE );
+    }
+
+    @Test
+    void unreadableTopologyFallsBackToSingleNode() throws IOException
+    {
+        createNode( "node0", "0-3" );
+        Files.createDirectory( nodesDirectory.resolve( "node1" ) ); // No cpulist.
+
+        assertThat( NumaTopology.readTopology( nodesDirectory, new AbsentNativeAccess() ) ).isSameAs( NumaTopology.SINGLE_NODE );
+    }
+
+    @Test
+    void sparseNodeIdsAreMappedToDenseNodeIds() throws IOException
+    {
+        createNode( "node0", "0-1,4-5" );
+        createNode( "node2", "2-3,6-7" );
+        Files.createDirectory( nodesDirectory.resolve( "power" ) );
+        CpuNativeAccess nativeAccess = new CpuNativeAccess();
+
+        NumaTopology topology = NumaTopology.readTopology( nodesDirectory, nativeAccess );
+
+        assertThat( topology.nodeCount() ).isEqualTo( 2 );
+        assertThat( topology.operatingSystemNodeId( 0 ) ).isEqualTo( 0 );
+        assertThat( topology.operatingSystemNodeId( 1 ) ).isEqualTo( 2 );
+        int[] expectedNodes = {0, 0, 1, 1, 0, 0, 1, 1};
+        for ( int cpu = 0; cpu < expectedNodes.length; cpu++ )
+        {
+            nativeAccess.cpu = cpu;
+            assertThat( topology.currentNode() ).as( "node of cpu " + cpu ).isEqualTo( expectedNodes[cpu] );
+        }
+        nativeAccess.cpu = ERROR_CPU;
+        assertThat( topology.currentNode() ).isZero();
+        nativeAccess.cpu = 100;
+        assertThat( topology.currentNode() ).isZero();
+    }
+
+    private void createNode( String name, String cpuList ) throws IOException
+    {
+        Path node = Files.createDirectory( nodesDirectory.resolve( name ) );
+        Files.writeString( node.resolve( "cpulist" ), cpuList + "\n" );
+    }
+
+    private static class CpuNativeAccess extends AbsentNativeAccess
+    {
+        private volatile int cpu;
+
+        @Override
+        public int getCurrentCpu()
+        {
+            return cpu;
+        }
+    }
+}
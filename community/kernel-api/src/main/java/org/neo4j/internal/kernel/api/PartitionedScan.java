@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.kernel.api;
+
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+/**
+ * Initializer for spreading a scan operator over a fixed number of partitions, each covering a disjoint part of the scanned data,
+ * for use from different threads in parallel.
+ *
+ * @param <Cursor>
+ *         the type of cursor this object initializes.
+ */
+public interface PartitionedScan<Cursor extends org.neo4j.internal.kernel.api.Cursor>
+{
+    /**
+     * @return the number of partitions in this scan, which may be lower than the number of partitions asked for when creating it.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Will attempt to reserve a partition to scan.
+     * <p>
+     * A <code>PartitionedScan</code> instance can be shared among threads and guarantees that each partition is reserved at most once.
+     * The basic usage pattern is that a single <code>PartitionedScan</code> instance is shared among several threads where each thread
+     * maintains separate cursors, and separate page cursor tracers, since page cursor tracers can only be used by one thread at a time.
+     * <p>
+     * Example:
+     * <pre>
+     * {@code
+     *   try ( NodeValueIndexCursor cursor = cursors.allocateNodeValueIndexCursor( cursorTracer ) )
+     *   {
+     *     while ( scan.reservePartition( cursor, cursorTracer ) )
+     *     {
+     *       while ( cursor.next() )
+     *       {
+     *         //do things with the node
+     *       }
+     *     }
+     *   }
+     * }
+     * </pre>
+     *
+     * @param cursor The cursor to be used for reading.
+     * @param cursorTracer The page cursor tracer of the thread reading the partition, which traces the page accesses of the partition.
+     * @return <code>true</code> if a partition was reserved, otherwise <code>false</code> if all partitions have already been reserved.
+     */
+    boolean reservePartition( Cursor cursor, PageCursorTracer cursorTracer );
+}
@@ -104,6 +104,20 @@ public interface Read
      */
     void nodeIndexScan( IndexReadSession index, NodeValueIndexCursor cursor, IndexQueryConstraints constraints ) throws KernelException;
 
+    /**
+     * Scan all values in an index, split into partitions over disjoint key ranges of the index, which can be scanned in parallel
+     * using a separate cursor per thread. Only valid in transactions without changes, since transaction state isn't partitioned.
+     *
+     * @param index {@link IndexReadSession} index read session to query.
+     * @param desiredNumberOfPartitions the number of partitions desired by the caller. The returned scan may have fewer partitions,
+     * but never more. Indexes which can't split their entries return a single partition.
+     * @param constraints The requested constraints on the query result, such as whether the index should fetch property values
+     * together with node ids. The constraints must not be ordered, since results are ordered within each partition at best.
+     * @return a {@link PartitionedScan} to reserve partitions from, one per cursor.
+     */
+    PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index, int desiredNumberOfPartitions, IndexQueryConstraints constraints )
+            throws KernelException;
+
     /**
      * Scan all nodes with a label.
      *
@@ -53,6 +53,24 @@ public interface IndexReader extends Resource
     void query( QueryContext context, IndexProgressor.EntityValueClient client, IndexQueryConstraints constraints,
             IndexQuery... query ) throws IndexNotApplicableKernelException;
 
+    /**
+     * Splits a scan of all entries in this index into partitions over disjoint parts of the index, to be consumed in parallel
+     * from different threads. Readers which can't split their entries return a single partition.
+     *
+     * @param desiredNumberOfPartitions the number of partitions desired by the caller. The returned scan may have fewer partitions,
+     * but never more.
+     * @param context the query context to use for the scan.
+     * @param constraints constraints upon the query result, like whether the index should fetch property values alongside the entity ids.
+     * Results are ordered within each partition at best, so the constraints must not be ordered.
+     * @param query existence of the first property of this index, i.e. the query covering all entries in it.
+     * @return a {@link PartitionedValueScan} to reserve partitions from.
+     */
+    default PartitionedValueScan partitionedScan( int desiredNumberOfPartitions, QueryContext context, IndexQueryConstraints constraints,
+            IndexQuery.ExistsPredicate query )
+    {
+        return new SinglePartitionValueScan( this, context, constraints, query );
+    }
+
     /**
      * @param predicates query to determine whether index has full value precision for.
      * @return whether or not this reader will only return 100% matching results from
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+
+/**
+ * A scan of an index split into partitions over disjoint parts of the index, see
+ * {@link IndexReader#partitionedScan(int, org.neo4j.internal.kernel.api.QueryContext, org.neo4j.internal.kernel.api.IndexQueryConstraints,
+ * org.neo4j.internal.kernel.api.IndexQuery.ExistsPredicate)}.
+ * Partitions can be reserved and consumed concurrently from different threads.
+ */
+public interface PartitionedValueScan
+{
+    /**
+     * @return the number of partitions in this scan.
+     */
+    int getNumberOfPartitions();
+
+    /**
+     * Reserves a partition not yet reserved and initializes {@code client} with it.
+     *
+     * @param client the client which will control the progression through the entries of the reserved partition.
+     * @param cursorTracer the page cursor tracer of the thread which will progress through the reserved partition.
+     * @return {@code true} if a partition was reserved, otherwise {@code false} if all partitions have already been reserved,
+     * in which case {@code client} isn't initialized.
+     */
+    boolean reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer cursorTracer );
+}
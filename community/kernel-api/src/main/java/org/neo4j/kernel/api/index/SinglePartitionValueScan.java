@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQueryConstraints;
+import org.neo4j.internal.kernel.api.QueryContext;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
+
+/**
+ * {@link PartitionedValueScan} for readers which can't split their entries, i.e. the whole scan is a single partition
+ * served by {@link IndexReader#query(QueryContext, IndexProgressor.EntityValueClient, IndexQueryConstraints, IndexQuery...)}.
+ */
+class SinglePartitionValueScan implements PartitionedValueScan
+{
+    private final IndexReader reader;
+    private final QueryContext context;
+    private final IndexQueryConstraints constraints;
+    private final IndexQuery query;
+    private final AtomicBoolean reserved = new AtomicBoolean();
+
+    SinglePartitionValueScan( IndexReader reader, QueryContext context, IndexQueryConstraints constraints, IndexQuery query )
+    {
+        this.reader = reader;
+        this.context = context;
+        this.constraints = constraints;
+        this.query = query;
+    }
+
+    @Override
+    public int getNumberOfPartitions()
+    {
+        return 1;
+    }
+
+    @Override
+    public boolean reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer cursorTracer )
+    {
+        if ( !reserved.compareAndSet( false, true ) )
+        {
+            return false;
+        }
+        try
+        {
+            reader.query( new PartitionQueryContext( context, cursorTracer ), client, constraints, query );
+            return true;
+        }
+        catch ( IndexNotApplicableKernelException e )
+        {
+            throw new IllegalArgumentException( "Unable to scan index using " + query, e );
+        }
+    }
+
+    /**
+     * The {@link QueryContext} of the transaction, except for the page cursor tracer, which is the one of the thread reading the partition.
+     */
+    private static class PartitionQueryContext implements QueryContext
+    {
+        private final QueryContext context;
+        private final PageCursorTracer cursorTracer;
+
+        PartitionQueryContext( QueryContext context, PageCursorTracer cursorTracer )
+        {
+            this.context = context;
+            this.cursorTracer = cursorTracer;
+        }
+
+        @Override
+        public Read getRead()
+        {
+            return context.getRead();
+        }
+
+        @Override
+        public CursorFactory cursors()
+        {
+            return context.cursors();
+        }
+
+        @Override
+        public ReadableTransactionState getTransactionStateOrNull()
+        {
+            return context.getTransactionStateOrNull();
+        }
+
+        @Override
+        public PageCursorTracer cursorTracer()
+        {
+            return cursorTracer;
+        }
+
+        @Override
+        public MemoryTracker memoryTracker()
+        {
+            return context.memoryTracker();
+        }
+    }
+}
@@ -193,6 +193,12 @@ public class DatabasePageCache implements PageCache
             delegate.flushAndForce( limiter );
         }
 
+        @Override
+        public void flushWithoutForce( IOLimiter limiter ) throws IOException
+        {
+            delegate.flushWithoutForce( limiter );
+        }
+
         @Override
         public long getLastPageId() throws IOException
         {
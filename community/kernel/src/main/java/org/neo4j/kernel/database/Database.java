@@ -100,12 +100,15 @@ import org.neo4j.kernel.impl.factory.KernelTransactionFactory;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.StatementLocksFactory;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmerLifecycle;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.store.stats.DatabaseEntityCounters;
 import org.neo4j.kernel.impl.storemigration.DatabaseMigrator;
 import org.neo4j.kernel.impl.storemigration.DatabaseMigratorFactory;
 import org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.CommitDelay;
 import org.neo4j.kernel.impl.transaction.log.LoggingLogFileMonitor;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogicalTransactionStore;
@@ -115,7 +118,9 @@ import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckpointerLifecycle;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.IncrementalFlusher;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompression;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -182,6 +187,7 @@ import static org.neo4j.internal.index.label.TokenScanStore.toggledRelationshipT
 import static org.neo4j.kernel.database.DatabaseFileHelper.filesToDeleteOnTruncation;
 import static org.neo4j.kernel.database.DatabaseFileHelper.filesToKeepOnTruncation;
 import static org.neo4j.kernel.extension.ExtensionFailureStrategies.fail;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompression.ZSTD;
 import static org.neo4j.kernel.recovery.Recovery.performRecovery;
 import static org.neo4j.kernel.recovery.Recovery.validateStoreId;
 
@@ -506,6 +512,8 @@ public class Database extends LifecycleAdapter
 
             this.checkpointerLifecycle = new CheckpointerLifecycle( transactionLogModule.checkPointer(), databaseHealth );
 
+            // Added after all the store and index files have been mapped, so they can all be warmed up.
+            life.add( buildPageCacheWarmer( pageCacheTracer ) );
             life.add( databaseHealth );
             life.add( databaseAvailabilityGuard );
             life.add( databaseAvailability );
@@ -530,6 +538,14 @@ public class Database extends LifecycleAdapter
         }
     }
 
+    private PageCacheWarmerLifecycle buildPageCacheWarmer( PageCacheTracer pageCacheTracer )
+    {
+        Log warmerLog = internalLogProvider.getLog( PageCacheWarmer.class );
+        PageCacheWarmer warmer = new PageCacheWarmer( fs, databasePageCache, scheduler, databaseLayout.databaseDirectory(), namedDatabaseId.name(),
+                pageCacheTracer, clock, warmerLog, Runtime.getRuntime().availableProcessors() );
+        return new PageCacheWarmerLifecycle( warmer, scheduler, databaseConfig, warmerLog, namedDatabaseId.name(), readOnly );
+    }
+
     private void validateStoreAndTxLogs( LogFiles logFiles, PageCacheTracer pageCacheTracer, LogTailScanner tailScanner, boolean storageExists )
             throws IOException
     {
@@ -742,23 +758,33 @@ public class Database extends LifecycleAdapter
         final LogRotation logRotation =
                 new LogRotationImpl( logFiles, clock, databaseHealth, monitors.newMonitor( LogRotationMonitor.class ) );
 
+        LogEntryCompression commandCompression = config.get( GraphDatabaseInternalSettings.transaction_log_compress_commands ) ? ZSTD : null;
+        CommitDelay commitDelay = new CommitDelay( config.get( GraphDatabaseInternalSettings.transaction_log_commit_delay ).toNanos(),
+                config.get( GraphDatabaseInternalSettings.transaction_log_commit_siblings ) );
         final TransactionAppender appender = life.add( new BatchingTransactionAppender(
-                logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth ) );
+                logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth, commandCompression, commitDelay ) );
         final LogicalTransactionStore logicalTransactionStore =
                 new PhysicalLogicalTransactionStore( logFiles, transactionMetadataCache, logEntryReader, monitors, true );
 
-        CheckPointThreshold threshold = CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider );
+        CheckPointThreshold threshold = CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider, tracers.getDatabaseTracer() );
 
+        long recurringPeriod = threshold.checkFrequencyMillis();
+        IncrementalFlusher incrementalFlusher = config.get( GraphDatabaseSettings.check_point_incremental )
+                ? new IncrementalFlusher( databasePageCache, tracers.getDatabaseTracer()::appendedBytes, clock, scheduler, logProvider, recurringPeriod )
+                : null;
         final CheckPointerImpl checkPointer =
                 new CheckPointerImpl( transactionIdStore, threshold, forceOperation, logPruning, appender, databaseHealth, logProvider,
-                        tracers, ioLimiter, storeCopyCheckPointMutex );
+                        tracers, ioLimiter, storeCopyCheckPointMutex, incrementalFlusher );
 
-        long recurringPeriod = threshold.checkFrequencyMillis();
         CheckPointScheduler checkPointScheduler = new CheckPointScheduler( checkPointer, ioLimiter, scheduler,
                 recurringPeriod, databaseHealth );
 
         life.add( checkPointer );
         life.add( checkPointScheduler );
+        if ( incrementalFlusher != null )
+        {
+            life.add( incrementalFlusher );
+        }
 
         return new DatabaseTransactionLogModule( logicalTransactionStore, logFiles, logRotation, checkPointer, appender );
     }
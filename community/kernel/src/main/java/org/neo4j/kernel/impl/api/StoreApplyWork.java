@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.util.concurrent.Work;
+import org.neo4j.util.concurrent.WorkSync;
+
+/**
+ * Applies a batch of committed transactions to a {@link StorageEngine}. When combined in a {@link WorkSync}, the batches of concurrently
+ * committing transactions are linked together and applied to the storage engine in one go, by whichever committer gets to apply the work.
+ * <p>
+ * The outcome of the application is recorded in every combined unit of work, since {@link WorkSync} only reports failures to the thread
+ * that applied the work. The time it took is only recorded in the unit of work the others were combined into, so that it is counted once
+ * per batch, and does not include the time the other committers spent waiting for it.
+ */
+class StoreApplyWork implements Work<StorageEngine,StoreApplyWork>
+{
+    private final TransactionToApply batch;
+    private final TransactionApplicationMode mode;
+    private List<StoreApplyWork> combinedWork;
+    private volatile Throwable failure;
+    private volatile long applyTimeNanos;
+
+    StoreApplyWork( TransactionToApply batch, TransactionApplicationMode mode )
+    {
+        this.batch = batch;
+        this.mode = mode;
+    }
+
+    @Override
+    public StoreApplyWork combine( StoreApplyWork work )
+    {
+        if ( combinedWork == null )
+        {
+            combinedWork = new ArrayList<>();
+            combinedWork.add( this );
+        }
+        combinedWork.add( work );
+        return this;
+    }
+
+    @Override
+    public void apply( StorageEngine storageEngine ) throws Exception
+    {
+        long startNanos = System.nanoTime();
+        try
+        {
+            applyCombined( storageEngine );
+        }
+        finally
+        {
+            applyTimeNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * @return the failure to apply the batch of this unit of work, or {@code null} if it was applied successfully.
+     */
+    Throwable failure()
+    {
+        return failure;
+    }
+
+    /**
+     * @return the time it took to apply the batches combined into this unit of work, or {@code 0} if the batch of this unit of work
+     * was applied as part of another one.
+     */
+    long applyTimeNanos()
+    {
+        return applyTimeNanos;
+    }
+
+    private void applyCombined( StorageEngine storageEngine ) throws Exception
+    {
+        if ( combinedWork == null )
+        {
+            applyBatch( storageEngine, batch, List.of( this ) );
+            return;
+        }
+
+        List<TransactionToApply> tails = new ArrayList<>( combinedWork.size() );
+        for ( int i = 0; i < combinedWork.size(); i++ )
+        {
+            TransactionToApply tail = lastInBatch( combinedWork.get( i ).batch );
+            if ( i + 1 < combinedWork.size() )
+            {
+                tail.next( combinedWork.get( i + 1 ).batch );
+            }
+            tails.add( tail );
+        }
+        try
+        {
+            applyBatch( storageEngine, batch, combinedWork );
+        }
+        finally
+        {
+            // Give every committer its own batch back, for it to close.
+            tails.forEach( tail -> tail.next( null ) );
+        }
+    }
+
+    private void applyBatch( StorageEngine storageEngine, TransactionToApply batch, List<StoreApplyWork> works ) throws Exception
+    {
+        try
+        {
+            storageEngine.apply( batch, mode );
+        }
+        catch ( Throwable t )
+        {
+            works.forEach( work -> work.failure = t );
+            throw t;
+        }
+    }
+
+    private static TransactionToApply lastInBatch( TransactionToApply batch )
+    {
+        while ( batch.next() != null )
+        {
+            batch = batch.next();
+        }
+        return batch;
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.util.concurrent.ExecutionException;
+
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
@@ -26,6 +28,7 @@ import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.util.concurrent.WorkSync;
 
 import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionCommitFailed;
 import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionLogError;
@@ -34,11 +37,22 @@ public class TransactionRepresentationCommitProcess implements TransactionCommit
 {
     private final TransactionAppender appender;
     private final StorageEngine storageEngine;
+    private final WorkSync<StorageEngine,StoreApplyWork> storeApplyWorkSync;
 
     public TransactionRepresentationCommitProcess( TransactionAppender appender, StorageEngine storageEngine )
+    {
+        this( appender, storageEngine, false );
+    }
+
+    /**
+     * @param groupStoreApply whether or not transactions committed concurrently should be applied to the store together, in one batch.
+     * Only transactions committed in {@link TransactionApplicationMode#INTERNAL} mode are grouped.
+     */
+    public TransactionRepresentationCommitProcess( TransactionAppender appender, StorageEngine storageEngine, boolean groupStoreApply )
     {
         this.appender = appender;
         this.storageEngine = storageEngine;
+        this.storeApplyWorkSync = groupStoreApply ? new WorkSync<>( storageEngine ) : null;
     }
 
     @Override
@@ -74,7 +88,16 @@ public class TransactionRepresentationCommitProcess implements TransactionCommit
     {
         try ( StoreApplyEvent storeApplyEvent = commitEvent.beginStoreApply() )
         {
-            storageEngine.apply( batch, mode );
+            if ( storeApplyWorkSync != null && mode == TransactionApplicationMode.INTERNAL )
+            {
+                applyGrouped( batch, mode, storeApplyEvent );
+            }
+            else
+            {
+                long startNanos = System.nanoTime();
+                storageEngine.apply( batch, mode );
+                storeApplyEvent.batchApplied( System.nanoTime() - startNanos );
+            }
         }
         catch ( Throwable cause )
         {
@@ -83,6 +106,29 @@ public class TransactionRepresentationCommitProcess implements TransactionCommit
         }
     }
 
+    private void applyGrouped( TransactionToApply batch, TransactionApplicationMode mode, StoreApplyEvent storeApplyEvent ) throws Throwable
+    {
+        StoreApplyWork work = new StoreApplyWork( batch, mode );
+        try
+        {
+            storeApplyWorkSync.apply( work );
+        }
+        catch ( ExecutionException e )
+        {
+            throw e.getCause();
+        }
+        if ( work.applyTimeNanos() > 0 )
+        {
+            // The batches of the other committers were combined into ours, so we report the time it took to apply all of them.
+            storeApplyEvent.batchApplied( work.applyTimeNanos() );
+        }
+        if ( work.failure() != null )
+        {
+            // The batch was applied by another committer, together with its own.
+            throw work.failure();
+        }
+    }
+
     private static void close( TransactionToApply batch )
     {
         while ( batch != null )
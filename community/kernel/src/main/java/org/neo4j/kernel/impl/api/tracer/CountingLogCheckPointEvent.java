@@ -36,11 +36,14 @@ class CountingLogCheckPointEvent implements LogCheckPointEvent
     private final AtomicLong checkpointCounter = new AtomicLong();
     private final AtomicLong accumulatedCheckpointTotalTimeMillis = new AtomicLong();
     private final BiConsumer<LogPosition,LogPosition> logFileAppendConsumer;
+    private final BiConsumer<LogPosition,LogPosition> checkPointedPositionConsumer;
     private volatile long lastCheckpointTimeMillis;
 
-    CountingLogCheckPointEvent( BiConsumer<LogPosition,LogPosition> logFileAppendConsumer )
+    CountingLogCheckPointEvent( BiConsumer<LogPosition,LogPosition> logFileAppendConsumer,
+            BiConsumer<LogPosition,LogPosition> checkPointedPositionConsumer )
     {
         this.logFileAppendConsumer = logFileAppendConsumer;
+        this.checkPointedPositionConsumer = checkPointedPositionConsumer;
     }
 
     @Override
@@ -58,8 +61,9 @@ class CountingLogCheckPointEvent implements LogCheckPointEvent
     }
 
     @Override
-    public void appendToLogFile( LogPosition positionBeforeCheckpoint, LogPosition positionAfterCheckpoint )
+    public void appendToLogFile( LogPosition checkPointedPosition, LogPosition positionBeforeCheckpoint, LogPosition positionAfterCheckpoint )
     {
+        checkPointedPositionConsumer.accept( checkPointedPosition, positionBeforeCheckpoint );
         logFileAppendConsumer.accept( positionBeforeCheckpoint, positionAfterCheckpoint );
     }
 
@@ -20,9 +20,11 @@
 package org.neo4j.kernel.impl.api.tracer;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.RecoveryTimeEstimator;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
@@ -35,6 +37,7 @@ import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
 import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
 
+import static java.lang.Math.min;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_LOG_HEADER_SIZE;
 
 /**
@@ -42,18 +45,37 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FO
  */
 public class DefaultTracer implements DatabaseTracer
 {
+    private static final int LOG_FORCE_BATCH_SIZE_BUCKETS = 16;
+
     private final AtomicLong appendedBytes = new AtomicLong();
 
     private final CountingLogRotateEvent countingLogRotateEvent = new CountingLogRotateEvent();
     private final LogFileCreateEvent logFileCreateEvent = () -> appendedBytes.addAndGet( CURRENT_FORMAT_LOG_HEADER_SIZE );
-    private final CountingLogCheckPointEvent logCheckPointEvent = new CountingLogCheckPointEvent( this::appendLogBytes );
-    private final LogAppendEvent logAppendEvent = new DefaultLogAppendEvent();
+    private final CountingLogCheckPointEvent logCheckPointEvent = new CountingLogCheckPointEvent( this::appendLogBytes, this::checkPointLogBytes );
+    private final RecoveryTimeEstimator recoveryTimeEstimator = new RecoveryTimeEstimator( this );
+    private volatile long appendedBytesAtLastCheckPoint;
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder logAppendTimeNanos = new LongAdder();
+    private final LongAdder serializationTimeNanos = new LongAdder();
+    private final LongAdder uncompressedCommandBytes = new LongAdder();
+    private final LongAdder compressedCommandBytes = new LongAdder();
+    private final LongAdder compressionTimeNanos = new LongAdder();
+    private final LongAdder logForces = new LongAdder();
+    private final LongAdder logForceTimeNanos = new LongAdder();
+    private final LongAdder logForceWaitTimeNanos = new LongAdder();
+    private final LongAdder logForceDelayTimeNanos = new LongAdder();
+    private final LongAdder[] logForceBatchSizes = new LongAdder[LOG_FORCE_BATCH_SIZE_BUCKETS];
+    private final LongAdder storeApplyTimeNanos = new LongAdder();
+    private final LongAdder storeApplyBatchTimeNanos = new LongAdder();
     private final CommitEvent commitEvent = new DefaultCommitEvent();
     private final TransactionEvent transactionEvent = new DefaultTransactionEvent();
 
     public DefaultTracer()
     {
-        //empty
+        for ( int i = 0; i < logForceBatchSizes.length; i++ )
+        {
+            logForceBatchSizes[i] = new LongAdder();
+        }
     }
 
     @Override
@@ -86,6 +108,89 @@ public class DefaultTracer implements DatabaseTracer
         return countingLogRotateEvent.lastLogRotationTimeMillis();
     }
 
+    @Override
+    public long numberOfCommits()
+    {
+        return commits.sum();
+    }
+
+    @Override
+    public long logAppendAccumulatedTotalTimeNanos()
+    {
+        return logAppendTimeNanos.sum();
+    }
+
+    @Override
+    public long serializationAccumulatedTotalTimeNanos()
+    {
+        return serializationTimeNanos.sum();
+    }
+
+    @Override
+    public long uncompressedCommandBytes()
+    {
+        return uncompressedCommandBytes.sum();
+    }
+
+    @Override
+    public long compressedCommandBytes()
+    {
+        return compressedCommandBytes.sum();
+    }
+
+    @Override
+    public long compressionAccumulatedTotalTimeNanos()
+    {
+        return compressionTimeNanos.sum();
+    }
+
+    @Override
+    public long numberOfLogForces()
+    {
+        return logForces.sum();
+    }
+
+    @Override
+    public long logForceAccumulatedTotalTimeNanos()
+    {
+        return logForceTimeNanos.sum();
+    }
+
+    @Override
+    public long logForceWaitAccumulatedTotalTimeNanos()
+    {
+        return logForceWaitTimeNanos.sum();
+    }
+
+    @Override
+    public long logForceDelayAccumulatedTotalTimeNanos()
+    {
+        return logForceDelayTimeNanos.sum();
+    }
+
+    @Override
+    public long[] logForceBatchSizeHistogram()
+    {
+        long[] histogram = new long[logForceBatchSizes.length];
+        for ( int i = 0; i < histogram.length; i++ )
+        {
+            histogram[i] = logForceBatchSizes[i].sum();
+        }
+        return histogram;
+    }
+
+    @Override
+    public long storeApplyAccumulatedTotalTimeNanos()
+    {
+        return storeApplyTimeNanos.sum();
+    }
+
+    @Override
+    public long storeApplyBatchAccumulatedTotalTimeNanos()
+    {
+        return storeApplyBatchTimeNanos.sum();
+    }
+
     @Override
     public long numberOfCheckPoints()
     {
@@ -104,6 +209,30 @@ public class DefaultTracer implements DatabaseTracer
         return logCheckPointEvent.lastCheckpointTimeMillis();
     }
 
+    @Override
+    public long appendedBytesAtLastCheckPoint()
+    {
+        return appendedBytesAtLastCheckPoint;
+    }
+
+    @Override
+    public long logBytesSinceLastCheckPoint()
+    {
+        return recoveryTimeEstimator.logBytesSinceLastCheckPoint();
+    }
+
+    @Override
+    public long replayThroughputBytesPerSecond()
+    {
+        return recoveryTimeEstimator.replayThroughputBytesPerSecond();
+    }
+
+    @Override
+    public long estimatedRecoveryTimeMillis()
+    {
+        return recoveryTimeEstimator.estimatedRecoveryTimeMillis();
+    }
+
     @Override
     public LogCheckPointEvent beginCheckPoint()
     {
@@ -119,6 +248,16 @@ public class DefaultTracer implements DatabaseTracer
         appendedBytes.addAndGet( logPositionAfterAppend.getByteOffset() - logPositionBeforeAppend.getByteOffset() );
     }
 
+    private void checkPointLogBytes( LogPosition checkPointedPosition, LogPosition logPositionBeforeCheckPoint )
+    {
+        // Check points are appended while holding the log file, so the bytes appended so far end where the check point is appended.
+        // If the log was rotated after the check pointed position, only the bytes of the current log file are counted as not covered.
+        long bytesNotCovered = checkPointedPosition.getLogVersion() == logPositionBeforeCheckPoint.getLogVersion()
+                               ? logPositionBeforeCheckPoint.getByteOffset() - checkPointedPosition.getByteOffset()
+                               : logPositionBeforeCheckPoint.getByteOffset();
+        appendedBytesAtLastCheckPoint = Math.max( 0, appendedBytes.get() - bytesNotCovered );
+    }
+
     @Override
     public LogFileCreateEvent createLogFile()
     {
@@ -165,32 +304,71 @@ public class DefaultTracer implements DatabaseTracer
         @Override
         public void close()
         {
+            commits.increment();
         }
 
         @Override
         public LogAppendEvent beginLogAppend()
         {
-            return logAppendEvent;
+            return new DefaultLogAppendEvent( System.nanoTime() );
         }
 
         @Override
         public StoreApplyEvent beginStoreApply()
         {
-            return StoreApplyEvent.NULL;
+            return new DefaultStoreApplyEvent( System.nanoTime() );
+        }
+    }
+
+    private class DefaultStoreApplyEvent implements StoreApplyEvent
+    {
+        private final long startNanos;
+
+        DefaultStoreApplyEvent( long startNanos )
+        {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void batchApplied( long applyTimeNanos )
+        {
+            storeApplyBatchTimeNanos.add( applyTimeNanos );
+        }
+
+        @Override
+        public void close()
+        {
+            storeApplyTimeNanos.add( System.nanoTime() - startNanos );
         }
     }
 
     private class DefaultLogAppendEvent implements LogAppendEvent
     {
+        private final long startNanos;
+
+        DefaultLogAppendEvent( long startNanos )
+        {
+            this.startNanos = startNanos;
+        }
+
         @Override
         public void appendToLogFile( LogPosition logPositionBeforeAppend, LogPosition logPositionAfterAppend )
         {
             appendLogBytes( logPositionBeforeAppend, logPositionAfterAppend );
         }
 
+        @Override
+        public void compressCommands( long uncompressedBytes, long compressedBytes, long timeNanos )
+        {
+            uncompressedCommandBytes.add( uncompressedBytes );
+            compressedCommandBytes.add( compressedBytes );
+            compressionTimeNanos.add( timeNanos );
+        }
+
         @Override
         public void close()
         {
+            logAppendTimeNanos.add( System.nanoTime() - startNanos );
         }
 
         @Override
@@ -208,19 +386,46 @@ public class DefaultTracer implements DatabaseTracer
         @Override
         public SerializeTransactionEvent beginSerializeTransaction()
         {
-            return SerializeTransactionEvent.NULL;
+            long startNanos = System.nanoTime();
+            return () -> serializationTimeNanos.add( System.nanoTime() - startNanos );
         }
 
         @Override
         public LogForceWaitEvent beginLogForceWait()
         {
-            return LogForceWaitEvent.NULL;
+            long startNanos = System.nanoTime();
+            return () -> logForceWaitTimeNanos.add( System.nanoTime() - startNanos );
         }
 
         @Override
         public LogForceEvent beginLogForce()
         {
-            return LogForceEvent.NULL;
+            return new DefaultLogForceEvent( System.nanoTime() );
+        }
+    }
+
+    private class DefaultLogForceEvent implements LogForceEvent
+    {
+        private final long startNanos;
+
+        DefaultLogForceEvent( long startNanos )
+        {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void batch( int transactions, long delayNanos )
+        {
+            int bucket = transactions <= 1 ? 0 : min( LOG_FORCE_BATCH_SIZE_BUCKETS - 1, 31 - Integer.numberOfLeadingZeros( transactions ) );
+            logForceBatchSizes[bucket].increment();
+            logForceDelayTimeNanos.add( delayNanos );
+        }
+
+        @Override
+        public void close()
+        {
+            logForces.increment();
+            logForceTimeNanos.add( System.nanoTime() - startNanos );
         }
     }
 }
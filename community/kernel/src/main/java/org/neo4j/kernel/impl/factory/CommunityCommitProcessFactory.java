@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.factory;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.api.CommitProcessFactory;
 import org.neo4j.kernel.impl.api.ReadOnlyTransactionCommitProcess;
@@ -37,6 +38,7 @@ public class CommunityCommitProcessFactory implements CommitProcessFactory
         {
             return new ReadOnlyTransactionCommitProcess();
         }
-        return new TransactionRepresentationCommitProcess( appender, storageEngine );
+        return new TransactionRepresentationCommitProcess( appender, storageEngine,
+                config.get( GraphDatabaseInternalSettings.transaction_group_store_apply ) );
     }
 }
@@ -87,6 +87,11 @@ import static org.neo4j.util.concurrent.Runnables.runAll;
 public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,VALUE extends NativeIndexValue> extends NativeIndexPopulator<KEY,VALUE>
 {
     public static final String BLOCK_SIZE_NAME = "blockSize";
+    /**
+     * How much of the space of each tree node to fill when the tree is built from the merged scan updates, see {@link GBPTree#bulkWriter(double,
+     * PageCursorTracer)}. Filling nodes completely gives the smallest index, whereas leaving some room makes the first changes to it cheaper.
+     */
+    private static final double FILL_FACTOR = FeatureToggles.getDouble( BlockBasedIndexPopulator.class, "fillFactor", 1 );
 
     private final boolean archiveFailedIndex;
     private final MemoryTracker memoryTracker;
@@ -436,8 +441,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
                 }
             }
 
-            int asMuchAsPossibleToTheLeft = 1;
-            try ( Writer<KEY,VALUE> writer = tree.writer( asMuchAsPossibleToTheLeft, cursorTracer ) )
+            // The tree is still empty and the merged entries come in sorted order, so the tree can be built bottom-up
+            try ( Writer<KEY,VALUE> writer = tree.bulkWriter( FILL_FACTOR, cursorTracer ) )
             {
                 while ( allEntries.next() && !cancellation.cancelled() )
                 {
@@ -29,13 +29,18 @@ public class DatabaseIndexContext
     final FileSystemAbstraction fileSystem;
     final IndexProvider.Monitor monitor;
     final boolean readOnly;
+    final boolean prefixCompression;
+    final boolean concurrentUpdaters;
 
-    private DatabaseIndexContext( PageCache pageCache, FileSystemAbstraction fileSystem, IndexProvider.Monitor monitor, boolean readOnly )
+    private DatabaseIndexContext( PageCache pageCache, FileSystemAbstraction fileSystem, IndexProvider.Monitor monitor, boolean readOnly,
+            boolean prefixCompression, boolean concurrentUpdaters )
     {
         this.pageCache = pageCache;
         this.fileSystem = fileSystem;
         this.monitor = monitor;
         this.readOnly = readOnly;
+        this.prefixCompression = prefixCompression;
+        this.concurrentUpdaters = concurrentUpdaters;
     }
 
     /**
@@ -54,6 +59,8 @@ public class DatabaseIndexContext
         private final FileSystemAbstraction fileSystem;
         private IndexProvider.Monitor monitor;
         private boolean readOnly;
+        private boolean prefixCompression;
+        private boolean concurrentUpdaters;
 
         private Builder( PageCache pageCache, FileSystemAbstraction fileSystem )
         {
@@ -61,6 +68,8 @@ public class DatabaseIndexContext
             this.fileSystem = fileSystem;
             this.monitor = IndexProvider.Monitor.EMPTY;
             this.readOnly = false;
+            this.prefixCompression = false;
+            this.concurrentUpdaters = false;
         }
 
         /**
@@ -87,9 +96,33 @@ public class DatabaseIndexContext
             return this;
         }
 
+        /**
+         * Default is false
+         *
+         * @param prefixCompression true if new indexes should be created with prefix compressed leaves.
+         * @return {@link Builder this builder}
+         */
+        public Builder withPrefixCompression( boolean prefixCompression )
+        {
+            this.prefixCompression = prefixCompression;
+            return this;
+        }
+
+        /**
+         * Default is false
+         *
+         * @param concurrentUpdaters true if several updaters of the same index may be open at the same time.
+         * @return {@link Builder this builder}
+         */
+        public Builder withConcurrentUpdaters( boolean concurrentUpdaters )
+        {
+            this.concurrentUpdaters = concurrentUpdaters;
+            return this;
+        }
+
         public DatabaseIndexContext build()
         {
-            return new DatabaseIndexContext( pageCache, fileSystem, monitor, readOnly );
+            return new DatabaseIndexContext( pageCache, fileSystem, monitor, readOnly, prefixCompression, concurrentUpdaters );
         }
     }
 }
@@ -378,6 +378,38 @@ public class GenericKey extends NativeIndexKey<GenericKey>
         return true;
     }
 
+    /**
+     * Like {@link #put(PageCursor)}, but with the entity id after the value, so that keys with equal or similar values,
+     * which are next to each other in the tree, start with the same bytes.
+     */
+    void putValueFirst( PageCursor cursor )
+    {
+        putInternal( cursor );
+        cursor.putLong( getEntityId() );
+    }
+
+    /**
+     * Reads a key written by {@link #putValueFirst(PageCursor)}.
+     */
+    boolean getValueFirst( PageCursor cursor, int size )
+    {
+        if ( size < ENTITY_ID_SIZE )
+        {
+            initializeToDummyValue();
+            cursor.setCursorException( format( "Failed to read " + getClass().getSimpleName() +
+                    " due to keySize < ENTITY_ID_SIZE, more precisely %d", size ) );
+            return false;
+        }
+
+        if ( !getInternal( cursor, size - ENTITY_ID_SIZE ) )
+        {
+            initializeToDummyValue();
+            return false;
+        }
+        initialize( cursor.getLong() );
+        return true;
+    }
+
     boolean getInternal( PageCursor cursor, int size )
     {
         if ( size <= TYPE_ID_SIZE )
@@ -70,6 +70,18 @@ class GenericLayout extends IndexLayout<GenericKey,NativeIndexValue>
         into.get( cursor, keySize );
     }
 
+    @Override
+    public void writeKeyForPrefixCompression( PageCursor cursor, GenericKey key )
+    {
+        key.putValueFirst( cursor );
+    }
+
+    @Override
+    public void readKeyForPrefixCompression( PageCursor cursor, GenericKey into, int keySize )
+    {
+        into.getValueFirst( cursor, keySize );
+    }
+
     @Override
     public void minimalSplitter( GenericKey left, GenericKey right, GenericKey into )
     {
@@ -19,14 +19,18 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.eclipse.collections.api.set.ImmutableSet;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.OpenOption;
 import java.util.function.Consumer;
 
 import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.GBPTreeConsistencyCheckVisitor;
+import org.neo4j.index.internal.gbptree.GBPTreeOpenOptions;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.IOUtils;
@@ -50,6 +54,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
     private final IndexProvider.Monitor monitor;
     private final GBPTree.Monitor treeMonitor;
     private final boolean readOnly;
+    private final boolean prefixCompression;
 
     protected GBPTree<KEY,VALUE> tree;
 
@@ -60,6 +65,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
         this.fileSystem = databaseIndexContext.fileSystem;
         this.monitor = databaseIndexContext.monitor;
         this.readOnly = databaseIndexContext.readOnly;
+        this.prefixCompression = databaseIndexContext.prefixCompression;
         this.indexFiles = indexFiles;
         this.layout = layout;
         this.descriptor = descriptor;
@@ -71,8 +77,9 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
         ensureDirectoryExist();
         GBPTree.Monitor monitor = treeMonitor();
         File storeFile = indexFiles.getStoreFile();
+        ImmutableSet<OpenOption> openOptions = prefixCompression ? immutable.of( GBPTreeOpenOptions.PREFIX_COMPRESSION ) : immutable.empty();
         tree = new GBPTree<>( pageCache, storeFile, layout, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector,
-                readOnly, NULL, immutable.empty() );
+                readOnly, NULL, openOptions );
         afterTreeInstantiation( tree );
     }
 
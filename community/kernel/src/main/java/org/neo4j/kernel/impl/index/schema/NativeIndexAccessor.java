@@ -45,6 +45,7 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         implements IndexAccessor
 {
     private final NativeIndexUpdater<KEY,VALUE> singleUpdater;
+    private final boolean concurrentUpdaters;
     final NativeIndexHeaderWriter headerWriter;
 
     NativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY,VALUE> layout,
@@ -52,6 +53,7 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
     {
         super( databaseIndexContext, layout, indexFiles, descriptor, GBPTree.NO_MONITOR );
         singleUpdater = new NativeIndexUpdater<>( layout.newKey(), layout.newValue() );
+        concurrentUpdaters = databaseIndexContext.concurrentUpdaters;
         headerWriter = new NativeIndexHeaderWriter( BYTE_ONLINE, additionalHeaderWriter );
     }
 
@@ -69,6 +71,11 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         assertOpen();
         try
         {
+            if ( concurrentUpdaters )
+            {
+                // Several updaters may be open at the same time, so each of them needs its own key and value
+                return new NativeIndexUpdater<>( layout.newKey(), layout.newValue() ).initialize( tree.concurrentWriter( cursorTracer ) );
+            }
             return singleUpdater.initialize( tree.writer( cursorTracer ) );
         }
         catch ( IOException e )
@@ -21,6 +21,12 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.commons.lang3.tuple.Pair;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Seeker;
@@ -35,6 +41,7 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.PartitionedValueScan;
 import org.neo4j.values.storable.Value;
 
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
@@ -132,6 +139,29 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, constraints, needFilter, context.cursorTracer() );
     }
 
+    @Override
+    public PartitionedValueScan partitionedScan( int desiredNumberOfPartitions, QueryContext context, IndexQueryConstraints constraints,
+            IndexQuery.ExistsPredicate query )
+    {
+        IndexQuery[] predicates = {query};
+        validateQuery( constraints, predicates );
+
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+
+        boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
+        try
+        {
+            List<Pair<KEY,KEY>> ranges = tree.partitionedRanges( treeKeyFrom, treeKeyTo, desiredNumberOfPartitions, context.cursorTracer() );
+            return new NativePartitionedValueScan( ranges, predicates, constraints, needFilter );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
     void initializeFromToKeys( KEY treeKeyFrom, KEY treeKeyTo )
     {
         treeKeyFrom.initialize( Long.MIN_VALUE );
@@ -189,4 +219,53 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     {
         return layout.compare( treeKeyFrom, treeKeyTo ) > 0;
     }
+
+    /**
+     * {@link PartitionedValueScan} over the key ranges from {@link GBPTree#partitionedRanges(Object, Object, int, PageCursorTracer)}.
+     * The {@link Seeker} of a partition is only opened when the partition is reserved, with the cursor tracer of the reserving thread,
+     * and is closed along with the client's progressor.
+     */
+    private class NativePartitionedValueScan implements PartitionedValueScan
+    {
+        private final Queue<Pair<KEY,KEY>> unreservedPartitions;
+        private final int numberOfPartitions;
+        private final IndexQuery[] query;
+        private final IndexQueryConstraints constraints;
+        private final boolean needFilter;
+
+        NativePartitionedValueScan( Collection<Pair<KEY,KEY>> ranges, IndexQuery[] query, IndexQueryConstraints constraints, boolean needFilter )
+        {
+            this.unreservedPartitions = new ConcurrentLinkedQueue<>( ranges );
+            this.numberOfPartitions = ranges.size();
+            this.query = query;
+            this.constraints = constraints;
+            this.needFilter = needFilter;
+        }
+
+        @Override
+        public int getNumberOfPartitions()
+        {
+            return numberOfPartitions;
+        }
+
+        @Override
+        public boolean reservePartition( IndexProgressor.EntityValueClient client, PageCursorTracer cursorTracer )
+        {
+            Pair<KEY,KEY> range = unreservedPartitions.poll();
+            if ( range == null )
+            {
+                return false;
+            }
+            try
+            {
+                Seeker<KEY,VALUE> seeker = tree.seek( range.getLeft(), range.getRight(), cursorTracer );
+                client.initialize( descriptor, getIndexProgressor( seeker, client, needFilter, query ), query, constraints, false );
+                return true;
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
 }
@@ -82,7 +82,9 @@ public class NativeLuceneFusionIndexProviderFactory30 extends AbstractIndexProvi
         boolean readOnly = IndexProviderFactoryUtil.isReadOnly( config, isSingleInstance );
         boolean archiveFailedIndex = config.get( GraphDatabaseInternalSettings.archive_failed_index );
 
-        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( readOnly ).build();
+        DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( readOnly )
+                .withPrefixCompression( config.get( GraphDatabaseInternalSettings.index_prefix_compression ) )
+                .withConcurrentUpdaters( config.get( GraphDatabaseInternalSettings.index_concurrent_updaters ) ).build();
         GenericNativeIndexProvider generic =
                 new GenericNativeIndexProvider( databaseIndexContext, childDirectoryStructure,
                         recoveryCleanupWorkCollector, config );
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.api.index.PartitionedValueScan;
+
+class NodeValueIndexCursorPartitionedScan implements PartitionedScan<NodeValueIndexCursor>
+{
+    private final Read read;
+    private final PartitionedValueScan valueScan;
+
+    NodeValueIndexCursorPartitionedScan( Read read, PartitionedValueScan valueScan )
+    {
+        this.read = read;
+        this.valueScan = valueScan;
+    }
+
+    @Override
+    public int getNumberOfPartitions()
+    {
+        return valueScan.getNumberOfPartitions();
+    }
+
+    @Override
+    public boolean reservePartition( NodeValueIndexCursor cursor, PageCursorTracer cursorTracer )
+    {
+        DefaultNodeValueIndexCursor cursorImpl = (DefaultNodeValueIndexCursor) cursor;
+        cursorImpl.setRead( read );
+        return valueScan.reservePartition( cursorImpl, cursorTracer );
+    }
+}
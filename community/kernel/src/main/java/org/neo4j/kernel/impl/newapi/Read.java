@@ -33,6 +33,7 @@ import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
 import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PartitionedScan;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.QueryContext;
 import org.neo4j.internal.kernel.api.RelationshipIndexCursor;
@@ -51,6 +52,7 @@ import org.neo4j.kernel.api.AssertOpen;
 import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.index.IndexProgressor;
 import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.api.index.PartitionedValueScan;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.api.txstate.TxStateHolder;
 import org.neo4j.kernel.impl.api.KernelTransactionImplementation;
@@ -67,6 +69,9 @@ import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.util.Preconditions.checkArgument;
+import static org.neo4j.util.Preconditions.checkState;
+import static org.neo4j.util.Preconditions.requirePositive;
 import static org.neo4j.values.storable.ValueGroup.GEOMETRY;
 import static org.neo4j.values.storable.ValueGroup.NUMBER;
 
@@ -243,6 +248,31 @@ abstract class Read implements TxStateHolder,
         indexSession.reader.query( this, cursorImpl, constraints, IndexQuery.exists( firstProperty ) );
     }
 
+    @Override
+    public final PartitionedScan<NodeValueIndexCursor> nodeIndexScan( IndexReadSession index,
+                                                                      int desiredNumberOfPartitions,
+                                                                      IndexQueryConstraints constraints ) throws KernelException
+    {
+        ktx.assertOpen();
+        requirePositive( desiredNumberOfPartitions );
+        checkArgument( !constraints.isOrdered(), "Partitioned index scan can not be ordered, was %s", constraints.order() );
+        // partitions of the index can't be merged with transaction state, since that would have to be partitioned as well
+        checkState( !hasTxStateWithChanges(), "Transaction contains changes, partitioned index scan is only valid in read only transactions" );
+        DefaultIndexReadSession indexSession = (DefaultIndexReadSession) index;
+
+        if ( indexSession.reference.schema().entityType() != EntityType.NODE )
+        {
+            throw new IndexNotApplicableKernelException( "Node index scan can only be performed on node indexes: " + index );
+        }
+
+        // for a scan, we simply query for existence of the first property, which covers all entries in an index
+        int firstProperty = indexSession.reference.schema().getPropertyIds()[0];
+
+        PartitionedValueScan valueScan = indexSession.reader.partitionedScan( desiredNumberOfPartitions, this, constraints,
+                IndexQuery.exists( firstProperty ) );
+        return new NodeValueIndexCursorPartitionedScan( this, valueScan );
+    }
+
     @Override
     public final void nodeLabelScan( int label, NodeLabelIndexCursor cursor, IndexOrder order )
     {
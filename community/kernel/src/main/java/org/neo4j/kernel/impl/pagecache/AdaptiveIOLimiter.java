@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.time.SystemNanoClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_interval_time;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_io_target_fault_latency;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+
+/**
+ * An {@link IOLimiter} that adjusts the rate of IO, based on the latency of the writes being limited, and on the
+ * latency of page faults observed by the page cache.
+ * <p>
+ * The IO rate is controlled in quanta of 100 milliseconds. At the end of each quantum, the 99th percentile page fault
+ * latency within the quantum, and the average time spent per write, are compared with the configured target latency.
+ * If either of them exceeds the target, then the IO subsystem is considered congested, and the IO rate is halved.
+ * Otherwise the IO rate is increased by a quarter. This way, the checkpoint will flush at full speed on a quiet system,
+ * and quickly back off when queries start waiting for their page faults.
+ * <p>
+ * A checkpoint that has been flushing for longer than the checkpoint interval is no longer limited, so it can complete
+ * before the next one is due. Flushes that are not part of a checkpoint are measured against the same deadline on their
+ * own.
+ * <p>
+ * There is one limiter per DBMS, but every database checkpoints on its own. Each checkpoint therefore gets its own
+ * {@link #checkPointLimiter() limiter}, with its own deadline and quantum, so that checkpoints that overlap do not
+ * disturb each other. The rate of a new checkpoint starts out from the rate the most recent quantum ended up with, be
+ * it of another checkpoint, so that what has been learned about the IO subsystem is not forgotten in between.
+ * <p>
+ * Page fault latencies are only measured by the page cursor tracers once an adaptive limiter has been
+ * {@link #create(Config, PageCacheTracer, SystemNanoClock) created}, so that there is no timing overhead otherwise.
+ */
+public class AdaptiveIOLimiter implements IOLimiter
+{
+    static final int MIN_IOPS = 10;
+    static final int MAX_IOPS = 1_000_000;
+    private static final long QUANTUM_NANOS = MILLISECONDS.toNanos( 100 );
+    private static final int QUANTA_PER_SECOND = (int) (SECONDS.toNanos( 1 ) / QUANTUM_NANOS);
+    // Below this number of page faults in a quantum, the percentile latency is not considered representative.
+    private static final int MIN_FAULT_SAMPLES = 20;
+    private static final double FAULT_LATENCY_PERCENTILE = 0.99;
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double INCREASE_FACTOR = 1.25;
+
+    private final PageCacheCounters counters;
+    private final SystemNanoClock clock;
+    private final long targetLatencyNanos;
+    private final long deadlineNanos;
+    private final AtomicInteger disableCounter = new AtomicInteger();
+    // Rate control for the flushes that are not part of a checkpoint.
+    private final RateControl rateControl;
+    private volatile double latestIops;
+
+    AdaptiveIOLimiter( PageCacheCounters counters, SystemNanoClock clock, Duration targetLatency, Duration deadline, int initialIops )
+    {
+        this.counters = counters;
+        this.clock = clock;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.deadlineNanos = deadline.toNanos();
+        this.latestIops = Math.max( MIN_IOPS, Math.min( MAX_IOPS, initialIops ) );
+        this.rateControl = new RateControl( latestIops );
+    }
+
+    /**
+     * Create an {@link IOLimiter} for the background checkpoint process.
+     *
+     * @return an adaptive limiter if a target latency has been configured, otherwise {@link IOLimiter#UNLIMITED}.
+     */
+    public static IOLimiter create( Config config, PageCacheTracer pageCacheTracer, SystemNanoClock clock )
+    {
+        Duration targetLatency = config.get( check_point_io_target_fault_latency );
+        if ( targetLatency == null )
+        {
+            return IOLimiter.UNLIMITED;
+        }
+        pageCacheTracer.enableFaultLatencyTracing();
+        int initialIops = config.get( check_point_iops_limit );
+        return new AdaptiveIOLimiter( pageCacheTracer, clock, targetLatency, config.get( check_point_interval_time ),
+                initialIops > 0 ? initialIops : MAX_IOPS );
+    }
+
+    @Override
+    public long maybeLimitIO( long previousStamp, int recentlyCompletedIOs, Flushable flushable )
+    {
+        long now = clock.nanos();
+        // The stamp is the time the flush started, which cannot be the initial stamp itself.
+        long flushStart = previousStamp == INITIAL_STAMP ? Math.max( now, 1 ) : previousStamp;
+        rateControl.maybeLimitIO( flushStart, now, recentlyCompletedIOs, flushable );
+        return flushStart;
+    }
+
+    @Override
+    public IOLimiter checkPointLimiter()
+    {
+        return new CheckPointLimiter( clock.nanos(), new RateControl( latestIops ) );
+    }
+
+    /**
+     * @return the estimated 99th percentile latency of the page faults that happened between the two histogram
+     * snapshots, or {@code 0} if there were too few page faults to tell.
+     */
+    private static long percentileLatency( long[] before, long[] after )
+    {
+        long total = 0;
+        for ( int i = 0; i < after.length; i++ )
+        {
+            total += after[i] - bucket( before, i );
+        }
+        if ( total < MIN_FAULT_SAMPLES )
+        {
+            return 0;
+        }
+        long threshold = (long) Math.ceil( total * FAULT_LATENCY_PERCENTILE );
+        long seen = 0;
+        for ( int i = 0; i < after.length; i++ )
+        {
+            seen += after[i] - bucket( before, i );
+            if ( seen >= threshold )
+            {
+                // The bucket covers latencies from 2^i to 2^(i+1) nanoseconds, so pick the middle of that range.
+                return (1L << i) + (1L << i) / 2;
+            }
+        }
+        return 0;
+    }
+
+    private static long bucket( long[] histogram, int index )
+    {
+        return index < histogram.length ? histogram[index] : 0;
+    }
+
+    private static void flush( Flushable flushable )
+    {
+        try
+        {
+            flushable.flush();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * @return the current IO rate limit of the flushes that are not part of a checkpoint, in IOs per second.
+     */
+    int currentIopsLimit()
+    {
+        return rateControl.currentIopsLimit();
+    }
+
+    @Override
+    public void disableLimit()
+    {
+        disableCounter.incrementAndGet();
+    }
+
+    @Override
+    public void enableLimit()
+    {
+        disableCounter.decrementAndGet();
+    }
+
+    @Override
+    public boolean isLimited()
+    {
+        return disableCounter.get() == 0;
+    }
+
+    /**
+     * The limiter of a single checkpoint, which flushes each file separately, so its deadline is measured from when the
+     * checkpoint started rather than from when each of those flushes started.
+     */
+    final class CheckPointLimiter implements IOLimiter
+    {
+        private final long checkPointStart;
+        private final RateControl rateControl;
+
+        private CheckPointLimiter( long checkPointStart, RateControl rateControl )
+        {
+            this.checkPointStart = checkPointStart;
+            this.rateControl = rateControl;
+        }
+
+        @Override
+        public long maybeLimitIO( long previousStamp, int recentlyCompletedIOs, Flushable flushable )
+        {
+            rateControl.maybeLimitIO( checkPointStart, clock.nanos(), recentlyCompletedIOs, flushable );
+            // The stamp is not needed, since the deadline is kept by this limiter, but it cannot be the initial stamp.
+            return previousStamp == INITIAL_STAMP ? 1 : previousStamp;
+        }
+
+        @Override
+        public void disableLimit()
+        {
+            AdaptiveIOLimiter.this.disableLimit();
+        }
+
+        @Override
+        public void enableLimit()
+        {
+            AdaptiveIOLimiter.this.enableLimit();
+        }
+
+        @Override
+        public boolean isLimited()
+        {
+            return AdaptiveIOLimiter.this.isLimited();
+        }
+
+        /**
+         * @return the current IO rate limit of this checkpoint, in IOs per second.
+         */
+        int currentIopsLimit()
+        {
+            return rateControl.currentIopsLimit();
+        }
+    }
+
+    private final class RateControl
+    {
+        // All guarded by this.
+        private double iops;
+        private long quantumStart;
+        private long quantumIOs;
+        private long quantumWrites;
+        private long quantumSleepNanos;
+        private long[] previousFaultLatencies;
+
+        RateControl( double iops )
+        {
+            this.iops = iops;
+            this.quantumStart = clock.nanos();
+            this.previousFaultLatencies = counters.faultLatencyHistogram();
+        }
+
+        void maybeLimitIO( long deadlineStart, long now, int recentlyCompletedIOs, Flushable flushable )
+        {
+            if ( disableCounter.get() > 0 || now - deadlineStart >= deadlineNanos )
+            {
+                return;
+            }
+
+            long sleepNanos = 0;
+            synchronized ( this )
+            {
+                quantumIOs += recentlyCompletedIOs;
+                quantumWrites++;
+                long elapsed = now - quantumStart;
+                if ( elapsed >= QUANTUM_NANOS )
+                {
+                    adjustRate( elapsed );
+                    quantumStart = now;
+                    quantumIOs = 0;
+                    quantumWrites = 0;
+                    quantumSleepNanos = 0;
+                }
+                else if ( quantumIOs >= iops / QUANTA_PER_SECOND )
+                {
+                    // We have used up the IO budget for this quantum, so wait for the next one.
+                    sleepNanos = QUANTUM_NANOS - elapsed;
+                    quantumSleepNanos += sleepNanos;
+                }
+            }
+
+            if ( sleepNanos > 0 )
+            {
+                flush( flushable );
+                try
+                {
+                    Thread.sleep( sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000) );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void adjustRate( long elapsedNanos )
+        {
+            long[] faultLatencies = counters.faultLatencyHistogram();
+            long faultLatency = percentileLatency( previousFaultLatencies, faultLatencies );
+            previousFaultLatencies = faultLatencies;
+            long writeLatency = quantumWrites == 0 ? 0 : Math.max( 0, elapsedNanos - quantumSleepNanos ) / quantumWrites;
+
+            if ( faultLatency > targetLatencyNanos || writeLatency > targetLatencyNanos )
+            {
+                iops = Math.max( MIN_IOPS, iops * DECREASE_FACTOR );
+            }
+            else
+            {
+                iops = Math.min( MAX_IOPS, iops * INCREASE_FACTOR );
+            }
+            latestIops = iops;
+        }
+
+        synchronized int currentIopsLimit()
+        {
+            return (int) iops;
+        }
+    }
+}
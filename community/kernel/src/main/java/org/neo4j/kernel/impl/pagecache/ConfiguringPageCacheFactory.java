@@ -21,13 +21,18 @@ package org.neo4j.kernel.impl.pagecache;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
+import org.neo4j.internal.nativeimpl.LinuxMemoryPolicy;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.HugePageMode;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.IoUringPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicyType;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
@@ -37,6 +42,10 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_huge_pages;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_io_uring_enabled;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_numa_aware;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_eviction_policy;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
 import static org.neo4j.io.mem.MemoryAllocator.createAllocator;
@@ -82,7 +91,7 @@ public class ConfiguringPageCacheFactory
     {
         if ( pageCache == null )
         {
-            this.swapperFactory = createAndConfigureSwapperFactory( fs );
+            this.swapperFactory = createAndConfigureSwapperFactory( fs, config );
             this.pageCache = createPageCache();
         }
         return pageCache;
@@ -93,14 +102,71 @@ public class ConfiguringPageCacheFactory
         long pageCacheMaxMemory = getPageCacheMaxMemory( config );
         var memoryPool = memoryPools.pool( PAGE_CACHE, pageCacheMaxMemory, false, null );
         var memoryTracker = memoryPool.getPoolMemoryTracker();
-        MemoryAllocator memoryAllocator = buildMemoryAllocator( pageCacheMaxMemory, memoryTracker );
+        NumaTopology numaTopology = numaTopology( config );
+        HugePageMode hugePageMode = hugePageMode( config );
+        MemoryAllocator memoryAllocator = buildMemoryAllocator( pageCacheMaxMemory, memoryTracker, numaTopology, hugePageMode );
         var bufferFactory = new ConfigurableIOBufferFactory( config, memoryTracker );
-        return new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, versionContextSupplier, scheduler, clock, memoryTracker, bufferFactory );
+        MuninnPageCache muninnPageCache = new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, versionContextSupplier, scheduler, clock,
+                memoryTracker, bufferFactory, evictionPolicyType( config ), numaTopology );
+        if ( hugePageMode != HugePageMode.DISABLED )
+        {
+            // The page cache has made its first grabs for its page list, which shows whether huge pages can actually be had.
+            log.info( hugePageMode.describeUsage( memoryAllocator ) );
+        }
+        return muninnPageCache;
+    }
+
+    private NumaTopology numaTopology( Config config )
+    {
+        if ( !config.get( pagecache_numa_aware ) )
+        {
+            return NumaTopology.SINGLE_NODE;
+        }
+        NumaTopology topology = NumaTopology.detect();
+        log.info( "NUMA aware page cache requested. Detected %s.", topology );
+        if ( topology.nodeCount() > 1 && !LinuxMemoryPolicy.isAvailable() )
+        {
+            log.warn( "The page cache memory cannot be bound to the NUMA nodes, because libnuma is not available. " +
+                    "The memory will be placed on the node of the thread that first touches it." );
+        }
+        return topology;
     }
 
-    private MemoryAllocator buildMemoryAllocator( long pageCacheMaxMemory, MemoryTracker memoryTracker )
+    private static EvictionPolicyType evictionPolicyType( Config config )
     {
-        return createAllocator( pageCacheMaxMemory, memoryTracker );
+        switch ( config.get( pagecache_eviction_policy ) )
+        {
+        case SCAN_RESISTANT:
+            return EvictionPolicyType.SCAN_RESISTANT;
+        case CLOCK:
+        default:
+            return EvictionPolicyType.CLOCK;
+        }
+    }
+
+    private MemoryAllocator buildMemoryAllocator( long pageCacheMaxMemory, MemoryTracker memoryTracker, NumaTopology numaTopology,
+            HugePageMode hugePageMode )
+    {
+        if ( hugePageMode != HugePageMode.DISABLED )
+        {
+            log.info( hugePageMode.describeSupport( pageCacheMaxMemory ) );
+        }
+        return createAllocator( pageCacheMaxMemory, MuninnPageCache.memoryRequiredForMetaData( pageCacheMaxMemory ), memoryTracker, hugePageMode,
+                numaTopology );
+    }
+
+    private static HugePageMode hugePageMode( Config config )
+    {
+        switch ( config.get( pagecache_huge_pages ) )
+        {
+        case TRANSPARENT:
+            return HugePageMode.TRANSPARENT;
+        case EXPLICIT:
+            return HugePageMode.EXPLICIT;
+        case DISABLED:
+        default:
+            return HugePageMode.DISABLED;
+        }
     }
 
     private long getPageCacheMaxMemory( Config config )
@@ -173,13 +239,18 @@ public class ConfiguringPageCacheFactory
         long maxVmUsageMb = ByteUnit.Byte.toMebiBytes( Runtime.getRuntime().maxMemory() );
         String msg = "Physical mem: " + totalPhysicalMemMb + " MiB," +
                      " Heap size: " + maxVmUsageMb + " MiB," +
-                     " Page cache: " + pageCacheMemory + ".";
+                     " Page cache: " + pageCacheMemory + "," +
+                     " Eviction policy: " + config.get( pagecache_eviction_policy ) + ".";
 
         log.info( msg );
     }
 
-    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs )
+    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, Config config )
     {
+        if ( config.get( pagecache_io_uring_enabled ) )
+        {
+            return new IoUringPageSwapperFactory( fs );
+        }
         return new SingleFilePageSwapperFactory( fs );
     }
 }
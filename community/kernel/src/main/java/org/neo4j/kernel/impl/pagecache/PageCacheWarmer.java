@@ -0,0 +1,533 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.internal.helpers.Format.duration;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * Records which pages of the files that a database has mapped are resident in the page cache, and reloads those pages after a restart,
+ * so the page cache does not have to fill up through random page faults while the database serves requests.
+ * <p>
+ * There is one profile per mapped file, in the {@value #PROFILES_DIRECTORY} directory of the database. A profile is a compressed list of the
+ * runs of consecutive resident pages in the file. When warming up, the runs are loaded in sorted order, in batches of mostly sequential pages,
+ * by a number of parallel workers. The progress, and the rate of loading, is reported to the log while the warmup is running.
+ * <p>
+ * The profiles have a format of their own, so they are kept apart from the profiles of other page cache warmers, in a directory and with a
+ * file suffix that no other warmer uses.
+ */
+public class PageCacheWarmer
+{
+    public static final String PROFILES_DIRECTORY = "page-cache-profiles";
+    static final String PROFILE_SUFFIX = ".pageprof";
+
+    private static final long PROFILE_MAGIC = 0x4e656f3450434150L;
+    private static final long END_OF_PROFILE = -1;
+    private static final String PROFILE_TAG = "pageCacheProfile";
+    private static final String WARMUP_TAG = "pageCacheWarmup";
+    /**
+     * The maximum number of pages each warmup worker loads at a time, before it takes the next batch.
+     */
+    private static final int BATCH_SIZE = getInteger( PageCacheWarmer.class, "BATCH_SIZE", 4096 );
+    private static final int PROGRESS_REPORT_INTERVAL_SECONDS = getInteger( PageCacheWarmer.class, "PROGRESS_REPORT_INTERVAL_SECONDS", 10 );
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final Path databaseDirectory;
+    private final Path profilesDirectory;
+    private final String databaseName;
+    private final PageCacheTracer pageCacheTracer;
+    private final SystemNanoClock clock;
+    private final Log log;
+    private final int parallelism;
+    private volatile boolean stopped;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, Path databaseDirectory, String databaseName,
+            PageCacheTracer pageCacheTracer, SystemNanoClock clock, Log log, int parallelism )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = databaseDirectory.resolve( PROFILES_DIRECTORY );
+        this.databaseName = databaseName;
+        this.pageCacheTracer = pageCacheTracer;
+        this.clock = clock;
+        this.log = log;
+        this.parallelism = Math.max( parallelism, 1 );
+    }
+
+    /**
+     * Allow profiling and warmup to run, after a {@link #stop()}.
+     */
+    public void start()
+    {
+        stopped = false;
+    }
+
+    /**
+     * Make any ongoing, and future, profiling and warmup stop as soon as possible, until {@link #start()} is called again.
+     */
+    public void stop()
+    {
+        stopped = true;
+    }
+
+    /**
+     * Record which pages of the mapped files of the database are currently resident in the page cache.
+     *
+     * @return the number of resident pages that were recorded.
+     * @throws IOException if a profile could not be written.
+     */
+    public long profile() throws IOException
+    {
+        long residentPages = 0;
+        for ( PagedFile file : databaseFiles() )
+        {
+            if ( stopped )
+            {
+                break;
+            }
+            try
+            {
+                residentPages += profile( file );
+            }
+            catch ( FileIsNotMappedException e )
+            {
+                // The file was unmapped while we were profiling it, so its profile would no longer be of any use.
+            }
+        }
+        return residentPages;
+    }
+
+    /**
+     * Load the pages recorded in the profiles of the mapped files of the database into the page cache. This blocks until the warmup is done.
+     *
+     * @return the number of pages that were loaded.
+     * @throws IOException if the pages could not be loaded.
+     */
+    public long reheat() throws IOException
+    {
+        List<FileRuns> files = new ArrayList<>();
+        for ( PagedFile file : databaseFiles() )
+        {
+            Path profile = profileOf( file );
+            if ( fs.fileExists( profile.toFile() ) )
+            {
+                LongList runs = readProfile( profile );
+                if ( runs != null && !runs.isEmpty() )
+                {
+                    files.add( new FileRuns( file, runs ) );
+                }
+            }
+        }
+        return load( files );
+    }
+
+    /**
+     * Load all the pages of the mapped files of the database whose path, relative to the database directory, matches the given filter.
+     * This blocks until the warmup is done.
+     *
+     * @param filter the files to load.
+     * @return the number of pages that were loaded.
+     * @throws IOException if the pages could not be loaded.
+     */
+    public long preload( Pattern filter ) throws IOException
+    {
+        List<FileRuns> files = new ArrayList<>();
+        for ( PagedFile file : databaseFiles() )
+        {
+            long lastPageId = file.getLastPageId();
+            if ( lastPageId >= 0 && filter.matcher( databaseDirectory.relativize( file.path() ).toString() ).matches() )
+            {
+                files.add( new FileRuns( file, LongArrayList.newListWith( 0, lastPageId + 1 ) ) );
+            }
+        }
+        return load( files );
+    }
+
+    private List<PagedFile> databaseFiles() throws IOException
+    {
+        List<PagedFile> files = new ArrayList<>();
+        for ( PagedFile file : pageCache.listExistingMappings() )
+        {
+            if ( file.path().startsWith( databaseDirectory ) && !file.path().startsWith( profilesDirectory ) )
+            {
+                files.add( file );
+            }
+        }
+        return files;
+    }
+
+    private Path profileOf( PagedFile file )
+    {
+        return profilesDirectory.resolve( databaseDirectory.relativize( file.path() ) + PROFILE_SUFFIX );
+    }
+
+    private long profile( PagedFile file ) throws IOException
+    {
+        Path profile = profileOf( file );
+        Path tmpProfile = profile.resolveSibling( profile.getFileName() + ".tmp" );
+        fs.mkdirs( profile.getParent().toFile() );
+        long residentPages = 0;
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( PROFILE_TAG );
+              PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, cursorTracer );
+              DataOutputStream out = new DataOutputStream(
+                      new BufferedOutputStream( new GZIPOutputStream( fs.openAsOutputStream( tmpProfile.toFile(), false ) ) ) ) )
+        {
+            out.writeLong( PROFILE_MAGIC );
+            long pageId = 0;
+            long runStart = -1;
+            // With PF_NO_FAULT, the cursor is only bound to the pages that are already in memory.
+            while ( !stopped && cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() == pageId )
+                {
+                    residentPages++;
+                    if ( runStart == -1 )
+                    {
+                        runStart = pageId;
+                    }
+                }
+                else if ( runStart != -1 )
+                {
+                    writeRun( out, runStart, pageId );
+                    runStart = -1;
+                }
+                pageId++;
+            }
+            if ( runStart != -1 )
+            {
+                writeRun( out, runStart, pageId );
+            }
+            out.writeLong( END_OF_PROFILE );
+        }
+        if ( stopped )
+        {
+            // Keep the previous profile, rather than replacing it with an incomplete one.
+            fs.deleteFile( tmpProfile.toFile() );
+            return residentPages;
+        }
+        fs.renameFile( tmpProfile.toFile(), profile.toFile(), ATOMIC_MOVE, REPLACE_EXISTING );
+        return residentPages;
+    }
+
+    private static void writeRun( DataOutputStream out, long start, long end ) throws IOException
+    {
+        out.writeLong( start );
+        out.writeLong( end - start );
+    }
+
+    private LongList readProfile( Path profile )
+    {
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( new GZIPInputStream( fs.openAsInputStream( profile.toFile() ) ) ) ) )
+        {
+            if ( in.readLong() != PROFILE_MAGIC )
+            {
+                log.warn( "Ignoring page cache profile '%s', because it is not a page cache profile.", profile );
+                return null;
+            }
+            MutableLongList runs = new LongArrayList();
+            long start;
+            while ( (start = in.readLong()) != END_OF_PROFILE )
+            {
+                long length = in.readLong();
+                runs.add( start );
+                runs.add( start + length );
+            }
+            return runs;
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Ignoring page cache profile '" + profile + "', because it could not be read.", e );
+            return null;
+        }
+    }
+
+    private long load( List<FileRuns> files ) throws IOException
+    {
+        long profiledPages = 0;
+        for ( FileRuns file : files )
+        {
+            profiledPages += file.pages();
+        }
+        long pagesToLoad = Math.min( profiledPages, pageCache.maxCachedPages() );
+        if ( pagesToLoad == 0 || stopped )
+        {
+            return 0;
+        }
+
+        log.info( "Page cache warmup started. Loading %d pages from %d files.", pagesToLoad, files.size() );
+        Progress progress = new Progress( pagesToLoad, clock.nanos() );
+        Batches batches = new Batches( files.iterator() );
+        JobMonitoringParams reporterParams = new JobMonitoringParams( null, databaseName, "Page cache warmup progress reporting" );
+        JobHandle<?> reporter = scheduler.scheduleRecurring( Group.PAGE_CACHE_WARMER, reporterParams, () -> reportProgress( progress ),
+                PROGRESS_REPORT_INTERVAL_SECONDS, PROGRESS_REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS );
+        try
+        {
+            CallableExecutor executor = scheduler.executor( Group.PAGE_CACHE_WARMER );
+            List<Future<Void>> workers = new ArrayList<>();
+            for ( int i = 0; i < parallelism; i++ )
+            {
+                workers.add( executor.submit( () ->
+                {
+                    loadBatches( batches, progress );
+                    return null;
+                } ) );
+            }
+            for ( Future<Void> worker : workers )
+            {
+                worker.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+        catch ( ExecutionException e )
+        {
+            throw new IOException( "Page cache warmup failed.", e.getCause() );
+        }
+        finally
+        {
+            reporter.cancel();
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis( clock.nanos() - progress.startNanos );
+        log.info( "Page cache warmup %s. Loaded %d pages in %s, at %d pages/s.", stopped ? "stopped" : "completed", progress.loadedPages(),
+                duration( elapsedMillis ), progress.pagesPerSecond( clock.nanos() ) );
+        return progress.loadedPages();
+    }
+
+    private void reportProgress( Progress progress )
+    {
+        long loadedPages = progress.loadedPages();
+        log.info( "Page cache warmup in progress. Loaded %d of %d pages (%d%%), at %d pages/s.", loadedPages, progress.totalPages,
+                loadedPages * 100 / progress.totalPages, progress.pagesPerSecond( clock.nanos() ) );
+    }
+
+    private void loadBatches( Batches batches, Progress progress ) throws IOException
+    {
+        try ( PageCursorTracer cursorTracer = pageCacheTracer.createPageCursorTracer( WARMUP_TAG ) )
+        {
+            Batch batch;
+            while ( !stopped && !progress.isComplete() && (batch = batches.next()) != null )
+            {
+                try
+                {
+                    loadBatch( batch, progress, cursorTracer );
+                }
+                catch ( FileIsNotMappedException e )
+                {
+                    // The file was unmapped while we were warming it up, so there is nothing more to load from it.
+                }
+            }
+        }
+    }
+
+    private void loadBatch( Batch batch, Progress progress, PageCursorTracer cursorTracer ) throws IOException
+    {
+        LongList ranges = batch.ranges;
+        try ( PageCursor cursor = batch.file.io( ranges.get( 0 ), PF_SHARED_READ_LOCK, cursorTracer ) )
+        {
+            for ( int i = 0; i < ranges.size(); i += 2 )
+            {
+                long end = ranges.get( i + 1 );
+                for ( long pageId = ranges.get( i ); pageId < end; pageId++ )
+                {
+                    if ( stopped || progress.isComplete() || !cursor.next( pageId ) )
+                    {
+                        // Either we are done, or the file has shrunk since it was profiled.
+                        return;
+                    }
+                    progress.pageLoaded();
+                }
+            }
+        }
+    }
+
+    /**
+     * The runs of pages to load from a file, as pairs of first page id, inclusive, and last page id, exclusive, in ascending order.
+     */
+    private static class FileRuns
+    {
+        private final PagedFile file;
+        private final LongList runs;
+
+        FileRuns( PagedFile file, LongList runs )
+        {
+            this.file = file;
+            this.runs = runs;
+        }
+
+        long pages()
+        {
+            long pages = 0;
+            for ( int i = 0; i < runs.size(); i += 2 )
+            {
+                pages += runs.get( i + 1 ) - runs.get( i );
+            }
+            return pages;
+        }
+    }
+
+    /**
+     * A batch of at most {@link #BATCH_SIZE} pages from a single file, as ranges of page ids in the same form as {@link FileRuns}.
+     */
+    private static class Batch
+    {
+        private final PagedFile file;
+        private final LongList ranges;
+
+        Batch( PagedFile file, LongList ranges )
+        {
+            this.file = file;
+            this.ranges = ranges;
+        }
+    }
+
+    /**
+     * Hands out the batches to the warmup workers, one file at a time, in the order of the pages in the file.
+     */
+    private static class Batches
+    {
+        private final Iterator<FileRuns> files;
+        private FileRuns current;
+        private int runIndex;
+        private long nextPageId;
+
+        Batches( Iterator<FileRuns> files )
+        {
+            this.files = files;
+        }
+
+        synchronized Batch next()
+        {
+            while ( current == null || runIndex >= current.runs.size() )
+            {
+                if ( !files.hasNext() )
+                {
+                    return null;
+                }
+                current = files.next();
+                runIndex = 0;
+                nextPageId = current.runs.isEmpty() ? 0 : current.runs.get( 0 );
+            }
+
+            LongList runs = current.runs;
+            MutableLongList ranges = new LongArrayList();
+            long pages = 0;
+            while ( runIndex < runs.size() && pages < BATCH_SIZE )
+            {
+                long runEnd = runs.get( runIndex + 1 );
+                long end = Math.min( runEnd, nextPageId + BATCH_SIZE - pages );
+                ranges.add( nextPageId );
+                ranges.add( end );
+                pages += end - nextPageId;
+                if ( end == runEnd )
+                {
+                    runIndex += 2;
+                    nextPageId = runIndex < runs.size() ? runs.get( runIndex ) : 0;
+                }
+                else
+                {
+                    nextPageId = end;
+                }
+            }
+            return new Batch( current.file, ranges );
+        }
+    }
+
+    private static class Progress
+    {
+        private final long totalPages;
+        private final long startNanos;
+        private final AtomicLong loadedPages = new AtomicLong();
+
+        Progress( long totalPages, long startNanos )
+        {
+            this.totalPages = totalPages;
+            this.startNanos = startNanos;
+        }
+
+        void pageLoaded()
+        {
+            loadedPages.incrementAndGet();
+        }
+
+        long loadedPages()
+        {
+            return loadedPages.get();
+        }
+
+        boolean isComplete()
+        {
+            return loadedPages.get() >= totalPages;
+        }
+
+        long pagesPerSecond( long nowNanos )
+        {
+            long elapsedNanos = Math.max( nowNanos - startNanos, 1 );
+            return loadedPages.get() * TimeUnit.SECONDS.toNanos( 1 ) / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_blocking;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_builtin_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_whitelist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+
+/**
+ * Warms up the page cache with the {@link PageCacheWarmer} when the database starts, and then periodically profiles the page cache, so the
+ * next start can warm up from an up-to-date profile.
+ * <p>
+ * The warmup either runs in the background while the database accepts traffic, or, if configured to block, before the database becomes available.
+ * Profiling only starts once the warmup is done, so a profile is never overwritten by the profile of a page cache that is only partially warm.
+ * <p>
+ * It only runs when enabled by {@code unsupported.dbms.memory.pagecache.warmup.builtin.enabled}, so it does not run next to the warmer of another edition.
+ */
+public class PageCacheWarmerLifecycle extends LifecycleAdapter
+{
+    private final PageCacheWarmer warmer;
+    private final JobScheduler scheduler;
+    private final Config config;
+    private final Log log;
+    private final String databaseName;
+    private final boolean readOnly;
+    private final Lock profileLock = new ReentrantLock();
+    private volatile boolean started;
+    private JobHandle<?> warmupJob = JobHandle.EMPTY;
+    private JobHandle<?> profileJob = JobHandle.EMPTY;
+
+    public PageCacheWarmerLifecycle( PageCacheWarmer warmer, JobScheduler scheduler, Config config, Log log, String databaseName, boolean readOnly )
+    {
+        this.warmer = warmer;
+        this.scheduler = scheduler;
+        this.config = config;
+        this.log = log;
+        this.databaseName = databaseName;
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public void start()
+    {
+        if ( !config.get( pagecache_warmup_builtin_enabled ) || !config.get( pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        synchronized ( this )
+        {
+            started = true;
+            warmer.start();
+        }
+        if ( config.get( pagecache_warmup_blocking ) )
+        {
+            warmupAndStartProfiling();
+        }
+        else
+        {
+            JobMonitoringParams params = new JobMonitoringParams( null, databaseName, "Page cache warmup" );
+            synchronized ( this )
+            {
+                warmupJob = scheduler.schedule( Group.PAGE_CACHE_WARMER, params, this::warmupAndStartProfiling );
+            }
+        }
+    }
+
+    @Override
+    public void stop() throws Exception
+    {
+        JobHandle<?> warmup;
+        synchronized ( this )
+        {
+            if ( !started )
+            {
+                return;
+            }
+            started = false;
+            warmer.stop();
+            profileJob.cancel();
+            warmup = warmupJob;
+            warmupJob = JobHandle.EMPTY;
+            profileJob = JobHandle.EMPTY;
+        }
+        // The warmer has been stopped, so an ongoing warmup finishes quickly. Wait for it, so it does not race with the unmapping of the files.
+        try
+        {
+            warmup.waitTermination();
+        }
+        catch ( Exception e )
+        {
+            log.debug( "Page cache warmup ended with an exception.", e );
+        }
+        // Cancelling the profiling job does not wait for a run that is already in progress, so wait for it here, for the same reason.
+        profileLock.lock();
+        profileLock.unlock();
+    }
+
+    private void warmupAndStartProfiling()
+    {
+        boolean preload = config.get( pagecache_warmup_prefetch );
+        try
+        {
+            if ( preload )
+            {
+                warmer.preload( Pattern.compile( config.get( pagecache_warmup_prefetch_whitelist ) ) );
+            }
+            else
+            {
+                warmer.reheat();
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache warmup failed.", e );
+        }
+        // Preloading replaces the warmup from profiles, so there is no need to profile either.
+        if ( !preload && !readOnly )
+        {
+            startProfiling();
+        }
+    }
+
+    private synchronized void startProfiling()
+    {
+        if ( !started )
+        {
+            return;
+        }
+        long intervalMillis = config.get( pagecache_warmup_profiling_interval ).toMillis();
+        JobMonitoringParams params = new JobMonitoringParams( null, databaseName, "Page cache profiling" );
+        profileJob = scheduler.scheduleRecurring( Group.PAGE_CACHE_WARMER, params, this::profile, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS );
+    }
+
+    private void profile()
+    {
+        profileLock.lock();
+        try
+        {
+            if ( started )
+            {
+                warmer.profile();
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache profiling failed.", e );
+        }
+        finally
+        {
+            profileLock.unlock();
+        }
+    }
+}
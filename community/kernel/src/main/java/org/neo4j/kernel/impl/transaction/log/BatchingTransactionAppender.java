@@ -23,6 +23,7 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
@@ -30,6 +31,7 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompression;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -45,6 +47,7 @@ import org.neo4j.monitoring.Health;
 import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.util.VisibleForTesting;
 
+import static java.lang.Math.min;
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
 
 /**
@@ -53,7 +56,11 @@ import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SP
  */
 public class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender
 {
+    private static final long COMMIT_DELAY_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 10 );
+
     private final AtomicReference<ThreadLink> threadLinkHead = new AtomicReference<>( ThreadLink.END );
+    // Committers which are appending to the log, but have not yet started to wait for it to be forced
+    private final AtomicInteger arrivingCommitters = new AtomicInteger();
     private final TransactionMetadataCache transactionMetadataCache;
     private final LogFile logFile;
     private final LogRotation logRotation;
@@ -61,6 +68,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final Health databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    private final LogEntryCompression commandCompression;
+    private final CommitDelay commitDelay;
 
     private FlushablePositionAwareChecksumChannel writer;
     private TransactionLogWriter transactionLogWriter;
@@ -68,6 +77,25 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
 
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore, Health databaseHealth )
+    {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth, (LogEntryCompression) null );
+    }
+
+    /**
+     * @param commandCompression codec to compress the commands of appended transactions with, or {@code null} to append them uncompressed.
+     */
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, Health databaseHealth, LogEntryCompression commandCompression )
+    {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, databaseHealth, commandCompression, CommitDelay.NO_DELAY );
+    }
+
+    /**
+     * @param commandCompression codec to compress the commands of appended transactions with, or {@code null} to append them uncompressed.
+     * @param commitDelay policy for delaying forces of the log, so that more transactions are made durable by each force.
+     */
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation, TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, Health databaseHealth, LogEntryCompression commandCompression, CommitDelay commitDelay )
     {
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
@@ -75,6 +103,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
         this.previousChecksum = transactionIdStore.getLastCommittedTransaction().checksum();
+        this.commandCompression = commandCompression;
+        this.commitDelay = commitDelay;
     }
 
     @VisibleForTesting
@@ -87,13 +117,15 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
         this.previousChecksum = previousChecksum;
+        this.commandCompression = null;
+        this.commitDelay = CommitDelay.NO_DELAY;
     }
 
     @Override
     public void start()
     {
         this.writer = logFile.getWriter();
-        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer ) );
+        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer, commandCompression ) );
     }
 
     @Override
@@ -101,40 +133,50 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     {
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+        int transactions = 0;
+        arrivingCommitters.incrementAndGet();
         // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        try
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
-            try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+            synchronized ( logFile )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy( IOException.class );
+                try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
                 {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum );
-                    previousChecksum = commitment.getTransactionChecksum();
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+                    // Append all transactions in this batch to the log under the same logFile monitor
+                    TransactionToApply tx = batch;
+                    while ( tx != null )
+                    {
+                        long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                        // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                        // id have already been generated by another entity we simply check that our id
+                        // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                        // really recover from and would point to a bug somewhere.
+                        matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+                        TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum );
+                        previousChecksum = commitment.getTransactionChecksum();
+                        tx.commitment( commitment, transactionId );
+                        tx.logPosition( commitment.logPosition() );
+                        tx = tx.next();
+                        lastTransactionId = transactionId;
+                        transactions++;
+                    }
                 }
             }
         }
+        finally
+        {
+            arrivingCommitters.decrementAndGet();
+        }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
         // piggy-back on another force, but anyway after this call below we can be sure that all our transactions
         // in this batch exist durably on disk.
-        if ( forceAfterAppend( logAppendEvent ) )
+        if ( forceAfterAppend( logAppendEvent, transactions ) )
         {
             // We got lucky and were the one forcing the log. It's enough if ones of all doing concurrent committers
             // checks the need for log rotation.
@@ -185,7 +227,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
                 LogPosition logPositionBeforeCheckpoint = writer.getCurrentPosition( positionMarker ).newPosition();
                 transactionLogWriter.checkPoint( logPosition );
                 LogPosition logPositionAfterCheckpoint = writer.getCurrentPosition( positionMarker ).newPosition();
-                logCheckPointEvent.appendToLogFile( logPositionBeforeCheckpoint, logPositionAfterCheckpoint );
+                logCheckPointEvent.appendToLogFile( logPosition, logPositionBeforeCheckpoint, logPositionAfterCheckpoint );
             }
             catch ( Throwable cause )
             {
@@ -212,7 +254,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         try
         {
             LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
-            int checksum = transactionLogWriter.append( transaction, transactionId, previousChecksum );
+            int checksum = transactionLogWriter.append( transaction, transactionId, previousChecksum, logAppendEvent );
             LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
             logAppendEvent.appendToLogFile( logPositionBeforeCommit, logPositionAfterCommit );
 
@@ -235,10 +277,15 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
      * @return {@code true} if we got lucky and were the ones forcing the log.
      */
     protected boolean forceAfterAppend( LogForceEvents logForceEvents ) throws IOException
+    {
+        return forceAfterAppend( logForceEvents, 0 );
+    }
+
+    private boolean forceAfterAppend( LogForceEvents logForceEvents, int transactions ) throws IOException
     {
         // There's a benign race here, where we add our link before we update our next pointer.
         // This is okay, however, because unparkAll() spins when it sees a null next pointer.
-        ThreadLink threadLink = new ThreadLink( Thread.currentThread() );
+        ThreadLink threadLink = new ThreadLink( Thread.currentThread(), transactions );
         threadLink.next = threadLinkHead.getAndSet( threadLink );
         boolean attemptedForce = false;
 
@@ -286,10 +333,14 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
 
     private void forceLog( LogForceEvents logForceEvents ) throws IOException
     {
+        long delayNanos = delayForArrivingCommitters();
         ThreadLink links = threadLinkHead.getAndSet( ThreadLink.END );
         try ( LogForceEvent logForceEvent = logForceEvents.beginLogForce() )
         {
+            long forceStartNanos = System.nanoTime();
             force();
+            commitDelay.forced( System.nanoTime() - forceStartNanos );
+            logForceEvent.batch( countTransactions( links ), delayNanos );
         }
         catch ( final Throwable panic )
         {
@@ -302,6 +353,48 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         }
     }
 
+    /**
+     * Holds back the force, for as long as the {@link CommitDelay} allows, while other committers are still appending to the log,
+     * so that their transactions are made durable by this force rather than having to wait for the next one.
+     *
+     * @return the time spent waiting, in nanoseconds.
+     */
+    private long delayForArrivingCommitters()
+    {
+        long delayNanos = commitDelay.delayNanos( arrivingCommitters.get() );
+        if ( delayNanos == 0 )
+        {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + delayNanos;
+        long now = startNanos;
+        while ( arrivingCommitters.get() > 0 && now < deadline )
+        {
+            LockSupport.parkNanos( this, min( COMMIT_DELAY_PARK_NANOS, deadline - now ) );
+            now = System.nanoTime();
+        }
+        return now - startNanos;
+    }
+
+    private static int countTransactions( ThreadLink links )
+    {
+        int transactions = 0;
+        while ( links != ThreadLink.END )
+        {
+            transactions += links.transactions;
+            ThreadLink tmp;
+            do
+            {
+                // Spin because of the race:y update when consing, same as in unparkAll.
+                tmp = links.next;
+            }
+            while ( tmp == null );
+            links = tmp;
+        }
+        return transactions;
+    }
+
     private static void unparkAll( ThreadLink links )
     {
         do
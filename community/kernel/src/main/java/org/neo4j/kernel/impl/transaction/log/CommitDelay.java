@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.lang.Math.min;
+
+/**
+ * Group commit policy of {@link BatchingTransactionAppender}, deciding whether, and for how long, a force of the transaction log
+ * may be delayed so that transactions which are still being appended to the log can be made durable by the same force.
+ * This is similar to {@code commit_delay} and {@code commit_siblings} in PostgreSQL.
+ * <p>
+ * The delay is bounded by the configured maximum, and by the average duration of the recent forces: waiting for longer than a force
+ * takes does not pay off, since transactions arriving during a force are batched into the next force anyway.
+ */
+public class CommitDelay
+{
+    public static final CommitDelay NO_DELAY = new CommitDelay( 0, Integer.MAX_VALUE );
+
+    private final long maxDelayNanos;
+    private final int minArrivingCommitters;
+    private volatile long averageForceNanos;
+
+    /**
+     * @param maxDelayNanos longest time a force may be delayed, or {@code 0} to never delay forces.
+     * @param minArrivingCommitters least number of committers still appending to the log for a force to be delayed.
+     */
+    public CommitDelay( long maxDelayNanos, int minArrivingCommitters )
+    {
+        this.maxDelayNanos = maxDelayNanos;
+        this.minArrivingCommitters = minArrivingCommitters;
+    }
+
+    /**
+     * @param arrivingCommitters number of committers which are appending to the log, and have not yet started to wait for a force.
+     * @return how long the next force may be delayed, in nanoseconds, or {@code 0} if it should not be delayed.
+     */
+    long delayNanos( int arrivingCommitters )
+    {
+        if ( maxDelayNanos == 0 || arrivingCommitters < minArrivingCommitters )
+        {
+            return 0;
+        }
+        return min( maxDelayNanos, averageForceNanos );
+    }
+
+    /**
+     * Called by the one thread forcing the log after each force.
+     *
+     * @param forceNanos time the force took.
+     */
+    void forced( long forceNanos )
+    {
+        // exponentially weighted moving average, where each force weighs 1/8
+        long average = averageForceNanos;
+        averageForceNanos = average == 0 ? forceNanos : average + ((forceNanos - average) >> 3);
+    }
+}
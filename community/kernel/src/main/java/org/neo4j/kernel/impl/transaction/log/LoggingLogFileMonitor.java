@@ -47,13 +47,21 @@ public class LoggingLogFileMonitor implements RecoveryMonitor, RecoveryStartInfo
         log.info( "Recovery required from position " + startPosition );
     }
 
+    @Override
+    public void recoveryThroughput( long lastRecoveredTxId, int numberOfRecoveredTransactions, long transactionsPerSecond )
+    {
+        log.info( format( "Recovery in progress. %d transactions, last:%d recovered, throughput: %d transactions/s",
+                numberOfRecoveredTransactions, lastRecoveredTxId, transactionsPerSecond ) );
+    }
+
     @Override
     public void recoveryCompleted( int numberOfRecoveredTransactions, long recoveryTimeInMilliseconds )
     {
         if ( numberOfRecoveredTransactions != 0 )
         {
-            log.info( format( "Recovery completed. %d transactions, first:%d, last:%d recovered, time spent: %s", numberOfRecoveredTransactions,
-                    firstTransactionRecovered, lastTransactionRecovered, duration( recoveryTimeInMilliseconds ) ) );
+            log.info( format( "Recovery completed. %d transactions, first:%d, last:%d recovered, time spent: %s, throughput: %d transactions/s",
+                    numberOfRecoveredTransactions, firstTransactionRecovered, lastTransactionRecovered, duration( recoveryTimeInMilliseconds ),
+                    numberOfRecoveredTransactions * 1000L / Math.max( recoveryTimeInMilliseconds, 1 ) ) );
         }
         else
         {
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.zip.Checksum;
+
+import org.neo4j.function.ThrowingPredicate;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.ChecksumMismatchException;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.memory.MemoryTracker;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.neo4j.io.fs.ChecksumWriter.CHECKSUM_FACTORY;
+import static org.neo4j.io.fs.PhysicalFlushableChecksumChannel.DISABLE_WAL_CHECKSUM;
+
+/**
+ * {@link ReadableLogChannel} which reads sealed log files, i.e. log files which are no longer appended to, by mapping them
+ * into memory rather than by copying their content through a read-ahead buffer like {@link ReadAheadLogChannel} does.
+ * Once a log file is mapped, reading from it, and moving around in it, does not need any system calls.
+ * <p>
+ * When the {@link LogVersionBridge} moves on to a log file which is not sealed, the rest of the log stream is read through
+ * a {@link ReadAheadLogChannel} instead, since a mapping would not see what is appended to the file after it was mapped.
+ * Log entries never span log files, so unlike {@link ReadAheadLogChannel} this channel does not support reading a single value
+ * which starts in one log file and ends in the next.
+ */
+public class MappedLogChannel implements PositionableLogChannel
+{
+    private final LogVersionBridge bridge;
+    private final ThrowingPredicate<PhysicalLogVersionedStoreChannel,IOException> sealed;
+    private final MemoryTracker memoryTracker;
+    private final Checksum checksum;
+    private PhysicalLogVersionedStoreChannel channel;
+    private MappedByteBuffer buffer;
+    private ByteBuffer checksumView;
+    private int checksumStart;
+    private ReadAheadLogChannel unsealedReader;
+
+    /**
+     * @param startingChannel sealed log file to start reading from, at its current position.
+     * @param bridge moves the reader on to the next log file when the current one is exhausted.
+     * @param sealed tells whether a log file is sealed, and can be mapped.
+     * @param memoryTracker tracker of the read-ahead buffer used for log files which are not sealed.
+     */
+    public MappedLogChannel( PhysicalLogVersionedStoreChannel startingChannel, LogVersionBridge bridge,
+            ThrowingPredicate<PhysicalLogVersionedStoreChannel,IOException> sealed, MemoryTracker memoryTracker ) throws IOException
+    {
+        this.bridge = bridge;
+        this.sealed = sealed;
+        this.memoryTracker = memoryTracker;
+        this.checksum = CHECKSUM_FACTORY.get();
+        this.channel = startingChannel;
+        map( startingChannel );
+    }
+
+    /**
+     * @param channel log file to check.
+     * @return whether the whole of the given log file can be mapped by a {@link MappedLogChannel}.
+     * @throws IOException on I/O error.
+     */
+    public static boolean canMap( PhysicalLogVersionedStoreChannel channel ) throws IOException
+    {
+        return channel.size() <= Integer.MAX_VALUE;
+    }
+
+    private void map( PhysicalLogVersionedStoreChannel channel ) throws IOException
+    {
+        try ( FileChannel fileChannel = FileChannel.open( channel.getFile().toPath(), READ ) )
+        {
+            buffer = fileChannel.map( FileChannel.MapMode.READ_ONLY, 0, fileChannel.size() );
+        }
+        buffer.position( toIntExact( min( channel.position(), buffer.limit() ) ) );
+        checksumView = buffer.duplicate();
+        checksumStart = buffer.position();
+    }
+
+    private void unmap()
+    {
+        if ( buffer != null )
+        {
+            checksumView = null;
+            UnsafeUtil.invokeCleaner( buffer );
+            buffer = null;
+        }
+    }
+
+    @Override
+    public long getVersion()
+    {
+        return unsealedReader != null ? unsealedReader.getVersion() : channel.getVersion();
+    }
+
+    @Override
+    public byte getLogFormatVersion()
+    {
+        return unsealedReader != null ? unsealedReader.getLogFormatVersion() : channel.getLogFormatVersion();
+    }
+
+    @Override
+    public LogPositionMarker getCurrentPosition( LogPositionMarker positionMarker ) throws IOException
+    {
+        if ( unsealedReader != null )
+        {
+            return unsealedReader.getCurrentPosition( positionMarker );
+        }
+        positionMarker.mark( channel.getVersion(), buffer.position() );
+        return positionMarker;
+    }
+
+    @Override
+    public long position() throws IOException
+    {
+        return unsealedReader != null ? unsealedReader.position() : buffer.position();
+    }
+
+    @Override
+    public void setCurrentPosition( long byteOffset ) throws IOException
+    {
+        if ( unsealedReader != null )
+        {
+            unsealedReader.setCurrentPosition( byteOffset );
+            return;
+        }
+        buffer.position( toIntExact( min( byteOffset, buffer.limit() ) ) );
+        beginChecksum();
+    }
+
+    @Override
+    public byte get() throws IOException
+    {
+        if ( ensureDataExists( Byte.BYTES ) )
+        {
+            return buffer.get();
+        }
+        return unsealedReader.get();
+    }
+
+    @Override
+    public short getShort() throws IOException
+    {
+        if ( ensureDataExists( Short.BYTES ) )
+        {
+            return buffer.getShort();
+        }
+        return unsealedReader.getShort();
+    }
+
+    @Override
+    public int getInt() throws IOException
+    {
+        if ( ensureDataExists( Integer.BYTES ) )
+        {
+            return buffer.getInt();
+        }
+        return unsealedReader.getInt();
+    }
+
+    @Override
+    public long getLong() throws IOException
+    {
+        if ( ensureDataExists( Long.BYTES ) )
+        {
+            return buffer.getLong();
+        }
+        return unsealedReader.getLong();
+    }
+
+    @Override
+    public float getFloat() throws IOException
+    {
+        if ( ensureDataExists( Float.BYTES ) )
+        {
+            return buffer.getFloat();
+        }
+        return unsealedReader.getFloat();
+    }
+
+    @Override
+    public double getDouble() throws IOException
+    {
+        if ( ensureDataExists( Double.BYTES ) )
+        {
+            return buffer.getDouble();
+        }
+        return unsealedReader.getDouble();
+    }
+
+    @Override
+    public void get( byte[] bytes, int length ) throws IOException
+    {
+        assert length <= bytes.length;
+        if ( ensureDataExists( length ) )
+        {
+            buffer.get( bytes, 0, length );
+        }
+        else
+        {
+            unsealedReader.get( bytes, length );
+        }
+    }
+
+    @Override
+    public int endChecksumAndValidate() throws IOException
+    {
+        if ( !ensureDataExists( Integer.BYTES ) )
+        {
+            return unsealedReader.endChecksumAndValidate();
+        }
+
+        if ( DISABLE_WAL_CHECKSUM )
+        {
+            buffer.getInt();
+            return 0xDEAD5EED;
+        }
+
+        updateChecksum();
+        int calculatedChecksum = (int) checksum.getValue();
+        int checksum = buffer.getInt();
+        if ( calculatedChecksum != checksum )
+        {
+            throw new ChecksumMismatchException( checksum, calculatedChecksum );
+        }
+        beginChecksum();
+
+        return calculatedChecksum;
+    }
+
+    @Override
+    public void beginChecksum()
+    {
+        if ( unsealedReader != null )
+        {
+            unsealedReader.beginChecksum();
+            return;
+        }
+        if ( DISABLE_WAL_CHECKSUM )
+        {
+            return;
+        }
+        checksum.reset();
+        checksumStart = buffer.position();
+    }
+
+    private void updateChecksum()
+    {
+        checksumView.limit( buffer.position() );
+        checksumView.position( checksumStart );
+        checksum.update( checksumView );
+        checksumStart = buffer.position();
+    }
+
+    /**
+     * @return {@code true} if the requested bytes can be read from the mapped log file, or {@code false} if they are to be read
+     * from the {@link #unsealedReader}.
+     */
+    private boolean ensureDataExists( int requestedNumberOfBytes ) throws IOException
+    {
+        if ( unsealedReader != null )
+        {
+            return false;
+        }
+        if ( buffer == null )
+        {
+            throw new ClosedChannelException();
+        }
+        if ( buffer.remaining() >= requestedNumberOfBytes )
+        {
+            return true;
+        }
+
+        if ( !buffer.hasRemaining() )
+        {
+            PhysicalLogVersionedStoreChannel nextChannel = (PhysicalLogVersionedStoreChannel) bridge.next( channel );
+            if ( nextChannel != channel )
+            {
+                updateChecksum();
+                unmap();
+                channel = nextChannel;
+                if ( !sealed.test( nextChannel ) )
+                {
+                    unsealedReader = new ReadAheadLogChannel( nextChannel, bridge, memoryTracker );
+                    return false;
+                }
+                map( nextChannel );
+                return ensureDataExists( requestedNumberOfBytes );
+            }
+        }
+        throw ReadPastEndException.INSTANCE;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        unmap();
+        if ( unsealedReader != null )
+        {
+            unsealedReader.close();
+        }
+        else if ( channel != null )
+        {
+            channel.close();
+        }
+        channel = null;
+    }
+}
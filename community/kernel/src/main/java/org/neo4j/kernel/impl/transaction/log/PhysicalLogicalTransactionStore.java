@@ -33,6 +33,7 @@ import org.neo4j.kernel.impl.transaction.log.files.LogHeaderVisitor;
 import org.neo4j.kernel.impl.transaction.log.reverse.ReversedMultiFileTransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.reverse.ReversedTransactionCursorMonitor;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.storageengine.api.CommandReaderFactory;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_START;
@@ -75,6 +76,27 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
 
     @Override
     public TransactionCursor getTransactions( final long transactionIdToStartFrom ) throws IOException
+    {
+        return new PhysicalTransactionCursor( getReader( transactionIdToStartFrom ), logEntryReader );
+    }
+
+    /**
+     * Acquires a {@link RawTransactionCursor cursor} which will provide the serialized form of committed transactions,
+     * starting from the specified {@code transactionIdToStartFrom}, without deserializing them.
+     *
+     * @param transactionIdToStartFrom id of the first transaction that the cursor will return.
+     * @param commandReaderFactory reader of the commands which are not written in a self-delimiting way.
+     * @return a {@link RawTransactionCursor} over committed transactions, starting from the specified {@code transactionIdToStartFrom}.
+     * @throws NoSuchTransactionException if the requested transaction hasn't been committed,
+     * or if the transaction has been committed, but information about it is no longer available for some reason.
+     * @throws IOException if there was an I/O related error looking for the start transaction.
+     */
+    public RawTransactionCursor getRawTransactions( long transactionIdToStartFrom, CommandReaderFactory commandReaderFactory ) throws IOException
+    {
+        return new PhysicalRawTransactionCursor( getReader( transactionIdToStartFrom ), commandReaderFactory );
+    }
+
+    private ReadableLogChannel getReader( long transactionIdToStartFrom ) throws IOException
     {
         // look up in position cache
         try
@@ -84,8 +106,7 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             if ( transactionMetadata != null )
             {
                 // we're good
-                ReadableLogChannel channel = logFile.getReader( transactionMetadata.getStartPosition() );
-                return new PhysicalTransactionCursor( channel, logEntryReader );
+                return logFile.getReader( transactionMetadata.getStartPosition() );
             }
 
             // ask logFiles about the version it may be in
@@ -96,7 +117,7 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             TransactionPositionLocator transactionPositionLocator = new TransactionPositionLocator( transactionIdToStartFrom, logEntryReader );
             logFile.accept( transactionPositionLocator, headerVisitor.getLogPosition() );
             LogPosition position = transactionPositionLocator.getAndCacheFoundLogPosition( transactionMetadataCache );
-            return new PhysicalTransactionCursor( logFile.getReader( position ), logEntryReader );
+            return logFile.getReader( position );
         }
         catch ( FileNotFoundException e )
         {
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.fs.ReadableChannel;
+import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+
+import static java.lang.Integer.BYTES;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.CHECK_POINT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMMAND;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_START;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion.LATEST;
+
+/**
+ * {@link RawTransactionCursor} which copies the bytes of each transaction straight from a log channel into a buffer that is reused
+ * between transactions. Entries are walked using their lengths rather than deserialized, so start, commit and compressed command entries
+ * cost no allocation. Uncompressed command entries carry no length of their own, which is why those still have to be read by the
+ * {@link CommandReader} to find where they end.
+ */
+public class PhysicalRawTransactionCursor implements RawTransactionCursor
+{
+    private static final int START_ENTRY_FIXED_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int COMPRESSED_COMMANDS_FIXED_SIZE = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int COMMIT_ENTRY_SIZE = Long.BYTES + Long.BYTES;
+    private static final int CHECK_POINT_SIZE = Long.BYTES + Long.BYTES;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final ReadableClosablePositionAwareChecksumChannel channel;
+    private final CommandReader commandReader;
+    private final ReadableChannel recordingChannel = new RecordingChannel();
+    private final LogPositionMarker startPositionMarker = new LogPositionMarker();
+    private byte[] bytes;
+    private byte[] scratch;
+    private ByteBuffer buffer;
+    private int size;
+    private long transactionId;
+    private int checksum;
+
+    public PhysicalRawTransactionCursor( ReadableClosablePositionAwareChecksumChannel channel, CommandReaderFactory commandReaderFactory )
+    {
+        this.channel = channel;
+        this.commandReader = commandReaderFactory.get( LATEST.version() );
+        this.bytes = new byte[INITIAL_BUFFER_SIZE];
+        this.scratch = new byte[INITIAL_BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap( bytes );
+        channel.beginChecksum();
+    }
+
+    @Override
+    public boolean next() throws IOException
+    {
+        try
+        {
+            while ( true )
+            {
+                size = 0;
+                buffer.clear();
+                channel.getCurrentPosition( startPositionMarker );
+                byte type = readEntryHeader();
+                if ( type == 0 )
+                {
+                    // we reached the end of the records in a pre-allocated file
+                    return false;
+                }
+                if ( type == CHECK_POINT )
+                {
+                    readFully( CHECK_POINT_SIZE );
+                    channel.endChecksumAndValidate();
+                    continue;
+                }
+                if ( type != TX_START )
+                {
+                    throw new IOException( "Expected start entry at " + startPositionMarker.newPosition() + ", but found entry of type " + type );
+                }
+                readFully( START_ENTRY_FIXED_SIZE );
+                readFully( readInt() );
+                return readUntilCommitEntry();
+            }
+        }
+        catch ( ReadPastEndException e )
+        {
+            // the last transaction has not been fully written yet
+            return false;
+        }
+    }
+
+    private boolean readUntilCommitEntry() throws IOException
+    {
+        while ( true )
+        {
+            byte type = readEntryHeader();
+            switch ( type )
+            {
+            case COMMAND:
+                if ( commandReader.read( recordingChannel ) == null )
+                {
+                    return false;
+                }
+                break;
+            case COMPRESSED_COMMANDS:
+                readFully( COMPRESSED_COMMANDS_FIXED_SIZE );
+                readFully( readInt() );
+                break;
+            case TX_COMMIT:
+                readFully( COMMIT_ENTRY_SIZE );
+                transactionId = buffer.getLong( size - COMMIT_ENTRY_SIZE );
+                checksum = channel.endChecksumAndValidate();
+                ensureCapacity( BYTES );
+                buffer.putInt( size, checksum );
+                size += BYTES;
+                return true;
+            default:
+                throw new IOException( "Unexpected entry of type " + type + " in transaction starting at " + startPositionMarker.newPosition() );
+            }
+        }
+    }
+
+    /**
+     * @return type of the entry, or {@code 0} if there are no more entries.
+     */
+    private byte readEntryHeader() throws IOException
+    {
+        byte version = readByte();
+        if ( version == 0 )
+        {
+            return 0;
+        }
+        if ( version != LATEST.version() )
+        {
+            throw new IOException( "Unable to read raw transactions from log entries of version " + version + " at " + startPositionMarker.newPosition() +
+                    ", only version " + LATEST.version() + " is supported" );
+        }
+        return readByte();
+    }
+
+    private byte readByte() throws IOException
+    {
+        ensureCapacity( Byte.BYTES );
+        byte value = channel.get();
+        bytes[size++] = value;
+        return value;
+    }
+
+    private int readInt() throws IOException
+    {
+        readFully( BYTES );
+        return buffer.getInt( size - BYTES );
+    }
+
+    private void readFully( int length ) throws IOException
+    {
+        ensureCapacity( length );
+        // the channel can only read into the beginning of an array, so go through a reusable scratch array
+        if ( scratch.length < length )
+        {
+            scratch = new byte[Math.max( length, scratch.length * 2 )];
+        }
+        channel.get( scratch, length );
+        System.arraycopy( scratch, 0, bytes, size, length );
+        size += length;
+    }
+
+    private void ensureCapacity( int additional )
+    {
+        int required = size + additional;
+        if ( required > bytes.length )
+        {
+            byte[] grown = new byte[Math.max( required, bytes.length * 2 )];
+            System.arraycopy( bytes, 0, grown, 0, size );
+            bytes = grown;
+            buffer = ByteBuffer.wrap( bytes );
+        }
+    }
+
+    @Override
+    public ByteBuffer get()
+    {
+        buffer.clear();
+        buffer.limit( size );
+        return buffer;
+    }
+
+    @Override
+    public long transactionId()
+    {
+        return transactionId;
+    }
+
+    @Override
+    public int checksum()
+    {
+        return checksum;
+    }
+
+    @Override
+    public LogPosition position()
+    {
+        return startPositionMarker.newPosition();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /**
+     * Reads from the log channel on behalf of a {@link CommandReader}, keeping a copy of all bytes read in the transaction buffer.
+     */
+    private class RecordingChannel implements ReadableChannel
+    {
+        @Override
+        public byte get() throws IOException
+        {
+            return readByte();
+        }
+
+        @Override
+        public short getShort() throws IOException
+        {
+            readFully( Short.BYTES );
+            return buffer.getShort( size - Short.BYTES );
+        }
+
+        @Override
+        public int getInt() throws IOException
+        {
+            return readInt();
+        }
+
+        @Override
+        public long getLong() throws IOException
+        {
+            readFully( Long.BYTES );
+            return buffer.getLong( size - Long.BYTES );
+        }
+
+        @Override
+        public float getFloat() throws IOException
+        {
+            readFully( Float.BYTES );
+            return buffer.getFloat( size - Float.BYTES );
+        }
+
+        @Override
+        public double getDouble() throws IOException
+        {
+            readFully( Double.BYTES );
+            return buffer.getDouble( size - Double.BYTES );
+        }
+
+        @Override
+        public void get( byte[] bytes, int length ) throws IOException
+        {
+            readFully( length );
+            System.arraycopy( PhysicalRawTransactionCursor.this.bytes, size - length, bytes, 0, length );
+        }
+
+        @Override
+        public void close()
+        {
+            // the log channel is closed by the cursor
+        }
+    }
+}
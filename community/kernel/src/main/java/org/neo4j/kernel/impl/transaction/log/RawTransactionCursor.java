@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.cursor.IOCursor;
+
+/**
+ * Cursor over committed transactions in their serialized form, as they are laid out in the transaction log.
+ * This is useful for shipping transactions to another instance without having to deserialize and re-serialize them.
+ * <p>
+ * {@link #get()} returns the bytes of the current transaction, from the first byte of its start entry up to and including
+ * the checksum of its commit entry. The returned buffer is reused between transactions and is only valid until the next call
+ * to {@link #next()}.
+ */
+public interface RawTransactionCursor extends IOCursor<ByteBuffer>
+{
+    /**
+     * @return id of the current transaction.
+     */
+    long transactionId();
+
+    /**
+     * @return checksum of the current transaction, which has been validated against its bytes.
+     */
+    int checksum();
+
+    /**
+     * @return position of the start entry of the current transaction.
+     */
+    LogPosition position();
+}
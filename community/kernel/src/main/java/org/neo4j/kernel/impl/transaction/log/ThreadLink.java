@@ -24,12 +24,15 @@ import java.util.concurrent.locks.LockSupport;
 class ThreadLink
 {
     final Thread thread;
+    // Number of transactions this thread waits to have forced
+    final int transactions;
     volatile ThreadLink next;
     volatile boolean done;
 
-    ThreadLink( Thread thread )
+    ThreadLink( Thread thread, int transactions )
     {
         this.thread = thread;
+        this.transactions = transactions;
     }
 
     public void unpark()
@@ -37,7 +40,7 @@ class ThreadLink
         LockSupport.unpark( thread );
     }
 
-    static final ThreadLink END = new ThreadLink( null );
+    static final ThreadLink END = new ThreadLink( null, 0 );
 
     static
     {
@@ -23,6 +23,7 @@ import java.io.IOException;
 
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 
 public class TransactionLogWriter
 {
@@ -38,11 +39,20 @@ public class TransactionLogWriter
      * @return checksum of the transaction
      */
     public int append( TransactionRepresentation transaction, long transactionId, int previousChecksum ) throws IOException
+    {
+        return append( transaction, transactionId, previousChecksum, LogAppendEvent.NULL );
+    }
+
+    /**
+     * Append a transaction to the transaction log file
+     * @return checksum of the transaction
+     */
+    public int append( TransactionRepresentation transaction, long transactionId, int previousChecksum, LogAppendEvent logAppendEvent ) throws IOException
     {
         writer.writeStartEntry( transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(), previousChecksum, transaction.additionalHeader() );
 
         // Write all the commands to the log channel
-        writer.serialize( transaction );
+        writer.serialize( transaction, logAppendEvent );
 
         // Write commit record
         return writer.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
@@ -26,10 +26,12 @@ import java.util.stream.Stream;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.impl.transaction.stats.RecoveryTimeCounters;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.time.SystemNanoClock;
 
 import static org.neo4j.configuration.GraphDatabaseSettings.check_point_policy;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_recovery_time_target;
 
 
 /**
@@ -95,6 +97,17 @@ public interface CheckPointThreshold
         return policy.createThreshold( config, clock, logPruning, logProvider );
     }
 
+    /**
+     * Create and configure a {@link CheckPointThreshold} based on the given configurations, that also triggers when the
+     * estimated recovery time reaches the configured recovery time target, if any.
+     */
+    static CheckPointThreshold createThreshold(
+            Config config, SystemNanoClock clock, LogPruning logPruning, LogProvider logProvider, RecoveryTimeCounters recoveryTimeCounters )
+    {
+        return or( createThreshold( config, clock, logPruning, logProvider ),
+                new RecoveryTimeCheckPointThreshold( recoveryTimeCounters, config.get( check_point_recovery_time_target ) ) );
+    }
+
     /**
      * Create a new {@link CheckPointThreshold} which will trigger if any of the given thresholds triggers.
      */
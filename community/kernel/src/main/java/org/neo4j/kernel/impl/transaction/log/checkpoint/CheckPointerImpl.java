@@ -55,6 +55,7 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
     private final Log msgLog;
     private final DatabaseTracers tracers;
     private final StoreCopyCheckPointMutex mutex;
+    private final IncrementalFlusher incrementalFlusher;
 
     private volatile long lastCheckPointedTx;
 
@@ -69,6 +70,26 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
             DatabaseTracers tracers,
             IOLimiter ioLimiter,
             StoreCopyCheckPointMutex mutex )
+    {
+        this( transactionIdStore, threshold, forceOperation, logPruning, appender, databaseHealth, logProvider, tracers, ioLimiter, mutex, null );
+    }
+
+    /**
+     * @param incrementalFlusher flushes dirty pages in between check-points, which is told about every completed check-point,
+     * or {@code null} if there is none.
+     */
+    public CheckPointerImpl(
+            TransactionIdStore transactionIdStore,
+            CheckPointThreshold threshold,
+            ForceOperation forceOperation,
+            LogPruning logPruning,
+            TransactionAppender appender,
+            Health databaseHealth,
+            LogProvider logProvider,
+            DatabaseTracers tracers,
+            IOLimiter ioLimiter,
+            StoreCopyCheckPointMutex mutex,
+            IncrementalFlusher incrementalFlusher )
     {
         this.appender = appender;
         this.transactionIdStore = transactionIdStore;
@@ -80,6 +101,7 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
         this.msgLog = logProvider.getLog( CheckPointerImpl.class );
         this.tracers = tracers;
         this.mutex = mutex;
+        this.incrementalFlusher = incrementalFlusher;
     }
 
     @Override
@@ -187,7 +209,7 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
              */
             msgLog.info( prefix + " checkpoint started..." );
             Stopwatch startTime = Stopwatch.start();
-            forceOperation.flushAndForce( ioLimiter, cursorTracer );
+            forceOperation.flushAndForce( ioLimiter.checkPointLimiter(), cursorTracer );
             /*
              * Check kernel health before going to write the next check point.  In case of a panic this check point
              * will be aborted, which is the safest alternative so that the next recovery will have a chance to
@@ -196,6 +218,10 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer
             databaseHealth.assertHealthy( IOException.class );
             appender.checkPoint( logPosition, event );
             threshold.checkPointHappened( lastClosedTransactionId );
+            if ( incrementalFlusher != null )
+            {
+                incrementalFlusher.checkPointHappened();
+            }
             long durationMillis = startTime.elapsed( MILLISECONDS );
             msgLog.info( prefix + " checkpoint completed in " + duration( durationMillis ) );
             event.checkpointCompleted( durationMillis );
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import org.neo4j.function.Predicates;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Flushes the dirty pages of a database in the background, in between check-points, so that the check-point itself
+ * only has a small residue of dirty pages left to flush.
+ * <p>
+ * Every {@link #flush()} estimates how many pages were dirtied since the previous one, from how much the transaction
+ * log grew in the meantime, and flushes the page cache at a rate that would write that many pages over the same
+ * amount of time. This way the flushing keeps up with the write load, without competing with it in bursts.
+ * A flush that takes longer than the configured period is no longer limited, so it does not hold back the next
+ * check-point.
+ * <p>
+ * Flushes run as their own job, once every period, so they never hold up the check-point scheduler. The files are
+ * not forced to disk, the next check-point forces them along with whatever it flushes itself.
+ */
+public class IncrementalFlusher extends LifecycleAdapter
+{
+    static final int MIN_IOPS = 10;
+    static final int MAX_IOPS = 1_000_000;
+    /**
+     * Estimated number of store pages dirtied per page of transaction log. A transaction logs the before and after image
+     * of every record it changes, and the changed records of even a small transaction are spread over several stores and
+     * index trees, so a page of log typically touches more than one page of store files. This is not measured, but it
+     * only has to be in the right ballpark: estimating too many pages makes the flush finish early, and estimating too
+     * few leaves more pages for the check-point to flush.
+     */
+    static final int DIRTY_PAGES_PER_LOG_PAGE = 4;
+    private static final long QUANTUM_NANOS = MILLISECONDS.toNanos( 100 );
+    private static final int QUANTA_PER_SECOND = (int) (SECONDS.toNanos( 1 ) / QUANTUM_NANOS);
+
+    private final PageCache pageCache;
+    private final LongSupplier appendedLogBytes;
+    private final SystemNanoClock clock;
+    private final JobScheduler scheduler;
+    private final Log log;
+    private final long periodMillis;
+    private final long periodNanos;
+    private final IOLimiter limiter = new PacedLimiter();
+    private final Runnable job = this::flushAndReschedule;
+    private final BooleanSupplier notFlushing = () -> !flushing;
+
+    // All guarded by this.
+    private long lastLogBytes;
+    private long lastFlushNanos;
+    private int iops;
+    private long flushStart;
+    private long quantumStart;
+    private long quantumIOs;
+
+    private volatile JobHandle handle;
+    private volatile boolean stopped;
+    private volatile boolean flushing;
+
+    public IncrementalFlusher( PageCache pageCache, LongSupplier appendedLogBytes, SystemNanoClock clock, JobScheduler scheduler,
+            LogProvider logProvider, long periodMillis )
+    {
+        this.pageCache = pageCache;
+        this.appendedLogBytes = appendedLogBytes;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.log = logProvider.getLog( getClass() );
+        this.periodMillis = periodMillis;
+        this.periodNanos = MILLISECONDS.toNanos( periodMillis );
+        this.lastLogBytes = appendedLogBytes.getAsLong();
+        this.lastFlushNanos = clock.nanos();
+    }
+
+    @Override
+    public void start()
+    {
+        handle = scheduler.schedule( Group.CHECKPOINT, job, periodMillis, MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+        if ( handle != null )
+        {
+            handle.cancel();
+        }
+        // An ongoing flush is no longer limited once stopped, so this does not take long.
+        Predicates.awaitForever( notFlushing, 10, MILLISECONDS );
+    }
+
+    private void flushAndReschedule()
+    {
+        try
+        {
+            flushing = true;
+            if ( stopped )
+            {
+                return;
+            }
+            flush();
+        }
+        catch ( Throwable t )
+        {
+            // The next check-point flushes these pages anyway, and reports if it cannot.
+            log.warn( "Incremental flush of dirty pages failed", t );
+        }
+        finally
+        {
+            flushing = false;
+        }
+
+        if ( !stopped )
+        {
+            handle = scheduler.schedule( Group.CHECKPOINT, job, periodMillis, MILLISECONDS );
+        }
+    }
+
+    /**
+     * Flush the pages dirtied since the last flush or check-point, paced by the growth of the transaction log.
+     * Nothing is flushed if the log has not grown.
+     */
+    public void flush() throws IOException
+    {
+        synchronized ( this )
+        {
+            long now = clock.nanos();
+            long logBytes = appendedLogBytes.getAsLong();
+            long grownBytes = logBytes - lastLogBytes;
+            long elapsedNanos = Math.max( 1, now - lastFlushNanos );
+            lastLogBytes = logBytes;
+            lastFlushNanos = now;
+            if ( grownBytes <= 0 )
+            {
+                return;
+            }
+
+            long dirtyPages = Math.max( 1, grownBytes * DIRTY_PAGES_PER_LOG_PAGE / pageCache.pageSize() );
+            double pagesPerSecond = (double) dirtyPages * SECONDS.toNanos( 1 ) / elapsedNanos;
+            iops = (int) Math.max( MIN_IOPS, Math.min( MAX_IOPS, pagesPerSecond ) );
+            flushStart = now;
+            quantumStart = now;
+            quantumIOs = 0;
+        }
+        for ( PagedFile pagedFile : pageCache.listExistingMappings() )
+        {
+            pagedFile.flushWithoutForce( limiter );
+        }
+    }
+
+    /**
+     * Everything dirtied so far has been flushed by a check-point, so the next flush only needs to keep up with the
+     * log growth from here on.
+     */
+    public synchronized void checkPointHappened()
+    {
+        lastLogBytes = appendedLogBytes.getAsLong();
+        lastFlushNanos = clock.nanos();
+    }
+
+    /**
+     * @return the IO rate limit of the latest flush, in IOs per second.
+     */
+    synchronized int currentIopsLimit()
+    {
+        return iops;
+    }
+
+    /**
+     * Limits the IO of a flush to the rate of the flush in progress, across all the files it flushes. The rate is
+     * kept in the enclosing flusher rather than in the stamp, because the stamp starts over for every file.
+     */
+    private class PacedLimiter implements IOLimiter
+    {
+        @Override
+        public long maybeLimitIO( long previousStamp, int recentlyCompletedIOs, Flushable flushable )
+        {
+            long sleepNanos = 0;
+            synchronized ( IncrementalFlusher.this )
+            {
+                long now = clock.nanos();
+                if ( stopped || now - flushStart >= periodNanos )
+                {
+                    return previousStamp;
+                }
+                quantumIOs += recentlyCompletedIOs;
+                long elapsed = now - quantumStart;
+                if ( elapsed >= QUANTUM_NANOS )
+                {
+                    quantumStart = now;
+                    quantumIOs = 0;
+                }
+                else if ( quantumIOs >= Math.max( 1, iops / QUANTA_PER_SECOND ) )
+                {
+                    // We have used up the IO budget for this quantum, so wait for the next one.
+                    sleepNanos = QUANTUM_NANOS - elapsed;
+                }
+            }
+
+            if ( sleepNanos > 0 )
+            {
+                try
+                {
+                    Thread.sleep( sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000) );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return previousStamp;
+        }
+
+        @Override
+        public boolean isLimited()
+        {
+            return true;
+        }
+    }
+}
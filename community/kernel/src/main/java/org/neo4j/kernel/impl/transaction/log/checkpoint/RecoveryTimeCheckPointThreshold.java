@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.time.Duration;
+
+import org.neo4j.internal.helpers.Format;
+import org.neo4j.kernel.impl.transaction.stats.RecoveryTimeCounters;
+
+/**
+ * Triggers a check point when the {@link RecoveryTimeCounters#estimatedRecoveryTimeMillis() estimated recovery time} reaches the
+ * target recovery time. Without a target, this threshold never triggers.
+ */
+class RecoveryTimeCheckPointThreshold extends AbstractCheckPointThreshold
+{
+    private final RecoveryTimeCounters estimator;
+    private final long targetMillis;
+    private volatile long lastCheckPointedTransactionId;
+
+    RecoveryTimeCheckPointThreshold( RecoveryTimeCounters estimator, Duration target )
+    {
+        super( target == null ? "no recovery time target" : "recovery time target of " + Format.duration( target.toMillis() ) + " threshold" );
+        this.estimator = estimator;
+        this.targetMillis = target == null ? Long.MAX_VALUE : target.toMillis();
+    }
+
+    @Override
+    public void initialize( long transactionId )
+    {
+        lastCheckPointedTransactionId = transactionId;
+    }
+
+    @Override
+    protected boolean thresholdReached( long lastCommittedTransactionId )
+    {
+        return lastCommittedTransactionId > lastCheckPointedTransactionId && estimator.estimatedRecoveryTimeMillis() >= targetMillis;
+    }
+
+    @Override
+    protected String createCheckpointThresholdDescription( String description )
+    {
+        return description + " (estimated recovery time " + Format.duration( estimator.estimatedRecoveryTimeMillis() ) + ")";
+    }
+
+    @Override
+    public void checkPointHappened( long transactionId )
+    {
+        lastCheckPointedTransactionId = transactionId;
+    }
+
+    @Override
+    public long checkFrequencyMillis()
+    {
+        return targetMillis == Long.MAX_VALUE ? Long.MAX_VALUE : DEFAULT_CHECKING_FREQUENCY_MILLIS;
+    }
+}
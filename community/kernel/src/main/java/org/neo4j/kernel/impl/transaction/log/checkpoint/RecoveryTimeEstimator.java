@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.neo4j.kernel.impl.transaction.stats.RecoveryTimeCounters;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Estimates how long recovery would take if the database crashed now, from the amount of transaction log appended
+ * since the position of the last check point, and the rate at which batches of transactions have been applied to the
+ * store so far. Applying the transactions in the log to the store is the work recovery has to redo.
+ */
+public class RecoveryTimeEstimator implements RecoveryTimeCounters
+{
+    private final DatabaseTracer tracer;
+
+    public RecoveryTimeEstimator( DatabaseTracer tracer )
+    {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public long logBytesSinceLastCheckPoint()
+    {
+        return Math.max( 0, tracer.appendedBytes() - tracer.appendedBytesAtLastCheckPoint() );
+    }
+
+    @Override
+    public long replayThroughputBytesPerSecond()
+    {
+        long applyTimeNanos = tracer.storeApplyBatchAccumulatedTotalTimeNanos();
+        if ( applyTimeNanos <= 0 )
+        {
+            return 0;
+        }
+        return (long) ((double) tracer.appendedBytes() * SECONDS.toNanos( 1 ) / applyTimeNanos);
+    }
+
+    @Override
+    public long estimatedRecoveryTimeMillis()
+    {
+        long throughput = replayThroughputBytesPerSecond();
+        if ( throughput <= 0 )
+        {
+            return 0;
+        }
+        return (long) ((double) logBytesSinceLastCheckPoint() * SECONDS.toMillis( 1 ) / throughput);
+    }
+}
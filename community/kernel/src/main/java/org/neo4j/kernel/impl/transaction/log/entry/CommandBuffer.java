@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.neo4j.io.fs.WritableChannel;
+
+/**
+ * Growable heap buffer that the commands of a transaction are serialized into, before they are compressed.
+ * Not thread safe; it is reused for every transaction written by one {@link LogEntryWriter}.
+ */
+class CommandBuffer implements WritableChannel
+{
+    private static final int INITIAL_CAPACITY = 8192;
+    /**
+     * Buffers that grew beyond this size, because of a large transaction, are released again after use.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+
+    private ByteBuffer buffer = ByteBuffer.allocate( INITIAL_CAPACITY );
+
+    void clear()
+    {
+        if ( buffer.capacity() > MAX_RETAINED_CAPACITY )
+        {
+            buffer = ByteBuffer.allocate( INITIAL_CAPACITY );
+        }
+        buffer.clear();
+    }
+
+    int size()
+    {
+        return buffer.position();
+    }
+
+    byte[] array()
+    {
+        return buffer.array();
+    }
+
+    @Override
+    public WritableChannel put( byte value )
+    {
+        ensureCapacity( Byte.BYTES ).put( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putShort( short value )
+    {
+        ensureCapacity( Short.BYTES ).putShort( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putInt( int value )
+    {
+        ensureCapacity( Integer.BYTES ).putInt( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putLong( long value )
+    {
+        ensureCapacity( Long.BYTES ).putLong( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putFloat( float value )
+    {
+        ensureCapacity( Float.BYTES ).putFloat( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putDouble( double value )
+    {
+        ensureCapacity( Double.BYTES ).putDouble( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel put( byte[] value, int length )
+    {
+        ensureCapacity( length ).put( value, 0, length );
+        return this;
+    }
+
+    private ByteBuffer ensureCapacity( int bytes )
+    {
+        if ( buffer.remaining() < bytes )
+        {
+            int position = buffer.position();
+            int capacity = (int) Math.min( Integer.MAX_VALUE - 8, Math.max( 2L * buffer.capacity(), (long) position + bytes ) );
+            buffer = ByteBuffer.wrap( Arrays.copyOf( buffer.array(), capacity ) );
+            buffer.position( position );
+        }
+        return buffer;
+    }
+}
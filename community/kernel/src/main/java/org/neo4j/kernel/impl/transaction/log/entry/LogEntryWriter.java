@@ -28,26 +28,57 @@ import org.neo4j.io.fs.WritableChecksumChannel;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.storageengine.api.StorageCommand;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.CHECK_POINT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_START;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion.LATEST;
 
 public class LogEntryWriter
 {
+    /**
+     * Transactions with less command data than this are not worth compressing.
+     */
+    private static final int MIN_COMPRESSED_COMMANDS_SIZE = 512;
+
     protected final WritableChecksumChannel channel;
     private final Visitor<StorageCommand,IOException> serializer;
+    private final LogEntryCompression compression;
+    private final CommandBuffer commandBuffer;
+    private final Visitor<StorageCommand,IOException> bufferingSerializer;
+    private int bufferedCommands;
+    private byte[] compressedCommands = new byte[0];
 
     /**
      * Create a writer that uses {@link LogEntryVersion#LATEST} for versioning.
      * @param channel underlying channel
      */
     public LogEntryWriter( WritableChecksumChannel channel )
+    {
+        this( channel, null );
+    }
+
+    /**
+     * Create a writer that uses {@link LogEntryVersion#LATEST} for versioning, and compresses the commands of each transaction
+     * into a single {@link LogEntryTypeCodes#COMPRESSED_COMMANDS} entry.
+     * @param channel underlying channel
+     * @param compression codec to compress commands with, or {@code null} to write commands uncompressed
+     */
+    public LogEntryWriter( WritableChecksumChannel channel, LogEntryCompression compression )
     {
         this.channel = channel;
         this.serializer = new StorageCommandSerializer( channel );
+        this.compression = compression;
+        this.commandBuffer = compression == null ? null : new CommandBuffer();
+        this.bufferingSerializer = command ->
+        {
+            command.serialize( commandBuffer );
+            bufferedCommands++;
+            return false;
+        };
     }
 
     protected static void writeLogEntryHeader( byte type, WritableChannel channel ) throws IOException
@@ -88,7 +119,53 @@ public class LogEntryWriter
 
     public void serialize( TransactionRepresentation tx ) throws IOException
     {
-        tx.accept( serializer );
+        serialize( tx, LogAppendEvent.NULL );
+    }
+
+    public void serialize( TransactionRepresentation tx, LogAppendEvent logAppendEvent ) throws IOException
+    {
+        if ( compression == null || !writeCompressedCommands( tx, logAppendEvent ) )
+        {
+            tx.accept( serializer );
+        }
+    }
+
+    /**
+     * @return {@code true} if the commands were written as one compressed entry, or {@code false} if they are
+     * too small or too large, or do not compress well enough, and should be written uncompressed instead.
+     */
+    private boolean writeCompressedCommands( TransactionRepresentation tx, LogAppendEvent logAppendEvent ) throws IOException
+    {
+        commandBuffer.clear();
+        bufferedCommands = 0;
+        tx.accept( bufferingSerializer );
+        int uncompressedLength = commandBuffer.size();
+        if ( uncompressedLength < MIN_COMPRESSED_COMMANDS_SIZE || uncompressedLength > LogEntryCompression.MAX_UNCOMPRESSED_LENGTH )
+        {
+            return false;
+        }
+
+        long startNanos = System.nanoTime();
+        int maxCompressedLength = compression.maxCompressedLength( uncompressedLength );
+        if ( compressedCommands.length < maxCompressedLength )
+        {
+            compressedCommands = new byte[maxCompressedLength];
+        }
+        int compressedLength = compression.compress( commandBuffer.array(), uncompressedLength, compressedCommands );
+        boolean compressed = compressedLength < uncompressedLength;
+        logAppendEvent.compressCommands( uncompressedLength, compressed ? compressedLength : uncompressedLength, System.nanoTime() - startNanos );
+        if ( !compressed )
+        {
+            return false;
+        }
+
+        writeLogEntryHeader( COMPRESSED_COMMANDS, channel );
+        channel.put( compression.code() )
+                .putInt( bufferedCommands )
+                .putInt( uncompressedLength )
+                .putInt( compressedLength )
+                .put( compressedCommands, compressedLength );
+        return true;
     }
 
     public void serialize( CommittedTransactionRepresentation tx ) throws IOException
@@ -69,4 +69,10 @@ public interface LogFiles extends Lifecycle
     LogFileChannelNativeAccessor getChannelNativeAccessor();
 
     PhysicalLogVersionedStoreChannel createLogChannelForVersion( long versionUsed, LongSupplier lastCommittedTransactionId ) throws IOException;
+
+    /**
+     * Fill up the pool of zero-filled log files that log rotation takes new log files from, if log files are pooled. This writes whole
+     * log files, so it should be called off the commit path, e.g. after log pruning.
+     */
+    void fillLogFilePool();
 }
@@ -49,6 +49,8 @@ import org.neo4j.storageengine.api.StoreIdProvider;
 import org.neo4j.storageengine.api.TransactionIdStore;
 
 import static java.util.Objects.requireNonNull;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_memory_mapped_reads;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_recycle_pool_size;
 import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_rotation_threshold;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_logical_logs;
 
@@ -281,7 +283,17 @@ public class LogFilesBuilder
 
         return new TransactionLogFilesContext( rotationThreshold, tryPreallocateTransactionLogs, logEntryReader, lastCommittedIdSupplier,
                 committingTransactionIdSupplier, lastClosedTransactionPositionSupplier, logVersionRepositorySupplier, fileSystem,
-                logProvider, databaseTracers, storeIdSupplier, nativeAccess, memoryTracker );
+                logProvider, databaseTracers, storeIdSupplier, nativeAccess, memoryTracker, getRecyclePoolSize(),
+                config.get( transaction_log_memory_mapped_reads ) );
+    }
+
+    private int getRecyclePoolSize()
+    {
+        if ( readOnly )
+        {
+            return 0;
+        }
+        return config.get( transaction_log_recycle_pool_size );
     }
 
     private NativeAccess getNativeAccess()
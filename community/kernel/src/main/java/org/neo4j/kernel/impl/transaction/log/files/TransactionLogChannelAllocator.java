@@ -47,9 +47,16 @@ class TransactionLogChannelAllocator
     private final LogHeaderCache logHeaderCache;
     private final LogFileChannelNativeAccessor nativeChannelAccessor;
     private final DatabaseTracer databaseTracer;
+    private final TransactionLogFilePool filePool;
 
     TransactionLogChannelAllocator( TransactionLogFilesContext logFilesContext, TransactionLogFilesHelper fileHelper, LogHeaderCache logHeaderCache,
             LogFileChannelNativeAccessor nativeChannelAccessor )
+    {
+        this( logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor, null );
+    }
+
+    TransactionLogChannelAllocator( TransactionLogFilesContext logFilesContext, TransactionLogFilesHelper fileHelper, LogHeaderCache logHeaderCache,
+            LogFileChannelNativeAccessor nativeChannelAccessor, TransactionLogFilePool filePool )
     {
         this.logFilesContext = logFilesContext;
         this.fileSystem = logFilesContext.getFileSystem();
@@ -57,6 +64,7 @@ class TransactionLogChannelAllocator
         this.fileHelper = fileHelper;
         this.logHeaderCache = logHeaderCache;
         this.nativeChannelAccessor = nativeChannelAccessor;
+        this.filePool = filePool;
     }
 
     PhysicalLogVersionedStoreChannel createLogChannel( long version, LongSupplier lastCommittedTransactionId ) throws IOException
@@ -67,7 +75,8 @@ class TransactionLogChannelAllocator
         try ( var scopedBuffer = new HeapScopedBuffer( CURRENT_FORMAT_LOG_HEADER_SIZE, logFilesContext.getMemoryTracker() ) )
         {
             var buffer = scopedBuffer.getBuffer();
-            LogHeader header = readLogHeader( buffer, storeChannel, false, logFile );
+            // a recycled file only contains zeros, so it has no header yet
+            LogHeader header = allocatedFile.isRecycled() ? null : readLogHeader( buffer, storeChannel, false, logFile );
             if ( header == null )
             {
                 try ( LogFileCreateEvent ignored = databaseTracer.createLogFile() )
@@ -140,8 +149,9 @@ class TransactionLogChannelAllocator
     {
         File file = fileHelper.getLogFileForVersion( version );
         boolean fileExist = fileSystem.fileExists( file );
+        boolean recycled = !fileExist && filePool != null && filePool.allocate( file );
         StoreChannel storeChannel = fileSystem.write( file );
-        if ( fileExist )
+        if ( fileExist || recycled )
         {
             nativeChannelAccessor.adviseSequentialAccessAndKeepInCache( storeChannel, version );
         }
@@ -149,18 +159,20 @@ class TransactionLogChannelAllocator
         {
             nativeChannelAccessor.preallocateSpace( storeChannel, version );
         }
-        return new AllocatedFile( file, storeChannel );
+        return new AllocatedFile( file, storeChannel, recycled );
     }
 
     private static class AllocatedFile
     {
         private final File file;
         private final StoreChannel storeChannel;
+        private final boolean recycled;
 
-        AllocatedFile( File file, StoreChannel storeChannel )
+        AllocatedFile( File file, StoreChannel storeChannel, boolean recycled )
         {
             this.file = file;
             this.storeChannel = storeChannel;
+            this.recycled = recycled;
         }
 
         public File getFile()
@@ -172,6 +184,11 @@ class TransactionLogChannelAllocator
         {
             return storeChannel;
         }
+
+        public boolean isRecycled()
+        {
+            return recycled;
+        }
     }
 
 }
@@ -35,6 +35,7 @@ import org.neo4j.kernel.impl.transaction.log.FlushablePositionAwareChecksumChann
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PositionAwarePhysicalFlushableChecksumChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
@@ -48,6 +49,7 @@ import org.neo4j.storageengine.api.LogVersionRepository;
 
 import static java.lang.Math.min;
 import static java.lang.Runtime.getRuntime;
+import static org.neo4j.io.fs.FileSystemAbstraction.INVALID_FILE_DESCRIPTOR;
 
 /**
  * {@link LogFile} backed by one or more files in a {@link FileSystemAbstraction}.
@@ -279,9 +281,23 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
     {
         PhysicalLogVersionedStoreChannel logChannel = logFiles.openForVersion( position.getLogVersion() );
         logChannel.position( position.getByteOffset() );
+        if ( context.isMemoryMappedReads() && isSealed( logChannel ) )
+        {
+            return new MappedLogChannel( logChannel, logVersionBridge, this::isSealed, memoryTracker );
+        }
         return new ReadAheadLogChannel( logChannel, logVersionBridge, memoryTracker );
     }
 
+    /**
+     * @return whether the given log is one that is no longer appended to, and is a file that can be mapped into memory.
+     */
+    private boolean isSealed( PhysicalLogVersionedStoreChannel logChannel ) throws IOException
+    {
+        return logChannel.getVersion() < logFiles.getHighestLogVersion() &&
+                context.getFileSystem().getFileDescriptor( logChannel ) != INVALID_FILE_DESCRIPTOR &&
+                MappedLogChannel.canMap( logChannel );
+    }
+
     @Override
     public void accept( LogFileVisitor visitor, LogPosition startingFromPosition ) throws IOException
     {
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.HeapScopedBuffer;
+import org.neo4j.memory.MemoryTracker;
+
+import static java.util.regex.Pattern.compile;
+import static java.util.regex.Pattern.quote;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+/**
+ * A pool of zero-filled transaction log files, which log rotation can take over by renaming them, instead of allocating a new file.
+ * The pool is filled with new files off the commit path, see {@link #fill(long)}, so that log rotation does not have to wait for the file
+ * system to allocate the space of a new log file.
+ * <p>
+ * Pruned log files are never put back into the pool. They can still be open by readers of the transaction log, which must not see their
+ * contents change.
+ * <p>
+ * Pooled files live next to the transaction logs, under names that are not recognized as transaction log files.
+ */
+class TransactionLogFilePool
+{
+    static final String RECYCLED_FILE_PREFIX = "recycled.";
+    private static final int ZERO_BUFFER_SIZE = (int) mebiBytes( 1 );
+
+    private final FileSystemAbstraction fileSystem;
+    private final File directory;
+    private final String name;
+    private final int capacity;
+    private final MemoryTracker memoryTracker;
+    private final Pattern pooledFilePattern;
+    private final Deque<File> pooledFiles = new ArrayDeque<>();
+    private int reservedSlots;
+    private long nextPooledFileId;
+
+    TransactionLogFilePool( FileSystemAbstraction fileSystem, File directory, String name, int capacity, MemoryTracker memoryTracker )
+    {
+        this.fileSystem = fileSystem;
+        this.directory = directory;
+        this.name = name;
+        this.capacity = capacity;
+        this.memoryTracker = memoryTracker;
+        this.pooledFilePattern = compile( quote( RECYCLED_FILE_PREFIX + name + "." ) + "(\\d+)" );
+    }
+
+    /**
+     * Picks up the pooled files left behind by an earlier run, and deletes those that do not fit in the pool. New files are only created
+     * by {@link #fill(long)}.
+     */
+    synchronized void init() throws IOException
+    {
+        File[] files = fileSystem.listFiles( directory, ( dir, fileName ) -> pooledFilePattern.matcher( fileName ).matches() );
+        for ( File file : files == null ? new File[0] : files )
+        {
+            Matcher matcher = pooledFilePattern.matcher( file.getName() );
+            if ( matcher.matches() )
+            {
+                nextPooledFileId = Math.max( nextPooledFileId, Long.parseLong( matcher.group( 1 ) ) + 1 );
+                if ( pooledFiles.size() < capacity )
+                {
+                    pooledFiles.add( file );
+                }
+                else
+                {
+                    fileSystem.deleteFile( file );
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the pool up to its capacity with new zero-filled files. The files are written without holding on to the pool, so log rotation
+     * can take files from the pool while it is being filled.
+     *
+     * @param fileSize the size of the new files to create.
+     */
+    void fill( long fileSize ) throws IOException
+    {
+        while ( true )
+        {
+            File file;
+            synchronized ( this )
+            {
+                if ( pooledFiles.size() + reservedSlots >= capacity )
+                {
+                    return;
+                }
+                reservedSlots++;
+                file = nextPooledFile();
+            }
+            try
+            {
+                try ( StoreChannel channel = fileSystem.write( file ) )
+                {
+                    writeZeros( channel, fileSize );
+                }
+                catch ( IOException e )
+                {
+                    fileSystem.deleteFile( file );
+                    throw e;
+                }
+                synchronized ( this )
+                {
+                    pooledFiles.add( file );
+                }
+            }
+            finally
+            {
+                synchronized ( this )
+                {
+                    reservedSlots--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a file from the pool, and renames it to the given log file.
+     *
+     * @param logFile the name of the log file to create from a pooled file.
+     * @return {@code true} if the log file was created from a pooled file, or {@code false} if the pool is empty.
+     */
+    synchronized boolean allocate( File logFile ) throws IOException
+    {
+        File pooledFile = pooledFiles.poll();
+        if ( pooledFile == null )
+        {
+            return false;
+        }
+        fileSystem.renameFile( pooledFile, logFile );
+        return true;
+    }
+
+    synchronized int size()
+    {
+        return pooledFiles.size();
+    }
+
+    private File nextPooledFile()
+    {
+        return new File( directory, RECYCLED_FILE_PREFIX + name + "." + nextPooledFileId++ );
+    }
+
+    private void writeZeros( StoreChannel channel, long size ) throws IOException
+    {
+        try ( HeapScopedBuffer scopedBuffer = new HeapScopedBuffer( (int) Math.min( ZERO_BUFFER_SIZE, Math.max( size, 1 ) ), memoryTracker ) )
+        {
+            ByteBuffer zeros = scopedBuffer.getBuffer();
+            channel.position( 0 );
+            long remaining = size;
+            while ( remaining > 0 )
+            {
+                zeros.clear();
+                zeros.limit( (int) Math.min( zeros.capacity(), remaining ) );
+                remaining -= zeros.remaining();
+                channel.writeAll( zeros );
+            }
+            channel.force( false );
+        }
+    }
+}
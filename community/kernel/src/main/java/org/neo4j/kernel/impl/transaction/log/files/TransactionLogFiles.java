@@ -32,6 +32,7 @@ import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
@@ -53,6 +54,8 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     private final File logsDirectory;
     private final TransactionLogChannelAllocator channelAllocator;
     private final LogFileChannelNativeAccessor nativeChannelAccessor;
+    private final TransactionLogFilePool filePool;
+    private final Log log;
 
     TransactionLogFiles( File logsDirectory, String name, TransactionLogFilesContext context )
     {
@@ -64,12 +67,20 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         this.logFileInformation = new TransactionLogFileInformation( this, logHeaderCache, context );
         this.nativeChannelAccessor = new LogFileChannelNativeAccessor( fileSystem, context );
         this.logFile = new TransactionLogFile( this, context );
-        this.channelAllocator = new TransactionLogChannelAllocator( logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor );
+        this.filePool = context.getRecyclePoolSize() > 0
+                        ? new TransactionLogFilePool( fileSystem, logsDirectory, name, context.getRecyclePoolSize(), context.getMemoryTracker() )
+                        : null;
+        this.channelAllocator = new TransactionLogChannelAllocator( logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor, filePool );
+        this.log = context.getLogProvider().getLog( getClass() );
     }
 
     @Override
     public void init() throws IOException
     {
+        if ( filePool != null )
+        {
+            filePool.init();
+        }
         logFile.init();
     }
 
@@ -270,4 +281,21 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     {
         return nativeChannelAccessor;
     }
+
+    @Override
+    public void fillLogFilePool()
+    {
+        if ( filePool == null )
+        {
+            return;
+        }
+        try
+        {
+            filePool.fill( logFilesContext.getRotationThreshold().get() );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to fill the pool of transaction log files, log rotation will allocate new files instead.", e );
+        }
+    }
 }
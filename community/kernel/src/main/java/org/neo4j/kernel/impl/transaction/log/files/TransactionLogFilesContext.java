@@ -49,11 +49,24 @@ class TransactionLogFilesContext
     private final Supplier<StoreId> storeId;
     private final NativeAccess nativeAccess;
     private final MemoryTracker memoryTracker;
+    private final int recyclePoolSize;
+    private final boolean memoryMappedReads;
 
     TransactionLogFilesContext( AtomicLong rotationThreshold, AtomicBoolean tryPreallocateTransactionLogs, LogEntryReader logEntryReader,
             LongSupplier lastCommittedTransactionIdSupplier, LongSupplier committingTransactionIdSupplier, Supplier<LogPosition> lastClosedPositionSupplier,
             Supplier<LogVersionRepository> logVersionRepositorySupplier, FileSystemAbstraction fileSystem,
             LogProvider logProvider, DatabaseTracers databaseTracers, Supplier<StoreId> storeId, NativeAccess nativeAccess, MemoryTracker memoryTracker )
+    {
+        this( rotationThreshold, tryPreallocateTransactionLogs, logEntryReader, lastCommittedTransactionIdSupplier, committingTransactionIdSupplier,
+                lastClosedPositionSupplier, logVersionRepositorySupplier, fileSystem, logProvider, databaseTracers, storeId, nativeAccess, memoryTracker,
+                0, false );
+    }
+
+    TransactionLogFilesContext( AtomicLong rotationThreshold, AtomicBoolean tryPreallocateTransactionLogs, LogEntryReader logEntryReader,
+            LongSupplier lastCommittedTransactionIdSupplier, LongSupplier committingTransactionIdSupplier, Supplier<LogPosition> lastClosedPositionSupplier,
+            Supplier<LogVersionRepository> logVersionRepositorySupplier, FileSystemAbstraction fileSystem,
+            LogProvider logProvider, DatabaseTracers databaseTracers, Supplier<StoreId> storeId, NativeAccess nativeAccess, MemoryTracker memoryTracker,
+            int recyclePoolSize, boolean memoryMappedReads )
     {
         this.rotationThreshold = rotationThreshold;
         this.tryPreallocateTransactionLogs = tryPreallocateTransactionLogs;
@@ -68,6 +81,8 @@ class TransactionLogFilesContext
         this.storeId = storeId;
         this.nativeAccess = nativeAccess;
         this.memoryTracker = memoryTracker;
+        this.recyclePoolSize = recyclePoolSize;
+        this.memoryMappedReads = memoryMappedReads;
     }
 
     AtomicLong getRotationThreshold()
@@ -134,4 +149,14 @@ class TransactionLogFilesContext
     {
         return memoryTracker;
     }
+
+    int getRecyclePoolSize()
+    {
+        return recyclePoolSize;
+    }
+
+    boolean isMemoryMappedReads()
+    {
+        return memoryMappedReads;
+    }
 }
@@ -86,6 +86,8 @@ public class LogPruningImpl implements LogPruning
                 LogPruneStrategy strategy = this.pruneStrategy;
                 strategy.findLogVersionsToDelete( upToVersion ).forEachOrdered( deleter );
                 log.info( deleter.describeResult( strategy ) );
+                // Pruning runs after checkpoints, off the commit path, so this is where pooled log files are replaced
+                logFiles.fillLogFilePool();
             }
             finally
             {
@@ -38,4 +38,11 @@ public interface CheckpointCounters
      * @return last checkpoint duration in milliseconds
      */
     long lastCheckpointTimeMillis();
+
+    /**
+     * Number of bytes appended to transaction logs up to the position the last checkpoint was made at, which is where recovery would start.
+     * Transactions appended while the checkpoint was in progress are not covered by it, and are not included.
+     * @return number of appended bytes covered by the last checkpoint
+     */
+    long appendedBytesAtLastCheckPoint();
 }
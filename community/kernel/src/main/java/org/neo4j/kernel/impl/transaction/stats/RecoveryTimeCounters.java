@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.stats;
+
+public interface RecoveryTimeCounters
+{
+    /**
+     * Number of bytes appended to the transaction log since the last checkpoint, which recovery would have to replay
+     * @return number of bytes of transaction log since the last checkpoint
+     */
+    long logBytesSinceLastCheckPoint();
+
+    /**
+     * Rate at which committed transactions are applied to the store, as measured from the transactions committed so far
+     * @return replay throughput in bytes of transaction log per second, or {@code 0} if nothing has been applied yet
+     */
+    long replayThroughputBytesPerSecond();
+
+    /**
+     * Estimated time it would take to recover the database if it crashed now
+     * @return estimated recovery time in milliseconds
+     */
+    long estimatedRecoveryTimeMillis();
+}
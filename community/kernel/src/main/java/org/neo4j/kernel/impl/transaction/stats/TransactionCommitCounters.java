@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.stats;
+
+/**
+ * Counters of the stages a transaction passes through when it is committed: serializing its commands, appending them to the transaction log,
+ * forcing the log, and applying the commands to the store and indexes. Dividing an accumulated time by the number of events it was accumulated
+ * over gives the average latency of that stage.
+ */
+public interface TransactionCommitCounters
+{
+    /**
+     * Total number of committed transactions
+     * @return number of commits
+     */
+    long numberOfCommits();
+
+    /**
+     * Accumulated time spent appending transactions to the transaction log in nanoseconds, including serialization and waiting for the log to be forced
+     * @return accumulated log append time in nanoseconds
+     */
+    long logAppendAccumulatedTotalTimeNanos();
+
+    /**
+     * Accumulated time spent serializing the commands of transactions into the transaction log in nanoseconds
+     * @return accumulated serialization time in nanoseconds
+     */
+    long serializationAccumulatedTotalTimeNanos();
+
+    /**
+     * Total size of the commands of transactions that were compressed before they were appended to the transaction log, before compression.
+     * Dividing it by {@link #compressedCommandBytes()} gives the compression ratio.
+     * @return number of uncompressed command bytes
+     */
+    long uncompressedCommandBytes();
+
+    /**
+     * Total size of the commands of transactions that were compressed before they were appended to the transaction log, after compression
+     * @return number of compressed command bytes
+     */
+    long compressedCommandBytes();
+
+    /**
+     * Accumulated time spent compressing the commands of transactions in nanoseconds, which is part of the serialization time
+     * @return accumulated compression time in nanoseconds
+     */
+    long compressionAccumulatedTotalTimeNanos();
+
+    /**
+     * Total number of forces of the transaction log done by committing transactions
+     * @return number of log forces
+     */
+    long numberOfLogForces();
+
+    /**
+     * Accumulated time spent forcing the transaction log in nanoseconds
+     * @return accumulated log force time in nanoseconds
+     */
+    long logForceAccumulatedTotalTimeNanos();
+
+    /**
+     * Accumulated time committing transactions spent waiting for another transaction to force the transaction log in nanoseconds
+     * @return accumulated log force wait time in nanoseconds
+     */
+    long logForceWaitAccumulatedTotalTimeNanos();
+
+    /**
+     * Accumulated time forces of the transaction log were delayed to let more committing transactions append to the log first in nanoseconds
+     * @return accumulated log force delay time in nanoseconds
+     */
+    long logForceDelayAccumulatedTotalTimeNanos();
+
+    /**
+     * Histogram of the number of transactions made durable by each force of the transaction log. The count at index {@code i} is the number of
+     * forces which made {@code [2^i, 2^(i+1))} transactions durable, except for index {@code 0}, which also counts forces without any transactions,
+     * and the last index, which also counts all larger batches.
+     * @return number of log forces per batch size bucket
+     */
+    long[] logForceBatchSizeHistogram();
+
+    /**
+     * Accumulated time spent applying committed transactions to the store and indexes in nanoseconds
+     * @return accumulated store apply time in nanoseconds
+     */
+    long storeApplyAccumulatedTotalTimeNanos();
+
+    /**
+     * Accumulated time spent applying batches of committed transactions to the store and indexes in nanoseconds. Unlike
+     * {@link #storeApplyAccumulatedTotalTimeNanos()}, transactions applied together are only counted once, and time spent waiting for
+     * another committer to apply them is not included.
+     * @return accumulated store apply time of batches in nanoseconds
+     */
+    long storeApplyBatchAccumulatedTotalTimeNanos();
+}
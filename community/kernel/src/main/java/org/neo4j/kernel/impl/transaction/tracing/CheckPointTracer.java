@@ -48,6 +48,12 @@ public interface CheckPointTracer extends CheckpointCounters
         {
             return 0;
         }
+
+        @Override
+        public long appendedBytesAtLastCheckPoint()
+        {
+            return 0;
+        }
     };
 
     /**
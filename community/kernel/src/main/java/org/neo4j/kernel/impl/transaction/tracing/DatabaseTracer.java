@@ -20,8 +20,9 @@
 package org.neo4j.kernel.impl.transaction.tracing;
 
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.transaction.stats.RecoveryTimeCounters;
 
-public interface DatabaseTracer extends TransactionTracer, CheckPointTracer
+public interface DatabaseTracer extends TransactionTracer, CheckPointTracer, RecoveryTimeCounters
 {
     DatabaseTracer NULL = new DatabaseTracer()
     {
@@ -84,6 +85,108 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer
         {
             return 0;
         }
+
+        @Override
+        public long numberOfCommits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logAppendAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long serializationAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long uncompressedCommandBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long compressedCommandBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long compressionAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long numberOfLogForces()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceWaitAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceDelayAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long[] logForceBatchSizeHistogram()
+        {
+            return new long[0];
+        }
+
+        @Override
+        public long storeApplyAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long storeApplyBatchAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long appendedBytesAtLastCheckPoint()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logBytesSinceLastCheckPoint()
+        {
+            return 0;
+        }
+
+        @Override
+        public long replayThroughputBytesPerSecond()
+        {
+            return 0;
+        }
+
+        @Override
+        public long estimatedRecoveryTimeMillis()
+        {
+            return 0;
+        }
     };
 
     LogFileCreateEvent createLogFile();
@@ -37,6 +37,14 @@ public interface LogAppendEvent extends LogForceEvents, AutoCloseable
      */
     void appendToLogFile( LogPosition logPositionBeforeAppend, LogPosition logPositionAfterAppend );
 
+    /**
+     * Notify about the commands of a transaction being compressed before they were appended to the log file.
+     * @param uncompressedBytes size of the serialized commands
+     * @param compressedBytes size of the compressed commands
+     * @param compressionTimeNanos time spent compressing the commands
+     */
+    void compressCommands( long uncompressedBytes, long compressedBytes, long compressionTimeNanos );
+
     /**
      * Mark the end of the process of appending a transaction to the transaction log.
      */
@@ -65,6 +73,11 @@ public interface LogAppendEvent extends LogForceEvents, AutoCloseable
         {
         }
 
+        @Override
+        public void compressCommands( long uncompressedBytes, long compressedBytes, long compressionTimeNanos )
+        {
+        }
+
         @Override
         public void close()
         {
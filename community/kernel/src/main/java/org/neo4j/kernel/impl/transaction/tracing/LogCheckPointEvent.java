@@ -51,7 +51,7 @@ public interface LogCheckPointEvent extends LogForceEvents, AutoCloseable
         }
 
         @Override
-        public void appendToLogFile( LogPosition positionBeforeCheckpoint, LogPosition positionAfterCheckpoint )
+        public void appendToLogFile( LogPosition checkPointedPosition, LogPosition positionBeforeCheckpoint, LogPosition positionAfterCheckpoint )
         {
 
         }
@@ -72,8 +72,9 @@ public interface LogCheckPointEvent extends LogForceEvents, AutoCloseable
     /**
      * Notify about checkpoint append into the current log file.
      * New data is appended to the end of the log file and located between {@code positionBeforeCheckpoint} and {@code positionAfterCheckpoint}
+     * @param checkPointedPosition position in the log the check point was made at, which is where recovery would start from
      * @param positionBeforeCheckpoint start position
      * @param positionAfterCheckpoint end position
      */
-    void appendToLogFile( LogPosition positionBeforeCheckpoint, LogPosition positionAfterCheckpoint );
+    void appendToLogFile( LogPosition checkPointedPosition, LogPosition positionBeforeCheckpoint, LogPosition positionAfterCheckpoint );
 }
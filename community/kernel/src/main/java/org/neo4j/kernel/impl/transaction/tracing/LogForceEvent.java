@@ -30,6 +30,16 @@ public interface LogForceEvent extends AutoCloseable
     {
     };
 
+    /**
+     * Reports the batch of transactions made durable by this force.
+     *
+     * @param transactions number of transactions the committers waiting for this force had appended to the log.
+     * @param delayNanos time the force was held back to let more committers append to the log first.
+     */
+    default void batch( int transactions, long delayNanos )
+    {
+    }
+
     /**
      * Marks the end of the force call on the transaction log file.
      */
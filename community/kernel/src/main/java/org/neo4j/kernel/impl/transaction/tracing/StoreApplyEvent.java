@@ -29,6 +29,15 @@ public interface StoreApplyEvent extends AutoCloseable
     {
     };
 
+    /**
+     * Report the time it took to apply a batch of transactions to the store. Committers that had their transactions applied together with
+     * those of another committer do not report anything, and the time spent waiting for that is not included.
+     * @param applyTimeNanos time spent applying the batch in nanoseconds
+     */
+    default void batchApplied( long applyTimeNanos )
+    {
+    }
+
     /**
      * Marks the completion of the store application.
      */
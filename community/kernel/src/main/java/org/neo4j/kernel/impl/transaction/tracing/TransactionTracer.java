@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.tracing;
 
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.transaction.stats.TransactionCommitCounters;
 import org.neo4j.kernel.impl.transaction.stats.TransactionLogCounters;
 
 /**
@@ -28,7 +29,7 @@ import org.neo4j.kernel.impl.transaction.stats.TransactionLogCounters;
  * during commit. Implementers should take great care to make their implementations as fast as possible. Note that
  * tracers are not allowed to throw exceptions.
  */
-public interface TransactionTracer extends TransactionLogCounters
+public interface TransactionTracer extends TransactionLogCounters, TransactionCommitCounters
 {
     /**
      * A TransactionTracer implementation that does nothing, other than return the NULL variants of the companion
@@ -66,6 +67,84 @@ public interface TransactionTracer extends TransactionLogCounters
         {
             return 0;
         }
+
+        @Override
+        public long numberOfCommits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logAppendAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long serializationAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long uncompressedCommandBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long compressedCommandBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long compressionAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long numberOfLogForces()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceWaitAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long logForceDelayAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long[] logForceBatchSizeHistogram()
+        {
+            return new long[0];
+        }
+
+        @Override
+        public long storeApplyAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long storeApplyBatchAccumulatedTotalTimeNanos()
+        {
+            return 0;
+        }
     };
 
     /**
@@ -20,7 +20,9 @@
 package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -47,11 +49,29 @@ public class DefaultRecoveryService implements RecoveryService
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
     private final Log log;
+    private final PageCacheTracer pageCacheTracer;
+    private final Executor applyExecutor;
+    private final int parallelism;
 
     DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner, TransactionIdStore transactionIdStore,
             LogicalTransactionStore logicalTransactionStore, LogVersionRepository logVersionRepository, LogFiles logFiles,
             RecoveryStartInformationProvider.Monitor monitor, Log log )
     {
+        this( storageEngine, logTailScanner, transactionIdStore, logicalTransactionStore, logVersionRepository, logFiles, monitor, log,
+                PageCacheTracer.NULL, null, 1 );
+    }
+
+    /**
+     * @param applyExecutor executor applying recovered transactions in parallel, if {@code parallelism} is greater than one.
+     * @param parallelism the number of transactions to apply in parallel during recovery, where {@code 1} applies them one by one.
+     */
+    DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner, TransactionIdStore transactionIdStore,
+            LogicalTransactionStore logicalTransactionStore, LogVersionRepository logVersionRepository, LogFiles logFiles,
+            RecoveryStartInformationProvider.Monitor monitor, Log log, PageCacheTracer pageCacheTracer, Executor applyExecutor, int parallelism )
+    {
+        this.pageCacheTracer = pageCacheTracer;
+        this.applyExecutor = applyExecutor;
+        this.parallelism = parallelism;
         this.storageEngine = storageEngine;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
@@ -69,6 +89,10 @@ public class DefaultRecoveryService implements RecoveryService
     @Override
     public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode, PageCursorTracer cursorTracer )
     {
+        if ( mode == TransactionApplicationMode.RECOVERY && parallelism > 1 )
+        {
+            return new ParallelRecoveryApplier( storageEngine, mode, pageCacheTracer, cursorTracer, applyExecutor, parallelism );
+        }
         return new RecoveryVisitor( storageEngine, mode, cursorTracer );
     }
 
@@ -123,6 +147,17 @@ public class DefaultRecoveryService implements RecoveryService
         logVersionRepository.setCurrentLogVersion( positionAfterLastRecoveredTransaction.getLogVersion(), cursorTracer );
     }
 
+    static void applyTransaction( StorageEngine storageEngine, CommittedTransactionRepresentation transaction, TransactionApplicationMode mode,
+            PageCursorTracer cursorTracer ) throws Exception
+    {
+        TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
+        long txId = transaction.getCommitEntry().getTxId();
+        TransactionToApply tx = new TransactionToApply( txRepresentation, txId, cursorTracer );
+        tx.commitment( NO_COMMITMENT, txId );
+        tx.logPosition( transaction.getStartEntry().getStartPosition() );
+        storageEngine.apply( tx, mode );
+    }
+
     static class RecoveryVisitor implements RecoveryApplier
     {
         private final StorageEngine storageEngine;
@@ -139,12 +174,7 @@ public class DefaultRecoveryService implements RecoveryService
         @Override
         public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
         {
-            TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
-            long txId = transaction.getCommitEntry().getTxId();
-            TransactionToApply tx = new TransactionToApply( txRepresentation, txId, cursorTracer );
-            tx.commitment( NO_COMMITMENT, txId );
-            tx.logPosition( transaction.getStartEntry().getStartPosition() );
-            storageEngine.apply( tx, mode );
+            applyTransaction( storageEngine, transaction, mode, cursorTracer );
             return false;
         }
 
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.storageengine.api.CommandDependencies;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static org.neo4j.kernel.recovery.DefaultRecoveryService.applyTransaction;
+
+/**
+ * {@link RecoveryApplier} which applies recovered transactions in parallel. The visiting thread keeps reading ahead in the log while transactions
+ * are applied by the workers of the given {@link Executor}.
+ * <p>
+ * The {@link CommandDependencies} of the storage engine decide which transactions may be applied concurrently. A transaction is only applied once
+ * all earlier transactions sharing a dependency with it have been applied, which preserves the commit order of every record. Transactions that
+ * the storage engine cannot express as dependencies, like schema or token changes, are applied in isolation on the visiting thread, once all
+ * earlier transactions have been applied.
+ * <p>
+ * Transactions are handed over to the workers from {@link #visit(CommittedTransactionRepresentation)} and are only guaranteed to have been
+ * applied once {@link #close()} returns. The first failure of a worker fails all subsequent calls, and no more transactions are applied after it.
+ */
+class ParallelRecoveryApplier implements RecoveryApplier
+{
+    private static final String RECOVERY_WORKER_TAG = "parallelRecoverDatabase";
+    static final int READ_AHEAD_TRANSACTIONS_PER_WORKER = 128;
+    // Bounds the memory used for tracking dependencies. The tracking starts over, after waiting for all transactions in flight, when exceeded.
+    private static final int MAX_TRACKED_DEPENDENCIES = 1 << 20;
+
+    private final StorageEngine storageEngine;
+    private final TransactionApplicationMode mode;
+    private final CommandDependencies commandDependencies;
+    private final PageCacheTracer pageCacheTracer;
+    private final PageCursorTracer cursorTracer;
+    private final Executor executor;
+    private final int maxTransactionsInFlight;
+    private final Semaphore transactionsInFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final MutableLongObjectMap<CompletableFuture<Void>> lastApplicationOfDependency = new LongObjectHashMap<>();
+    private final MutableLongSet dependencies = new LongHashSet();
+
+    ParallelRecoveryApplier( StorageEngine storageEngine, TransactionApplicationMode mode, PageCacheTracer pageCacheTracer,
+            PageCursorTracer cursorTracer, Executor executor, int parallelism )
+    {
+        this.storageEngine = storageEngine;
+        this.mode = mode;
+        this.commandDependencies = storageEngine.commandDependencies();
+        this.pageCacheTracer = pageCacheTracer;
+        this.cursorTracer = cursorTracer;
+        this.executor = executor;
+        this.maxTransactionsInFlight = parallelism * READ_AHEAD_TRANSACTIONS_PER_WORKER;
+        this.transactionsInFlight = new Semaphore( maxTransactionsInFlight );
+    }
+
+    @Override
+    public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
+    {
+        checkFailure();
+        if ( !collectDependencies( transaction ) || lastApplicationOfDependency.size() > MAX_TRACKED_DEPENDENCIES )
+        {
+            awaitTransactionsInFlight();
+            lastApplicationOfDependency.clear();
+            if ( dependencies.isEmpty() )
+            {
+                applyTransaction( storageEngine, transaction, mode, cursorTracer );
+                return false;
+            }
+        }
+
+        List<CompletableFuture<Void>> predecessors = new ArrayList<>();
+        dependencies.forEach( dependency ->
+        {
+            CompletableFuture<Void> predecessor = lastApplicationOfDependency.get( dependency );
+            if ( predecessor != null && !predecessor.isDone() )
+            {
+                predecessors.add( predecessor );
+            }
+        } );
+
+        transactionsInFlight.acquire();
+        Runnable application = () -> apply( transaction );
+        CompletableFuture<Void> applied = predecessors.isEmpty() ? CompletableFuture.runAsync( application, executor )
+                : CompletableFuture.allOf( predecessors.toArray( new CompletableFuture[0] ) ).thenRunAsync( application, executor );
+        applied.whenComplete( ( ignored, throwable ) ->
+        {
+            if ( throwable != null )
+            {
+                failure.compareAndSet( null, throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable );
+            }
+            transactionsInFlight.release();
+        } );
+        dependencies.forEach( dependency -> lastApplicationOfDependency.put( dependency, applied ) );
+        return false;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        awaitTransactionsInFlight();
+        lastApplicationOfDependency.clear();
+        checkFailure();
+    }
+
+    /**
+     * Collects the dependencies of all commands of the given transaction into {@link #dependencies}, which will be empty if the transaction
+     * must be applied in isolation.
+     */
+    private boolean collectDependencies( CommittedTransactionRepresentation transaction )
+    {
+        dependencies.clear();
+        for ( StorageCommand command : transaction.getTransactionRepresentation() )
+        {
+            if ( !commandDependencies.visitDependencies( command, dependencies::add ) )
+            {
+                dependencies.clear();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void apply( CommittedTransactionRepresentation transaction )
+    {
+        if ( failure.get() != null )
+        {
+            return;
+        }
+        try ( PageCursorTracer workerCursorTracer = pageCacheTracer.createPageCursorTracer( RECOVERY_WORKER_TAG ) )
+        {
+            applyTransaction( storageEngine, transaction, mode, workerCursorTracer );
+        }
+        catch ( Exception e )
+        {
+            throw new CompletionException( e );
+        }
+    }
+
+    private void awaitTransactionsInFlight() throws InterruptedException
+    {
+        transactionsInFlight.acquire( maxTransactionsInFlight );
+        transactionsInFlight.release( maxTransactionsInFlight );
+    }
+
+    private void checkFailure() throws RecoveryApplyException
+    {
+        Throwable cause = failure.get();
+        if ( cause != null )
+        {
+            throw new RecoveryApplyException( cause );
+        }
+    }
+}
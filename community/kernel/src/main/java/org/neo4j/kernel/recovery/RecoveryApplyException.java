@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+/**
+ * Thrown when a recovered transaction could not be applied by a {@link ParallelRecoveryApplier}. Since later transactions may already have been
+ * applied by then, such a failure can not be handled by truncating the log after the last applied transaction, and fails recovery instead.
+ */
+class RecoveryApplyException extends Exception
+{
+    RecoveryApplyException( Throwable cause )
+    {
+        super( "Failed to apply recovered transaction in parallel recovery", cause );
+    }
+}
@@ -34,6 +34,18 @@ public interface RecoveryMonitor
         //noop
     }
 
+    /**
+     * Called periodically while transactions are recovered.
+     *
+     * @param lastRecoveredTxId id of the transaction recovered last.
+     * @param numberOfRecoveredTransactions number of transactions recovered so far.
+     * @param transactionsPerSecond rate at which transactions were recovered since the previous call.
+     */
+    default void recoveryThroughput( long lastRecoveredTxId, int numberOfRecoveredTransactions, long transactionsPerSecond )
+    {
+        //noop
+    }
+
     default void recoveryCompleted( int numberOfRecoveredTransactions, long recoveryTimeInMilliseconds )
     {
         //noop
@@ -32,9 +32,12 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.time.Clocks;
 import org.neo4j.time.Stopwatch;
+import org.neo4j.time.SystemNanoClock;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.neo4j.kernel.recovery.Recovery.throwUnableToCleanRecover;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.REVERSE_RECOVERY;
@@ -48,6 +51,7 @@ public class TransactionLogsRecovery extends LifecycleAdapter
     private static final String REVERSE_RECOVERY_TAG = "restoreDatabase";
     private static final String RECOVERY_TAG = "recoverDatabase";
     private static final String RECOVERY_COMPLETED_TAG = "databaseRecoveryCompleted";
+    static final long THROUGHPUT_REPORT_INTERVAL_NANOS = SECONDS.toNanos( 10 );
 
     private final RecoveryService recoveryService;
     private final RecoveryMonitor monitor;
@@ -57,11 +61,22 @@ public class TransactionLogsRecovery extends LifecycleAdapter
     private final boolean failOnCorruptedLogFiles;
     private final RecoveryStartupChecker recoveryStartupChecker;
     private final PageCacheTracer pageCacheTracer;
+    private final SystemNanoClock clock;
     private int numberOfRecoveredTransactions;
+    private int lastReportedNumberOfRecoveredTransactions;
+    private long lastThroughputReportNanos;
 
     public TransactionLogsRecovery( RecoveryService recoveryService, CorruptedLogsTruncator logsTruncator, Lifecycle schemaLife,
             RecoveryMonitor monitor, ProgressReporter progressReporter, boolean failOnCorruptedLogFiles, RecoveryStartupChecker recoveryStartupChecker,
             PageCacheTracer pageCacheTracer )
+    {
+        this( recoveryService, logsTruncator, schemaLife, monitor, progressReporter, failOnCorruptedLogFiles, recoveryStartupChecker, pageCacheTracer,
+                Clocks.nanoClock() );
+    }
+
+    TransactionLogsRecovery( RecoveryService recoveryService, CorruptedLogsTruncator logsTruncator, Lifecycle schemaLife,
+            RecoveryMonitor monitor, ProgressReporter progressReporter, boolean failOnCorruptedLogFiles, RecoveryStartupChecker recoveryStartupChecker,
+            PageCacheTracer pageCacheTracer, SystemNanoClock clock )
     {
         this.recoveryService = recoveryService;
         this.monitor = monitor;
@@ -71,6 +86,7 @@ public class TransactionLogsRecovery extends LifecycleAdapter
         this.failOnCorruptedLogFiles = failOnCorruptedLogFiles;
         this.recoveryStartupChecker = recoveryStartupChecker;
         this.pageCacheTracer = pageCacheTracer;
+        this.clock = clock;
     }
 
     @Override
@@ -128,6 +144,7 @@ public class TransactionLogsRecovery extends LifecycleAdapter
                         var cursorTracer = pageCacheTracer.createPageCursorTracer( RECOVERY_TAG );
                         RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY, cursorTracer ) )
                 {
+                    lastThroughputReportNanos = clock.nanos();
                     while ( transactionsToRecover.next() )
                     {
                         recoveryStartupChecker.checkIfCanceled();
@@ -139,6 +156,7 @@ public class TransactionLogsRecovery extends LifecycleAdapter
                         lastTransactionPosition = transactionsToRecover.position();
                         recoveryToPosition = lastTransactionPosition;
                         reportProgress();
+                        reportThroughputIfDue( txId );
                     }
                     recoveryToPosition = transactionsToRecover.position();
                 }
@@ -149,6 +167,12 @@ public class TransactionLogsRecovery extends LifecycleAdapter
                 // the users are able to workaround this if truncations is really needed.
                 throw e;
             }
+            catch ( RecoveryApplyException e )
+            {
+                // Transactions after the failed one may already have been applied in parallel, so truncating the log after the last recovered
+                // transaction would leave the store ahead of the log.
+                throw e;
+            }
             catch ( Throwable t )
             {
                 if ( failOnCorruptedLogFiles )
@@ -192,6 +216,19 @@ public class TransactionLogsRecovery extends LifecycleAdapter
         progressReporter.progress( 1 );
     }
 
+    private void reportThroughputIfDue( long txId )
+    {
+        long now = clock.nanos();
+        long elapsedNanos = now - lastThroughputReportNanos;
+        if ( elapsedNanos >= THROUGHPUT_REPORT_INTERVAL_NANOS )
+        {
+            long transactions = numberOfRecoveredTransactions - lastReportedNumberOfRecoveredTransactions;
+            monitor.recoveryThroughput( txId, numberOfRecoveredTransactions, transactions * SECONDS.toNanos( 1 ) / elapsedNanos );
+            lastReportedNumberOfRecoveredTransactions = numberOfRecoveredTransactions;
+            lastThroughputReportNanos = now;
+        }
+    }
+
     private static long getNumberOfTransactionToRecover( RecoveryStartInformation recoveryStartInformation,
             CommittedTransactionRepresentation lastReversedTransaction )
     {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.storageengine.api.StorageEngine;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
+
+class StoreApplyWorkTest
+{
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+
+    @Test
+    void combinedWorkMustApplyAllBatchesInOneGoAndHandThemBack() throws Exception
+    {
+        TransactionToApply first = transaction();
+        TransactionToApply second = transaction();
+        TransactionToApply secondNext = transaction();
+        second.next( secondNext );
+        TransactionToApply third = transaction();
+        List<TransactionToApply> applied = new ArrayList<>();
+        doAnswer( invocation ->
+        {
+            TransactionToApply batch = invocation.getArgument( 0 );
+            while ( batch != null )
+            {
+                applied.add( batch );
+                batch = batch.next();
+            }
+            return null;
+        } ).when( storageEngine ).apply( any(), any() );
+
+        StoreApplyWork work = new StoreApplyWork( first, INTERNAL )
+                .combine( new StoreApplyWork( second, INTERNAL ) )
+                .combine( new StoreApplyWork( third, INTERNAL ) );
+        work.apply( storageEngine );
+
+        verify( storageEngine, times( 1 ) ).apply( any(), any() );
+        assertThat( applied ).containsExactly( first, second, secondNext, third );
+        assertThat( first.next() ).isNull();
+        assertSame( secondNext, second.next() );
+        assertThat( secondNext.next() ).isNull();
+        assertThat( third.next() ).isNull();
+    }
+
+    @Test
+    void failureMustBeRecordedInAllCombinedWork() throws Exception
+    {
+        IllegalStateException failure = new IllegalStateException( "Apply failed" );
+        doAnswer( invocation ->
+        {
+            throw failure;
+        } ).when( storageEngine ).apply( any(), any() );
+        StoreApplyWork first = new StoreApplyWork( transaction(), INTERNAL );
+        StoreApplyWork second = new StoreApplyWork( transaction(), INTERNAL );
+
+        StoreApplyWork combined = first.combine( second );
+        assertSame( failure, assertThrows( IllegalStateException.class, () -> combined.apply( storageEngine ) ) );
+
+        assertSame( failure, first.failure() );
+        assertSame( failure, second.failure() );
+    }
+
+    @Test
+    void applyTimeMustOnlyBeRecordedInTheWorkOthersWereCombinedInto() throws Exception
+    {
+        doAnswer( invocation ->
+        {
+            Thread.sleep( 1 );
+            return null;
+        } ).when( storageEngine ).apply( any(), any() );
+        StoreApplyWork first = new StoreApplyWork( transaction(), INTERNAL );
+        StoreApplyWork second = new StoreApplyWork( transaction(), INTERNAL );
+
+        first.combine( second ).apply( storageEngine );
+
+        assertThat( first.applyTimeNanos() ).isGreaterThanOrEqualTo( MILLISECONDS.toNanos( 1 ) );
+        assertThat( second.applyTimeNanos() ).isZero();
+    }
+
+    private static TransactionToApply transaction()
+    {
+        return new TransactionToApply( mock( TransactionRepresentation.class ), NULL );
+    }
+}
@@ -127,6 +127,30 @@ class TransactionRepresentationCommitProcessTest
         verify( transactionIdStore ).transactionCommitted( txId, FakeCommitment.CHECKSUM, FakeCommitment.TIMESTAMP, NULL );
     }
 
+    @Test
+    void shouldReportFailureToApplyGroupedTransaction() throws Exception
+    {
+        // GIVEN
+        TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+        TransactionAppender appender = new TestableTransactionAppender( transactionIdStore );
+        long txId = 11;
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( txId );
+        IOException rootCause = new IOException( "Mock exception" );
+        StorageEngine storageEngine = mock( StorageEngine.class );
+        doThrow( new IOException( rootCause ) ).when( storageEngine ).apply(
+                any( TransactionToApply.class ), any( TransactionApplicationMode.class ) );
+        TransactionCommitProcess commitProcess = new TransactionRepresentationCommitProcess( appender, storageEngine, true );
+
+        // WHEN
+        TransactionFailureException exception =
+                assertThrows( TransactionFailureException.class, () -> commitProcess.commit( mockedTransaction(), commitEvent, INTERNAL ) );
+
+        // THEN
+        assertThat( exception.getMessage() ).contains( "Could not apply the transaction to the store" );
+        assertTrue( contains( exception, rootCause.getMessage(), rootCause.getClass() ) );
+        verify( transactionIdStore ).transactionClosed( eq( txId ), anyLong(), anyLong(), any( PageCursorTracer.class ) );
+    }
+
     private TransactionToApply mockedTransaction()
     {
         TransactionRepresentation transaction = mock( TransactionRepresentation.class );
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.tracer;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
+
+class DefaultTracerTest
+{
+    private final DefaultTracer tracer = new DefaultTracer();
+
+    @Test
+    void checkPointMustCoverTheBytesAppendedUpToItsPosition()
+    {
+        append( new LogPosition( 0, 100 ), new LogPosition( 0, 200 ) );
+        append( new LogPosition( 0, 200 ), new LogPosition( 0, 300 ) );
+
+        // The check point is made at the position of the first transaction, the second one was appended while it was in progress.
+        try ( LogCheckPointEvent checkPointEvent = tracer.beginCheckPoint() )
+        {
+            checkPointEvent.appendToLogFile( new LogPosition( 0, 200 ), new LogPosition( 0, 300 ), new LogPosition( 0, 320 ) );
+        }
+
+        assertThat( tracer.appendedBytes() ).isEqualTo( 220 );
+        assertThat( tracer.appendedBytesAtLastCheckPoint() ).isEqualTo( 100 );
+        assertThat( tracer.logBytesSinceLastCheckPoint() ).isEqualTo( 120 );
+    }
+
+    @Test
+    void replayThroughputMustOnlyCountTheTimeSpentApplyingBatches()
+    {
+        append( new LogPosition( 0, 0 ), new LogPosition( 0, 1000 ) );
+        CommitEvent commitEvent = tracer.beginTransaction( NULL ).beginCommitEvent();
+        try ( StoreApplyEvent applyingCommitter = commitEvent.beginStoreApply();
+              StoreApplyEvent waitingCommitter = commitEvent.beginStoreApply() )
+        {
+            applyingCommitter.batchApplied( 500_000_000 );
+        }
+
+        assertThat( tracer.storeApplyBatchAccumulatedTotalTimeNanos() ).isEqualTo( 500_000_000 );
+        assertThat( tracer.replayThroughputBytesPerSecond() ).isEqualTo( 2000 );
+        assertThat( tracer.estimatedRecoveryTimeMillis() ).isEqualTo( 500 );
+    }
+
+    private void append( LogPosition positionBeforeAppend, LogPosition positionAfterAppend )
+    {
+        try ( LogAppendEvent appendEvent = tracer.beginTransaction( NULL ).beginCommitEvent().beginLogAppend() )
+        {
+            appendEvent.appendToLogFile( positionBeforeAppend, positionAfterAppend );
+        }
+    }
+}
@@ -188,6 +188,32 @@ class GenericKeyStateTest
         assertEquals( value, readValue, "deserialized values are not equal" );
     }
 
+    @ParameterizedTest
+    @MethodSource( "validValueGenerators" )
+    void readWhatIsWrittenWithValueFirst( ValueGenerator valueGenerator )
+    {
+        // Given
+        PageCursor cursor = newPageCursor();
+        GenericKey writeState = newKeyState();
+        Value value = valueGenerator.next();
+        writeState.initialize( random.nextLong( Long.MAX_VALUE ) );
+        int offset = cursor.getOffset();
+
+        // When
+        writeState.writeValue( value, NEUTRAL );
+        writeState.putValueFirst( cursor );
+
+        // Then
+        GenericKey readState = newKeyState();
+        int size = writeState.size();
+        assertEquals( size, cursor.getOffset() - offset, "did not write reported size" );
+        cursor.setOffset( offset );
+        assertTrue( readState.getValueFirst( cursor, size ), "failed to read" );
+        assertEquals( 0, readState.compareValueTo( writeState ), "key states are not equal" );
+        assertEquals( writeState.getEntityId(), readState.getEntityId(), "entity ids are not equal" );
+        assertEquals( value, readState.asValue(), "deserialized values are not equal" );
+    }
+
     @ParameterizedTest
     @MethodSource( "validValueGenerators" )
     void copyShouldCopy( ValueGenerator valueGenerator )
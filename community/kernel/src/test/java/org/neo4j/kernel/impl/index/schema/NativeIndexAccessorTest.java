@@ -43,9 +43,19 @@ class NativeIndexAccessorTest extends NativeIndexAccessorTests<GenericKey,Native
 
     @Override
     NativeIndexAccessor<GenericKey,NativeIndexValue> makeAccessor( PageCache pageCache )
+    {
+        return makeAccessor( DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( false ).build() );
+    }
+
+    @Override
+    NativeIndexAccessor<GenericKey,NativeIndexValue> makeAccessorWithConcurrentUpdaters( PageCache pageCache )
+    {
+        return makeAccessor( DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withConcurrentUpdaters( true ).build() );
+    }
+
+    private NativeIndexAccessor<GenericKey,NativeIndexValue> makeAccessor( DatabaseIndexContext context )
     {
         RecoveryCleanupWorkCollector cleanup = RecoveryCleanupWorkCollector.immediate();
-        DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs ).withMonitor( monitor ).withReadOnly( false ).build();
         return new GenericNativeIndexAccessor( context, indexFiles, layout, cleanup, indexDescriptor, spaceFillingCurveSettings, configuration );
     }
 
@@ -58,6 +58,7 @@ import org.neo4j.kernel.api.index.IndexSampler;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
+import org.neo4j.test.Race;
 import org.neo4j.test.rule.PageCacheConfig;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.PointValue;
@@ -88,6 +89,7 @@ import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
 import static org.neo4j.kernel.impl.index.schema.ValueCreatorUtil.countUniqueValues;
 import static org.neo4j.storageengine.api.IndexEntryUpdate.change;
 import static org.neo4j.storageengine.api.IndexEntryUpdate.remove;
+import static org.neo4j.test.Race.throwing;
 import static org.neo4j.values.storable.Values.of;
 
 abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue>
@@ -103,6 +105,8 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE e
 
     abstract NativeIndexAccessor<KEY,VALUE> makeAccessor( PageCache pageCache ) throws IOException;
 
+    abstract NativeIndexAccessor<KEY,VALUE> makeAccessorWithConcurrentUpdaters( PageCache pageCache ) throws IOException;
+
     abstract IndexCapability indexCapability();
 
     @AfterEach
@@ -576,6 +580,38 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>, VALUE e
         }
     }
 
+    @Test
+    void concurrentUpdatersMustBeUsableFromSeveralThreadsAtTheSameTime() throws Throwable
+    {
+        // given
+        accessor.close();
+        accessor = makeAccessorWithConcurrentUpdaters( pageCache );
+        IndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+        int threads = 4;
+
+        // when
+        Race race = new Race();
+        for ( int i = 0; i < threads; i++ )
+        {
+            int thread = i;
+            race.addContestant( throwing( () ->
+            {
+                try ( IndexUpdater updater = accessor.newUpdater( ONLINE, NULL ) )
+                {
+                    for ( int u = thread; u < updates.length; u += threads )
+                    {
+                        updater.process( updates[u] );
+                    }
+                }
+            } ) );
+        }
+        race.go();
+
+        // then
+        forceAndCloseAccessor();
+        verifyUpdates( updates );
+    }
+
     @Test
     void dropShouldDeleteAndCloseIndex()
     {
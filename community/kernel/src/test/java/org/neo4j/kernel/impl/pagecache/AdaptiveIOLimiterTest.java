@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Flushable;
+import java.time.Duration;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.time.FakeClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_io_target_fault_latency;
+import static org.neo4j.io.pagecache.IOLimiter.INITIAL_STAMP;
+
+class AdaptiveIOLimiterTest
+{
+    private static final Flushable NO_FLUSH = () -> {};
+    private static final int INITIAL_IOPS = 600;
+
+    private final DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+    private final FakeClock clock = new FakeClock();
+    private final AdaptiveIOLimiter limiter =
+            new AdaptiveIOLimiter( tracer, clock, Duration.ofMillis( 10 ), Duration.ofSeconds( 1 ), INITIAL_IOPS );
+
+    @Test
+    void shouldBeUnlimitedWithoutTargetLatency()
+    {
+        assertThat( AdaptiveIOLimiter.create( Config.defaults(), tracer, clock ) ).isSameAs( IOLimiter.UNLIMITED );
+        Config config = Config.defaults( check_point_io_target_fault_latency, Duration.ofMillis( 5 ) );
+        assertThat( AdaptiveIOLimiter.create( config, tracer, clock ) ).isInstanceOf( AdaptiveIOLimiter.class );
+    }
+
+    @Test
+    void shouldOnlyTraceFaultLatenciesWhenTargetLatencyIsConfigured()
+    {
+        AdaptiveIOLimiter.create( Config.defaults(), tracer, clock );
+        assertThat( tracer.isFaultLatencyTracingEnabled() ).isFalse();
+
+        AdaptiveIOLimiter.create( Config.defaults( check_point_io_target_fault_latency, Duration.ofMillis( 5 ) ), tracer, clock );
+        assertThat( tracer.isFaultLatencyTracingEnabled() ).isTrue();
+    }
+
+    @Test
+    void shouldIncreaseRateWhenLatenciesAreBelowTarget()
+    {
+        for ( int i = 0; i < 20; i++ )
+        {
+            tracer.faultLatency( MILLISECONDS.toNanos( 1 ) );
+        }
+
+        flushOneQuantum();
+
+        assertThat( limiter.currentIopsLimit() ).isGreaterThan( INITIAL_IOPS );
+    }
+
+    @Test
+    void shouldDecreaseRateWhenFaultLatencyExceedsTarget()
+    {
+        for ( int i = 0; i < 100; i++ )
+        {
+            tracer.faultLatency( MILLISECONDS.toNanos( i == 0 ? 1 : 50 ) );
+        }
+
+        flushOneQuantum();
+
+        assertThat( limiter.currentIopsLimit() ).isLessThan( INITIAL_IOPS );
+    }
+
+    @Test
+    void shouldDecreaseRateWhenWritesAreSlowerThanTarget()
+    {
+        long stamp = limiter.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        clock.forward( 100, MILLISECONDS );
+        limiter.maybeLimitIO( stamp, 1, NO_FLUSH );
+
+        assertThat( limiter.currentIopsLimit() ).isLessThan( INITIAL_IOPS );
+    }
+
+    @Test
+    void shouldNotGoBelowMinimumRate()
+    {
+        long stamp = limiter.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        for ( int i = 0; i < 9; i++ )
+        {
+            clock.forward( 100, MILLISECONDS );
+            stamp = limiter.maybeLimitIO( stamp, 1, NO_FLUSH );
+        }
+
+        assertThat( limiter.currentIopsLimit() ).isEqualTo( AdaptiveIOLimiter.MIN_IOPS );
+    }
+
+    @Test
+    void shouldStopLimitingAfterDeadline()
+    {
+        long stamp = limiter.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        clock.forward( 2, SECONDS );
+        limiter.maybeLimitIO( stamp, 1, NO_FLUSH );
+
+        // The slow write was not taken into account, because the flush is past its deadline.
+        assertThat( limiter.currentIopsLimit() ).isEqualTo( INITIAL_IOPS );
+    }
+
+    @Test
+    void shouldMeasureDeadlineFromStartOfCheckPoint()
+    {
+        AdaptiveIOLimiter.CheckPointLimiter checkPoint = (AdaptiveIOLimiter.CheckPointLimiter) limiter.checkPointLimiter();
+
+        // The first file of the check point took up the whole deadline.
+        checkPoint.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        clock.forward( 1, SECONDS );
+
+        // A slow write in the next file is past the deadline of the check point, even though the file just started.
+        long stamp = checkPoint.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        clock.forward( 100, MILLISECONDS );
+        checkPoint.maybeLimitIO( stamp, 1, NO_FLUSH );
+
+        assertThat( checkPoint.currentIopsLimit() ).isEqualTo( INITIAL_IOPS );
+    }
+
+    @Test
+    void shouldKeepDeadlinesOfOverlappingCheckPointsApart()
+    {
+        // given two databases check pointing at the same time, where the second one started later
+        AdaptiveIOLimiter.CheckPointLimiter first = (AdaptiveIOLimiter.CheckPointLimiter) limiter.checkPointLimiter();
+        first.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        clock.forward( 900, MILLISECONDS );
+        AdaptiveIOLimiter.CheckPointLimiter second = (AdaptiveIOLimiter.CheckPointLimiter) limiter.checkPointLimiter();
+        long secondStamp = second.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+
+        // when both of them see a slow write, which is past the deadline of the first check point only
+        clock.forward( 200, MILLISECONDS );
+        first.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        second.maybeLimitIO( secondStamp, 1, NO_FLUSH );
+
+        // then only the second check point backs off, and the rate of the other flushes is left alone
+        assertThat( first.currentIopsLimit() ).isEqualTo( INITIAL_IOPS );
+        assertThat( second.currentIopsLimit() ).isLessThan( INITIAL_IOPS );
+        assertThat( limiter.currentIopsLimit() ).isEqualTo( INITIAL_IOPS );
+
+        // and a check point that starts afterwards picks up from the rate the second one learned
+        AdaptiveIOLimiter.CheckPointLimiter third = (AdaptiveIOLimiter.CheckPointLimiter) limiter.checkPointLimiter();
+        assertThat( third.currentIopsLimit() ).isEqualTo( second.currentIopsLimit() );
+    }
+
+    @Test
+    void shouldNotLimitWhileDisabled()
+    {
+        limiter.disableLimit();
+        assertThat( limiter.isLimited() ).isFalse();
+        long stamp = limiter.maybeLimitIO( INITIAL_STAMP, 1, NO_FLUSH );
+        clock.forward( 100, MILLISECONDS );
+        limiter.maybeLimitIO( stamp, 1, NO_FLUSH );
+        assertThat( limiter.currentIopsLimit() ).isEqualTo( INITIAL_IOPS );
+
+        limiter.enableLimit();
+        assertThat( limiter.isLimited() ).isTrue();
+    }
+
+    private void flushOneQuantum()
+    {
+        // Many fast writes within the quantum, but fewer than the initial rate allows, so no sleeping is needed.
+        long stamp = INITIAL_STAMP;
+        for ( int i = 0; i < 50; i++ )
+        {
+            stamp = limiter.maybeLimitIO( stamp, 1, NO_FLUSH );
+        }
+        clock.forward( 100, MILLISECONDS );
+        limiter.maybeLimitIO( stamp, 1, NO_FLUSH );
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.util.concurrent.BinaryLatch;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_blocking;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_builtin_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+import static org.neo4j.test.OtherThreadExecutor.command;
+
+class PageCacheWarmerLifecycleTest
+{
+    private JobScheduler jobScheduler;
+    private OtherThreadExecutor stopper;
+
+    @BeforeEach
+    void setUp()
+    {
+        jobScheduler = createInitialisedScheduler();
+        stopper = new OtherThreadExecutor( "lifecycle stopper" );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        stopper.close();
+        jobScheduler.close();
+    }
+
+    @Test
+    void mustNotWarmUpOrProfileUnlessBuiltinWarmerIsEnabled() throws Exception
+    {
+        // given
+        PageCacheWarmer warmer = mock( PageCacheWarmer.class );
+        PageCacheWarmerLifecycle lifecycle =
+                new PageCacheWarmerLifecycle( warmer, jobScheduler, Config.defaults(), NullLog.getInstance(), "neo4j", false );
+
+        // when
+        lifecycle.start();
+        lifecycle.stop();
+
+        // then
+        verifyNoInteractions( warmer );
+    }
+
+    @Test
+    void stopMustWaitForProfilingInProgress() throws Exception
+    {
+        // given
+        BinaryLatch profilingStarted = new BinaryLatch();
+        BinaryLatch finishProfiling = new BinaryLatch();
+        AtomicBoolean profilingFinished = new AtomicBoolean();
+        PageCacheWarmer warmer = mock( PageCacheWarmer.class );
+        when( warmer.profile() ).thenAnswer( invocation ->
+        {
+            profilingStarted.release();
+            finishProfiling.await();
+            profilingFinished.set( true );
+            return 0L;
+        } );
+        Config config = Config.newBuilder()
+                .set( pagecache_warmup_builtin_enabled, true )
+                .set( pagecache_warmup_enabled, true )
+                .set( pagecache_warmup_blocking, true )
+                .set( pagecache_warmup_profiling_interval, Duration.ofMillis( 10 ) )
+                .build();
+        PageCacheWarmerLifecycle lifecycle = new PageCacheWarmerLifecycle( warmer, jobScheduler, config, NullLog.getInstance(), "neo4j", false );
+        lifecycle.start();
+        profilingStarted.await();
+
+        // when
+        Future<Object> stop = stopper.executeDontWait( command( lifecycle::stop ) );
+        stopper.waitUntilWaiting( details -> details.isAt( PageCacheWarmerLifecycle.class, "stop" ) );
+
+        // then
+        assertFalse( stop.isDone() );
+        finishProfiling.release();
+        stop.get();
+        assertTrue( profilingFinished.get() );
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.EphemeralFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.time.Clocks;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+import static org.neo4j.logging.LogAssertions.assertThat;
+
+@ExtendWith( EphemeralFileSystemExtension.class )
+class PageCacheWarmerTest
+{
+    private static final int PAGE_COUNT = 100;
+    private static final long[] HOT_PAGES = {3, 4, 5, 50, 99};
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    private JobScheduler jobScheduler;
+    private AssertableLogProvider logProvider;
+    private Path databaseDirectory;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        jobScheduler = createInitialisedScheduler();
+        logProvider = new AssertableLogProvider();
+        databaseDirectory = Path.of( "database" ).toAbsolutePath();
+        file = databaseDirectory.resolve( "store" );
+        fs.mkdirs( databaseDirectory.toFile() );
+
+        try ( PageCache pageCache = createPageCache();
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), immutable.of( CREATE ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL.createPageCursorTracer( "setUp" ) ) )
+        {
+            for ( int i = 0; i < PAGE_COUNT; i++ )
+            {
+                assertThat( cursor.next() ).isTrue();
+                cursor.putLong( i );
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        jobScheduler.close();
+    }
+
+    @Test
+    void mustReloadProfiledPagesAfterRestart() throws IOException
+    {
+        try ( PageCache pageCache = createPageCache();
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            for ( long pageId : HOT_PAGES )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK, NULL.createPageCursorTracer( "test" ) ) )
+                {
+                    assertThat( cursor.next() ).isTrue();
+                }
+            }
+            assertThat( createWarmer( pageCache ).profile() ).isEqualTo( HOT_PAGES.length );
+        }
+
+        try ( PageCache pageCache = createPageCache();
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            assertThat( createWarmer( pageCache ).reheat() ).isEqualTo( HOT_PAGES.length );
+            for ( long pageId : HOT_PAGES )
+            {
+                assertThat( isInMemory( pagedFile, pageId ) ).isTrue();
+            }
+            assertThat( isInMemory( pagedFile, 10 ) ).isFalse();
+        }
+        assertThat( logProvider ).containsMessages( "Page cache warmup completed. Loaded 5 pages" );
+    }
+
+    @Test
+    void mustPreloadAllPagesOfMatchingFiles() throws IOException
+    {
+        try ( PageCache pageCache = createPageCache();
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache );
+            assertThat( warmer.preload( Pattern.compile( "other.*" ) ) ).isZero();
+            assertThat( warmer.preload( Pattern.compile( "st.*" ) ) ).isEqualTo( PAGE_COUNT );
+            for ( long pageId = 0; pageId < PAGE_COUNT; pageId++ )
+            {
+                assertThat( isInMemory( pagedFile, pageId ) ).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void mustIgnoreUnreadableProfiles() throws IOException
+    {
+        Path profile = databaseDirectory.resolve( PageCacheWarmer.PROFILES_DIRECTORY ).resolve( "store" + PageCacheWarmer.PROFILE_SUFFIX );
+        fs.mkdirs( profile.getParent().toFile() );
+        try ( OutputStream out = fs.openAsOutputStream( profile.toFile(), false ) )
+        {
+            out.write( new byte[]{1, 2, 3, 4} );
+        }
+
+        try ( PageCache pageCache = createPageCache();
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            assertThat( createWarmer( pageCache ).reheat() ).isZero();
+            assertThat( isInMemory( pagedFile, 0 ) ).isFalse();
+        }
+        assertThat( logProvider ).containsMessages( "Ignoring page cache profile" );
+    }
+
+    @Test
+    void stoppedWarmerMustNotLoadAnything() throws IOException
+    {
+        try ( PageCache pageCache = createPageCache();
+              PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = createWarmer( pageCache );
+            warmer.stop();
+            assertThat( warmer.preload( Pattern.compile( ".*" ) ) ).isZero();
+            assertThat( isInMemory( pagedFile, 0 ) ).isFalse();
+        }
+    }
+
+    private PageCache createPageCache()
+    {
+        return StandalonePageCacheFactory.createPageCache( fs, jobScheduler, NULL );
+    }
+
+    private PageCacheWarmer createWarmer( PageCache pageCache )
+    {
+        return new PageCacheWarmer( fs, pageCache, jobScheduler, databaseDirectory, "test", NULL, Clocks.nanoClock(),
+                logProvider.getLog( PageCacheWarmer.class ), 4 );
+    }
+
+    private static boolean isInMemory( PagedFile pagedFile, long pageId ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL.createPageCursorTracer( "test" ) ) )
+        {
+            return cursor.next() && cursor.getCurrentPageId() == pageId;
+        }
+    }
+}
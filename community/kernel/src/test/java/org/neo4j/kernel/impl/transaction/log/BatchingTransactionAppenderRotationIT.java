@@ -154,7 +154,7 @@ class BatchingTransactionAppenderRotationIT
         @Override
         public LogForceEvent beginLogForce()
         {
-            return null;
+            return LogForceEvent.NULL;
         }
 
         @Override
@@ -163,6 +163,11 @@ class BatchingTransactionAppenderRotationIT
 
         }
 
+        @Override
+        public void compressCommands( long uncompressedBytes, long compressedBytes, long compressionTimeNanos )
+        {
+        }
+
         @Override
         public void close()
         {
@@ -26,6 +26,7 @@ import org.mockito.Mockito;
 
 import java.io.Flushable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -33,6 +34,7 @@ import org.neo4j.io.memory.HeapScopedBuffer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.api.TestCommand;
 import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.api.tracer.DefaultTracer;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
@@ -152,6 +154,31 @@ class BatchingTransactionAppenderTest
         assertNull( tx.next() );
     }
 
+    @Test
+    void shouldReportTransactionsMadeDurableByEachForce() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L, 4L );
+        TransactionToApply batch = batchOf(
+                transaction( singleTestCommand(), new byte[0], 0, 1, 0 ),
+                transaction( singleTestCommand(), new byte[0], 0, 1, 0 ),
+                transaction( singleTestCommand(), new byte[0], 0, 1, 0 ) );
+        DefaultTracer tracer = new DefaultTracer();
+
+        // WHEN
+        try ( LogAppendEvent appendEvent = tracer.beginTransaction( NULL ).beginCommitEvent().beginLogAppend() )
+        {
+            appender.append( batch, appendEvent );
+        }
+
+        // THEN
+        assertEquals( 1, tracer.numberOfLogForces() );
+        assertArrayEquals( new long[]{0, 1, 0, 0}, Arrays.copyOf( tracer.logForceBatchSizeHistogram(), 4 ) );
+        assertEquals( 0, tracer.logForceDelayAccumulatedTotalTimeNanos() );
+    }
+
     @Test
     void shouldAppendCommittedTransactions() throws Exception
     {
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommitDelayTest
+{
+    private static final long MAX_DELAY = MILLISECONDS.toNanos( 5 );
+
+    @Test
+    void shouldNotDelayBeforeAnyForceHasBeenMeasured()
+    {
+        CommitDelay commitDelay = new CommitDelay( MAX_DELAY, 1 );
+
+        assertEquals( 0, commitDelay.delayNanos( 10 ) );
+    }
+
+    @Test
+    void shouldNotDelayWithTooFewArrivingCommitters()
+    {
+        CommitDelay commitDelay = new CommitDelay( MAX_DELAY, 3 );
+        commitDelay.forced( MILLISECONDS.toNanos( 1 ) );
+
+        assertEquals( 0, commitDelay.delayNanos( 0 ) );
+        assertEquals( 0, commitDelay.delayNanos( 2 ) );
+        assertEquals( MILLISECONDS.toNanos( 1 ), commitDelay.delayNanos( 3 ) );
+    }
+
+    @Test
+    void shouldNeverDelayWhenDisabled()
+    {
+        CommitDelay.NO_DELAY.forced( MILLISECONDS.toNanos( 1 ) );
+
+        assertEquals( 0, CommitDelay.NO_DELAY.delayNanos( Integer.MAX_VALUE ) );
+        assertEquals( 0, new CommitDelay( 0, 1 ).delayNanos( 100 ) );
+    }
+
+    @Test
+    void shouldBoundDelayByMaxDelay()
+    {
+        CommitDelay commitDelay = new CommitDelay( MAX_DELAY, 1 );
+        commitDelay.forced( MILLISECONDS.toNanos( 50 ) );
+
+        assertEquals( MAX_DELAY, commitDelay.delayNanos( 1 ) );
+    }
+
+    @Test
+    void shouldBoundDelayByAverageForceTime()
+    {
+        CommitDelay commitDelay = new CommitDelay( MAX_DELAY, 1 );
+        commitDelay.forced( 800 );
+        commitDelay.forced( 1600 );
+
+        // each new force weighs 1/8 in the average
+        assertEquals( 900, commitDelay.delayNanos( 1 ) );
+    }
+}
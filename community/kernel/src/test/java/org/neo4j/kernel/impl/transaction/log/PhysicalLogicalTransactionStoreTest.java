@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -37,10 +38,14 @@ import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.api.TestCommand;
+import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompression;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
@@ -67,6 +72,7 @@ import org.neo4j.test.rule.TestDirectory;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -280,6 +286,56 @@ class PhysicalLogicalTransactionStoreTest
         }
     }
 
+    @Test
+    void shouldReadRawTransactionsWithPlainAndCompressedCommands() throws Exception
+    {
+        // GIVEN
+        TransactionIdStore transactionIdStore = new SimpleTransactionIdStore();
+        TransactionMetadataCache positionCache = new TransactionMetadataCache();
+        LifeSupport life = new LifeSupport();
+        final LogFiles logFiles = buildLogFiles( transactionIdStore );
+        life.add( logFiles );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache,
+                transactionIdStore, DATABASE_HEALTH, LogEntryCompression.ZSTD ) );
+        life.start();
+        try
+        {
+            for ( int size : new int[]{50, 4096, 50} )
+            {
+                PhysicalTransactionRepresentation transaction =
+                        new PhysicalTransactionRepresentation( Collections.singletonList( new TestCommand( size ) ) );
+                transaction.setHeader( new byte[]{1, 2, 5}, 12345, 4545, 12355, -1, ANONYMOUS );
+                appender.append( new TransactionToApply( transaction, NULL ), LogAppendEvent.NULL );
+            }
+
+            PhysicalLogicalTransactionStore store = new PhysicalLogicalTransactionStore( logFiles, positionCache, logEntryReader(), monitors, true );
+
+            // WHEN
+            try ( RawTransactionCursor cursor = store.getRawTransactions( TransactionIdStore.BASE_TX_ID + 1, new TestCommandReaderFactory() ) )
+            {
+                // THEN
+                for ( long txId = TransactionIdStore.BASE_TX_ID + 1; txId <= TransactionIdStore.BASE_TX_ID + 3; txId++ )
+                {
+                    assertTrue( cursor.next() );
+                    TransactionMetadataCache.TransactionMetadata metadata = positionCache.getTransactionMetadata( txId );
+                    assertEquals( txId, cursor.transactionId() );
+                    assertEquals( metadata.getStartPosition(), cursor.position() );
+                    assertEquals( metadata.getChecksum(), cursor.checksum() );
+
+                    ByteBuffer transaction = cursor.get();
+                    assertEquals( LogEntryVersion.LATEST.version(), transaction.get( 0 ) );
+                    assertEquals( LogEntryTypeCodes.TX_START, transaction.get( 1 ) );
+                    assertEquals( metadata.getChecksum(), transaction.getInt( transaction.limit() - Integer.BYTES ) );
+                }
+                assertFalse( cursor.next() );
+            }
+        }
+        finally
+        {
+            life.shutdown();
+        }
+    }
+
     private LogFiles buildLogFiles( TransactionIdStore transactionIdStore ) throws IOException
     {
         return LogFilesBuilder.builder( databaseLayout, fileSystem )
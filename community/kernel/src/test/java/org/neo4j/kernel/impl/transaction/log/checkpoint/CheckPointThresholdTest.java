@@ -21,14 +21,29 @@ package org.neo4j.kernel.impl.transaction.log.checkpoint;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
+
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_recovery_time_target;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold.DEFAULT_CHECKING_FREQUENCY_MILLIS;
 
 class CheckPointThresholdTest extends CheckPointThresholdTestSupport
 {
+    private final AtomicLong appendedBytes = new AtomicLong();
+    private final AtomicLong storeApplyNanos = new AtomicLong();
+    private final AtomicLong checkPointedBytes = new AtomicLong();
+
     @Test
     void mustCreateThresholdThatTriggersAfterTransactionCount()
     {
@@ -223,4 +238,62 @@ class CheckPointThresholdTest extends CheckPointThresholdTestSupport
         withIntervalTime( "100ms" );
         assertThat( createThreshold().checkFrequencyMillis() ).isEqualTo( 100L );
     }
+
+    @Test
+    void mustCreateThresholdThatTriggersWhenEstimatedRecoveryTimeReachesTarget()
+    {
+        config.set( check_point_recovery_time_target, Duration.ofSeconds( 10 ) );
+        RecoveryTimeEstimator estimator = recoveryTimeEstimator();
+        CheckPointThreshold threshold = CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider, estimator );
+        threshold.initialize( 1 );
+
+        // Applying 5 MiB of transactions took 5 seconds, so replaying them would take about as long.
+        appendedBytes.set( mebiBytes( 5 ) );
+        storeApplyNanos.set( SECONDS.toNanos( 5 ) );
+        assertEquals( mebiBytes( 1 ), estimator.replayThroughputBytesPerSecond() );
+        assertEquals( SECONDS.toMillis( 5 ), estimator.estimatedRecoveryTimeMillis() );
+        assertFalse( threshold.isCheckPointingNeeded( 2, notTriggered ) );
+
+        appendedBytes.set( mebiBytes( 10 ) );
+        storeApplyNanos.set( SECONDS.toNanos( 10 ) );
+        assertTrue( threshold.isCheckPointingNeeded( 3, triggered ) );
+        verifyTriggered( "recovery time target" );
+        verifyNoMoreTriggers();
+
+        // The check point only covers what was appended before it started, not what was appended while it was in progress.
+        appendedBytes.set( mebiBytes( 12 ) );
+        storeApplyNanos.set( SECONDS.toNanos( 12 ) );
+        checkPointedBytes.set( mebiBytes( 10 ) );
+        threshold.checkPointHappened( 3 );
+        assertEquals( mebiBytes( 2 ), estimator.logBytesSinceLastCheckPoint() );
+        assertEquals( SECONDS.toMillis( 2 ), estimator.estimatedRecoveryTimeMillis() );
+        assertFalse( threshold.isCheckPointingNeeded( 4, notTriggered ) );
+    }
+
+    @Test
+    void mustNotTriggerOnEstimatedRecoveryTimeWithoutTarget()
+    {
+        RecoveryTimeEstimator estimator = recoveryTimeEstimator();
+        CheckPointThreshold threshold = CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider, estimator );
+        threshold.initialize( 1 );
+
+        appendedBytes.set( mebiBytes( 1000 ) );
+        storeApplyNanos.set( SECONDS.toNanos( 1 ) );
+        assertEquals( SECONDS.toMillis( 1 ), estimator.estimatedRecoveryTimeMillis() );
+        assertFalse( threshold.isCheckPointingNeeded( 2, notTriggered ) );
+        assertEquals( DEFAULT_CHECKING_FREQUENCY_MILLIS, threshold.checkFrequencyMillis() );
+
+        checkPointedBytes.set( mebiBytes( 1000 ) );
+        threshold.checkPointHappened( 2 );
+        assertEquals( 0, estimator.estimatedRecoveryTimeMillis() );
+    }
+
+    private RecoveryTimeEstimator recoveryTimeEstimator()
+    {
+        DatabaseTracer tracer = mock( DatabaseTracer.class );
+        when( tracer.appendedBytes() ).thenAnswer( invocation -> appendedBytes.get() );
+        when( tracer.appendedBytesAtLastCheckPoint() ).thenAnswer( invocation -> checkPointedBytes.get() );
+        when( tracer.storeApplyBatchAccumulatedTotalTimeNanos() ).thenAnswer( invocation -> storeApplyNanos.get() );
+        return new RecoveryTimeEstimator( tracer );
+    }
 }
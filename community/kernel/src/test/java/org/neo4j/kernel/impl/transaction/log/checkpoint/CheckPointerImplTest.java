@@ -58,6 +58,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -84,7 +85,7 @@ class CheckPointerImplTest
     private final TransactionAppender appender = mock( TransactionAppender.class );
     private final Health health = mock( DatabaseHealth.class );
     private final DatabaseTracer tracer = mock( DatabaseTracer.class, RETURNS_MOCKS );
-    private IOLimiter limiter = mock( IOLimiter.class );
+    private IOLimiter limiter = mock( IOLimiter.class, CALLS_REAL_METHODS );
 
     private final long initialTransactionId = 2L;
     private final long transactionId = 42L;
@@ -135,6 +136,34 @@ class CheckPointerImplTest
         verifyNoMoreInteractions( forceOperation, health, appender, threshold, tracer );
     }
 
+    @Test
+    void shouldLeaveIncrementalFlushingToItsOwnJob() throws Throwable
+    {
+        // Given
+        IncrementalFlusher incrementalFlusher = mock( IncrementalFlusher.class );
+        CheckPointerImpl checkPointing = checkPointer( new StoreCopyCheckPointMutex(), incrementalFlusher );
+        when( threshold.isCheckPointingNeeded( anyLong(), eq( INFO ) ) ).thenReturn( false, true );
+        mockTxIdStore();
+
+        checkPointing.start();
+
+        // When
+        long txId = checkPointing.checkPointIfNeeded( INFO );
+
+        // Then
+        assertEquals( -1, txId );
+        verifyNoInteractions( incrementalFlusher, forceOperation );
+
+        // When
+        txId = checkPointing.checkPointIfNeeded( INFO );
+
+        // Then
+        assertEquals( transactionId, txId );
+        verify( forceOperation ).flushAndForce( limiter, NULL );
+        verify( incrementalFlusher ).checkPointHappened();
+        verifyNoMoreInteractions( incrementalFlusher );
+    }
+
     @Test
     void shouldForceCheckPointAlways() throws Throwable
     {
@@ -522,12 +551,17 @@ class CheckPointerImplTest
     }
 
     private CheckPointerImpl checkPointer( StoreCopyCheckPointMutex mutex )
+    {
+        return checkPointer( mutex, null );
+    }
+
+    private CheckPointerImpl checkPointer( StoreCopyCheckPointMutex mutex, IncrementalFlusher incrementalFlusher )
     {
         var databaseTracers = mock( DatabaseTracers.class );
         when( databaseTracers.getDatabaseTracer() ).thenReturn( tracer );
         when( databaseTracers.getPageCacheTracer() ).thenReturn( PageCacheTracer.NULL );
         return new CheckPointerImpl( txIdStore, threshold, forceOperation, logPruning, appender, health,
-                NullLogProvider.getInstance(), databaseTracers, limiter, mutex );
+                NullLogProvider.getInstance(), databaseTracers, limiter, mutex, incrementalFlusher );
     }
 
     private CheckPointerImpl checkPointer()
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.FakeClock;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.transaction.log.checkpoint.IncrementalFlusher.DIRTY_PAGES_PER_LOG_PAGE;
+import static org.neo4j.kernel.impl.transaction.log.checkpoint.IncrementalFlusher.MIN_IOPS;
+
+class IncrementalFlusherTest
+{
+    private static final int PAGE_SIZE = 8192;
+
+    private final PageCache pageCache = mock( PageCache.class );
+    private final PagedFile pagedFile = mock( PagedFile.class );
+    private final AtomicLong appendedLogBytes = new AtomicLong();
+    private final FakeClock clock = Clocks.fakeClock();
+    private IncrementalFlusher flusher;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        when( pageCache.pageSize() ).thenReturn( PAGE_SIZE );
+        when( pageCache.listExistingMappings() ).thenReturn( List.of( pagedFile ) );
+        flusher = new IncrementalFlusher( pageCache, appendedLogBytes::get, clock, mock( JobScheduler.class ), NullLogProvider.getInstance(),
+                SECONDS.toMillis( 10 ) );
+    }
+
+    @Test
+    void shouldNotFlushWhenLogHasNotGrown() throws Exception
+    {
+        clock.forward( 10, SECONDS );
+        flusher.flush();
+
+        verify( pagedFile, never() ).flushWithoutForce( any( IOLimiter.class ) );
+    }
+
+    @Test
+    void shouldFlushAtRateOfLogGrowth() throws Exception
+    {
+        appendedLogBytes.addAndGet( 100L * PAGE_SIZE );
+        clock.forward( 10, SECONDS );
+        flusher.flush();
+
+        verify( pagedFile ).flushWithoutForce( any( IOLimiter.class ) );
+        assertEquals( 100 * DIRTY_PAGES_PER_LOG_PAGE / 10, flusher.currentIopsLimit() );
+
+        appendedLogBytes.addAndGet( 1000L * PAGE_SIZE );
+        clock.forward( 10, SECONDS );
+        flusher.flush();
+
+        verify( pagedFile, times( 2 ) ).flushWithoutForce( any( IOLimiter.class ) );
+        assertEquals( 1000 * DIRTY_PAGES_PER_LOG_PAGE / 10, flusher.currentIopsLimit() );
+    }
+
+    @Test
+    void shouldNotFlushSlowerThanMinimumRate() throws Exception
+    {
+        appendedLogBytes.addAndGet( 10 );
+        clock.forward( 10, SECONDS );
+        flusher.flush();
+
+        verify( pagedFile ).flushWithoutForce( any( IOLimiter.class ) );
+        assertEquals( MIN_IOPS, flusher.currentIopsLimit() );
+    }
+
+    @Test
+    void shouldNotFlushLogGrowthCoveredByCheckPoint() throws Exception
+    {
+        appendedLogBytes.addAndGet( 100L * PAGE_SIZE );
+        clock.forward( 10, SECONDS );
+        flusher.checkPointHappened();
+        clock.forward( 10, SECONDS );
+        flusher.flush();
+
+        verify( pagedFile, never() ).flushWithoutForce( any( IOLimiter.class ) );
+    }
+
+    @Test
+    void shouldNotForceFlushedFiles() throws Exception
+    {
+        appendedLogBytes.addAndGet( 100L * PAGE_SIZE );
+        clock.forward( 10, SECONDS );
+        flusher.flush();
+
+        verify( pagedFile ).flushWithoutForce( any( IOLimiter.class ) );
+        verify( pagedFile, never() ).flushAndForce( any( IOLimiter.class ) );
+        verify( pageCache, never() ).flushAndForce( any( IOLimiter.class ) );
+    }
+}
@@ -23,17 +23,25 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.neo4j.kernel.impl.api.TestCommand;
 import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.storageengine.api.StorageCommand;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryCompression.ZSTD;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion.LATEST;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 
@@ -93,6 +101,93 @@ class VersionAwareLogEntryReaderTest
         assertEquals( command, logEntry );
     }
 
+    @Test
+    void shouldReadCompressedCommandsAsCommandLogEntries() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = compressibleCommands();
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        CompressionRecordingLogAppendEvent appendEvent = new CompressionRecordingLogAppendEvent();
+
+        // when
+        new LogEntryWriter( channel, ZSTD ).serialize( new PhysicalTransactionRepresentation( commands ), appendEvent );
+
+        // then
+        assertThat( appendEvent.compressedBytes ).isGreaterThan( 0 ).isLessThan( appendEvent.uncompressedBytes );
+        // version, type, codec, number of commands, uncompressed and compressed length, followed by the compressed commands
+        assertEquals( 3 + 3 * Integer.BYTES + appendEvent.compressedBytes, channel.writerPosition() );
+        for ( StorageCommand command : commands )
+        {
+            assertEquals( new LogEntryCommand( command ), logEntryReader.readLogEntry( channel ) );
+        }
+        assertNull( logEntryReader.readLogEntry( channel ) );
+    }
+
+    @Test
+    void shouldDiscardPendingCompressedCommandsWhenChannelIsRepositioned() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = compressibleCommands();
+        TestCommand uncompressedCommand = new TestCommand( new byte[] {100, 101, 102} );
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        new LogEntryWriter( channel, ZSTD ).serialize( new PhysicalTransactionRepresentation( commands ) );
+        int uncompressedCommandPosition = channel.writerPosition();
+        new LogEntryWriter( channel ).serialize( new PhysicalTransactionRepresentation( List.of( uncompressedCommand ) ) );
+        InMemoryClosableChannel.Reader reader = channel.reader();
+
+        // when
+        assertEquals( new LogEntryCommand( commands.get( 0 ) ), logEntryReader.readLogEntry( reader ) );
+        reader.setCurrentPosition( uncompressedCommandPosition );
+
+        // then
+        assertEquals( new LogEntryCommand( uncompressedCommand ), logEntryReader.readLogEntry( reader ) );
+
+        // and when
+        reader.setCurrentPosition( 0 );
+
+        // then
+        for ( StorageCommand command : commands )
+        {
+            assertEquals( new LogEntryCommand( command ), logEntryReader.readLogEntry( reader ) );
+        }
+        assertEquals( new LogEntryCommand( uncompressedCommand ), logEntryReader.readLogEntry( reader ) );
+    }
+
+    @Test
+    void shouldNotTrustTheLengthsOfCompressedCommands()
+    {
+        // given
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        channel.put( LATEST.version() );
+        channel.put( LogEntryTypeCodes.COMPRESSED_COMMANDS );
+        channel.put( ZSTD.code() );
+        channel.putInt( 1 ); // number of commands
+        channel.putInt( Integer.MAX_VALUE ); // uncompressed length
+        channel.putInt( Integer.MAX_VALUE ); // compressed length
+
+        // when
+        IOException e = assertThrows( IOException.class, () -> logEntryReader.readLogEntry( channel ) );
+
+        // then
+        assertThat( e.getMessage() ).contains( "Invalid length " + Integer.MAX_VALUE );
+    }
+
+    @Test
+    void shouldWriteSmallTransactionsUncompressed() throws IOException
+    {
+        // given
+        TestCommand testCommand = new TestCommand( new byte[] {100, 101, 102} );
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        CompressionRecordingLogAppendEvent appendEvent = new CompressionRecordingLogAppendEvent();
+
+        // when
+        new LogEntryWriter( channel, ZSTD ).serialize( new PhysicalTransactionRepresentation( List.of( testCommand ) ), appendEvent );
+
+        // then
+        assertEquals( 0, appendEvent.uncompressedBytes );
+        assertEquals( new LogEntryCommand( testCommand ), logEntryReader.readLogEntry( channel ) );
+    }
+
     @Test
     void shouldReadACheckPointLogEntry() throws IOException
     {
@@ -184,6 +279,31 @@ class VersionAwareLogEntryReaderTest
         assertTrue( e.getMessage().contains( "The checksum chain is broken" ) );
     }
 
+    private static class CompressionRecordingLogAppendEvent extends LogAppendEvent.Empty
+    {
+        private long uncompressedBytes;
+        private long compressedBytes;
+
+        @Override
+        public void compressCommands( long uncompressedBytes, long compressedBytes, long compressionTimeNanos )
+        {
+            this.uncompressedBytes += uncompressedBytes;
+            this.compressedBytes += compressedBytes;
+        }
+    }
+
+    private static List<StorageCommand> compressibleCommands()
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ )
+        {
+            byte[] data = new byte[200];
+            Arrays.fill( data, (byte) i );
+            commands.add( new TestCommand( data ) );
+        }
+        return commands;
+    }
+
     private static void writeStartEntry( InMemoryClosableChannel channel, LogEntryStart start )
     {
         channel.beginChecksum();
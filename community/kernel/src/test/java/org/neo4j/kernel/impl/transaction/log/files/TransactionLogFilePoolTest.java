@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+@TestDirectoryExtension
+class TransactionLogFilePoolTest
+{
+    private static final String NAME = "log";
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Test
+    void fillMustFillPoolWithZeroFilledFiles() throws IOException
+    {
+        TransactionLogFilePool pool = new TransactionLogFilePool( fileSystem, testDirectory.homeDir(), NAME, 2, INSTANCE );
+        pool.init();
+        assertEquals( 0, pool.size() );
+
+        pool.fill( 100 );
+
+        assertEquals( 2, pool.size() );
+        File logFile = testDirectory.file( NAME + ".0" );
+        assertTrue( pool.allocate( logFile ) );
+        assertEquals( 100, fileSystem.getFileSize( logFile ) );
+        assertOnlyZeros( logFile );
+        assertTrue( pool.allocate( testDirectory.file( NAME + ".1" ) ) );
+        assertFalse( pool.allocate( testDirectory.file( NAME + ".2" ) ) );
+        assertEquals( 0, pool.size() );
+    }
+
+    @Test
+    void fillMustOnlyCreateNewFilesAndLeaveAllocatedFilesAlone() throws IOException
+    {
+        TransactionLogFilePool pool = new TransactionLogFilePool( fileSystem, testDirectory.homeDir(), NAME, 1, INSTANCE );
+        pool.init();
+        pool.fill( 10 );
+        File first = testDirectory.file( NAME + ".0" );
+        assertTrue( pool.allocate( first ) );
+        writeOnes( first, 50 );
+
+        pool.fill( 10 );
+        pool.fill( 10 );
+
+        assertEquals( 1, pool.size() );
+        assertEquals( 50, fileSystem.getFileSize( first ) );
+        File second = testDirectory.file( NAME + ".1" );
+        assertTrue( pool.allocate( second ) );
+        assertEquals( 10, fileSystem.getFileSize( second ) );
+        assertOnlyZeros( second );
+    }
+
+    @Test
+    void initMustPickUpPooledFilesFromEarlierRun() throws IOException
+    {
+        File directory = testDirectory.homeDir();
+        TransactionLogFilePool pool = new TransactionLogFilePool( fileSystem, directory, NAME, 3, INSTANCE );
+        pool.init();
+        pool.fill( 10 );
+
+        TransactionLogFilePool smallerPool = new TransactionLogFilePool( fileSystem, directory, NAME, 2, INSTANCE );
+        smallerPool.init();
+
+        assertEquals( 2, smallerPool.size() );
+        assertThat( fileSystem.listFiles( directory ) ).hasSize( 2 );
+        assertThat( fileSystem.listFiles( directory, TransactionLogFiles.DEFAULT_FILENAME_FILTER ) ).isEmpty();
+    }
+
+    private void writeOnes( File file, int size ) throws IOException
+    {
+        try ( StoreChannel channel = fileSystem.write( file ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( size );
+            while ( buffer.hasRemaining() )
+            {
+                buffer.put( (byte) 1 );
+            }
+            buffer.flip();
+            channel.writeAll( buffer );
+        }
+    }
+
+    private void assertOnlyZeros( File file ) throws IOException
+    {
+        try ( StoreChannel channel = fileSystem.read( file ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( (int) channel.size() );
+            channel.readAll( buffer );
+            buffer.flip();
+            while ( buffer.hasRemaining() )
+            {
+                assertEquals( 0, buffer.get() );
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.neo4j.configuration.Config;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.layout.DatabaseLayout;
@@ -45,6 +46,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_recycle_pool_size;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.LOG_HEADER_SIZE_3_5;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.LOG_VERSION_3_5;
@@ -232,6 +234,38 @@ class TransactionLogFilesTest
         }
     }
 
+    @Test
+    void newLogChannelMustReusePooledFile() throws Exception
+    {
+        LogFiles logFiles = LogFilesBuilder
+                .builder( databaseLayout, fileSystem )
+                .withLogFileName( filename )
+                .withTransactionIdStore( new SimpleTransactionIdStore() )
+                .withLogVersionRepository( new SimpleLogVersionRepository() )
+                .withLogEntryReader( new VersionAwareLogEntryReader( new TestCommandReaderFactory() ) )
+                .withStoreId( StoreId.UNKNOWN )
+                .withRotationThreshold( 1024 )
+                .withConfig( Config.defaults( transaction_log_recycle_pool_size, 1 ) )
+                .build();
+        logFiles.init();
+        File logsDirectory = logFiles.logFilesDirectory();
+        assertThat( fileSystem.listFiles( logsDirectory ) ).isNullOrEmpty();
+        logFiles.fillLogFilePool();
+        assertThat( fileSystem.listFiles( logsDirectory ) ).hasSize( 1 );
+
+        logFiles.createLogChannelForVersion( 1, () -> 5L ).close();
+
+        assertThat( fileSystem.listFiles( logsDirectory ) ).containsExactly( logFiles.getLogFileForVersion( 1 ) );
+        assertEquals( 1024, fileSystem.getFileSize( logFiles.getLogFileForVersion( 1 ) ) );
+        assertEquals( 5L, logFiles.extractHeader( 1 ).getLastCommittedTxId() );
+        assertFalse( logFiles.hasAnyEntries( 1 ) );
+
+        logFiles.fillLogFilePool();
+        assertTrue( logFiles.versionExists( 1 ) );
+        assertThat( fileSystem.listFiles( logsDirectory ) ).hasSize( 2 );
+        logFiles.shutdown();
+    }
+
     private void create3_5FileWithHeader( DatabaseLayout databaseLayout, String version, int bytesOfData ) throws IOException
     {
         try ( StoreChannel storeChannel = fileSystem.write( createTransactionLogFile( databaseLayout, getVersionedLogFileName( version ) ) ) )
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.storageengine.api.CommandDependencies;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+
+class ParallelRecoveryApplierTest
+{
+    private static final CommandDependencies DEPENDENCIES = ( command, dependencies ) ->
+    {
+        long[] keys = ((DependentCommand) command).dependencies;
+        if ( keys == null )
+        {
+            return false;
+        }
+        for ( long key : keys )
+        {
+            dependencies.accept( key );
+        }
+        return true;
+    };
+
+    private final StorageEngine storageEngine = mock( StorageEngine.class );
+    private final Map<Long,List<Long>> appliedTransactionsPerDependency = new ConcurrentHashMap<>();
+    private final List<Long> appliedTransactions = new CopyOnWriteArrayList<>();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        executor = Executors.newFixedThreadPool( 4 );
+        when( storageEngine.commandDependencies() ).thenReturn( DEPENDENCIES );
+        doAnswer( invocation ->
+        {
+            TransactionToApply tx = invocation.getArgument( 0 );
+            Thread.sleep( ThreadLocalRandom.current().nextInt( 2 ) );
+            for ( StorageCommand command : tx.transactionRepresentation() )
+            {
+                long[] keys = ((DependentCommand) command).dependencies;
+                for ( long key : keys == null ? new long[0] : keys )
+                {
+                    appliedTransactionsPerDependency.computeIfAbsent( key, k -> new CopyOnWriteArrayList<>() ).add( tx.transactionId() );
+                }
+            }
+            appliedTransactions.add( tx.transactionId() );
+            return null;
+        } ).when( storageEngine ).apply( any(), any() );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void transactionsSharingDependencyMustBeAppliedInCommitOrder() throws Exception
+    {
+        int transactions = 500;
+        try ( ParallelRecoveryApplier applier = newApplier() )
+        {
+            for ( long txId = 1; txId <= transactions; txId++ )
+            {
+                applier.visit( transaction( txId, txId % 7, txId % 3 + 100 ) );
+            }
+        }
+
+        assertThat( appliedTransactions ).hasSize( transactions );
+        assertThat( appliedTransactionsPerDependency ).hasSize( 10 );
+        for ( List<Long> txIds : appliedTransactionsPerDependency.values() )
+        {
+            assertThat( txIds ).isSorted();
+        }
+    }
+
+    @Test
+    void isolatedTransactionMustBeAppliedAfterAllEarlierTransactions() throws Exception
+    {
+        AtomicInteger appliedBeforeIsolated = new AtomicInteger( -1 );
+        try ( ParallelRecoveryApplier applier = newApplier() )
+        {
+            for ( long txId = 1; txId <= 100; txId++ )
+            {
+                applier.visit( transaction( txId, txId ) );
+            }
+            applier.visit( isolatedTransaction( 101 ) );
+            appliedBeforeIsolated.set( appliedTransactions.indexOf( 101L ) );
+            for ( long txId = 102; txId <= 200; txId++ )
+            {
+                applier.visit( transaction( txId, txId ) );
+            }
+        }
+
+        assertThat( appliedBeforeIsolated.get() ).isEqualTo( 100 );
+        assertThat( appliedTransactions ).hasSize( 200 );
+    }
+
+    @Test
+    void failureToApplyTransactionMustFailRecovery() throws Exception
+    {
+        doAnswer( invocation ->
+        {
+            throw new IllegalStateException( "Apply failed" );
+        } ).when( storageEngine ).apply( any(), any() );
+
+        RecoveryApplyException failure = assertThrows( RecoveryApplyException.class, () ->
+        {
+            try ( ParallelRecoveryApplier applier = newApplier() )
+            {
+                applier.visit( transaction( 1, 1 ) );
+            }
+        } );
+        assertThat( failure ).hasRootCauseInstanceOf( IllegalStateException.class );
+    }
+
+    private ParallelRecoveryApplier newApplier()
+    {
+        return new ParallelRecoveryApplier( storageEngine, RECOVERY, NULL, NULL.createPageCursorTracer( "test" ), executor, 4 );
+    }
+
+    private static CommittedTransactionRepresentation transaction( long txId, long... dependencies )
+    {
+        return committed( txId, new DependentCommand( dependencies ) );
+    }
+
+    private static CommittedTransactionRepresentation isolatedTransaction( long txId )
+    {
+        return committed( txId, new DependentCommand( null ) );
+    }
+
+    private static CommittedTransactionRepresentation committed( long txId, StorageCommand command )
+    {
+        PhysicalTransactionRepresentation representation = new PhysicalTransactionRepresentation( singletonList( command ) );
+        representation.setHeader( new byte[0], 0, txId - 1, 0, -1, null );
+        LogEntryStart start = new LogEntryStart( 0L, txId - 1, 0, null, LogPosition.UNSPECIFIED );
+        return new CommittedTransactionRepresentation( start, representation, new LogEntryCommit( txId, 0L, BASE_TX_CHECKSUM ) );
+    }
+
+    private static class DependentCommand implements StorageCommand
+    {
+        private final long[] dependencies;
+
+        DependentCommand( long[] dependencies )
+        {
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public void serialize( WritableChannel channel )
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
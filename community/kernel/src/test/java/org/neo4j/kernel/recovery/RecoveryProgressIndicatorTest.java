@@ -31,10 +31,17 @@ import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.FakeClock;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_LOG_HEADER_SIZE;
 import static org.neo4j.kernel.recovery.RecoveryStartupChecker.EMPTY_CHECKER;
@@ -78,6 +85,46 @@ class RecoveryProgressIndicatorTest
         progressReporter.verify();
     }
 
+    @Test
+    void reportThroughputPeriodicallyDuringRecovery() throws Throwable
+    {
+        RecoveryService recoveryService = mock( RecoveryService.class, Answers.RETURNS_MOCKS );
+        RecoveryMonitor recoveryMonitor = mock( RecoveryMonitor.class );
+        TransactionCursor reverseTransactionCursor = mock( TransactionCursor.class );
+        TransactionCursor transactionCursor = mock( TransactionCursor.class );
+        CommittedTransactionRepresentation transactionRepresentation = mock( CommittedTransactionRepresentation.class );
+        FakeClock clock = Clocks.fakeClock();
+
+        int transactionsToRecover = 25;
+        int lastCommittedTransactionId = 34;
+        LogPosition recoveryStartPosition = new LogPosition( 0, CURRENT_FORMAT_LOG_HEADER_SIZE );
+        RecoveryStartInformation startInformation = new RecoveryStartInformation( recoveryStartPosition, 10 );
+
+        when( reverseTransactionCursor.next() ).thenAnswer( new NextTransactionAnswer( transactionsToRecover ) );
+        NextTransactionAnswer nextTransaction = new NextTransactionAnswer( transactionsToRecover );
+        when( transactionCursor.next() ).thenAnswer( invocation ->
+        {
+            // Every transaction takes a second to recover
+            clock.forward( 1, SECONDS );
+            return nextTransaction.answer( invocation );
+        } );
+        when( reverseTransactionCursor.get() ).thenReturn( transactionRepresentation );
+        when( transactionCursor.get() ).thenReturn( transactionRepresentation );
+        when( transactionRepresentation.getCommitEntry() ).thenReturn( new LogEntryCommit( lastCommittedTransactionId, 1L, BASE_TX_CHECKSUM ) );
+
+        when( recoveryService.getRecoveryStartInformation() ).thenReturn( startInformation );
+        when( recoveryService.getTransactionsInReverseOrder( recoveryStartPosition ) ).thenReturn( reverseTransactionCursor );
+        when( recoveryService.getTransactions( recoveryStartPosition ) ).thenReturn( transactionCursor );
+
+        TransactionLogsRecovery recovery = new TransactionLogsRecovery( recoveryService, mock( CorruptedLogsTruncator.class ), new LifecycleAdapter(),
+                recoveryMonitor, ProgressReporter.SILENT, true, EMPTY_CHECKER, PageCacheTracer.NULL, clock );
+        recovery.init();
+
+        verify( recoveryMonitor ).recoveryThroughput( lastCommittedTransactionId, 10, 1 );
+        verify( recoveryMonitor ).recoveryThroughput( lastCommittedTransactionId, 20, 1 );
+        verify( recoveryMonitor, times( 2 ) ).recoveryThroughput( anyLong(), anyInt(), anyLong() );
+    }
+
     private static class AssertableProgressReporter implements ProgressReporter
     {
         private final int expectedMax;
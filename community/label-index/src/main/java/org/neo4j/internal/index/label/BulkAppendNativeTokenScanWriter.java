@@ -40,6 +40,10 @@ import static org.neo4j.util.Preconditions.checkArgument;
  * especially when there are lots of tokens involved. It works by having an array of ranges, slot index is tokenId. Updates that comes in
  * will find the slot by tokenId and add the correct bit to the current range, or if the bit is in another range, merge the current one first.
  * It cannot handle updates to entities that are already in ths token index, such operations will fail before trying to make those changes.
+ * <p>
+ * Ranges are merged into the tree in entity id order, token by token as they fill up, so keys don't arrive in the sorted order
+ * which {@link org.neo4j.index.internal.gbptree.GBPTree#bulkWriter(double, org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer)}
+ * requires. This writer therefore goes through the regular tree writer, also when used by the import tool.
  */
 class BulkAppendNativeTokenScanWriter implements TokenScanWriter
 {
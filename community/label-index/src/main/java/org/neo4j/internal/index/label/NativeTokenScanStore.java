@@ -57,6 +57,7 @@ import org.neo4j.storageengine.api.EntityTokenUpdateListener;
 
 import static org.eclipse.collections.impl.factory.Sets.immutable;
 import static org.neo4j.internal.index.label.TokenScanValue.RANGE_SIZE;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.HIGH_PRIORITY;
 
 /**
  * Implements {@link TokenScanStore} and thus also implements {@link LabelScanStore}.
@@ -421,8 +422,10 @@ public abstract class NativeTokenScanStore implements TokenScanStore, EntityToke
                 headerData -> isRebuilding.setValue( headerData.get() == NEEDS_REBUILDING );
         try
         {
+            // Token scan stores are small compared to the stores they index, so keep them in the page cache even when large scans churn
+            // through the stores.
             index = new GBPTree<>( pageCache, storeFile, new TokenScanLayout(), monitor, readRebuilding,
-                    needsRebuildingWriter, recoveryCleanupWorkCollector, readOnly, cacheTracer, immutable.empty() );
+                    needsRebuildingWriter, recoveryCleanupWorkCollector, readOnly, cacheTracer, immutable.of( HIGH_PRIORITY ) );
             return isRebuilding.getValue();
         }
         catch ( TreeFileNotFoundException e )
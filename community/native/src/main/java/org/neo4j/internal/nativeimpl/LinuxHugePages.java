@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+
+import static java.lang.Boolean.getBoolean;
+
+/**
+ * Access to the Linux memory calls needed to back memory with huge pages, either explicitly through anonymous
+ * {@code MAP_HUGETLB} mappings, which draw from the pool of huge pages reserved by the administrator, or by advising the
+ * kernel to use transparent huge pages for an existing region of memory.
+ * <p>
+ * None of the methods throw. Failures are reported through the return values, since the caller is always expected to
+ * fall back to regular pages when huge pages cannot be had.
+ */
+public final class LinuxHugePages
+{
+    /**
+     * The size of a huge page on the platforms we support. Explicit huge page mappings must be a multiple of this size,
+     * and only regions aligned to this size can be backed by transparent huge pages.
+     */
+    public static final long HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+
+    private static final boolean DISABLE_HUGE_PAGES = getBoolean( LinuxHugePages.class.getName() + ".disable" );
+
+    private static final int PROT_READ = 0x1;
+    private static final int PROT_WRITE = 0x2;
+    private static final int MAP_PRIVATE = 0x02;
+    private static final int MAP_ANONYMOUS = 0x20;
+    private static final int MAP_HUGETLB = 0x40000;
+    private static final long MAP_FAILED = -1;
+    private static final int MADV_HUGEPAGE = 14;
+
+    private static final boolean NATIVE_ACCESS_AVAILABLE;
+
+    static
+    {
+        boolean available = false;
+        try
+        {
+            if ( Platform.isLinux() && Platform.is64Bit() && !DISABLE_HUGE_PAGES )
+            {
+                Native.register( Platform.C_LIBRARY_NAME );
+                available = true;
+            }
+        }
+        catch ( Throwable t )
+        {
+            // Huge pages will simply not be available.
+        }
+        NATIVE_ACCESS_AVAILABLE = available;
+    }
+
+    private LinuxHugePages()
+    {
+        // only static methods
+    }
+
+    private static native long mmap( long address, long length, int prot, int flags, int fd, long offset ) throws LastErrorException;
+
+    private static native int munmap( long address, long length ) throws LastErrorException;
+
+    private static native int madvise( long address, long length, int advice ) throws LastErrorException;
+
+    /**
+     * @return {@code true} if the huge page calls can be attempted on this platform.
+     */
+    public static boolean isAvailable()
+    {
+        return NATIVE_ACCESS_AVAILABLE;
+    }
+
+    /**
+     * Map anonymous memory that is backed by explicit huge pages.
+     *
+     * @param length the size of the mapping in bytes. Must be a multiple of {@link #HUGE_PAGE_SIZE}.
+     * @return the address of the mapping, or zero if there were not enough free huge pages, or the mapping failed for any other reason.
+     */
+    public static long mapHugePages( long length )
+    {
+        if ( !NATIVE_ACCESS_AVAILABLE || length % HUGE_PAGE_SIZE != 0 )
+        {
+            return 0;
+        }
+        try
+        {
+            long address = mmap( 0, length, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS | MAP_HUGETLB, -1, 0 );
+            return address == MAP_FAILED ? 0 : address;
+        }
+        catch ( LastErrorException e )
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Unmap memory previously mapped with {@link #mapHugePages(long)}.
+     *
+     * @return {@code true} if the memory was unmapped.
+     */
+    public static boolean unmapHugePages( long address, long length )
+    {
+        try
+        {
+            return munmap( address, length ) == 0;
+        }
+        catch ( LastErrorException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Advise the kernel to back the given region with transparent huge pages. This only has an effect if transparent huge
+     * pages are enabled in either {@code always} or {@code madvise} mode.
+     *
+     * @param address the start of the region. Must be aligned to {@link #HUGE_PAGE_SIZE}.
+     * @param length the size of the region in bytes.
+     * @return {@code true} if the advice was accepted.
+     */
+    public static boolean adviseHugePages( long address, long length )
+    {
+        if ( !NATIVE_ACCESS_AVAILABLE )
+        {
+            return false;
+        }
+        try
+        {
+            return madvise( address, length, MADV_HUGEPAGE ) == 0;
+        }
+        catch ( LastErrorException e )
+        {
+            return false;
+        }
+    }
+}
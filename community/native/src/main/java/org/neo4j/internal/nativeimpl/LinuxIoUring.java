@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+
+import java.io.IOException;
+
+import static java.lang.Boolean.getBoolean;
+
+/**
+ * Raw access to the Linux io_uring system calls, and to the memory mapping calls needed to share the submission and
+ * completion rings with the kernel.
+ * <p>
+ * This class deliberately does not know anything about the layout of the rings. It only makes the calls, and turns
+ * failed calls into {@link IOException IOExceptions}. The rings themselves are managed by the caller.
+ */
+public final class LinuxIoUring
+{
+    /**
+     * Offset to pass to {@link #mmap(long, int, long)} to map the submission queue ring.
+     */
+    public static final long IORING_OFF_SQ_RING = 0L;
+    /**
+     * Offset to pass to {@link #mmap(long, int, long)} to map the completion queue ring.
+     */
+    public static final long IORING_OFF_CQ_RING = 0x8000000L;
+    /**
+     * Offset to pass to {@link #mmap(long, int, long)} to map the submission queue entries.
+     */
+    public static final long IORING_OFF_SQES = 0x10000000L;
+    /**
+     * Flag for {@link #enter(int, int, int, int)} to wait for the given minimum number of completions.
+     */
+    public static final int IORING_ENTER_GETEVENTS = 1;
+    /**
+     * The size in bytes of the {@code struct io_uring_params} that is given to {@link #setup(int, long)}.
+     */
+    public static final int IO_URING_PARAMS_SIZE = 120;
+
+    private static final boolean DISABLE_IO_URING = getBoolean( LinuxIoUring.class.getName() + ".disable" );
+
+    // The io_uring system calls were added after the unification of the system call tables, so they have the same
+    // numbers on all architectures.
+    private static final long SYS_IO_URING_SETUP = 425;
+    private static final long SYS_IO_URING_ENTER = 426;
+
+    private static final int PROT_READ = 0x1;
+    private static final int PROT_WRITE = 0x2;
+    private static final int MAP_SHARED = 0x01;
+    private static final int MAP_POPULATE = 0x08000;
+    private static final long MAP_FAILED = -1;
+
+    private static final boolean NATIVE_ACCESS_AVAILABLE;
+    private static final Throwable INITIALIZATION_FAILURE;
+
+    static
+    {
+        Throwable initFailure = null;
+        boolean available = false;
+        try
+        {
+            if ( Platform.isLinux() && Platform.is64Bit() && !DISABLE_IO_URING )
+            {
+                Native.register( Platform.C_LIBRARY_NAME );
+                available = true;
+            }
+        }
+        catch ( Throwable t )
+        {
+            initFailure = t;
+        }
+        NATIVE_ACCESS_AVAILABLE = available;
+        INITIALIZATION_FAILURE = initFailure;
+    }
+
+    private LinuxIoUring()
+    {
+        // only static methods
+    }
+
+    private static native long syscall( long number, long arg1, long arg2, long arg3, long arg4, long arg5, long arg6 ) throws LastErrorException;
+
+    private static native long mmap( long address, long length, int prot, int flags, int fd, long offset ) throws LastErrorException;
+
+    private static native int munmap( long address, long length ) throws LastErrorException;
+
+    private static native int close( int fd ) throws LastErrorException;
+
+    private static native int dup( int fd ) throws LastErrorException;
+
+    /**
+     * @return {@code true} if the io_uring system calls can be attempted on this platform. The kernel may still refuse
+     * to set up a ring, for instance if it is too old, or if io_uring has been disabled by the administrator.
+     */
+    public static boolean isAvailable()
+    {
+        return NATIVE_ACCESS_AVAILABLE;
+    }
+
+    /**
+     * @return a description of why io_uring cannot be used, or that it can be attempted.
+     */
+    public static String describe()
+    {
+        if ( NATIVE_ACCESS_AVAILABLE )
+        {
+            return "Linux io_uring system calls are available.";
+        }
+        StringBuilder description = new StringBuilder( "Linux io_uring system calls are not available." );
+        if ( INITIALIZATION_FAILURE != null )
+        {
+            description.append( " Details: " ).append( INITIALIZATION_FAILURE );
+        }
+        return description.toString();
+    }
+
+    /**
+     * Set up a new io_uring instance.
+     *
+     * @param entries the requested number of submission queue entries.
+     * @param paramsAddress address of a zeroed {@code struct io_uring_params} of {@link #IO_URING_PARAMS_SIZE} bytes,
+     * which the kernel fills in with the ring sizes and offsets.
+     * @return the file descriptor of the ring.
+     * @throws IOException if the ring could not be created.
+     */
+    public static int setup( int entries, long paramsAddress ) throws IOException
+    {
+        try
+        {
+            return (int) syscall( SYS_IO_URING_SETUP, entries, paramsAddress, 0, 0, 0, 0 );
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( "io_uring_setup failed with error code " + e.getErrorCode(), e );
+        }
+    }
+
+    /**
+     * Submit queued submission queue entries, and optionally wait for completions.
+     *
+     * @param ringFd the file descriptor of the ring.
+     * @param toSubmit the number of submission queue entries to submit.
+     * @param minComplete the number of completions to wait for, if {@link #IORING_ENTER_GETEVENTS} is given.
+     * @param flags the {@code IORING_ENTER_*} flags.
+     * @return the number of submission queue entries consumed by the kernel, or the negated error code if the call
+     * failed with a transient error that the caller should retry, like {@code EINTR} or {@code EAGAIN}.
+     * @throws IOException if the call failed with any other error.
+     */
+    public static int enter( int ringFd, int toSubmit, int minComplete, int flags ) throws IOException
+    {
+        try
+        {
+            return (int) syscall( SYS_IO_URING_ENTER, ringFd, toSubmit, minComplete, flags, 0, 0 );
+        }
+        catch ( LastErrorException e )
+        {
+            int errorCode = e.getErrorCode();
+            if ( errorCode == Errno.EINTR || errorCode == Errno.EAGAIN || errorCode == Errno.EBUSY )
+            {
+                return -errorCode;
+            }
+            throw new IOException( "io_uring_enter failed with error code " + errorCode, e );
+        }
+    }
+
+    /**
+     * Map a region of the given ring into memory.
+     *
+     * @param length the number of bytes to map.
+     * @param ringFd the file descriptor of the ring.
+     * @param offset one of {@link #IORING_OFF_SQ_RING}, {@link #IORING_OFF_CQ_RING} or {@link #IORING_OFF_SQES}.
+     * @return the address of the mapped region.
+     * @throws IOException if the region could not be mapped.
+     */
+    public static long mmap( long length, int ringFd, long offset ) throws IOException
+    {
+        try
+        {
+            long address = mmap( 0, length, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE, ringFd, offset );
+            if ( address == MAP_FAILED )
+            {
+                throw new IOException( "mmap of io_uring region at offset " + offset + " failed" );
+            }
+            return address;
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( "mmap of io_uring region at offset " + offset + " failed with error code " + e.getErrorCode(), e );
+        }
+    }
+
+    /**
+     * Unmap a region previously mapped with {@link #mmap(long, int, long)}.
+     */
+    public static void munmapRegion( long address, long length ) throws IOException
+    {
+        try
+        {
+            munmap( address, length );
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( "munmap of io_uring region failed with error code " + e.getErrorCode(), e );
+        }
+    }
+
+    /**
+     * Close the given ring file descriptor.
+     */
+    public static void closeRing( int ringFd ) throws IOException
+    {
+        try
+        {
+            close( ringFd );
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( "close of io_uring file descriptor failed with error code " + e.getErrorCode(), e );
+        }
+    }
+
+    /**
+     * Duplicate the given file descriptor. The duplicate refers to the same open file, and stays valid until it is closed with
+     * {@link #closeDuplicate(int)}, even if the original file descriptor is closed in the meantime.
+     *
+     * @return the new file descriptor.
+     * @throws IOException if the file descriptor could not be duplicated.
+     */
+    public static int duplicate( int fd ) throws IOException
+    {
+        try
+        {
+            return dup( fd );
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( "dup of file descriptor failed with error code " + e.getErrorCode(), e );
+        }
+    }
+
+    /**
+     * Close a file descriptor created with {@link #duplicate(int)}.
+     */
+    public static void closeDuplicate( int fd ) throws IOException
+    {
+        try
+        {
+            close( fd );
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( "close of duplicated file descriptor failed with error code " + e.getErrorCode(), e );
+        }
+    }
+
+    /**
+     * The error numbers that callers of io_uring need to tell apart. Completions report errors as negated error numbers.
+     */
+    public static final class Errno
+    {
+        public static final int EINTR = 4;
+        public static final int EBADF = 9;
+        public static final int EAGAIN = 11;
+        public static final int EBUSY = 16;
+
+        private Errno()
+        {
+        }
+    }
+}
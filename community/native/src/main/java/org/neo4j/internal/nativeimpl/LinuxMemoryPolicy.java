@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+
+import static java.lang.Boolean.getBoolean;
+
+/**
+ * Access to the Linux NUMA memory policy calls, through {@code libnuma}, so that regions of memory can be placed on a
+ * particular NUMA node before they are first touched.
+ * <p>
+ * None of the methods throw. Failures are reported through the return values, since the caller is always expected to
+ * fall back to the default first-touch placement when a memory policy cannot be set.
+ */
+public final class LinuxMemoryPolicy
+{
+    private static final boolean DISABLE_MEMORY_POLICY = getBoolean( LinuxMemoryPolicy.class.getName() + ".disable" );
+
+    /**
+     * Allocate memory from the given node, falling back to other nodes when the node is out of free memory.
+     * Unlike {@code MPOL_BIND}, this never makes an allocation fail for as long as any node has memory to spare.
+     */
+    private static final int MPOL_PREFERRED = 1;
+
+    private static final boolean NATIVE_ACCESS_AVAILABLE;
+
+    static
+    {
+        boolean available = false;
+        try
+        {
+            if ( Platform.isLinux() && Platform.is64Bit() && !DISABLE_MEMORY_POLICY )
+            {
+                Native.register( "numa" );
+                available = true;
+            }
+        }
+        catch ( Throwable t )
+        {
+            // Memory will simply be placed by the first touch.
+        }
+        NATIVE_ACCESS_AVAILABLE = available;
+    }
+
+    private LinuxMemoryPolicy()
+    {
+        // only static methods
+    }
+
+    private static native long mbind( long address, long length, int mode, long[] nodemask, long maxnode, int flags ) throws LastErrorException;
+
+    /**
+     * @return {@code true} if the memory policy calls can be attempted on this platform.
+     */
+    public static boolean isAvailable()
+    {
+        return NATIVE_ACCESS_AVAILABLE;
+    }
+
+    /**
+     * Make the given region of memory prefer the pages of the given NUMA node. This only affects the pages of the region
+     * that have not yet been touched.
+     *
+     * @param address the start of the region. Must be aligned to the size of a page.
+     * @param length the size of the region in bytes.
+     * @param node the operating system id of the NUMA node.
+     * @return {@code true} if the memory policy was set.
+     */
+    public static boolean preferNode( long address, long length, int node )
+    {
+        if ( !NATIVE_ACCESS_AVAILABLE || node < 0 || length <= 0 )
+        {
+            return false;
+        }
+        long[] nodemask = new long[node / Long.SIZE + 1];
+        nodemask[node / Long.SIZE] = 1L << (node % Long.SIZE);
+        try
+        {
+            // The kernel only looks at the first maxnode - 1 bits of the mask.
+            return mbind( address, length, MPOL_PREFERRED, nodemask, nodemask.length * Long.SIZE + 1, 0 ) == 0;
+        }
+        catch ( LastErrorException e )
+        {
+            return false;
+        }
+    }
+}
@@ -98,6 +98,12 @@ public class LinuxNativeAccess implements NativeAccess
      */
     private static native int posix_fallocate( int fd, long offset, long len ) throws LastErrorException;
 
+    /**
+     * Determine the CPU on which the calling thread is running.
+     * @return a non-negative CPU number on success. On error, -1 is returned and errno is set to indicate the error.
+     */
+    private static native int sched_getcpu() throws LastErrorException;
+
     /**
      * Return pointer to a string describing error number, possibly using the LC_MESSAGES part of the current locale to select the appropriate language.
      * @param errnum error number to describe
@@ -156,6 +162,19 @@ public class LinuxNativeAccess implements NativeAccess
         return wrapResult( () -> posix_fallocate( fd, 0, bytes ) );
     }
 
+    @Override
+    public int getCurrentCpu()
+    {
+        try
+        {
+            return sched_getcpu();
+        }
+        catch ( LastErrorException e )
+        {
+            return ERROR;
+        }
+    }
+
     @Override
     public String describe()
     {
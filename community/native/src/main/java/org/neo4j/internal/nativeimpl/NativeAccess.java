@@ -69,6 +69,16 @@ public interface NativeAccess
      */
     NativeCallResult tryPreallocateSpace( int fd, long bytes );
 
+    /**
+     * Get the CPU that the calling thread is currently running on.
+     * The thread can be migrated to another CPU at any time, so the result should only be used as a hint.
+     * @return the id of the CPU the calling thread is running on, or {@link #ERROR} if it is not known.
+     */
+    default int getCurrentCpu()
+    {
+        return ERROR;
+    }
+
     /**
      * Details about native access provider
      * @return details about native access
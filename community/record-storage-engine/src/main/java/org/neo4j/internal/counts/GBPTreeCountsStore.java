@@ -69,6 +69,7 @@ import static org.neo4j.internal.counts.CountsKey.relationshipKey;
 import static org.neo4j.internal.counts.CountsKey.strayTxId;
 import static org.neo4j.internal.counts.TreeWriter.merge;
 import static org.neo4j.io.IOUtils.closeAllUnchecked;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.HIGH_PRIORITY;
 import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
 
@@ -143,8 +144,9 @@ public class GBPTreeCountsStore implements CountsStore
     {
         try
         {
+            // The counts store is small and read by most queries, so keep it in the page cache even when large scans churn through the stores.
             return new GBPTree<>( pageCache, file, layout, GBPTree.NO_MONITOR, header, header, recoveryCollector, readOnly, pageCacheTracer,
-                    immutable.empty() );
+                    immutable.of( HIGH_PRIORITY ) );
         }
         catch ( TreeFileNotFoundException e )
         {
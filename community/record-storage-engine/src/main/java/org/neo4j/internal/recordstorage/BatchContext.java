@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import org.neo4j.io.IOUtils;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.impl.store.IdUpdateListener;
 import org.neo4j.kernel.impl.store.NodeStore;
@@ -47,7 +49,7 @@ public class BatchContext implements AutoCloseable
     private final PropertyStore propertyStore;
     private final StorageEngine storageEngine;
     private final SchemaCache schemaCache;
-    private final PageCursorTracer cursorTracer;
+    private final TransactionCursorTracer cursorTracer;
     private final MemoryTracker memoryTracker;
     private final IdUpdateListener idUpdateListener;
 
@@ -72,7 +74,7 @@ public class BatchContext implements AutoCloseable
         this.propertyStore = propertyStore;
         this.storageEngine = recordStorageEngine;
         this.schemaCache = schemaCache;
-        this.cursorTracer = cursorTracer;
+        this.cursorTracer = new TransactionCursorTracer( cursorTracer );
         this.memoryTracker = memoryTracker;
         this.idUpdateListener = idUpdateListener;
         this.lockGroup = new LockGroup();
@@ -149,6 +151,18 @@ public class BatchContext implements AutoCloseable
         }
     }
 
+    /**
+     * Switches to the cursor tracer of the next transaction to apply in this batch. Page accesses from then on, also those made
+     * while gathering index updates of that transaction, are traced by it. Pending label and index updates are not applied here,
+     * they are still applied once for the whole batch, and that application is traced by the tracer of the last transaction.
+     *
+     * @param cursorTracer the cursor tracer of the next transaction to apply.
+     */
+    public void useCursorTracer( PageCursorTracer cursorTracer )
+    {
+        this.cursorTracer.current = cursorTracer;
+    }
+
     public IndexUpdates indexUpdates()
     {
         if ( indexUpdates == null )
@@ -181,4 +195,101 @@ public class BatchContext implements AutoCloseable
         }
         return relationshipTypeUpdates;
     }
+
+    /**
+     * Cursor tracer handed to everything which lives for the whole batch, forwarding to the tracer of the transaction
+     * currently being applied. Events are reported by the owners of the transaction tracers, never by this one.
+     */
+    private static class TransactionCursorTracer implements PageCursorTracer
+    {
+        private PageCursorTracer current;
+
+        TransactionCursorTracer( PageCursorTracer current )
+        {
+            this.current = current;
+        }
+
+        @Override
+        public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
+        {
+            return current.beginPin( writeLock, filePageId, swapper );
+        }
+
+        @Override
+        public void reportEvents()
+        {
+        }
+
+        @Override
+        public String getTag()
+        {
+            return current.getTag();
+        }
+
+        @Override
+        public long faults()
+        {
+            return current.faults();
+        }
+
+        @Override
+        public long pins()
+        {
+            return current.pins();
+        }
+
+        @Override
+        public long unpins()
+        {
+            return current.unpins();
+        }
+
+        @Override
+        public long hits()
+        {
+            return current.hits();
+        }
+
+        @Override
+        public long bytesRead()
+        {
+            return current.bytesRead();
+        }
+
+        @Override
+        public long evictions()
+        {
+            return current.evictions();
+        }
+
+        @Override
+        public long evictionExceptions()
+        {
+            return current.evictionExceptions();
+        }
+
+        @Override
+        public long bytesWritten()
+        {
+            return current.bytesWritten();
+        }
+
+        @Override
+        public long flushes()
+        {
+            return current.flushes();
+        }
+
+        @Override
+        public long merges()
+        {
+            return current.merges();
+        }
+
+        @Override
+        public double hitRatio()
+        {
+            return current.hitRatio();
+        }
+    }
 }
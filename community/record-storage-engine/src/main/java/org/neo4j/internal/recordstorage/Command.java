@@ -66,6 +66,28 @@ import static org.neo4j.util.Bits.bitFlags;
  */
 public abstract class Command implements StorageCommand
 {
+    // Bits of the mask of changed fields in the after record of delta encoded node and property commands
+    static final byte DELTA_NEXT_PROP = 1;
+    static final byte DELTA_PREV_PROP = 1 << 1;
+    static final byte DELTA_OWNER = 1 << 2;
+    static final byte DELTA_SECONDARY_UNIT = 1 << 3;
+    static final byte DELTA_DENSE = 1 << 4;
+    static final byte DELTA_NEXT_REL = 1 << 5;
+    static final byte DELTA_LABELS = 1 << 6;
+
+    // Bits of the mask of changed fields in the after record of delta encoded relationship commands
+    static final int DELTA_FIRST_NODE = 1;
+    static final int DELTA_SECOND_NODE = 1 << 1;
+    static final int DELTA_TYPE = 1 << 2;
+    static final int DELTA_FIRST_PREV_REL = 1 << 3;
+    static final int DELTA_FIRST_NEXT_REL = 1 << 4;
+    static final int DELTA_SECOND_PREV_REL = 1 << 5;
+    static final int DELTA_SECOND_NEXT_REL = 1 << 6;
+    static final int DELTA_REL_NEXT_PROP = 1 << 7;
+    static final int DELTA_REL_SECONDARY_UNIT = 1 << 8;
+    static final int DELTA_FIRST_IN_FIRST_CHAIN = 1 << 9;
+    static final int DELTA_FIRST_IN_SECOND_CHAIN = 1 << 10;
+
     private int keyHash;
     private long key;
     private Mode mode;
@@ -142,6 +164,22 @@ public abstract class Command implements StorageCommand
         return format( "\t-%s%n\t+%s", before, after );
     }
 
+    static void putIfChanged( WritableChannel channel, long before, long after ) throws IOException
+    {
+        if ( before != after )
+        {
+            channel.putLong( after );
+        }
+    }
+
+    /**
+     * @return {@code true} if the after record has a secondary unit that is not the one of the before record, and has to be written in a delta.
+     */
+    static boolean secondaryUnitChanged( AbstractBaseRecord before, AbstractBaseRecord after )
+    {
+        return after.hasSecondaryUnitId() && !(before.hasSecondaryUnitId() && before.getSecondaryUnitId() == after.getSecondaryUnitId());
+    }
+
     void writeDynamicRecords( WritableChannel channel, Collection<DynamicRecord> records ) throws IOException
     {
         writeDynamicRecords( channel, records, records.size() );
@@ -222,9 +260,17 @@ public abstract class Command implements StorageCommand
         static final long SHALLOW_SIZE = shallowSizeOfInstance( NodeCommand.class );
         static final long HEAP_SIZE = NodeCommand.SHALLOW_SIZE + 2 * NodeRecord.SHALLOW_SIZE;
 
+        private final boolean deltaEncoding;
+
         public NodeCommand( NodeRecord before, NodeRecord after )
+        {
+            this( before, after, false );
+        }
+
+        public NodeCommand( NodeRecord before, NodeRecord after, boolean deltaEncoding )
         {
             super( before, after );
+            this.deltaEncoding = deltaEncoding;
         }
 
         @Override
@@ -236,20 +282,43 @@ public abstract class Command implements StorageCommand
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
-            channel.put( NeoCommandType.NODE_COMMAND );
+            // an update of a node in use can write only the fields that changed, for the after state
+            boolean delta = deltaEncoding && before.inUse() && after.inUse();
+            channel.put( delta ? NeoCommandType.NODE_DELTA_COMMAND : NeoCommandType.NODE_COMMAND );
             channel.putLong( after.getId() );
             writeNodeRecord( channel, before );
-            writeNodeRecord( channel, after );
+            if ( delta )
+            {
+                writeNodeRecordDelta( channel, before, after );
+            }
+            else
+            {
+                writeNodeRecord( channel, after );
+            }
+        }
+
+        private void writeNodeRecordDelta( WritableChannel channel, NodeRecord before, NodeRecord after ) throws IOException
+        {
+            channel.put( nodeRecordFlags( after ) );
+            boolean secondaryUnitChanged = secondaryUnitChanged( before, after );
+            channel.put( bitFlags( bitFlag( after.isDense(), DELTA_DENSE ),
+                                   bitFlag( before.getNextRel() != after.getNextRel(), DELTA_NEXT_REL ),
+                                   bitFlag( before.getNextProp() != after.getNextProp(), DELTA_NEXT_PROP ),
+                                   bitFlag( before.getLabelField() != after.getLabelField(), DELTA_LABELS ),
+                                   bitFlag( secondaryUnitChanged, DELTA_SECONDARY_UNIT ) ) );
+            putIfChanged( channel, before.getNextRel(), after.getNextRel() );
+            putIfChanged( channel, before.getNextProp(), after.getNextProp() );
+            putIfChanged( channel, before.getLabelField(), after.getLabelField() );
+            if ( secondaryUnitChanged )
+            {
+                channel.putLong( after.getSecondaryUnitId() );
+            }
+            writeDynamicRecords( channel, after.getDynamicLabelRecords() );
         }
 
         private void writeNodeRecord( WritableChannel channel, NodeRecord record ) throws IOException
         {
-            byte flags = bitFlags( bitFlag( record.inUse(), Record.IN_USE.byteValue() ),
-                                   bitFlag( record.isCreated(), Record.CREATED_IN_TX ),
-                                   bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
-                                   bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
-                                   bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
-            channel.put( flags );
+            channel.put( nodeRecordFlags( record ) );
             if ( record.inUse() )
             {
                 channel.put( record.isDense() ? (byte) 1 : (byte) 0 );
@@ -264,6 +333,15 @@ public abstract class Command implements StorageCommand
             // especially if the node has been deleted.
             writeDynamicRecords( channel, record.getDynamicLabelRecords() );
         }
+
+        private static byte nodeRecordFlags( NodeRecord record )
+        {
+            return bitFlags( bitFlag( record.inUse(), Record.IN_USE.byteValue() ),
+                             bitFlag( record.isCreated(), Record.CREATED_IN_TX ),
+                             bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
+                             bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
+                             bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
+        }
     }
 
     public static class RelationshipCommand extends BaseCommand<RelationshipRecord>
@@ -271,9 +349,17 @@ public abstract class Command implements StorageCommand
         static final long SHALLOW_SIZE = shallowSizeOfInstance( RelationshipCommand.class );
         static final long HEAP_SIZE = RelationshipCommand.SHALLOW_SIZE + 2 * RelationshipRecord.SHALLOW_SIZE;
 
+        private final boolean deltaEncoding;
+
         public RelationshipCommand( RelationshipRecord before, RelationshipRecord after )
+        {
+            this( before, after, false );
+        }
+
+        public RelationshipCommand( RelationshipRecord before, RelationshipRecord after, boolean deltaEncoding )
         {
             super( before, after );
+            this.deltaEncoding = deltaEncoding;
         }
 
         @Override
@@ -285,20 +371,57 @@ public abstract class Command implements StorageCommand
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
-            channel.put( NeoCommandType.REL_COMMAND );
+            // an update of a relationship in use can write only the fields that changed, for the after state
+            boolean delta = deltaEncoding && before.inUse() && after.inUse();
+            channel.put( delta ? NeoCommandType.REL_DELTA_COMMAND : NeoCommandType.REL_COMMAND );
             channel.putLong( after.getId() );
             writeRelationshipRecord( channel, before );
-            writeRelationshipRecord( channel, after );
+            if ( delta )
+            {
+                writeRelationshipRecordDelta( channel, before, after );
+            }
+            else
+            {
+                writeRelationshipRecord( channel, after );
+            }
+        }
+
+        private void writeRelationshipRecordDelta( WritableChannel channel, RelationshipRecord before, RelationshipRecord after ) throws IOException
+        {
+            channel.put( relationshipRecordFlags( after ) );
+            boolean secondaryUnitChanged = secondaryUnitChanged( before, after );
+            int changes = (before.getFirstNode() != after.getFirstNode() ? DELTA_FIRST_NODE : 0) |
+                          (before.getSecondNode() != after.getSecondNode() ? DELTA_SECOND_NODE : 0) |
+                          (before.getType() != after.getType() ? DELTA_TYPE : 0) |
+                          (before.getFirstPrevRel() != after.getFirstPrevRel() ? DELTA_FIRST_PREV_REL : 0) |
+                          (before.getFirstNextRel() != after.getFirstNextRel() ? DELTA_FIRST_NEXT_REL : 0) |
+                          (before.getSecondPrevRel() != after.getSecondPrevRel() ? DELTA_SECOND_PREV_REL : 0) |
+                          (before.getSecondNextRel() != after.getSecondNextRel() ? DELTA_SECOND_NEXT_REL : 0) |
+                          (before.getNextProp() != after.getNextProp() ? DELTA_REL_NEXT_PROP : 0) |
+                          (secondaryUnitChanged ? DELTA_REL_SECONDARY_UNIT : 0) |
+                          (after.isFirstInFirstChain() ? DELTA_FIRST_IN_FIRST_CHAIN : 0) |
+                          (after.isFirstInSecondChain() ? DELTA_FIRST_IN_SECOND_CHAIN : 0);
+            channel.putShort( (short) changes );
+            putIfChanged( channel, before.getFirstNode(), after.getFirstNode() );
+            putIfChanged( channel, before.getSecondNode(), after.getSecondNode() );
+            if ( before.getType() != after.getType() )
+            {
+                channel.putInt( after.getType() );
+            }
+            putIfChanged( channel, before.getFirstPrevRel(), after.getFirstPrevRel() );
+            putIfChanged( channel, before.getFirstNextRel(), after.getFirstNextRel() );
+            putIfChanged( channel, before.getSecondPrevRel(), after.getSecondPrevRel() );
+            putIfChanged( channel, before.getSecondNextRel(), after.getSecondNextRel() );
+            putIfChanged( channel, before.getNextProp(), after.getNextProp() );
+            if ( secondaryUnitChanged )
+            {
+                channel.putLong( after.getSecondaryUnitId() );
+            }
         }
 
         private void writeRelationshipRecord( WritableChannel channel, RelationshipRecord record ) throws IOException
         {
-            byte flags = bitFlags( bitFlag( record.inUse(), Record.IN_USE.byteValue() ),
-                                   bitFlag( record.isCreated(), Record.CREATED_IN_TX ),
-                                   bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
-                                   bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
-                                   bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
-            channel.put( flags );
+            channel.put( relationshipRecordFlags( record ) );
             if ( record.inUse() )
             {
                 channel.putLong( record.getFirstNode() ).putLong( record.getSecondNode() ).putInt( record.getType() )
@@ -316,6 +439,15 @@ public abstract class Command implements StorageCommand
                 channel.putInt( record.getType() );
             }
         }
+
+        private static byte relationshipRecordFlags( RelationshipRecord record )
+        {
+            return bitFlags( bitFlag( record.inUse(), Record.IN_USE.byteValue() ),
+                             bitFlag( record.isCreated(), Record.CREATED_IN_TX ),
+                             bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
+                             bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
+                             bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
+        }
     }
 
     public static class RelationshipGroupCommand extends BaseCommand<RelationshipGroupRecord>
@@ -399,9 +531,17 @@ public abstract class Command implements StorageCommand
         static final long SHALLOW_SIZE = shallowSizeOfInstance( PropertyCommand.class );
         static final long HEAP_SIZE = PropertyCommand.SHALLOW_SIZE + 2 * PropertyRecord.INITIAL_SIZE;
 
+        private final boolean deltaEncoding;
+
         public PropertyCommand( PropertyRecord before, PropertyRecord after )
+        {
+            this( before, after, false );
+        }
+
+        public PropertyCommand( PropertyRecord before, PropertyRecord after, boolean deltaEncoding )
         {
             super( before, after );
+            this.deltaEncoding = deltaEncoding;
         }
 
         @Override
@@ -433,38 +573,98 @@ public abstract class Command implements StorageCommand
         @Override
         public void serialize( WritableChannel channel ) throws IOException
         {
-            channel.put( NeoCommandType.PROP_COMMAND );
+            // an update of a property record in use can write only the fields and property blocks that changed, for the after state
+            boolean delta = deltaEncoding && before.inUse() && after.inUse();
+            channel.put( delta ? NeoCommandType.PROP_DELTA_COMMAND : NeoCommandType.PROP_COMMAND );
             channel.putLong( after.getId() );
             writePropertyRecord( channel, before );
-            writePropertyRecord( channel, after );
+            if ( delta )
+            {
+                writePropertyRecordDelta( channel, before, after );
+            }
+            else
+            {
+                writePropertyRecord( channel, after );
+            }
         }
 
-        private void writePropertyRecord( WritableChannel channel, PropertyRecord record ) throws IOException
+        private void writePropertyRecordDelta( WritableChannel channel, PropertyRecord before, PropertyRecord after ) throws IOException
+        {
+            channel.put( propertyRecordFlags( after ) );
+            long beforeOwner = propertyRecordOwner( before );
+            long afterOwner = propertyRecordOwner( after );
+            boolean secondaryUnitChanged = secondaryUnitChanged( before, after );
+            channel.put( bitFlags( bitFlag( before.getNextProp() != after.getNextProp(), DELTA_NEXT_PROP ),
+                                   bitFlag( before.getPrevProp() != after.getPrevProp(), DELTA_PREV_PROP ),
+                                   bitFlag( beforeOwner != afterOwner, DELTA_OWNER ),
+                                   bitFlag( secondaryUnitChanged, DELTA_SECONDARY_UNIT ) ) );
+            putIfChanged( channel, before.getNextProp(), after.getNextProp() );
+            putIfChanged( channel, before.getPrevProp(), after.getPrevProp() );
+            putIfChanged( channel, beforeOwner, afterOwner );
+            if ( secondaryUnitChanged )
+            {
+                channel.putLong( after.getSecondaryUnitId() );
+            }
+            channel.put( (byte) after.numberOfProperties() );
+            for ( PropertyBlock block : after )
+            {
+                int beforeIndex = unchangedBlockIndex( before, block );
+                if ( beforeIndex != -1 )
+                {
+                    // a negative size refers to the unchanged block in the before record
+                    channel.put( (byte) -(beforeIndex + 1) );
+                }
+                else
+                {
+                    writePropertyBlock( channel, block );
+                }
+            }
+            writeDynamicRecords( channel, after.getDeletedRecords() );
+        }
+
+        private static int unchangedBlockIndex( PropertyRecord before, PropertyBlock block )
         {
-            byte flags = bitFlags( bitFlag( record.inUse(), Record.IN_USE.byteValue() ),
-                                   bitFlag( record.getRelId() != -1, Record.REL_PROPERTY.byteValue() ),
-                                   bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
-                                   bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
-                                   bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
+            if ( block.isLight() )
+            {
+                int index = 0;
+                for ( PropertyBlock beforeBlock : before )
+                {
+                    if ( beforeBlock.isLight() && beforeBlock.hasSameContentsAs( block ) )
+                    {
+                        return index;
+                    }
+                    index++;
+                }
+            }
+            return -1;
+        }
 
-            channel.put( flags ); // 1
-            channel.putLong( record.getNextProp() ).putLong( record.getPrevProp() ); // 8 + 8
+        private static byte propertyRecordFlags( PropertyRecord record )
+        {
+            return bitFlags( bitFlag( record.inUse(), Record.IN_USE.byteValue() ),
+                             bitFlag( record.getRelId() != -1, Record.REL_PROPERTY.byteValue() ),
+                             bitFlag( record.requiresSecondaryUnit(), Record.REQUIRE_SECONDARY_UNIT ),
+                             bitFlag( record.hasSecondaryUnitId(), Record.HAS_SECONDARY_UNIT ),
+                             bitFlag( record.isUseFixedReferences(), Record.USES_FIXED_REFERENCE_FORMAT ) );
+        }
+
+        private static long propertyRecordOwner( PropertyRecord record )
+        {
             long nodeId = record.getNodeId();
             long relId = record.getRelId();
             if ( nodeId != -1 )
             {
-                channel.putLong( nodeId ); // 8 or
-            }
-            else if ( relId != -1 )
-            {
-                channel.putLong( relId ); // 8 or
-            }
-            else
-            {
-                // means this records value has not changed, only place in
-                // prop chain
-                channel.putLong( -1 ); // 8
+                return nodeId;
             }
+            // -1 means this records value has not changed, only place in prop chain
+            return relId;
+        }
+
+        private void writePropertyRecord( WritableChannel channel, PropertyRecord record ) throws IOException
+        {
+            channel.put( propertyRecordFlags( record ) ); // 1
+            channel.putLong( record.getNextProp() ).putLong( record.getPrevProp() ); // 8 + 8
+            channel.putLong( propertyRecordOwner( record ) ); // 8
             if ( record.hasSecondaryUnitId() )
             {
                 channel.putLong( record.getSecondaryUnitId() );
@@ -42,4 +42,9 @@ public interface NeoCommandType
     byte UPDATE_RELATIONSHIP_COUNTS_COMMAND = (byte) 16;
     byte UPDATE_NODE_COUNTS_COMMAND = (byte) 17;
     byte SCHEMA_RULE_COMMAND = (byte) 18;
+
+    // Commands of records that stay in use, that only contain the changed fields of the after record
+    byte PROP_DELTA_COMMAND = (byte) 19;
+    byte NODE_DELTA_COMMAND = (byte) 20;
+    byte REL_DELTA_COMMAND = (byte) 21;
 }
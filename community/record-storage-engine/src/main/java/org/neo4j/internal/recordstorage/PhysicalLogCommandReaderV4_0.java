@@ -49,6 +49,24 @@ import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
 import static org.neo4j.internal.helpers.Numbers.unsignedShortToInt;
+import static org.neo4j.internal.recordstorage.Command.DELTA_DENSE;
+import static org.neo4j.internal.recordstorage.Command.DELTA_FIRST_IN_FIRST_CHAIN;
+import static org.neo4j.internal.recordstorage.Command.DELTA_FIRST_IN_SECOND_CHAIN;
+import static org.neo4j.internal.recordstorage.Command.DELTA_FIRST_NEXT_REL;
+import static org.neo4j.internal.recordstorage.Command.DELTA_FIRST_NODE;
+import static org.neo4j.internal.recordstorage.Command.DELTA_FIRST_PREV_REL;
+import static org.neo4j.internal.recordstorage.Command.DELTA_LABELS;
+import static org.neo4j.internal.recordstorage.Command.DELTA_NEXT_PROP;
+import static org.neo4j.internal.recordstorage.Command.DELTA_NEXT_REL;
+import static org.neo4j.internal.recordstorage.Command.DELTA_OWNER;
+import static org.neo4j.internal.recordstorage.Command.DELTA_PREV_PROP;
+import static org.neo4j.internal.recordstorage.Command.DELTA_REL_NEXT_PROP;
+import static org.neo4j.internal.recordstorage.Command.DELTA_REL_SECONDARY_UNIT;
+import static org.neo4j.internal.recordstorage.Command.DELTA_SECOND_NEXT_REL;
+import static org.neo4j.internal.recordstorage.Command.DELTA_SECOND_NODE;
+import static org.neo4j.internal.recordstorage.Command.DELTA_SECOND_PREV_REL;
+import static org.neo4j.internal.recordstorage.Command.DELTA_SECONDARY_UNIT;
+import static org.neo4j.internal.recordstorage.Command.DELTA_TYPE;
 import static org.neo4j.internal.recordstorage.CommandReading.COLLECTION_DYNAMIC_RECORD_ADDER;
 import static org.neo4j.internal.recordstorage.CommandReading.PROPERTY_BLOCK_DYNAMIC_RECORD_ADDER;
 import static org.neo4j.internal.recordstorage.CommandReading.PROPERTY_DELETED_DYNAMIC_RECORD_ADDER;
@@ -85,6 +103,12 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
             return visitNodeCountsCommand( channel );
         case NeoCommandType.SCHEMA_RULE_COMMAND:
             return visitSchemaRuleCommand( channel );
+        case NeoCommandType.NODE_DELTA_COMMAND:
+            return visitNodeDeltaCommand( channel );
+        case NeoCommandType.REL_DELTA_COMMAND:
+            return visitRelationshipDeltaCommand( channel );
+        case NeoCommandType.PROP_DELTA_COMMAND:
+            return visitPropertyDeltaCommand( channel );
         default:
             throw unknownCommandType( commandType, channel );
         }
@@ -109,6 +133,15 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return new Command.NodeCommand( before, after );
     }
 
+    private Command visitNodeDeltaCommand( ReadableChannel channel ) throws IOException
+    {
+        long id = channel.getLong();
+        NodeRecord before = readNodeRecord( id, channel );
+        NodeRecord after = readNodeRecordDelta( before, channel );
+        markAfterRecordAsCreatedIfCommandLooksCreated( before, after );
+        return new Command.NodeCommand( before, after );
+    }
+
     private Command visitRelationshipCommand( ReadableChannel channel ) throws IOException
     {
         long id = channel.getLong();
@@ -129,6 +162,15 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return new Command.RelationshipCommand( before, after );
     }
 
+    private Command visitRelationshipDeltaCommand( ReadableChannel channel ) throws IOException
+    {
+        long id = channel.getLong();
+        RelationshipRecord before = readRelationshipRecord( id, channel );
+        RelationshipRecord after = readRelationshipRecordDelta( before, channel );
+        markAfterRecordAsCreatedIfCommandLooksCreated( before, after );
+        return new Command.RelationshipCommand( before, after );
+    }
+
     private Command visitPropertyCommand( ReadableChannel channel ) throws IOException
     {
         // ID
@@ -151,6 +193,24 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return new Command.PropertyCommand( before, after );
     }
 
+    private Command visitPropertyDeltaCommand( ReadableChannel channel ) throws IOException
+    {
+        long id = channel.getLong();
+        PropertyRecord before = readPropertyRecord( id, channel );
+        if ( before == null )
+        {
+            return null;
+        }
+        PropertyRecord after = readPropertyRecordDelta( before, channel );
+        if ( after == null )
+        {
+            return null;
+        }
+
+        markAfterRecordAsCreatedIfCommandLooksCreated( before, after );
+        return new Command.PropertyCommand( before, after );
+    }
+
     private Command visitRelationshipGroupCommand( ReadableChannel channel ) throws IOException
     {
         long id = channel.getLong();
@@ -600,6 +660,30 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return record;
     }
 
+    private NodeRecord readNodeRecordDelta( NodeRecord before, ReadableChannel channel ) throws IOException
+    {
+        byte flags = channel.get();
+        byte changes = channel.get();
+        long nextRel = readIfChanged( channel, changes, DELTA_NEXT_REL, before.getNextRel() );
+        long nextProp = readIfChanged( channel, changes, DELTA_NEXT_PROP, before.getNextProp() );
+        long labelField = readIfChanged( channel, changes, DELTA_LABELS, before.getLabelField() );
+        NodeRecord record = new NodeRecord( before.getId() ).initialize( true, nextProp, bitFlag( changes, DELTA_DENSE ), nextRel, 0 );
+        record.setRequiresSecondaryUnit( bitFlag( flags, Record.REQUIRE_SECONDARY_UNIT ) );
+        if ( bitFlag( flags, Record.HAS_SECONDARY_UNIT ) )
+        {
+            record.setSecondaryUnitIdOnLoad( readIfChanged( channel, changes, DELTA_SECONDARY_UNIT, before.getSecondaryUnitId() ) );
+        }
+        record.setUseFixedReferences( bitFlag( flags, Record.USES_FIXED_REFERENCE_FORMAT ) );
+        Collection<DynamicRecord> dynamicLabelRecords = new ArrayList<>();
+        readDynamicRecords( channel, dynamicLabelRecords, COLLECTION_DYNAMIC_RECORD_ADDER );
+        record.setLabelField( labelField, dynamicLabelRecords );
+        if ( bitFlag( flags, Record.CREATED_IN_TX ) )
+        {
+            record.setCreated();
+        }
+        return record;
+    }
+
     private RelationshipRecord readRelationshipRecord( long id, ReadableChannel channel ) throws IOException
     {
         byte flags = channel.get();
@@ -643,6 +727,41 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return record;
     }
 
+    private RelationshipRecord readRelationshipRecordDelta( RelationshipRecord before, ReadableChannel channel ) throws IOException
+    {
+        byte flags = channel.get();
+        int changes = unsignedShortToInt( channel.getShort() );
+        RelationshipRecord record = new RelationshipRecord( before.getId() );
+        long firstNode = readIfChanged( channel, changes, DELTA_FIRST_NODE, before.getFirstNode() );
+        long secondNode = readIfChanged( channel, changes, DELTA_SECOND_NODE, before.getSecondNode() );
+        int type = (changes & DELTA_TYPE) != 0 ? channel.getInt() : before.getType();
+        record.setLinks( firstNode, secondNode, type );
+        record.setInUse( true );
+        record.setRequiresSecondaryUnit( bitFlag( flags, Record.REQUIRE_SECONDARY_UNIT ) );
+        record.setFirstPrevRel( readIfChanged( channel, changes, DELTA_FIRST_PREV_REL, before.getFirstPrevRel() ) );
+        record.setFirstNextRel( readIfChanged( channel, changes, DELTA_FIRST_NEXT_REL, before.getFirstNextRel() ) );
+        record.setSecondPrevRel( readIfChanged( channel, changes, DELTA_SECOND_PREV_REL, before.getSecondPrevRel() ) );
+        record.setSecondNextRel( readIfChanged( channel, changes, DELTA_SECOND_NEXT_REL, before.getSecondNextRel() ) );
+        record.setNextProp( readIfChanged( channel, changes, DELTA_REL_NEXT_PROP, before.getNextProp() ) );
+        record.setFirstInFirstChain( (changes & DELTA_FIRST_IN_FIRST_CHAIN) != 0 );
+        record.setFirstInSecondChain( (changes & DELTA_FIRST_IN_SECOND_CHAIN) != 0 );
+        if ( bitFlag( flags, Record.HAS_SECONDARY_UNIT ) )
+        {
+            record.setSecondaryUnitIdOnLoad( readIfChanged( channel, changes, DELTA_REL_SECONDARY_UNIT, before.getSecondaryUnitId() ) );
+        }
+        record.setUseFixedReferences( bitFlag( flags, Record.USES_FIXED_REFERENCE_FORMAT ) );
+        if ( bitFlag( flags, Record.CREATED_IN_TX ) )
+        {
+            record.setCreated();
+        }
+        return record;
+    }
+
+    private static long readIfChanged( ReadableChannel channel, int changes, int changeBit, long before ) throws IOException
+    {
+        return (changes & changeBit) != 0 ? channel.getLong() : before;
+    }
+
     private DynamicRecord readDynamicRecord( ReadableChannel channel ) throws IOException
     {
         // id+type+in_use(byte)+nr_of_bytes(int)+next_block(long)
@@ -764,10 +883,80 @@ public class PhysicalLogCommandReaderV4_0 extends BaseCommandReader
         return record;
     }
 
+    private PropertyRecord readPropertyRecordDelta( PropertyRecord before, ReadableChannel channel ) throws IOException
+    {
+        PropertyRecord record = new PropertyRecord( before.getId() );
+        byte flags = channel.get();
+        byte changes = channel.get();
+        boolean nodeProperty = !bitFlag( flags, Record.REL_PROPERTY.byteValue() );
+        record.setRequiresSecondaryUnit( bitFlag( flags, Record.REQUIRE_SECONDARY_UNIT ) );
+        record.setUseFixedReferences( bitFlag( flags, Record.USES_FIXED_REFERENCE_FORMAT ) );
+        record.setNextProp( readIfChanged( channel, changes, DELTA_NEXT_PROP, before.getNextProp() ) );
+        record.setPrevProp( readIfChanged( channel, changes, DELTA_PREV_PROP, before.getPrevProp() ) );
+        long beforeOwner = before.getNodeId() != -1 ? before.getNodeId() : before.getRelId();
+        long primitiveId = readIfChanged( channel, changes, DELTA_OWNER, beforeOwner );
+        if ( primitiveId != -1 && nodeProperty )
+        {
+            record.setNodeId( primitiveId );
+        }
+        else if ( primitiveId != -1 )
+        {
+            record.setRelId( primitiveId );
+        }
+        if ( bitFlag( flags, Record.HAS_SECONDARY_UNIT ) )
+        {
+            record.setSecondaryUnitIdOnLoad( readIfChanged( channel, changes, DELTA_SECONDARY_UNIT, before.getSecondaryUnitId() ) );
+        }
+
+        PropertyBlock[] beforeBlocks = new PropertyBlock[before.numberOfProperties()];
+        int beforeBlockCount = 0;
+        for ( PropertyBlock block : before )
+        {
+            beforeBlocks[beforeBlockCount++] = block;
+        }
+        int nrPropBlocks = channel.get();
+        if ( nrPropBlocks > 0 )
+        {
+            record.setInUse( true );
+        }
+        while ( nrPropBlocks-- > 0 )
+        {
+            byte blockSize = channel.get();
+            PropertyBlock block;
+            if ( blockSize < 0 )
+            {
+                // unchanged block, that was written as a reference to the block in the before record
+                block = new PropertyBlock( beforeBlocks[-blockSize - 1] );
+            }
+            else
+            {
+                block = readPropertyBlock( blockSize, channel );
+                if ( block == null )
+                {
+                    return null;
+                }
+            }
+            record.addPropertyBlock( block );
+        }
+        if ( readDynamicRecords( channel, record, PROPERTY_DELETED_DYNAMIC_RECORD_ADDER ) == -1 )
+        {
+            return null;
+        }
+        if ( bitFlag( flags, Record.IN_USE.byteValue() ) != record.inUse() )
+        {
+            throw new IllegalStateException( "Weird, inUse was read in as " + !record.inUse() + " but the record is " + record );
+        }
+        return record;
+    }
+
     private PropertyBlock readPropertyBlock( ReadableChannel channel ) throws IOException
+    {
+        return readPropertyBlock( channel.get(), channel ); // the size is stored in bytes // 1
+    }
+
+    private PropertyBlock readPropertyBlock( byte blockSize, ReadableChannel channel ) throws IOException
     {
         PropertyBlock toReturn = new PropertyBlock();
-        byte blockSize = channel.get(); // the size is stored in bytes // 1
         assert blockSize > 0 && blockSize % 8 == 0 : blockSize + " is not a valid block size value";
         // Read in blocks
         long[] blocks = readLongs( channel, blockSize / 8 );
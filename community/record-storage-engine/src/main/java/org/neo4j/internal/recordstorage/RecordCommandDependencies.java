@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import java.util.function.LongConsumer;
+
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.internal.recordstorage.Command.NodeCountsCommand;
+import org.neo4j.internal.recordstorage.Command.PropertyCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipCountsCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipGroupCommand;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.storageengine.api.CommandDependencies;
+import org.neo4j.storageengine.api.StorageCommand;
+
+/**
+ * {@link CommandDependencies} of the record storage engine. The dependencies of a command are the records it writes, including dynamic records,
+ * since a record freed by one transaction may be reused by a later one. Property commands additionally depend on the entity owning the property
+ * record, because index updates of an entity are derived from the entity record together with all of its property records.
+ * <p>
+ * Counts commands carry deltas, which can be applied in any order and so have no dependencies. Schema, token and neo store commands affect the
+ * store as a whole and make their transactions apply in isolation.
+ */
+class RecordCommandDependencies implements CommandDependencies
+{
+    static final CommandDependencies INSTANCE = new RecordCommandDependencies();
+
+    private static final int KIND_SHIFT = 56;
+    private static final long NODE = 1L << KIND_SHIFT;
+    private static final long RELATIONSHIP = 2L << KIND_SHIFT;
+    private static final long RELATIONSHIP_GROUP = 3L << KIND_SHIFT;
+    private static final long PROPERTY = 4L << KIND_SHIFT;
+    private static final long PROPERTY_VALUE = 5L << KIND_SHIFT;
+    private static final long NODE_LABELS = 6L << KIND_SHIFT;
+
+    private RecordCommandDependencies()
+    {
+    }
+
+    @Override
+    public boolean visitDependencies( StorageCommand command, LongConsumer dependencies )
+    {
+        if ( command instanceof NodeCommand )
+        {
+            NodeCommand nodeCommand = (NodeCommand) command;
+            dependencies.accept( NODE | nodeCommand.getKey() );
+            visitLabelRecords( nodeCommand.getBefore(), dependencies );
+            visitLabelRecords( nodeCommand.getAfter(), dependencies );
+            return true;
+        }
+        if ( command instanceof RelationshipCommand )
+        {
+            dependencies.accept( RELATIONSHIP | ((RelationshipCommand) command).getKey() );
+            return true;
+        }
+        if ( command instanceof RelationshipGroupCommand )
+        {
+            RelationshipGroupCommand groupCommand = (RelationshipGroupCommand) command;
+            dependencies.accept( RELATIONSHIP_GROUP | groupCommand.getKey() );
+            dependencies.accept( NODE | groupCommand.getAfter().getOwningNode() );
+            return true;
+        }
+        if ( command instanceof PropertyCommand )
+        {
+            PropertyCommand propertyCommand = (PropertyCommand) command;
+            dependencies.accept( PROPERTY | propertyCommand.getKey() );
+            return visitProperties( propertyCommand.getBefore(), dependencies ) && visitProperties( propertyCommand.getAfter(), dependencies );
+        }
+        return command instanceof NodeCountsCommand || command instanceof RelationshipCountsCommand;
+    }
+
+    private static void visitLabelRecords( NodeRecord node, LongConsumer dependencies )
+    {
+        for ( DynamicRecord labelRecord : node.getDynamicLabelRecords() )
+        {
+            dependencies.accept( NODE_LABELS | labelRecord.getId() );
+        }
+    }
+
+    private static boolean visitProperties( PropertyRecord property, LongConsumer dependencies )
+    {
+        if ( property.isNodeSet() )
+        {
+            dependencies.accept( NODE | property.getNodeId() );
+        }
+        else if ( property.isRelSet() )
+        {
+            dependencies.accept( RELATIONSHIP | property.getRelId() );
+        }
+        else if ( property.isSchemaSet() )
+        {
+            return false;
+        }
+        for ( PropertyBlock block : property )
+        {
+            for ( DynamicRecord valueRecord : block.getValueRecords() )
+            {
+                dependencies.accept( PROPERTY_VALUE | valueRecord.getId() );
+            }
+        }
+        for ( DynamicRecord deletedRecord : property.getDeletedRecords() )
+        {
+            dependencies.accept( PROPERTY_VALUE | deletedRecord.getId() );
+        }
+        return true;
+    }
+}
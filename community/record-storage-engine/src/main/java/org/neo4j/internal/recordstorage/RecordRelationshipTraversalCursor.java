@@ -21,9 +21,11 @@ package org.neo4j.internal.recordstorage;
 
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.RecordPageLocationCalculator;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.storageengine.api.ReadTracer;
+import org.neo4j.storageengine.api.RelationshipDirection;
 import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageRelationshipTraversalCursor;
 
@@ -51,6 +53,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
     private final RecordRelationshipGroupCursor group;
     private GroupState groupState;
     private boolean open;
+    private final long[] chainPrefetchHints = new long[2];
 
     RecordRelationshipTraversalCursor( RelationshipStore relationshipStore, RelationshipGroupStore groupStore, PageCursorTracer cursorTracer )
     {
@@ -240,6 +243,7 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
                     next = group.incomingRawId();
                     initializePageCursor();
                 }
+                prefetchOutgoingAndLoopChains();
                 groupState = GroupState.OUTGOING;
                 break;
 
@@ -275,6 +279,31 @@ class RecordRelationshipTraversalCursor extends RecordRelationshipCursor impleme
         }
     }
 
+    /*
+     * The incoming chain of a group is read right away, while the outgoing and loop chains are read after it.
+     * Hint their first records to the page cache so that they can be faulted in while the incoming chain is traversed.
+     */
+    private void prefetchOutgoingAndLoopChains()
+    {
+        int hints = 0;
+        hints = addChainPrefetchHint( hints, OUTGOING, group.outgoingRawId() );
+        hints = addChainPrefetchHint( hints, LOOP, group.loopsRawId() );
+        if ( hints > 0 )
+        {
+            initializePageCursor();
+            pageCursor.prefetch( chainPrefetchHints, hints );
+        }
+    }
+
+    private int addChainPrefetchHint( int hints, RelationshipDirection direction, long firstRelationship )
+    {
+        if ( firstRelationship != NO_ID && selection.test( group.getType(), direction ) )
+        {
+            chainPrefetchHints[hints++] = RecordPageLocationCalculator.pageIdForRecord( firstRelationship, relationshipStore.getRecordsPerPage() );
+        }
+        return hints;
+    }
+
     private void computeNext()
     {
         final long source = sourceNodeReference(), target = targetNodeReference();
@@ -43,9 +43,17 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     private final PropertyCreator propertyCreator;
     private final PropertyDeleter propertyDeleter;
     private final PageCursorTracer cursorTracer;
+    private final boolean deltaEncodeCommands;
 
     RecordStorageCommandCreationContext( NeoStores neoStores, int denseNodeThreshold, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
     {
+        this( neoStores, denseNodeThreshold, false, cursorTracer, memoryTracker );
+    }
+
+    RecordStorageCommandCreationContext( NeoStores neoStores, int denseNodeThreshold, boolean deltaEncodeCommands, PageCursorTracer cursorTracer,
+            MemoryTracker memoryTracker )
+    {
+        this.deltaEncodeCommands = deltaEncodeCommands;
         this.cursorTracer = cursorTracer;
         this.neoStores = neoStores;
         this.memoryTracker = memoryTracker;
@@ -114,6 +122,6 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
         RecordChangeSet recordChangeSet = new RecordChangeSet( loaders, memoryTracker );
         return new TransactionRecordState( neoStores, integrityValidator,
                 recordChangeSet, lastTransactionIdWhenStarted, locks,
-                relationshipCreator, relationshipDeleter, propertyCreator, propertyDeleter, cursorTracer, memoryTracker );
+                relationshipCreator, relationshipDeleter, propertyCreator, propertyDeleter, cursorTracer, memoryTracker, deltaEncodeCommands );
     }
 }
@@ -74,6 +74,7 @@ import org.neo4j.logging.LogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.Health;
 import org.neo4j.storageengine.api.CommandCreationContext;
+import org.neo4j.storageengine.api.CommandDependencies;
 import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.ConstraintRuleAccessor;
 import org.neo4j.storageengine.api.EntityTokenUpdateListener;
@@ -117,6 +118,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final ConstraintRuleAccessor constraintSemantics;
     private final LockService lockService;
     private final boolean consistencyCheckApply;
+    private final boolean deltaEncodeCommands;
     private WorkSync<EntityTokenUpdateListener,TokenUpdateWork> labelScanStoreSync;
     private WorkSync<EntityTokenUpdateListener,TokenUpdateWork> relationshipTypeScanStoreSync;
     private WorkSync<IndexUpdateListener,IndexUpdatesWork> indexUpdatesSync;
@@ -181,6 +183,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             countsStore = openCountsStore( pageCache, fs, databaseLayout, config, logProvider, recoveryCleanupWorkCollector, cacheTracer );
 
             consistencyCheckApply = config.get( GraphDatabaseInternalSettings.consistency_check_on_apply );
+            deltaEncodeCommands = config.get( GraphDatabaseInternalSettings.transaction_log_delta_encode_commands );
         }
         catch ( Throwable failure )
         {
@@ -267,7 +270,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public RecordStorageCommandCreationContext newCommandCreationContext( PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
     {
-        return new RecordStorageCommandCreationContext( neoStores, denseNodeThreshold, cursorTracer, memoryTracker );
+        return new RecordStorageCommandCreationContext( neoStores, denseNodeThreshold, deltaEncodeCommands, cursorTracer, memoryTracker );
     }
 
     @Override
@@ -354,6 +357,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         {
             while ( batch != null )
             {
+                // A batch can contain transactions of several committers, each with its own cursor tracer
+                context.useCursorTracer( batch.cursorTracer() );
                 try ( TransactionApplier txApplier = batchApplier.startTx( batch, context ) )
                 {
                     batch.accept( txApplier );
@@ -370,6 +375,12 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    @Override
+    public CommandDependencies commandDependencies()
+    {
+        return RecordCommandDependencies.INSTANCE;
+    }
+
     /**
      * Provides a {@link TransactionApplierFactoryChain} that is to be used for all transactions
      * in a batch. Each transaction is handled by a {@link TransactionApplierFacade} which wraps the
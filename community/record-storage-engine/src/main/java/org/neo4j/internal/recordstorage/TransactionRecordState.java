@@ -95,12 +95,22 @@ public class TransactionRecordState implements RecordState
     private final PropertyDeleter propertyDeleter;
     private final PageCursorTracer cursorTracer;
     private final MemoryTracker memoryTracker;
+    private final boolean deltaEncodeCommands;
 
     private boolean prepared;
 
     TransactionRecordState( NeoStores neoStores, IntegrityValidator integrityValidator, RecordChangeSet recordChangeSet,
             long lastCommittedTxWhenTransactionStarted, ResourceLocker locks, RelationshipCreator relationshipCreator, RelationshipDeleter relationshipDeleter,
             PropertyCreator propertyCreator, PropertyDeleter propertyDeleter, PageCursorTracer cursorTracer, MemoryTracker memoryTracker )
+    {
+        this( neoStores, integrityValidator, recordChangeSet, lastCommittedTxWhenTransactionStarted, locks, relationshipCreator, relationshipDeleter,
+                propertyCreator, propertyDeleter, cursorTracer, memoryTracker, false );
+    }
+
+    TransactionRecordState( NeoStores neoStores, IntegrityValidator integrityValidator, RecordChangeSet recordChangeSet,
+            long lastCommittedTxWhenTransactionStarted, ResourceLocker locks, RelationshipCreator relationshipCreator, RelationshipDeleter relationshipDeleter,
+            PropertyCreator propertyCreator, PropertyDeleter propertyDeleter, PageCursorTracer cursorTracer, MemoryTracker memoryTracker,
+            boolean deltaEncodeCommands )
     {
         this.neoStores = neoStores;
         this.nodeStore = neoStores.getNodeStore();
@@ -117,6 +127,7 @@ public class TransactionRecordState implements RecordState
         this.propertyDeleter = propertyDeleter;
         this.cursorTracer = cursorTracer;
         this.memoryTracker = memoryTracker;
+        this.deltaEncodeCommands = deltaEncodeCommands;
     }
 
     @Override
@@ -162,7 +173,7 @@ public class TransactionRecordState implements RecordState
             {
                 NodeRecord record = prepared( change, nodeStore );
                 integrityValidator.validateNodeRecord( record );
-                nodeCommands[i++] = new Command.NodeCommand( change.getBefore(), record );
+                nodeCommands[i++] = new Command.NodeCommand( change.getBefore(), record, deltaEncodeCommands );
             }
             Arrays.sort( nodeCommands, COMMAND_COMPARATOR );
         }
@@ -176,7 +187,7 @@ public class TransactionRecordState implements RecordState
             int i = 0;
             for ( RecordProxy<RelationshipRecord, Void> change : relationshipChanges )
             {
-                relCommands[i++] = new Command.RelationshipCommand( change.getBefore(), prepared( change, relationshipStore ) );
+                relCommands[i++] = new Command.RelationshipCommand( change.getBefore(), prepared( change, relationshipStore ), deltaEncodeCommands );
             }
             Arrays.sort( relCommands, COMMAND_COMPARATOR );
         }
@@ -190,7 +201,7 @@ public class TransactionRecordState implements RecordState
             int i = 0;
             for ( RecordProxy<PropertyRecord, PrimitiveRecord> change : propertyChanges )
             {
-                propCommands[i++] = new Command.PropertyCommand( change.getBefore(), prepared( change, propertyStore ) );
+                propCommands[i++] = new Command.PropertyCommand( change.getBefore(), prepared( change, propertyStore ), deltaEncodeCommands );
             }
             Arrays.sort( propCommands, COMMAND_COMPARATOR );
         }
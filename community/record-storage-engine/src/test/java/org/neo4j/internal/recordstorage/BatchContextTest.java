@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.internal.id.DefaultIdGeneratorFactory;
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.internal.recordstorage.Command.PropertyCommand;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexPrototype;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.impl.store.IdUpdateListener;
+import org.neo4j.kernel.impl.store.InlineNodeLabels;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.EntityTokenUpdateListener;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.IndexUpdateListener;
+import org.neo4j.storageengine.api.StandardConstraintRuleAccessor;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.util.concurrent.WorkSync;
+import org.neo4j.values.storable.Values;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.internal.schema.SchemaDescriptor.forLabel;
+import static org.neo4j.kernel.impl.store.record.Record.NO_LABELS_FIELD;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
+import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+@PageCacheExtension
+@Neo4jLayoutExtension
+class BatchContextTest
+{
+    private static final int LABEL = 1;
+    private static final int PROPERTY_KEY = 1;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private PageCache pageCache;
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    private NeoStores neoStores;
+    private SchemaCache schemaCache;
+    private PropertyCreator propertyCreator;
+    private DirectRecordAccess<PropertyRecord,PrimitiveRecord> recordAccess;
+
+    @BeforeEach
+    void setUp()
+    {
+        StoreFactory storeFactory = new StoreFactory( databaseLayout, Config.defaults(), new DefaultIdGeneratorFactory( fileSystem, immediate() ),
+                pageCache, fileSystem, NullLogProvider.getInstance(), PageCursorTracer.NULL );
+        neoStores = storeFactory.openAllNeoStores( true );
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        schemaCache = new SchemaCache( new StandardConstraintRuleAccessor(), index -> index );
+        propertyCreator = new PropertyCreator( propertyStore, new PropertyTraverser( PageCursorTracer.NULL ), PageCursorTracer.NULL, INSTANCE );
+        recordAccess = new DirectRecordAccess<>( propertyStore, Loaders.propertyLoader( propertyStore ) );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        neoStores.close();
+    }
+
+    @Test
+    void shouldApplyIndexUpdatesOnceForAllTransactionsInBatch() throws Exception
+    {
+        // given
+        IndexDescriptor index = IndexPrototype.forSchema( forLabel( LABEL, PROPERTY_KEY ) ).withName( "index" ).materialise( 0 );
+        schemaCache.addSchemaRule( index );
+        List<IndexEntryUpdate<?>> appliedUpdates = new ArrayList<>();
+        IndexUpdateListener indexUpdateListener = mock( IndexUpdateListener.class );
+        doAnswer( invocation ->
+        {
+            Iterable<IndexEntryUpdate<IndexDescriptor>> updates = invocation.getArgument( 0 );
+            updates.forEach( appliedUpdates::add );
+            return null;
+        } ).when( indexUpdateListener ).applyUpdates( any(), any() );
+        RecordStorageEngine storageEngine = mock( RecordStorageEngine.class );
+        when( storageEngine.newReader() ).thenAnswer( invocation -> new RecordStorageReader( neoStores ) );
+        DefaultPageCacheTracer pageCacheTracer = new DefaultPageCacheTracer();
+        PageCursorTracer firstTracer = pageCacheTracer.createPageCursorTracer( "first" );
+        PageCursorTracer secondTracer = pageCacheTracer.createPageCursorTracer( "second" );
+
+        // when
+        try ( BatchContext context = new BatchContext( indexUpdateListener, new WorkSync<>( mock( EntityTokenUpdateListener.class ) ),
+                new WorkSync<>( mock( EntityTokenUpdateListener.class ) ), new WorkSync<>( indexUpdateListener ), neoStores.getNodeStore(),
+                neoStores.getPropertyStore(), storageEngine, schemaCache, firstTracer, INSTANCE, mock( IdUpdateListener.class ) ) )
+        {
+            context.useCursorTracer( firstTracer );
+            context.indexUpdates().feed( createNodeWithProperty( 0 ), noRelationships() );
+            context.useCursorTracer( secondTracer );
+            context.indexUpdates().feed( createNodeWithProperty( 1 ), noRelationships() );
+        }
+
+        // then
+        verify( indexUpdateListener, times( 1 ) ).applyUpdates( any(), any() );
+        assertThat( appliedUpdates ).containsExactly(
+                IndexEntryUpdate.add( 0, index, Values.of( "value0" ) ),
+                IndexEntryUpdate.add( 1, index, Values.of( "value1" ) ) );
+    }
+
+    private EntityCommandGrouper<NodeCommand>.Cursor createNodeWithProperty( long nodeId )
+    {
+        NodeRecord before = new NodeRecord( nodeId );
+        NodeRecord after = new NodeRecord( nodeId ).initialize( true, NO_NEXT_PROPERTY.longValue(), false, NO_NEXT_RELATIONSHIP.longValue(),
+                NO_LABELS_FIELD.longValue() );
+        new InlineNodeLabels( after ).put( new long[]{LABEL}, null, null, PageCursorTracer.NULL, INSTANCE );
+        long propertyId = propertyCreator.createPropertyChain( after,
+                singletonList( propertyCreator.encodePropertyValue( PROPERTY_KEY, Values.of( "value" + nodeId ) ) ).iterator(), recordAccess );
+        PropertyRecord propertyBefore = new PropertyRecord( propertyId );
+        propertyBefore.setNodeId( nodeId );
+
+        EntityCommandGrouper<NodeCommand> grouper = new EntityCommandGrouper<>( NodeCommand.class, 8 );
+        grouper.add( new NodeCommand( before, after ) );
+        grouper.add( new PropertyCommand( propertyBefore, recordAccess.getIfLoaded( propertyId ).forReadingData() ) );
+        return grouper.sortAndAccessGroups();
+    }
+
+    private static EntityCommandGrouper<Command.RelationshipCommand>.Cursor noRelationships()
+    {
+        return new EntityCommandGrouper<>( Command.RelationshipCommand.class, 8 ).sortAndAccessGroups();
+    }
+}
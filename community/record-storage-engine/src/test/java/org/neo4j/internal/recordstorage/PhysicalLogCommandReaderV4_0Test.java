@@ -28,10 +28,12 @@ import java.util.concurrent.ThreadLocalRandom;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.SchemaRule;
+import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
@@ -40,11 +42,15 @@ import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.values.storable.Values;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.internal.recordstorage.PhysicalLogCommandReaderV4_0.markAfterRecordAsCreatedIfCommandLooksCreated;
+import static org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer.NULL;
 import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 class PhysicalLogCommandReaderV4_0Test
 {
@@ -387,6 +393,115 @@ class PhysicalLogCommandReaderV4_0Test
         assertTrue( nodeCommand.getAfter().isUseFixedReferences() );
     }
 
+    @Test
+    void shouldWriteAndReadNodeUpdateAsDelta() throws IOException
+    {
+        // Given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        NodeRecord before = new NodeRecord( 42 ).initialize( true, 99, false, 33, 66 );
+        before.setSecondaryUnitIdOnLoad( 47 );
+        NodeRecord after = new NodeRecord( 42 ).initialize( true, 100, true, 33, 66 );
+        after.setSecondaryUnitIdOnLoad( 47 );
+        new Command.NodeCommand( before, after, true ).serialize( channel );
+
+        // When
+        BaseCommandReader reader = createReader();
+        Command command = reader.read( channel );
+
+        // Then
+        assertEquals( NeoCommandType.NODE_DELTA_COMMAND, firstByte( channel ) );
+        assertTrue( command instanceof Command.NodeCommand );
+        assertBeforeAndAfterEquals( (Command.NodeCommand) command, before, after );
+        assertEquals( 47, ((Command.NodeCommand) command).getAfter().getSecondaryUnitId() );
+    }
+
+    @Test
+    void shouldWriteFullAfterRecordWhenNotDeltaEncoding() throws IOException
+    {
+        // Given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        NodeRecord before = new NodeRecord( 42 ).initialize( true, 99, false, 33, 66 );
+        NodeRecord after = new NodeRecord( 42 ).initialize( true, 100, true, 33, 66 );
+        new Command.NodeCommand( before, after ).serialize( channel );
+
+        // When
+        BaseCommandReader reader = createReader();
+        Command command = reader.read( channel );
+
+        // Then
+        assertEquals( NeoCommandType.NODE_COMMAND, firstByte( channel ) );
+        assertBeforeAndAfterEquals( (Command.NodeCommand) command, before, after );
+    }
+
+    @Test
+    void shouldWriteAndReadRelationshipUpdateAsDelta() throws IOException
+    {
+        // Given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        RelationshipRecord before = new RelationshipRecord( 42 );
+        before.initialize( true, 0, 1, 2, 3, 4, 5, 6, 7, true, true );
+        RelationshipRecord after = new RelationshipRecord( 42 );
+        after.initialize( true, 0, 1, 2, 3, 4, 15, 6, 17, true, false );
+        after.setSecondaryUnitIdOnCreate( 47 );
+        new Command.RelationshipCommand( before, after, true ).serialize( channel );
+        int deltaSize = channel.writerPosition();
+        channel.reset();
+        new Command.RelationshipCommand( before, before, true ).serialize( channel );
+        int unchangedSize = channel.writerPosition();
+
+        // When
+        channel.reset();
+        new Command.RelationshipCommand( before, after, true ).serialize( channel );
+        BaseCommandReader reader = createReader();
+        Command command = reader.read( channel );
+
+        // Then
+        assertEquals( NeoCommandType.REL_DELTA_COMMAND, firstByte( channel ) );
+        assertEquals( unchangedSize + 3 * Long.BYTES, deltaSize );
+        assertTrue( command instanceof Command.RelationshipCommand );
+        assertBeforeAndAfterEquals( (Command.RelationshipCommand) command, before, after );
+    }
+
+    @Test
+    void shouldWriteAndReadPropertyUpdateAsDeltaOfChangedBlocks() throws IOException
+    {
+        // Given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        PropertyRecord before = new PropertyRecord( 1 );
+        before.setNodeId( 12 );
+        before.initialize( true, 5, 6 );
+        before.addPropertyBlock( intBlock( 1, 10 ) );
+        before.addPropertyBlock( intBlock( 2, 20 ) );
+        before.addPropertyBlock( intBlock( 3, 30 ) );
+        PropertyRecord after = new PropertyRecord( 1 );
+        after.setNodeId( 12 );
+        after.initialize( true, 5, 6 );
+        after.addPropertyBlock( intBlock( 1, 10 ) );
+        after.addPropertyBlock( intBlock( 3, 31 ) );
+        new Command.PropertyCommand( before, after, true ).serialize( channel );
+        int deltaSize = channel.writerPosition();
+        channel.reset();
+        new Command.PropertyCommand( after, after, true ).serialize( channel );
+        int unchangedSize = channel.writerPosition();
+
+        // When
+        channel.reset();
+        new Command.PropertyCommand( before, after, true ).serialize( channel );
+        BaseCommandReader reader = createReader();
+        Command command = reader.read( channel );
+
+        // Then
+        assertEquals( NeoCommandType.PROP_DELTA_COMMAND, firstByte( channel ) );
+        // the before record has one more block, and the changed block is written in full instead of as a one byte reference
+        int blockSize = 1 + Long.BYTES + Integer.BYTES;
+        assertEquals( unchangedSize + blockSize + blockSize - 1, deltaSize );
+        assertTrue( command instanceof Command.PropertyCommand );
+        Command.PropertyCommand propertyCommand = (Command.PropertyCommand) command;
+        assertBeforeAndAfterEquals( propertyCommand, before, after );
+        assertThat( propertyCommand.getAfter() ).containsExactly( intBlock( 1, 10 ), intBlock( 3, 31 ) );
+        assertEquals( 12, propertyCommand.getAfter().getNodeId() );
+    }
+
     @Test
     void readPropertyCommandWithSecondaryUnit() throws IOException
     {
@@ -518,6 +633,19 @@ class PhysicalLogCommandReaderV4_0Test
         return record;
     }
 
+    private static PropertyBlock intBlock( int key, int value )
+    {
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, key, Values.intValue( value ), null, null, true, NULL, INSTANCE );
+        return block;
+    }
+
+    private static byte firstByte( InMemoryClosableChannel channel ) throws IOException
+    {
+        channel.positionReader( 0 );
+        return channel.get();
+    }
+
     private BaseCommandReader createReader()
     {
         return new PhysicalLogCommandReaderV4_0();
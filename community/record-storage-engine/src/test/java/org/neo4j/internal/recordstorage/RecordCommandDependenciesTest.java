@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.internal.recordstorage.Command.LabelTokenCommand;
+import org.neo4j.internal.recordstorage.Command.NodeCommand;
+import org.neo4j.internal.recordstorage.Command.NodeCountsCommand;
+import org.neo4j.internal.recordstorage.Command.PropertyCommand;
+import org.neo4j.internal.recordstorage.Command.RelationshipCommand;
+import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.internal.recordstorage.RecordCommandDependencies.INSTANCE;
+
+class RecordCommandDependenciesTest
+{
+    @Test
+    void commandsForDifferentRecordsMustNotShareDependencies()
+    {
+        MutableLongSet node = dependencies( new NodeCommand( new NodeRecord( 5 ), new NodeRecord( 5 ) ) );
+        MutableLongSet otherNode = dependencies( new NodeCommand( new NodeRecord( 6 ), new NodeRecord( 6 ) ) );
+        MutableLongSet relationship = dependencies( new RelationshipCommand( new RelationshipRecord( 5 ), new RelationshipRecord( 5 ) ) );
+
+        assertThat( node.noneSatisfy( otherNode::contains ) ).isTrue();
+        assertThat( node.noneSatisfy( relationship::contains ) ).isTrue();
+    }
+
+    @Test
+    void propertyCommandMustDependOnOwningEntity()
+    {
+        PropertyRecord before = new PropertyRecord( 42 );
+        before.setNodeId( 5 );
+        PropertyRecord after = new PropertyRecord( 42 );
+        after.setNodeId( 5 );
+
+        MutableLongSet property = dependencies( new PropertyCommand( before, after ) );
+        MutableLongSet node = dependencies( new NodeCommand( new NodeRecord( 5 ), new NodeRecord( 5 ) ) );
+
+        assertThat( property.containsAll( node ) ).isTrue();
+    }
+
+    @Test
+    void countsCommandsMustHaveNoDependencies()
+    {
+        MutableLongSet dependencies = new LongHashSet();
+        assertTrue( INSTANCE.visitDependencies( new NodeCountsCommand( 1, 10 ), dependencies::add ) );
+        assertThat( dependencies.isEmpty() ).isTrue();
+    }
+
+    @Test
+    void tokenCommandsMustBeAppliedInIsolation()
+    {
+        LabelTokenCommand command = new LabelTokenCommand( new LabelTokenRecord( 1 ), new LabelTokenRecord( 1 ) );
+        assertFalse( INSTANCE.visitDependencies( command, new LongHashSet()::add ) );
+    }
+
+    private static MutableLongSet dependencies( StorageCommand command )
+    {
+        MutableLongSet dependencies = new LongHashSet();
+        assertTrue( INSTANCE.visitDependencies( command, dependencies::add ) );
+        return dependencies;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Tells which parts of a storage a {@link StorageCommand} touches. Two transactions whose commands touch disjoint sets of dependencies
+ * can be applied in any order, whereas transactions sharing a dependency must be applied in the order they were committed.
+ * <p>
+ * Dependencies are opaque {@code long} keys, which only have to be unique within the storage engine that produced them.
+ */
+@FunctionalInterface
+public interface CommandDependencies
+{
+    /**
+     * Dependencies for a storage that can not tell which parts of it a command touches, meaning that every transaction must be applied in isolation.
+     */
+    CommandDependencies ISOLATED = ( command, dependencies ) -> false;
+
+    /**
+     * Reports the dependencies of the given command.
+     *
+     * @param command the {@link StorageCommand} to report dependencies for.
+     * @param dependencies receives the dependency keys of the command.
+     * @return {@code true} if all dependencies of the command were reported, or {@code false} if the command affects the storage in a way that can
+     * not be expressed as dependencies, e.g. schema or token changes, in which case the transaction containing it must be applied in isolation.
+     */
+    boolean visitDependencies( StorageCommand command, LongConsumer dependencies );
+}
@@ -113,6 +113,16 @@ public interface StorageEngine extends Lifecycle
      */
     void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception;
 
+    /**
+     * @return {@link CommandDependencies} which can tell which parts of this storage a {@link StorageCommand} touches, so that transactions
+     * touching disjoint parts of the storage can be {@link #apply(CommandsToApply, TransactionApplicationMode) applied} in parallel,
+     * f.ex. during recovery. Storage engines that cannot tell this make every transaction apply in isolation.
+     */
+    default CommandDependencies commandDependencies()
+    {
+        return CommandDependencies.ISOLATED;
+    }
+
     /**
      * Flushes and forces all changes down to underlying storage. This is a blocking call and when it returns
      * all changes applied to this storage engine will be durable.
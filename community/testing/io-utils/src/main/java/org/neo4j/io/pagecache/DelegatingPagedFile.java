@@ -92,4 +92,10 @@ public class DelegatingPagedFile implements PagedFile
     {
         delegate.flushAndForce( limiter );
     }
+
+    @Override
+    public void flushWithoutForce( IOLimiter limiter ) throws IOException
+    {
+        delegate.flushWithoutForce( limiter );
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.fs.ReadableChannel;
+
+/**
+ * {@link ReadableChannel} over the decompressed commands of a {@link LogEntryCompressedCommands} entry.
+ */
+class ByteArrayReadableChannel implements ReadableChannel
+{
+    private final ByteBuffer buffer;
+
+    ByteArrayReadableChannel( byte[] bytes, int length )
+    {
+        this.buffer = ByteBuffer.wrap( bytes, 0, length );
+    }
+
+    @Override
+    public byte get() throws ReadPastEndException
+    {
+        try
+        {
+            return buffer.get();
+        }
+        catch ( BufferUnderflowException e )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public short getShort() throws ReadPastEndException
+    {
+        try
+        {
+            return buffer.getShort();
+        }
+        catch ( BufferUnderflowException e )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public int getInt() throws ReadPastEndException
+    {
+        try
+        {
+            return buffer.getInt();
+        }
+        catch ( BufferUnderflowException e )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public long getLong() throws ReadPastEndException
+    {
+        try
+        {
+            return buffer.getLong();
+        }
+        catch ( BufferUnderflowException e )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public float getFloat() throws ReadPastEndException
+    {
+        try
+        {
+            return buffer.getFloat();
+        }
+        catch ( BufferUnderflowException e )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public double getDouble() throws ReadPastEndException
+    {
+        try
+        {
+            return buffer.getDouble();
+        }
+        catch ( BufferUnderflowException e )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public void get( byte[] bytes, int length ) throws ReadPastEndException
+    {
+        try
+        {
+            buffer.get( bytes, 0, length );
+        }
+        catch ( BufferUnderflowException e )
+        {
+            throw ReadPastEndException.INSTANCE;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+
+/**
+ * Codecs that the commands of a transaction can be compressed with, in a {@link LogEntryTypeCodes#COMPRESSED_COMMANDS} log entry.
+ * The code of the codec is written into the log entry, so codecs can be added, but never removed or renumbered.
+ */
+public enum LogEntryCompression
+{
+    ZSTD( (byte) 1 )
+    {
+        @Override
+        public int maxCompressedLength( int length )
+        {
+            return (int) Zstd.compressBound( length );
+        }
+
+        @Override
+        public int compress( byte[] source, int sourceLength, byte[] target ) throws IOException
+        {
+            return (int) checkResult( Zstd.compressByteArray( target, 0, target.length, source, 0, sourceLength, COMPRESSION_LEVEL ) );
+        }
+
+        @Override
+        public void decompress( byte[] source, int sourceLength, byte[] target, int targetLength ) throws IOException
+        {
+            long decompressed = checkResult( Zstd.decompressByteArray( target, 0, targetLength, source, 0, sourceLength ) );
+            if ( decompressed != targetLength )
+            {
+                throw new IOException( "Expected " + targetLength + " bytes of decompressed commands, but got " + decompressed );
+            }
+        }
+
+        private long checkResult( long result ) throws IOException
+        {
+            if ( Zstd.isError( result ) )
+            {
+                throw new IOException( "Zstd failed: " + Zstd.getErrorName( result ) );
+            }
+            return result;
+        }
+    };
+
+    /**
+     * Largest amount of command data that is written compressed. Commands of larger transactions are written uncompressed,
+     * so that a reader never needs to allocate more than this, even when reading a corrupt entry.
+     */
+    public static final int MAX_UNCOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * Fast compression level, since transactions are compressed while holding the lock of the transaction log.
+     */
+    private static final int COMPRESSION_LEVEL = 1;
+
+    private final byte code;
+
+    LogEntryCompression( byte code )
+    {
+        this.code = code;
+    }
+
+    public byte code()
+    {
+        return code;
+    }
+
+    /**
+     * @param length number of bytes to compress.
+     * @return the size of the target array that is large enough to hold {@code length} bytes compressed with this codec.
+     */
+    public abstract int maxCompressedLength( int length );
+
+    /**
+     * @return the number of compressed bytes written to the start of {@code target}.
+     */
+    public abstract int compress( byte[] source, int sourceLength, byte[] target ) throws IOException;
+
+    public abstract void decompress( byte[] source, int sourceLength, byte[] target, int targetLength ) throws IOException;
+
+    public static LogEntryCompression forCode( byte code )
+    {
+        for ( LogEntryCompression compression : values() )
+        {
+            if ( compression.code == code )
+            {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException( "Unknown transaction log compression codec " + code );
+    }
+}
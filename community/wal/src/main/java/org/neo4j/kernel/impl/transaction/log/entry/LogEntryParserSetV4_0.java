@@ -20,10 +20,14 @@
 package org.neo4j.kernel.impl.transaction.log.entry;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.neo4j.io.fs.ReadPastEndException;
 import org.neo4j.io.fs.ReadableChecksumChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.storageengine.api.CommandReader;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.StorageCommand;
 
@@ -60,6 +64,58 @@ public class LogEntryParserSetV4_0 extends LogEntryParserSet.Adapter
                 return command == null ? null : new LogEntryCommand( version, command );
             }
         } );
+        register( new LogEntryParser.Adapter( LogEntryTypeCodes.COMPRESSED_COMMANDS )
+        {
+            @Override
+            public LogEntry parse( byte version, ReadableChecksumChannel channel, LogPositionMarker marker, CommandReaderFactory commandReaderFactory )
+                    throws IOException
+            {
+                LogEntryCompression compression = LogEntryCompression.forCode( channel.get() );
+                int numberOfCommands = channel.getInt();
+                int uncompressedLength = channel.getInt();
+                int compressedLength = channel.getInt();
+                // the lengths are used to allocate buffers, so check them before trusting them
+                if ( uncompressedLength < 0 || uncompressedLength > LogEntryCompression.MAX_UNCOMPRESSED_LENGTH )
+                {
+                    throw new IOException( "Invalid length " + uncompressedLength + " of decompressed commands, the maximum is " +
+                            LogEntryCompression.MAX_UNCOMPRESSED_LENGTH );
+                }
+                if ( compressedLength < 0 || compressedLength > compression.maxCompressedLength( uncompressedLength ) )
+                {
+                    throw new IOException( "Invalid length " + compressedLength + " of compressed commands, that decompress into " +
+                            uncompressedLength + " bytes" );
+                }
+                if ( numberOfCommands < 0 || numberOfCommands > uncompressedLength )
+                {
+                    throw new IOException( "Invalid number of compressed commands " + numberOfCommands + " in " + uncompressedLength + " bytes" );
+                }
+                byte[] compressed = new byte[compressedLength];
+                channel.get( compressed, compressedLength );
+                byte[] uncompressed = new byte[uncompressedLength];
+                compression.decompress( compressed, compressedLength, uncompressed, uncompressedLength );
+
+                CommandReader commandReader = commandReaderFactory.get( version );
+                List<LogEntryCommand> commands = new ArrayList<>( numberOfCommands );
+                try ( ByteArrayReadableChannel commandChannel = new ByteArrayReadableChannel( uncompressed, uncompressedLength ) )
+                {
+                    for ( int i = 0; i < numberOfCommands; i++ )
+                    {
+                        StorageCommand command = commandReader.read( commandChannel );
+                        if ( command == null )
+                        {
+                            throw new IOException( "Unable to read compressed command " + i + " of " + numberOfCommands );
+                        }
+                        commands.add( new LogEntryCommand( version, command ) );
+                    }
+                }
+                catch ( ReadPastEndException e )
+                {
+                    // the compressed entry was read in full, so this is not the end of the log, but a broken entry
+                    throw new IOException( "Compressed commands are shorter than their " + numberOfCommands + " commands", e );
+                }
+                return new LogEntryCompressedCommands( version, commands );
+            }
+        } );
         register( new LogEntryParser.Adapter( LogEntryTypeCodes.TX_COMMIT )
         {
             @Override
@@ -20,6 +20,8 @@
 package org.neo4j.kernel.impl.transaction.log.entry;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import org.neo4j.io.fs.PositionableChannel;
 import org.neo4j.io.fs.ReadPastEndException;
@@ -45,6 +47,9 @@ public class VersionAwareLogEntryReader implements LogEntryReader
     private final boolean verifyChecksumChain;
     private LogEntryParserSet parserSet = LogEntryVersion.LATEST;
     private int lastTxChecksum = BASE_TX_CHECKSUM;
+    private final Deque<LogEntryCommand> pendingCommands = new ArrayDeque<>();
+    private final LogPositionMarker pendingCommandsEnd = new LogPositionMarker();
+    private final LogPositionMarker currentPosition = new LogPositionMarker();
 
     public VersionAwareLogEntryReader( CommandReaderFactory commandReaderFactory )
     {
@@ -62,6 +67,17 @@ public class VersionAwareLogEntryReader implements LogEntryReader
     @Override
     public LogEntry readLogEntry( ReadableClosablePositionAwareChecksumChannel channel ) throws IOException
     {
+        if ( !pendingCommands.isEmpty() )
+        {
+            // the pending commands belong to the compressed entry just before the current position, unless the channel has been repositioned
+            channel.getCurrentPosition( currentPosition );
+            if ( currentPosition.getLogVersion() == pendingCommandsEnd.getLogVersion() &&
+                    currentPosition.getByteOffset() == pendingCommandsEnd.getByteOffset() )
+            {
+                return pendingCommands.poll();
+            }
+            pendingCommands.clear();
+        }
         try
         {
             while ( true )
@@ -115,6 +131,18 @@ public class VersionAwareLogEntryReader implements LogEntryReader
                     throw new IOException( e );
                 }
 
+                if ( entry instanceof LogEntryCompressedCommands )
+                {
+                    // hand out the compressed commands one by one, like the command entries of an uncompressed transaction
+                    pendingCommands.addAll( ((LogEntryCompressedCommands) entry).getCommands() );
+                    channel.getCurrentPosition( pendingCommandsEnd );
+                    entry = pendingCommands.poll();
+                    if ( entry == null )
+                    {
+                        continue;
+                    }
+                }
+
                 verifyChecksumChain( entry );
                 return entry;
             }